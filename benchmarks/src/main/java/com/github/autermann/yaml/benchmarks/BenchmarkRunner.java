@@ -0,0 +1,70 @@
+/*
+ * Copyright 2013-2015 Christian Autermann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.autermann.yaml.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks with the GC and allocation profiler and writes the
+ * results as JSON. Accepts the same arguments as {@link org.openjdk.jmh.Main};
+ * unless given otherwise, the results are written to {@value #RESULT_FILE}.
+ *
+ * @author Christian Autermann
+ */
+public final class BenchmarkRunner {
+
+    /**
+     * The default result file.
+     */
+    private static final String RESULT_FILE = "jmh-result.json";
+
+    /**
+     * Private constructor for utility class.
+     */
+    private BenchmarkRunner() {
+    }
+
+    /**
+     * Runs the benchmarks.
+     *
+     * @param args the JMH command line arguments
+     *
+     * @throws RunnerException            if the benchmarks fail
+     * @throws CommandLineOptionException if the arguments are invalid
+     */
+    public static void main(String[] args)
+            throws RunnerException, CommandLineOptionException {
+        CommandLineOptions cmd = new CommandLineOptions(args);
+        ChainedOptionsBuilder options = new OptionsBuilder().parent(cmd);
+        if (!cmd.getResultFormat().hasValue()) {
+            options.resultFormat(ResultFormatType.JSON);
+        }
+        if (!cmd.getResult().hasValue()) {
+            options.result(RESULT_FILE);
+        }
+        if (cmd.getProfilers().isEmpty()) {
+            options.addProfiler(GCProfiler.class);
+        }
+        new Runner(options.build()).run();
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2013-2015 Christian Autermann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.autermann.yaml.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.github.autermann.yaml.YamlNodeFactory;
+import com.github.autermann.yaml.nodes.YamlMapNode;
+import com.github.autermann.yaml.nodes.YamlSeqNode;
+
+/**
+ * Benchmarks building trees through the {@link YamlNodeFactory}.
+ *
+ * @author Christian Autermann
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConstructionBenchmark {
+
+    @Param({ "10", "1000" })
+    private int size;
+
+    private YamlNodeFactory factory;
+
+    private String[] keys;
+
+    @Setup
+    public void setup() {
+        factory = YamlNodeFactory.createDefault();
+        keys = new String[size];
+        for (int i = 0; i < size; ++i) {
+            keys[i] = "key-" + i;
+        }
+    }
+
+    @Benchmark
+    public void scalars(Blackhole blackhole) {
+        for (int i = 0; i < size; ++i) {
+            blackhole.consume(factory.intNode(i));
+            blackhole.consume(factory.textNode(keys[i]));
+            blackhole.consume(factory.booleanNode(i % 2 == 0));
+        }
+    }
+
+    @Benchmark
+    public YamlMapNode mapPut() {
+        YamlMapNode node = factory.mapNode();
+        for (int i = 0; i < size; ++i) {
+            node.put(keys[i], i);
+        }
+        return node;
+    }
+
+    @Benchmark
+    public YamlSeqNode sequenceAdd() {
+        YamlSeqNode node = factory.sequenceNode();
+        for (int i = 0; i < size; ++i) {
+            node.add(i);
+        }
+        return node;
+    }
+}
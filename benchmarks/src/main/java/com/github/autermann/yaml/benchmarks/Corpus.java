@@ -0,0 +1,179 @@
+/*
+ * Copyright 2013-2015 Christian Autermann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.autermann.yaml.benchmarks;
+
+import java.util.Random;
+
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+
+import com.github.autermann.yaml.YamlNode;
+import com.github.autermann.yaml.YamlNodeFactory;
+import com.github.autermann.yaml.nodes.YamlMapNode;
+import com.github.autermann.yaml.nodes.YamlPairsNode;
+import com.github.autermann.yaml.nodes.YamlSeqNode;
+
+/**
+ * Synthetic documents modelled after typical YAML files. All corpora are
+ * generated from a fixed seed, so every run uses the same documents.
+ *
+ * @author Christian Autermann
+ */
+public enum Corpus {
+    /**
+     * A configuration file with a few hundred mostly scalar settings grouped
+     * in shallow sections.
+     */
+    FLAT_CONFIG {
+        @Override
+        public YamlNode create(YamlNodeFactory factory, Random random) {
+            YamlMapNode root = factory.orderedMapNode();
+            for (int section = 0; section < 20; ++section) {
+                YamlMapNode settings = root.putOrderedMap("section" + section);
+                for (int i = 0; i < 15; ++i) {
+                    switch (i % 5) {
+                        case 0:
+                            settings.put("enabled" + i, random.nextBoolean());
+                            break;
+                        case 1:
+                            settings.put("port" + i, 1024 + random.nextInt(60000));
+                            break;
+                        case 2:
+                            settings.put("ratio" + i, random.nextDouble());
+                            break;
+                        case 3:
+                            settings.put("host" + i, "host-" + random.nextInt(100) + ".example.org");
+                            break;
+                        default:
+                            settings.putNull("unset" + i);
+                    }
+                }
+            }
+            return root;
+        }
+    },
+    /**
+     * A document nested forty levels deep, just below the default nesting
+     * limit of the loader, with small containers on every level.
+     */
+    DEEP_NESTING {
+        @Override
+        public YamlNode create(YamlNodeFactory factory, Random random) {
+            YamlMapNode root = factory.mapNode();
+            YamlMapNode current = root;
+            for (int depth = 0; depth < 40; ++depth) {
+                current.put("depth", depth);
+                current.putSequence("values")
+                        .add(random.nextInt()).add("level-" + depth);
+                current = current.putMap("child");
+            }
+            return root;
+        }
+    },
+    /**
+     * A single mapping with ten thousand entries.
+     */
+    WIDE_MAP {
+        @Override
+        public YamlNode create(YamlNodeFactory factory, Random random) {
+            YamlMapNode root = factory.mapNode();
+            for (int i = 0; i < 10000; ++i) {
+                root.put("key-" + i, random.nextLong());
+            }
+            return root;
+        }
+    },
+    /**
+     * A sequence of large {@code !!binary} blobs.
+     */
+    BINARY_BLOBS {
+        @Override
+        public YamlNode create(YamlNodeFactory factory, Random random) {
+            YamlSeqNode root = factory.sequenceNode();
+            for (int i = 0; i < 16; ++i) {
+                byte[] blob = new byte[64 * 1024];
+                random.nextBytes(blob);
+                root.addMap().put("name", "blob-" + i).put("data", blob);
+            }
+            return root;
+        }
+    },
+    /**
+     * A log of records each carrying a {@code !!timestamp}.
+     */
+    TIMESTAMP_LOG {
+        @Override
+        public YamlNode create(YamlNodeFactory factory, Random random) {
+            YamlSeqNode root = factory.sequenceNode();
+            DateTime time = new DateTime(2015, 1, 1, 0, 0, DateTimeZone.UTC);
+            for (int i = 0; i < 2000; ++i) {
+                time = time.plusMillis(random.nextInt(10000));
+                root.addMap()
+                        .put("time", time)
+                        .put("level", LEVELS[random.nextInt(LEVELS.length)])
+                        .put("message", "event " + i);
+            }
+            return root;
+        }
+    },
+    /**
+     * {@code !!pairs} with many repeated keys.
+     */
+    PAIRS_HEAVY {
+        @Override
+        public YamlNode create(YamlNodeFactory factory, Random random) {
+            YamlSeqNode root = factory.sequenceNode();
+            for (int i = 0; i < 200; ++i) {
+                YamlPairsNode pairs = root.addPairs();
+                for (int j = 0; j < 50; ++j) {
+                    pairs.put("key-" + random.nextInt(10), random.nextInt(1000));
+                }
+            }
+            return root;
+        }
+    };
+
+    /**
+     * The log levels used by {@link #TIMESTAMP_LOG}.
+     */
+    private static final String[] LEVELS = { "DEBUG", "INFO", "WARN", "ERROR" };
+
+    /**
+     * The seed used to generate the corpora.
+     */
+    private static final long SEED = 42;
+
+    /**
+     * Creates the document of this corpus.
+     *
+     * @param factory the node factory
+     *
+     * @return the document
+     */
+    public YamlNode create(YamlNodeFactory factory) {
+        return create(factory, new Random(SEED));
+    }
+
+    /**
+     * Creates the document of this corpus.
+     *
+     * @param factory the node factory
+     * @param random  the source of randomness
+     *
+     * @return the document
+     */
+    protected abstract YamlNode create(YamlNodeFactory factory, Random random);
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2013-2015 Christian Autermann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.autermann.yaml.benchmarks;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.autermann.yaml.Yaml;
+import com.github.autermann.yaml.YamlNode;
+import com.github.autermann.yaml.YamlNodeFactory;
+import com.github.autermann.yaml.stream.YamlNodeLoader;
+import com.github.autermann.yaml.stream.YamlWriter;
+
+/**
+ * Benchmarks loading and dumping the documents of every {@link Corpus}.
+ *
+ * @author Christian Autermann
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CorpusBenchmark {
+
+    @Param
+    private Corpus corpus;
+
+    private YamlNode node;
+
+    private String document;
+
+    private Yaml yaml;
+
+    private YamlNodeLoader loader;
+
+    @Setup
+    public void setup() {
+        YamlNodeFactory factory = YamlNodeFactory.createDefault();
+        yaml = new Yaml(factory);
+        loader = new YamlNodeLoader(factory);
+        node = corpus.create(factory);
+        document = yaml.dump(node);
+    }
+
+    @Benchmark
+    public YamlNode load() {
+        return yaml.load(document);
+    }
+
+    @Benchmark
+    public YamlNode loadEvents() {
+        return loader.load(document);
+    }
+
+    @Benchmark
+    public String dump() {
+        return yaml.dump(node);
+    }
+
+    @Benchmark
+    public String write() throws IOException {
+        StringWriter writer = new StringWriter(document.length());
+        try (YamlWriter yamlWriter = new YamlWriter(writer)) {
+            yamlWriter.writeNode(node);
+        }
+        return writer.toString();
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2013-2015 Christian Autermann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.autermann.yaml.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.autermann.yaml.YamlNodeFactory;
+import com.github.autermann.yaml.nodes.YamlMapNode;
+import com.github.autermann.yaml.nodes.YamlSetNode;
+
+/**
+ * Benchmarks hashing of container nodes, e.g. when they are used as elements
+ * of a {@link YamlSetNode}.
+ *
+ * @author Christian Autermann
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HashCodeBenchmark {
+
+    @Param({ "10000" })
+    private int size;
+
+    private YamlNodeFactory factory;
+
+    private YamlMapNode[] elements;
+
+    private YamlSetNode set;
+
+    private int index;
+
+    @Setup
+    public void setup() {
+        factory = YamlNodeFactory.createDefault();
+        elements = new YamlMapNode[size];
+        for (int i = 0; i < size; ++i) {
+            YamlMapNode element = factory.mapNode();
+            element.put("id", i).put("name", "element-" + i);
+            element.putSequence("tags").add("a").add("b").add(i);
+            elements[i] = element;
+        }
+        set = build();
+    }
+
+    private YamlSetNode build() {
+        YamlSetNode node = factory.setNode();
+        for (YamlMapNode element : elements) {
+            node.add(element);
+        }
+        return node;
+    }
+
+    @Benchmark
+    public int hashCodeOfSet() {
+        return set.hashCode();
+    }
+
+    @Benchmark
+    public boolean contains() {
+        YamlMapNode element = elements[index];
+        index = (index + 1) % elements.length;
+        return set.value().contains(element);
+    }
+
+    @Benchmark
+    public YamlSetNode buildSet() {
+        return build();
+    }
+}
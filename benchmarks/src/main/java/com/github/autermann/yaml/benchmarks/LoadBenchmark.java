@@ -0,0 +1,101 @@
+/*
+ * Copyright 2013-2015 Christian Autermann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.autermann.yaml.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.yaml.snakeyaml.DumperOptions;
+
+import com.github.autermann.yaml.Yaml;
+import com.github.autermann.yaml.YamlNode;
+import com.github.autermann.yaml.YamlNodeFactory;
+import com.github.autermann.yaml.nodes.YamlSeqNode;
+import com.github.autermann.yaml.stream.YamlNodeLoader;
+
+/**
+ * Benchmarks loading documents using the composing {@link Yaml}, the event
+ * based {@link YamlNodeLoader} and the lazy {@link Yaml}.
+ *
+ * @author Christian Autermann
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LoadBenchmark {
+
+    @Param({ "10", "1000" })
+    private int size;
+
+    private String document;
+
+    private Yaml yaml;
+
+    private YamlNodeLoader loader;
+
+    private Yaml lazy;
+
+    @Setup
+    public void setup() {
+        YamlNodeFactory factory = YamlNodeFactory.createDefault();
+        YamlSeqNode root = factory.sequenceNode();
+        for (int i = 0; i < size; ++i) {
+            root.add(factory.mapNode()
+                    .put("id", i)
+                    .put("name", "name-" + i)
+                    .put("value", i * 0.25)
+                    .put("enabled", i % 2 == 0)
+                    .put("tags", factory.sequenceNode().add("a").add("b")));
+        }
+        yaml = new Yaml(factory);
+        loader = new YamlNodeLoader(factory);
+        lazy = new Yaml(new DumperOptions(), factory, true);
+        document = yaml.dump(root);
+    }
+
+    @Benchmark
+    public YamlNode compose() {
+        return yaml.load(document);
+    }
+
+    @Benchmark
+    public YamlNode events() {
+        return loader.load(document);
+    }
+
+    @Benchmark
+    public YamlNode composeFirstLookup() {
+        return yaml.load(document).path(0).path("name");
+    }
+
+    @Benchmark
+    public YamlNode lazyFirstLookup() {
+        return lazy.load(document).path(0).path("name");
+    }
+}
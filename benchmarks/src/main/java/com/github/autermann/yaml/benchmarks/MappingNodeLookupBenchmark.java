@@ -0,0 +1,111 @@
+/*
+ * Copyright 2013-2015 Christian Autermann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.autermann.yaml.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.autermann.yaml.YamlNode;
+import com.github.autermann.yaml.YamlNodeFactory;
+import com.github.autermann.yaml.nodes.YamlMappingNode;
+
+/**
+ * Benchmarks {@code String} key lookups on {@link YamlMappingNode}s. Run with
+ * {@code -prof gc} to see the allocation rate of the lookups.
+ *
+ * @author Christian Autermann
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MappingNodeLookupBenchmark {
+
+    @Param({ "map", "omap", "pairs" })
+    private String type;
+
+    @Param({ "8", "1024" })
+    private int size;
+
+    private YamlMappingNode<?> node;
+
+    private String[] keys;
+
+    private int index;
+
+    @Setup
+    public void setup() {
+        YamlNodeFactory factory = YamlNodeFactory.createDefault();
+        switch (type) {
+            case "map":
+                node = factory.mapNode();
+                break;
+            case "omap":
+                node = factory.orderedMapNode();
+                break;
+            case "pairs":
+                node = factory.pairsNode();
+                break;
+            default:
+                throw new IllegalArgumentException(type);
+        }
+        keys = new String[size];
+        for (int i = 0; i < size; ++i) {
+            // do not share the String instances with the mapping
+            keys[i] = new String("key" + i);
+            node.put("key" + i, i);
+        }
+    }
+
+    private String nextKey() {
+        String key = keys[index];
+        index = (index + 1) % keys.length;
+        return key;
+    }
+
+    @Benchmark
+    public boolean has() {
+        return node.has(nextKey());
+    }
+
+    @Benchmark
+    public boolean hasNotNull() {
+        return node.hasNotNull(nextKey());
+    }
+
+    @Benchmark
+    public YamlNode get() {
+        return node.get(nextKey());
+    }
+
+    @Benchmark
+    public YamlNode path() {
+        return node.path(nextKey());
+    }
+}
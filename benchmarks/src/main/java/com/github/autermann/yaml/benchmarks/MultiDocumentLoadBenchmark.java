@@ -0,0 +1,94 @@
+/*
+ * Copyright 2013-2015 Christian Autermann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.autermann.yaml.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.github.autermann.yaml.Yaml;
+import com.github.autermann.yaml.YamlNode;
+import com.github.autermann.yaml.YamlNodeFactory;
+import com.github.autermann.yaml.YamlPool;
+
+/**
+ * Benchmarks loading multi-document streams sequentially using
+ * {@link Yaml#loadAll(String)} and in parallel using
+ * {@link YamlPool#loadParallel(String, boolean)}.
+ *
+ * @author Christian Autermann
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MultiDocumentLoadBenchmark {
+
+    @Param({ "10000" })
+    private int documents;
+
+    private String stream;
+
+    private Yaml yaml;
+
+    private YamlPool pool;
+
+    @Setup
+    public void setup() {
+        YamlNodeFactory factory = YamlNodeFactory.createDefault();
+        yaml = new Yaml(factory);
+        pool = new YamlPool();
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < documents; ++i) {
+            builder.append("---\n").append(yaml.dump(factory.mapNode()
+                    .put("id", i)
+                    .put("name", "name-" + i)
+                    .put("value", i * 0.25)
+                    .put("tags", factory.sequenceNode().add("a").add("b"))));
+        }
+        stream = builder.toString();
+    }
+
+    @Benchmark
+    public void sequential(Blackhole blackhole) {
+        for (YamlNode node : yaml.loadAll(stream)) {
+            blackhole.consume(node);
+        }
+    }
+
+    @Benchmark
+    public void parallelOrdered(Blackhole blackhole) {
+        pool.loadParallel(stream, true).forEachOrdered(blackhole::consume);
+    }
+
+    @Benchmark
+    public void parallelUnordered(Blackhole blackhole) {
+        pool.loadParallel(stream, false).forEach(blackhole::consume);
+    }
+}
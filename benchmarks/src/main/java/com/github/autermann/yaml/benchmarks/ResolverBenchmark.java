@@ -0,0 +1,73 @@
+/*
+ * Copyright 2013-2015 Christian Autermann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.autermann.yaml.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.yaml.snakeyaml.nodes.NodeId;
+import org.yaml.snakeyaml.resolver.Resolver;
+
+import com.github.autermann.yaml.construct.YamlResolver;
+
+/**
+ * Benchmarks the implicit tag resolution of plain scalars by the regular
+ * expression based {@link Resolver} and the {@link YamlResolver}.
+ *
+ * @author Christian Autermann
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResolverBenchmark {
+    private static final String[] SCALARS = {
+        "name", "value-1", "true", "no", "null", "~", "0", "42", "-17",
+        "1_000_000", "0x1F", "3.14159", "-1.5e10", ".inf", "190:20:30",
+        "2001-12-14t21:59:43.10-05:00", "2001-12-14", "hello world",
+        "0.0.0.0", "1.2.3"
+    };
+
+    @Param({ "regex", "yaml" })
+    private String resolver;
+
+    private Resolver instance;
+
+    @Setup
+    public void setup() {
+        instance = resolver.equals("regex") ? new Resolver() : new YamlResolver();
+    }
+
+    @Benchmark
+    public void resolve(Blackhole blackhole) {
+        for (String scalar : SCALARS) {
+            blackhole.consume(instance.resolve(NodeId.scalar, scalar, true));
+        }
+    }
+}
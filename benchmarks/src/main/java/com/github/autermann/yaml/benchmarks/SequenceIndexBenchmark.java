@@ -0,0 +1,105 @@
+/*
+ * Copyright 2013-2015 Christian Autermann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.autermann.yaml.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.autermann.yaml.YamlNode;
+import com.github.autermann.yaml.YamlNodeFactory;
+import com.github.autermann.yaml.nodes.YamlSequenceNode;
+
+/**
+ * Benchmarks indexed access on {@link YamlSequenceNode}s of different sizes.
+ *
+ * @author Christian Autermann
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SequenceIndexBenchmark {
+
+    @Param({ "seq", "set" })
+    private String type;
+
+    @Param({ "10", "1000", "100000", "1000000" })
+    private int size;
+
+    private YamlSequenceNode<?> node;
+
+    private int[] indices;
+
+    private int index;
+
+    @Setup
+    public void setup() {
+        YamlNodeFactory factory = YamlNodeFactory.createDefault();
+        switch (type) {
+            case "seq":
+                node = factory.sequenceNode();
+                break;
+            case "set":
+                node = factory.setNode();
+                break;
+            default:
+                throw new IllegalArgumentException(type);
+        }
+        for (int i = 0; i < size; ++i) {
+            node.add(i);
+        }
+        Random random = new Random(42);
+        indices = new int[1024];
+        for (int i = 0; i < indices.length; ++i) {
+            indices[i] = random.nextInt(size);
+        }
+    }
+
+    private int nextIndex() {
+        int i = indices[index];
+        index = (index + 1) % indices.length;
+        return i;
+    }
+
+    @Benchmark
+    public YamlNode path() {
+        return node.path(nextIndex());
+    }
+
+    @Benchmark
+    public YamlNode get() {
+        return node.get(nextIndex());
+    }
+
+    @Benchmark
+    public boolean has() {
+        return node.has(nextIndex());
+    }
+}
@@ -0,0 +1,213 @@
+/*
+ * Copyright 2013-2015 Christian Autermann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.autermann.yaml;
+
+import java.util.Objects;
+
+import com.github.autermann.yaml.nodes.YamlByteNode;
+import com.github.autermann.yaml.nodes.YamlIntegerNode;
+import com.github.autermann.yaml.nodes.YamlIntegralNode;
+import com.github.autermann.yaml.nodes.YamlLongNode;
+import com.github.autermann.yaml.nodes.YamlShortNode;
+import com.github.autermann.yaml.nodes.YamlTextNode;
+import com.github.autermann.yaml.util.DecimalPrecision;
+import com.google.common.base.Preconditions;
+
+/**
+ * {@link DefaultYamlNodeFactory} that shares scalar nodes instead of
+ * allocating a new node for every value. As scalar nodes are immutable, trees
+ * created by this factory may reference the same scalar node many times.
+ *
+ * Integral nodes with values between {@value #CACHE_LOW} and
+ * {@value #CACHE_HIGH} are preallocated. Short strings are interned in a
+ * bounded, direct mapped table: a string replaces whatever string occupied
+ * its slot before, so the table never grows and repeated values like
+ * enumerations or mapping keys are shared as long as they are used
+ * frequently.
+ *
+ * This factory is thread-safe.
+ *
+ * @author Christian Autermann
+ */
+public class CachingYamlNodeFactory extends DefaultYamlNodeFactory {
+    /**
+     * The lowest cached integral value.
+     */
+    public static final int CACHE_LOW = -128;
+    /**
+     * The highest cached integral value.
+     */
+    public static final int CACHE_HIGH = 1023;
+    /**
+     * The default size of the string interning table.
+     */
+    public static final int DEFAULT_TABLE_SIZE = 1024;
+    /**
+     * The default maximal length of interned strings.
+     */
+    public static final int DEFAULT_MAX_LENGTH = 32;
+    /**
+     * The cached {@link YamlByteNode}s.
+     */
+    private static final YamlByteNode[] BYTES
+            = new YamlByteNode[1 << Byte.SIZE];
+    /**
+     * The cached {@link YamlShortNode}s.
+     */
+    private static final YamlShortNode[] SHORTS
+            = new YamlShortNode[CACHE_HIGH - CACHE_LOW + 1];
+    /**
+     * The cached {@link YamlIntegerNode}s.
+     */
+    private static final YamlIntegerNode[] INTS
+            = new YamlIntegerNode[CACHE_HIGH - CACHE_LOW + 1];
+    /**
+     * The cached {@link YamlLongNode}s.
+     */
+    private static final YamlLongNode[] LONGS
+            = new YamlLongNode[CACHE_HIGH - CACHE_LOW + 1];
+
+    static {
+        for (int i = 0; i < BYTES.length; ++i) {
+            BYTES[i] = new YamlByteNode((byte) (i + Byte.MIN_VALUE));
+        }
+        for (int i = 0; i < INTS.length; ++i) {
+            SHORTS[i] = new YamlShortNode((short) (i + CACHE_LOW));
+            INTS[i] = new YamlIntegerNode(i + CACHE_LOW);
+            LONGS[i] = new YamlLongNode(i + CACHE_LOW);
+        }
+    }
+
+    /**
+     * The string interning table. Races between threads only cause cache
+     * misses, as {@link YamlTextNode}s are safely published by their final
+     * field.
+     */
+    private final YamlTextNode[] table;
+    /**
+     * The maximal length of interned strings.
+     */
+    private final int maxLength;
+
+    /**
+     * Creates a new {@code CachingYamlNodeFactory}.
+     *
+     * @param precision the precision
+     * @param tableSize the size of the string interning table, will be
+     *                  rounded up to the next power of two
+     * @param maxLength the maximal length of interned strings
+     */
+    public CachingYamlNodeFactory(DecimalPrecision precision,
+                                  int tableSize, int maxLength) {
+        super(precision);
+        Preconditions.checkArgument(tableSize > 0 && tableSize <= 1 << 30,
+                                    "invalid table size: %s", tableSize);
+        Preconditions.checkArgument(maxLength >= 0,
+                                    "invalid maximal length: %s", maxLength);
+        this.table = new YamlTextNode[tableSize == 1 ? 1
+                                      : Integer.highestOneBit(tableSize - 1) << 1];
+        this.maxLength = maxLength;
+    }
+
+    /**
+     * Creates a new {@code CachingYamlNodeFactory} with the specified
+     * precision and the default table size and maximal length.
+     *
+     * @param precision the precision
+     */
+    public CachingYamlNodeFactory(DecimalPrecision precision) {
+        this(precision, DEFAULT_TABLE_SIZE, DEFAULT_MAX_LENGTH);
+    }
+
+    /**
+     * Creates a new {@code CachingYamlNodeFactory} with the default precision
+     * {@link DecimalPrecision#BIG_DECIMAL}, table size and maximal length.
+     */
+    public CachingYamlNodeFactory() {
+        this(DecimalPrecision.BIG_DECIMAL);
+    }
+
+    @Override
+    public YamlTextNode createTextNode(String value) {
+        Objects.requireNonNull(value);
+        if (value.length() > maxLength) {
+            return super.createTextNode(value);
+        }
+        int hash = value.hashCode();
+        int slot = (hash ^ (hash >>> 16)) & (table.length - 1);
+        YamlTextNode node = table[slot];
+        if (node == null || !node.textValue().equals(value)) {
+            table[slot] = node = super.createTextNode(value);
+        }
+        return node;
+    }
+
+    @Override
+    public YamlIntegralNode byteNode(byte value) {
+        return BYTES[value - Byte.MIN_VALUE];
+    }
+
+    @Override
+    public YamlIntegralNode shortNode(short value) {
+        if (isCached(value)) {
+            return SHORTS[value - CACHE_LOW];
+        }
+        return super.shortNode(value);
+    }
+
+    @Override
+    public YamlIntegralNode intNode(int value) {
+        if (isCached(value)) {
+            return INTS[value - CACHE_LOW];
+        }
+        return super.intNode(value);
+    }
+
+    @Override
+    public YamlIntegralNode longNode(long value) {
+        if (isCached(value)) {
+            return LONGS[(int) value - CACHE_LOW];
+        }
+        return super.longNode(value);
+    }
+
+    /**
+     * Returns a {@code CachingYamlNodeFactory} with the same table size and
+     * maximal length, but the specified precision. The new factory has its
+     * own interning table.
+     *
+     * @param decimalPrecision the {@link DecimalPrecision}
+     *
+     * @return the new factory
+     */
+    @Override
+    public YamlNodeFactory withDecimalPrecision(
+            DecimalPrecision decimalPrecision) {
+        return new CachingYamlNodeFactory(decimalPrecision,
+                                          table.length, maxLength);
+    }
+
+    /**
+     * Checks if integral nodes for the specified value are preallocated.
+     *
+     * @param value the value
+     *
+     * @return if the value is cached
+     */
+    private static boolean isCached(long value) {
+        return value >= CACHE_LOW && value <= CACHE_HIGH;
+    }
+}
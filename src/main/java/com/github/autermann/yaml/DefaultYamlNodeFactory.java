@@ -145,6 +145,17 @@ public class DefaultYamlNodeFactory implements YamlNodeFactory {
         return new YamlSetNode(this);
     }
 
+    /**
+     * Returns {@code true}, as the nodes created by this factory are the
+     * ones compacted sequences store.
+     *
+     * @return {@code true}
+     */
+    @Override
+    public boolean supportsCompactSequences() {
+        return true;
+    }
+
     @Override
     public YamlDecimalNode createBigDecimalNode(BigDecimal value) {
         switch (getDecimalPrecision()) {
@@ -199,6 +210,7 @@ public class DefaultYamlNodeFactory implements YamlNodeFactory {
      *
      * @return the {@link DecimalPrecision}
      */
+    @Override
     public DecimalPrecision getDecimalPrecision() {
         return decimalPrecision;
     }
@@ -0,0 +1,160 @@
+/*
+ * Copyright 2013-2015 Christian Autermann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.autermann.yaml;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import org.yaml.snakeyaml.DumperOptions;
+
+/**
+ * Shared {@link Yaml} instances that are confined to the calling thread.
+ *
+ * Creating a {@link Yaml} registers all constructs and representers, which is
+ * considerably more expensive than dumping a small node. This class caches
+ * one instance per thread for the default options and for the most recently
+ * used {@link DumperOptions} instances. Options are looked up by identity,
+ * but as the representers copy some settings at construction, the settings of
+ * the options are compared on every lookup and a new instance is created if
+ * the options were modified since they have been used.
+ *
+ * The returned instances must not be passed to other threads.
+ *
+ * @author Christian Autermann
+ */
+public final class ThreadLocalYaml {
+    /**
+     * The maximal number of {@link DumperOptions} cached per thread.
+     */
+    private static final int MAX_CACHED_OPTIONS = 16;
+    /**
+     * The instances using default options.
+     */
+    private static final ThreadLocal<Yaml> DEFAULT
+            = ThreadLocal.withInitial(Yaml::new);
+    /**
+     * The instances using specific options.
+     */
+    private static final ThreadLocal<Map<DumperOptions, Entry>> CACHE
+            = ThreadLocal.withInitial(ThreadLocalYaml::createCache);
+
+    /**
+     * Private constructor for utility class.
+     */
+    private ThreadLocalYaml() {
+    }
+
+    /**
+     * Gets the {@link Yaml} of the calling thread using default
+     * {@link DumperOptions} and {@link YamlNodeFactory}.
+     *
+     * @return the {@link Yaml}
+     */
+    public static Yaml get() {
+        return DEFAULT.get();
+    }
+
+    /**
+     * Gets the {@link Yaml} of the calling thread using the supplied
+     * {@link DumperOptions} and the default {@link YamlNodeFactory}.
+     *
+     * @param options the dumper options
+     *
+     * @return the {@link Yaml}
+     */
+    public static Yaml get(DumperOptions options) {
+        Objects.requireNonNull(options);
+        Map<DumperOptions, Entry> cache = CACHE.get();
+        List<Object> settings = settings(options);
+        Entry entry = cache.get(options);
+        if (entry == null || !entry.settings.equals(settings)) {
+            entry = new Entry(settings, new Yaml(options));
+            cache.put(options, entry);
+        }
+        return entry.yaml;
+    }
+
+    /**
+     * Takes a snapshot of the settings of the supplied options.
+     *
+     * @param options the options
+     *
+     * @return the settings
+     */
+    private static List<Object> settings(DumperOptions options) {
+        Map<String, String> tags = options.getTags();
+        return Arrays.asList(options.getDefaultScalarStyle(),
+                             options.getDefaultFlowStyle(),
+                             options.getIndent(),
+                             options.getIndicatorIndent(),
+                             options.getIndentWithIndicator(),
+                             options.getVersion(),
+                             options.isCanonical(),
+                             options.isPrettyFlow(),
+                             options.getWidth(),
+                             options.getSplitLines(),
+                             options.getLineBreak(),
+                             options.isExplicitStart(),
+                             options.isExplicitEnd(),
+                             tags == null ? null : new HashMap<>(tags),
+                             options.isAllowUnicode(),
+                             options.isAllowReadOnlyProperties(),
+                             options.getTimeZone(),
+                             options.getAnchorGenerator(),
+                             options.getMaxSimpleKeyLength(),
+                             options.isProcessComments(),
+                             options.getNonPrintableStyle());
+    }
+
+    /**
+     * Creates a access ordered map evicting the least recently used entries.
+     *
+     * @return the map
+     */
+    private static Map<DumperOptions, Entry> createCache() {
+        return new LinkedHashMap<DumperOptions, Entry>(MAX_CACHED_OPTIONS, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<DumperOptions, Entry> eldest) {
+                return size() > MAX_CACHED_OPTIONS;
+            }
+        };
+    }
+
+    /**
+     * A cached {@link Yaml} together with the settings it was created with.
+     */
+    private static final class Entry {
+        private final List<Object> settings;
+        private final Yaml yaml;
+
+        /**
+         * Creates a new {@code Entry}.
+         *
+         * @param settings the settings
+         * @param yaml     the yaml
+         */
+        Entry(List<Object> settings, Yaml yaml) {
+            this.settings = settings;
+            this.yaml = yaml;
+        }
+    }
+}
@@ -15,12 +15,14 @@
  */
 package com.github.autermann.yaml;
 
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.Reader;
 import java.io.Writer;
 import java.nio.charset.Charset;
+import java.nio.file.Path;
 import java.util.Iterator;
 import java.util.Objects;
 import java.util.stream.Stream;
@@ -29,11 +31,22 @@ import java.util.stream.StreamSupport;
 import org.yaml.snakeyaml.DumperOptions;
 
 import com.github.autermann.yaml.construct.YamlNodeConstructor;
+import com.github.autermann.yaml.construct.YamlSymbolTable;
+import com.github.autermann.yaml.stream.MappedYamlFile;
+import com.google.common.collect.AbstractIterator;
 import com.google.common.collect.UnmodifiableIterator;
 
 /**
  * Replacement for {@link org.yaml.snakeyaml.Yaml}.
  *
+ * Instances of this class are <em>not</em> thread-safe: the SnakeYAML
+ * delegate keeps state while loading and dumping, so a single instance must
+ * not be used by multiple threads concurrently. Creating an instance is
+ * comparatively expensive, so instances should be reused; use one instance per
+ * thread, e.g. from {@link ThreadLocalYaml}, or synchronize on a shared one.
+ * The {@link YamlNodeFactory} and {@link DumperOptions} passed to the
+ * constructor are captured and should not be modified afterwards.
+ *
  * @author Christian Autermann
  */
 public class Yaml {
@@ -78,12 +91,57 @@ public class Yaml {
      * @param nodeFactory   the node factory
      */
     public Yaml(DumperOptions dumperOptions, YamlNodeFactory nodeFactory) {
+        this(dumperOptions, nodeFactory, false);
+    }
+
+    /**
+     * Creates a new {@link Yaml} using the supplied {@link YamlNodeFactory} and
+     * {@link DumperOptions}.
+     *
+     * If {@code lazy} is set, loaded mappings and sequences retain their
+     * SnakeYAML node and construct their children on first access. This
+     * speeds up loading large documents of which only a few parts are used,
+     * at the cost of retaining the node graph of the parts not yet accessed.
+     * Long numbers, timestamps and binary scalars additionally keep their
+     * source text and are converted on first access.
+     *
+     * @param dumperOptions the dumper options
+     * @param nodeFactory   the node factory
+     * @param lazy          if containers should be populated on first access
+     */
+    public Yaml(DumperOptions dumperOptions, YamlNodeFactory nodeFactory,
+                boolean lazy) {
+        this(dumperOptions, nodeFactory, lazy, null);
+    }
+
+    /**
+     * Creates a new {@link Yaml} using the supplied {@link YamlNodeFactory} and
+     * {@link DumperOptions}.
+     *
+     * If {@code symbols} is not {@code null}, text keys of loaded mappings are
+     * shared through it across all mappings and documents loaded by this
+     * instance. This saves memory for streams of many mappings with the same
+     * keys, e.g. the records of a large sequence.
+     *
+     * @param dumperOptions the dumper options
+     * @param nodeFactory   the node factory
+     * @param lazy          if containers should be populated on first access
+     * @param symbols       the table of shared mapping keys or {@code null}
+     *
+     * @see #Yaml(DumperOptions, YamlNodeFactory, boolean)
+     */
+    public Yaml(DumperOptions dumperOptions, YamlNodeFactory nodeFactory,
+                boolean lazy, YamlSymbolTable symbols) {
         Objects.requireNonNull(nodeFactory);
         Objects.requireNonNull(dumperOptions);
+        YamlNodeConstructor constructor
+                = new YamlNodeConstructor(nodeFactory, dumperOptions, lazy,
+                                          symbols);
         this.delegate = new org.yaml.snakeyaml.Yaml(
-                new YamlNodeConstructor(nodeFactory, dumperOptions),
+                constructor,
                 new YamlNodeRepresenter(dumperOptions),
-                dumperOptions);
+                dumperOptions,
+                constructor.getResolver());
     }
 
     /**
@@ -238,6 +296,22 @@ public class Yaml {
         return (YamlNode) getDelegate().load(io);
     }
 
+    /**
+     * Loads the file into a {@link YamlNode}. The file is memory mapped and
+     * decoded incrementally, the encoding is detected from the byte order
+     * mark.
+     *
+     * @param path the file
+     *
+     * @return the {@link YamlNode}
+     *
+     * @throws IOException if the file can not be mapped
+     * @see MappedYamlFile
+     */
+    public YamlNode load(Path path) throws IOException {
+        return load(MappedYamlFile.map(path).openStream());
+    }
+
     /**
      * Loads the string representations into {@link YamlNode}s.
      *
@@ -277,6 +351,33 @@ public class Yaml {
         return cast(getDelegate().loadAll(yaml));
     }
 
+    /**
+     * Loads the documents of the file into {@link YamlNode}s. The file is
+     * memory mapped and split into documents when this method is called;
+     * each document is decoded and loaded when it is requested.
+     *
+     * @param path the file
+     *
+     * @return the {@link YamlNode}s
+     *
+     * @throws IOException if the file can not be mapped
+     * @see MappedYamlFile
+     */
+    public Iterable<YamlNode> loadAll(Path path) throws IOException {
+        MappedYamlFile file = MappedYamlFile.map(path);
+        return () -> new AbstractIterator<YamlNode>() {
+            private int index;
+
+            @Override
+            protected YamlNode computeNext() {
+                if (index >= file.getDocumentCount()) {
+                    return endOfData();
+                }
+                return load(file.openDocument(index++));
+            }
+        };
+    }
+
     /**
      * Loads the string representations into {@link YamlNode}s.
      *
@@ -316,6 +417,20 @@ public class Yaml {
         return StreamSupport.stream(loadAll(yaml).spliterator(), false);
     }
 
+    /**
+     * Loads the documents of the file into {@link YamlNode}s.
+     *
+     * @param path the file
+     *
+     * @return the {@link YamlNode}s
+     *
+     * @throws IOException if the file can not be mapped
+     * @see #loadAll(Path)
+     */
+    public Stream<YamlNode> loadStream(Path path) throws IOException {
+        return StreamSupport.stream(loadAll(path).spliterator(), false);
+    }
+
     /**
      * Transforms a {@code Iterable<Object>} into a {@code Iterable<YamlNode>}.
      *
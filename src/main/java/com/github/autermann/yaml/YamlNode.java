@@ -15,10 +15,14 @@
  */
 package com.github.autermann.yaml;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.Writer;
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
 import java.util.Date;
 import java.util.Iterator;
 import java.util.Spliterator;
@@ -633,6 +637,35 @@ public interface YamlNode extends Iterable<YamlNode> {
         return null;
     }
 
+    /**
+     * Returns an {@code InputStream} over the binary value of this node or
+     * {@code null} if this is not a binary node. Nodes that hold their value
+     * in memory return a view of it; lazily loaded nodes may decode their
+     * source text while the stream is read.
+     *
+     * @return the {@code InputStream} or {@code null}
+     *
+     * @see #isBinary()
+     * @see #binaryValue()
+     */
+    default InputStream binaryStream() {
+        byte[] value = binaryValue();
+        return value == null ? null : new ByteArrayInputStream(value);
+    }
+
+    /**
+     * Returns a {@code ReadableByteChannel} over the binary value of this
+     * node or {@code null} if this is not a binary node.
+     *
+     * @return the {@code ReadableByteChannel} or {@code null}
+     *
+     * @see #binaryStream()
+     */
+    default ReadableByteChannel binaryChannel() {
+        InputStream stream = binaryStream();
+        return stream == null ? null : Channels.newChannel(stream);
+    }
+
     /**
      * Tries to convert the value of this node to a {@code double}. Returns
      * {@value #DEFAULT_DOUBLE_VALUE} if this node can not be converted to a
@@ -1135,6 +1168,34 @@ public interface YamlNode extends Iterable<YamlNode> {
      */
     YamlNode copy();
 
+    /**
+     * Creates an immutable (deep) copy of this node. Frozen trees can be read
+     * concurrently without locking once they are safely published, e.g.
+     * through a {@code volatile} field. Frozen subtrees and nodes referenced
+     * multiple times are shared instead of copied, and the hash codes of
+     * frozen containers are computed only once. Modifying a frozen node
+     * throws an {@link UnsupportedOperationException}.
+     *
+     * Scalar nodes are immutable and return themselves.
+     *
+     * @return the frozen node
+     */
+    default YamlNode freeze() {
+        return this;
+    }
+
+    /**
+     * Checks if this node is immutable. This is the case for scalars and
+     * frozen containers.
+     *
+     * @return if this node is immutable
+     *
+     * @see #freeze()
+     */
+    default boolean isFrozen() {
+        return true;
+    }
+
     /**
      * Lets a visitor visit this node.
      *
@@ -1173,7 +1234,7 @@ public interface YamlNode extends Iterable<YamlNode> {
      * @see Yaml
      */
     default String dump() {
-        return new Yaml().dump(this);
+        return ThreadLocalYaml.get().dump(this);
     }
 
     /**
@@ -1184,7 +1245,7 @@ public interface YamlNode extends Iterable<YamlNode> {
      * @see Yaml
      */
     default void dump(Writer output) {
-        new Yaml().dump(this, output);
+        ThreadLocalYaml.get().dump(this, output);
     }
 
     /**
@@ -1195,7 +1256,7 @@ public interface YamlNode extends Iterable<YamlNode> {
      * @see Yaml
      */
     default void dump(OutputStream output) {
-        dump(output, new Yaml());
+        dump(output, ThreadLocalYaml.get());
     }
 
     /**
@@ -1206,9 +1267,10 @@ public interface YamlNode extends Iterable<YamlNode> {
      * @return the string representation of this node
      *
      * @see Yaml
+     * @see ThreadLocalYaml#get(DumperOptions)
      */
     default String dump(DumperOptions options) {
-        return dump(new Yaml(options));
+        return dump(ThreadLocalYaml.get(options));
     }
 
     /**
@@ -1218,9 +1280,10 @@ public interface YamlNode extends Iterable<YamlNode> {
      * @param options the options
      *
      * @see Yaml
+     * @see ThreadLocalYaml#get(DumperOptions)
      */
     default void dump(Writer output, DumperOptions options) {
-        dump(output, new Yaml(options));
+        dump(output, ThreadLocalYaml.get(options));
     }
 
     /**
@@ -1230,9 +1293,10 @@ public interface YamlNode extends Iterable<YamlNode> {
      * @param options the options
      *
      * @see Yaml
+     * @see ThreadLocalYaml#get(DumperOptions)
      */
     default void dump(OutputStream output, DumperOptions options) {
-        new Yaml(options).dump(this, output);
+        ThreadLocalYaml.get(options).dump(this, output);
     }
 
     /**
@@ -35,6 +35,7 @@ import com.github.autermann.yaml.nodes.YamlSeqNode;
 import com.github.autermann.yaml.nodes.YamlSetNode;
 import com.github.autermann.yaml.nodes.YamlTextNode;
 import com.github.autermann.yaml.nodes.YamlTimeNode;
+import com.github.autermann.yaml.util.DecimalPrecision;
 
 /**
  * Factory to create {@link YamlNode}s. The factory will be passed to
@@ -489,6 +490,102 @@ public interface YamlNodeFactory {
      */
     YamlSetNode setNode();
 
+    /**
+     * Checks if {@link YamlSeqNode}s created by this factory may store large
+     * sequences of {@code int}, {@code long} or {@code double} nodes in a
+     * primitive array. The nodes are then created on access by
+     * {@link #byteNode(byte)}, {@link #shortNode(short)},
+     * {@link #intNode(int)}, {@link #longNode(long)} and
+     * {@link #doubleNode(double)}, which have to return nodes equal to the
+     * added ones. The default implementation returns {@code false}.
+     *
+     * @return if sequences may be compacted
+     */
+    default boolean supportsCompactSequences() {
+        return false;
+    }
+
+    /**
+     * Creates a new {@link YamlMapNode} that can hold the specified number of
+     * entries without reallocation. The default implementation creates
+     * the node with the no-argument variant and reserves the capacity using
+     * {@link com.github.autermann.yaml.nodes.YamlContainerNode#reserve(int)}.
+     *
+     * @param expectedSize the expected number of entries
+     *
+     * @return the {@link YamlMapNode}
+     */
+    default YamlMapNode mapNode(int expectedSize) {
+        YamlMapNode node = mapNode();
+        node.reserve(expectedSize);
+        return node;
+    }
+
+    /**
+     * Creates a new {@link YamlOrderedMapNode} that can hold the specified
+     * number of entries without reallocation. The default implementation
+     * creates the node with the no-argument variant and reserves the capacity
+     * using
+     * {@link com.github.autermann.yaml.nodes.YamlContainerNode#reserve(int)}.
+     *
+     * @param expectedSize the expected number of entries
+     *
+     * @return the {@link YamlOrderedMapNode}
+     */
+    default YamlOrderedMapNode orderedMapNode(int expectedSize) {
+        YamlOrderedMapNode node = orderedMapNode();
+        node.reserve(expectedSize);
+        return node;
+    }
+
+    /**
+     * Creates a new {@link YamlPairsNode} that can hold the specified number
+     * of pairs without reallocation. The default implementation creates
+     * the node with the no-argument variant and reserves the capacity using
+     * {@link com.github.autermann.yaml.nodes.YamlContainerNode#reserve(int)}.
+     *
+     * @param expectedSize the expected number of pairs
+     *
+     * @return the {@link YamlPairsNode}
+     */
+    default YamlPairsNode pairsNode(int expectedSize) {
+        YamlPairsNode node = pairsNode();
+        node.reserve(expectedSize);
+        return node;
+    }
+
+    /**
+     * Creates a new {@link YamlSeqNode} that can hold the specified number of
+     * children without reallocation. The default implementation creates
+     * the node with the no-argument variant and reserves the capacity using
+     * {@link com.github.autermann.yaml.nodes.YamlContainerNode#reserve(int)}.
+     *
+     * @param expectedSize the expected number of children
+     *
+     * @return the {@link YamlSeqNode}
+     */
+    default YamlSeqNode sequenceNode(int expectedSize) {
+        YamlSeqNode node = sequenceNode();
+        node.reserve(expectedSize);
+        return node;
+    }
+
+    /**
+     * Creates a new {@link YamlSetNode} that can hold the specified number of
+     * children without reallocation. The default implementation creates
+     * the node with the no-argument variant and reserves the capacity using
+     * {@link com.github.autermann.yaml.nodes.YamlContainerNode#reserve(int)}.
+     *
+     * @param expectedSize the expected number of children
+     *
+     * @return the {@link YamlSetNode}
+     */
+    default YamlSetNode setNode(int expectedSize) {
+        YamlSetNode node = setNode();
+        node.reserve(expectedSize);
+        return node;
+    }
+
     /**
      * Creates a new {@link YamlNullNode}.
      *
@@ -496,6 +593,17 @@ public interface YamlNodeFactory {
      */
     YamlNullNode nullNode();
 
+    /**
+     * Gets the {@link DecimalPrecision} this factory uses to represent
+     * floating point numbers. Constructs may use it to avoid creating a
+     * {@code BigDecimal} that would be narrowed by the factory anyway.
+     *
+     * @return the {@link DecimalPrecision}
+     */
+    default DecimalPrecision getDecimalPrecision() {
+        return DecimalPrecision.BIG_DECIMAL;
+    }
+
     /**
      * Creates a new {@link DefaultYamlNodeFactory}.
      *
@@ -504,4 +612,14 @@ public interface YamlNodeFactory {
     public static DefaultYamlNodeFactory createDefault() {
         return DefaultYamlNodeFactory.create();
     }
+
+    /**
+     * Creates a new {@link CachingYamlNodeFactory}, that shares small
+     * integral and short text nodes.
+     *
+     * @return the {@link CachingYamlNodeFactory}
+     */
+    public static CachingYamlNodeFactory createCaching() {
+        return new CachingYamlNodeFactory();
+    }
 }
@@ -15,7 +15,6 @@
  */
 package com.github.autermann.yaml;
 
-import java.util.Optional;
 import java.util.function.Predicate;
 
 import com.github.autermann.yaml.nodes.YamlMissingNode;
@@ -43,7 +42,7 @@ public class YamlNodes {
      * @return {@code value} if not {@code null}, else a {@link YamlNullNode}
      */
     public static YamlNode nullToNode(YamlNode value) {
-        return Optional.ofNullable(value).orElseGet(YamlNullNode::instance);
+        return value == null ? YamlNullNode.instance() : value;
     }
 
     /**
@@ -55,7 +54,7 @@ public class YamlNodes {
      * @return {@code value} if not {@code null}, else a {@link YamlMissingNode}
      */
     public static YamlNode nullToMissing(YamlNode value) {
-        return Optional.ofNullable(value).orElseGet(YamlMissingNode::instance);
+        return value == null ? YamlMissingNode.instance() : value;
     }
 
     /**
@@ -0,0 +1,771 @@
+/*
+ * Copyright 2013-2015 Christian Autermann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.autermann.yaml;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.Writer;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import org.yaml.snakeyaml.DumperOptions;
+
+import com.github.autermann.yaml.stream.MappedYamlFile;
+import com.github.autermann.yaml.stream.YamlDocumentSplitter;
+import com.github.autermann.yaml.util.IndexedSpliterator;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Thread-safe facade for {@link Yaml} that borrows instances from a bounded
+ * pool.
+ *
+ * All pooled instances share the {@link YamlNodeFactory} and
+ * {@link DumperOptions} supplied to the constructor. Instances are created
+ * lazily until the maximal pool size is reached; afterwards callers block
+ * until an instance is returned. The time spent waiting is recorded and can
+ * be queried to size the pool.
+ *
+ * As the instance is returned to the pool once a call completes, the
+ * {@code loadAll} and {@code loadStream} methods read all documents eagerly.
+ *
+ * Calls wait for an instance without limit unless a timeout is supplied. A
+ * thread that holds an instance, e.g. inside {@link #accept(Consumer)}, must
+ * not call this pool again: once all instances are in use, the nested call
+ * waits for an instance that is only returned after it completes.
+ *
+ * @author Christian Autermann
+ */
+public class YamlPool {
+    /**
+     * The idle instances.
+     */
+    private final BlockingQueue<Yaml> idle;
+    /**
+     * The number of created instances.
+     */
+    private final AtomicInteger created = new AtomicInteger();
+    /**
+     * The number of acquisitions that had to wait.
+     */
+    private final LongAdder waitCount = new LongAdder();
+    /**
+     * The accumulated wait time in nanoseconds.
+     */
+    private final LongAdder waitTime = new LongAdder();
+    /**
+     * The maximal wait time in nanoseconds.
+     */
+    private final LongAccumulator maxWaitTime
+            = new LongAccumulator(Math::max, 0L);
+    /**
+     * The maximal number of instances.
+     */
+    private final int maxSize;
+    /**
+     * The dumper options.
+     */
+    private final DumperOptions dumperOptions;
+    /**
+     * The node factory.
+     */
+    private final YamlNodeFactory nodeFactory;
+    /**
+     * The maximal time to wait for an instance in nanoseconds.
+     */
+    private final long timeout;
+
+    /**
+     * Creates a new {@link YamlPool} with default {@link DumperOptions} and
+     * {@link YamlNodeFactory} holding up to one instance per available
+     * processor.
+     */
+    public YamlPool() {
+        this(new DumperOptions(), YamlNodeFactory.createDefault());
+    }
+
+    /**
+     * Creates a new {@link YamlPool} using the supplied {@link DumperOptions}
+     * and {@link YamlNodeFactory} holding up to one instance per available
+     * processor.
+     *
+     * @param dumperOptions the dumper options
+     * @param nodeFactory   the node factory
+     */
+    public YamlPool(DumperOptions dumperOptions, YamlNodeFactory nodeFactory) {
+        this(dumperOptions, nodeFactory,
+             Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates a new {@link YamlPool} using the supplied {@link DumperOptions}
+     * and {@link YamlNodeFactory}.
+     *
+     * @param dumperOptions the dumper options
+     * @param nodeFactory   the node factory
+     * @param maxSize       the maximal number of pooled instances
+     */
+    public YamlPool(DumperOptions dumperOptions, YamlNodeFactory nodeFactory,
+                    int maxSize) {
+        this(dumperOptions, nodeFactory, maxSize, Long.MAX_VALUE,
+             TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Creates a new {@link YamlPool} using the supplied {@link DumperOptions}
+     * and {@link YamlNodeFactory}. Calls that wait longer than
+     * {@code timeout} for an instance fail with an
+     * {@code IllegalStateException}.
+     *
+     * @param dumperOptions the dumper options
+     * @param nodeFactory   the node factory
+     * @param maxSize       the maximal number of pooled instances
+     * @param timeout       the maximal time to wait for an instance
+     * @param unit          the unit of {@code timeout}
+     */
+    public YamlPool(DumperOptions dumperOptions, YamlNodeFactory nodeFactory,
+                    int maxSize, long timeout, TimeUnit unit) {
+        Preconditions.checkArgument(maxSize > 0, "maxSize must be positive");
+        Preconditions.checkArgument(timeout >= 0, "timeout must not be negative");
+        this.dumperOptions = Objects.requireNonNull(dumperOptions);
+        this.nodeFactory = Objects.requireNonNull(nodeFactory);
+        this.maxSize = maxSize;
+        this.timeout = unit.toNanos(timeout);
+        this.idle = new ArrayBlockingQueue<>(maxSize);
+    }
+
+    /**
+     * Dumps {@code data} into a {@code String}.
+     *
+     * @param data the data
+     *
+     * @return the string representation
+     *
+     * @see Yaml#dump(YamlNode)
+     */
+    public String dump(YamlNode data) {
+        return apply(yaml -> yaml.dump(data));
+    }
+
+    /**
+     * Dumps {@code data} into a {@code Writer}.
+     *
+     * @param data   the data
+     * @param output the writer
+     *
+     * @see Yaml#dump(YamlNode, Writer)
+     */
+    public void dump(YamlNode data, Writer output) {
+        accept(yaml -> yaml.dump(data, output));
+    }
+
+    /**
+     * Dumps {@code data} into a {@code OutputStream} using a {@code UTF-8}
+     * encoding.
+     *
+     * @param data   the data
+     * @param output the output stream
+     *
+     * @see Yaml#dump(YamlNode, OutputStream)
+     */
+    public void dump(YamlNode data, OutputStream output) {
+        accept(yaml -> yaml.dump(data, output));
+    }
+
+    /**
+     * Dumps {@code data} into a {@code String}.
+     *
+     * @param data the data
+     *
+     * @return the string representation
+     *
+     * @see Yaml#dumpAll(Iterator)
+     */
+    public String dumpAll(Iterator<? extends YamlNode> data) {
+        return apply(yaml -> yaml.dumpAll(data));
+    }
+
+    /**
+     * Dumps {@code data} into a {@code Writer}.
+     *
+     * @param data   the data
+     * @param output the writer
+     *
+     * @see Yaml#dumpAll(Iterator, Writer)
+     */
+    public void dumpAll(Iterator<? extends YamlNode> data, Writer output) {
+        accept(yaml -> yaml.dumpAll(data, output));
+    }
+
+    /**
+     * Dumps {@code data} into a {@code OutputStream} using a {@code UTF-8}
+     * encoding.
+     *
+     * @param data   the data
+     * @param output the output stream
+     *
+     * @see Yaml#dumpAll(Iterator, OutputStream)
+     */
+    public void dumpAll(Iterator<? extends YamlNode> data, OutputStream output) {
+        accept(yaml -> yaml.dumpAll(data, output));
+    }
+
+    /**
+     * Dumps {@code data} into a {@code String}.
+     *
+     * @param data the data
+     *
+     * @return the string representation
+     *
+     * @see Yaml#dumpAll(Iterable)
+     */
+    public String dumpAll(Iterable<? extends YamlNode> data) {
+        return dumpAll(data.iterator());
+    }
+
+    /**
+     * Dumps {@code data} into a {@code Writer}.
+     *
+     * @param data   the data
+     * @param output the writer
+     *
+     * @see Yaml#dumpAll(Iterable, Writer)
+     */
+    public void dumpAll(Iterable<? extends YamlNode> data, Writer output) {
+        dumpAll(data.iterator(), output);
+    }
+
+    /**
+     * Dumps {@code data} into a {@code OutputStream} using a {@code UTF-8}
+     * encoding.
+     *
+     * @param data   the data
+     * @param output the output stream
+     *
+     * @see Yaml#dumpAll(Iterable, OutputStream)
+     */
+    public void dumpAll(Iterable<? extends YamlNode> data, OutputStream output) {
+        dumpAll(data.iterator(), output);
+    }
+
+    /**
+     * Loads the string representation into a {@link YamlNode}.
+     *
+     * @param yaml the string
+     *
+     * @return the {@link YamlNode}
+     *
+     * @see Yaml#load(String)
+     */
+    public YamlNode load(String yaml) {
+        return apply(delegate -> delegate.load(yaml));
+    }
+
+    /**
+     * Loads the string representation into a {@link YamlNode}.
+     *
+     * @param io the input stream
+     *
+     * @return the {@link YamlNode}
+     *
+     * @see Yaml#load(InputStream)
+     */
+    public YamlNode load(InputStream io) {
+        return apply(delegate -> delegate.load(io));
+    }
+
+    /**
+     * Loads the string representation into a {@link YamlNode}.
+     *
+     * @param io the reader
+     *
+     * @return the {@link YamlNode}
+     *
+     * @see Yaml#load(Reader)
+     */
+    public YamlNode load(Reader io) {
+        return apply(delegate -> delegate.load(io));
+    }
+
+    /**
+     * Loads the file into a {@link YamlNode}.
+     *
+     * @param path the file
+     *
+     * @return the {@link YamlNode}
+     *
+     * @throws IOException if the file can not be mapped
+     * @see Yaml#load(Path)
+     */
+    public YamlNode load(Path path) throws IOException {
+        return load(MappedYamlFile.map(path).openStream());
+    }
+
+    /**
+     * Loads the string representations into {@link YamlNode}s.
+     *
+     * @param yaml the reader
+     *
+     * @return the {@link YamlNode}s
+     *
+     * @see Yaml#loadAll(Reader)
+     */
+    public List<YamlNode> loadAll(Reader yaml) {
+        return apply(delegate -> ImmutableList.copyOf(delegate.loadAll(yaml)));
+    }
+
+    /**
+     * Loads the string representations into {@link YamlNode}s.
+     *
+     * @param yaml the string
+     *
+     * @return the {@link YamlNode}s
+     *
+     * @see Yaml#loadAll(String)
+     */
+    public List<YamlNode> loadAll(String yaml) {
+        return apply(delegate -> ImmutableList.copyOf(delegate.loadAll(yaml)));
+    }
+
+    /**
+     * Loads the string representations into {@link YamlNode}s.
+     *
+     * @param yaml the input stream
+     *
+     * @return the {@link YamlNode}s
+     *
+     * @see Yaml#loadAll(InputStream)
+     */
+    public List<YamlNode> loadAll(InputStream yaml) {
+        return apply(delegate -> ImmutableList.copyOf(delegate.loadAll(yaml)));
+    }
+
+    /**
+     * Loads the string representations into {@link YamlNode}s.
+     *
+     * @param yaml the reader
+     *
+     * @return the {@link YamlNode}s
+     *
+     * @see Yaml#loadStream(Reader)
+     */
+    public Stream<YamlNode> loadStream(Reader yaml) {
+        return loadAll(yaml).stream();
+    }
+
+    /**
+     * Loads the string representations into {@link YamlNode}s.
+     *
+     * @param yaml the string
+     *
+     * @return the {@link YamlNode}s
+     *
+     * @see Yaml#loadStream(String)
+     */
+    public Stream<YamlNode> loadStream(String yaml) {
+        return loadAll(yaml).stream();
+    }
+
+    /**
+     * Loads the string representations into {@link YamlNode}s.
+     *
+     * @param yaml the input stream
+     *
+     * @return the {@link YamlNode}s
+     *
+     * @see Yaml#loadStream(InputStream)
+     */
+    public Stream<YamlNode> loadStream(InputStream yaml) {
+        return loadAll(yaml).stream();
+    }
+
+    /**
+     * Loads the documents of a stream in parallel.
+     *
+     * The calling thread only splits the stream into the source text of its
+     * documents using a {@link YamlDocumentSplitter}. The documents are loaded
+     * by a parallel {@link Stream} running in the fork/join pool. The source
+     * is read while the returned stream is consumed; it is not closed.
+     *
+     * Each document is loaded with a pooled {@link Yaml} that is returned
+     * before the document is passed down the stream. The loading threads never
+     * wait for the pool: if all instances are in use, e.g. because the pool is
+     * smaller than the parallelism or the consuming thread holds an instance
+     * itself, the split of the stream that is processed creates an additional
+     * instance that is not pooled and uses it for its remaining documents.
+     *
+     * If {@code ordered} is set, the stream keeps the order of the documents
+     * for operations that respect the encounter order, e.g.
+     * {@link Stream#forEachOrdered(Consumer)} or collecting into a list.
+     * Otherwise the documents are delivered in the order they are loaded,
+     * which avoids buffering completed documents. Empty documents are
+     * loaded as null nodes like by {@link Yaml#loadAll(Reader)}; the stream
+     * does not contain {@code null}.
+     *
+     * @param yaml    the reader
+     * @param ordered if the stream should keep the order of the documents
+     *
+     * @return the {@link YamlNode}s
+     */
+    public Stream<YamlNode> loadParallel(Reader yaml, boolean ordered) {
+        return loadParallel(new YamlDocumentSplitter(yaml), ordered);
+    }
+
+    /**
+     * Loads the documents of a stream in parallel.
+     *
+     * @param yaml    the string
+     * @param ordered if the stream should keep the order of the documents
+     *
+     * @return the {@link YamlNode}s
+     *
+     * @see #loadParallel(Reader, boolean)
+     */
+    public Stream<YamlNode> loadParallel(String yaml, boolean ordered) {
+        return loadParallel(new StringReader(yaml), ordered);
+    }
+
+    /**
+     * Loads the documents of a stream in parallel.
+     *
+     * @param yaml    the input stream
+     * @param ordered if the stream should keep the order of the documents
+     *
+     * @return the {@link YamlNode}s
+     *
+     * @see #loadParallel(Reader, boolean)
+     */
+    public Stream<YamlNode> loadParallel(InputStream yaml, boolean ordered) {
+        return loadParallel(new YamlDocumentSplitter(yaml), ordered);
+    }
+
+    /**
+     * Loads the documents of a file in parallel.
+     *
+     * The file is memory mapped and split into documents when this method is
+     * called. As the number of documents is known, the documents are split
+     * evenly between the threads of the fork/join pool, which decode and load
+     * them like {@link #loadParallel(Reader, boolean)} does.
+     *
+     * @param path    the file
+     * @param ordered if the stream should keep the order of the documents
+     *
+     * @return the {@link YamlNode}s
+     *
+     * @throws IOException if the file can not be mapped
+     * @see #loadParallel(Reader, boolean)
+     * @see MappedYamlFile
+     */
+    public Stream<YamlNode> loadParallel(Path path, boolean ordered)
+            throws IOException {
+        MappedYamlFile file = MappedYamlFile.map(path);
+        int characteristics = Spliterator.NONNULL;
+        if (ordered) {
+            characteristics |= Spliterator.ORDERED;
+        }
+        return StreamSupport.stream(new LoadingSpliterator<>(
+                new IndexedSpliterator<>(Integer::valueOf, 0,
+                                         file.getDocumentCount(),
+                                         characteristics),
+                (yaml, index) -> yaml.load(file.openDocument(index))), true);
+    }
+
+    /**
+     * Loads the documents returned by {@code documents} in parallel.
+     *
+     * @param documents the source text of the documents
+     * @param ordered   if the stream should keep the order of the documents
+     *
+     * @return the {@link YamlNode}s
+     */
+    private Stream<YamlNode> loadParallel(Iterator<String> documents,
+                                          boolean ordered) {
+        int characteristics = Spliterator.NONNULL;
+        if (ordered) {
+            characteristics |= Spliterator.ORDERED;
+        }
+        return StreamSupport.stream(new LoadingSpliterator<>(
+                Spliterators.spliteratorUnknownSize(documents, characteristics),
+                Yaml::load), true);
+    }
+
+    /**
+     * Applies {@code function} to a pooled {@link Yaml}. The instance is
+     * returned to the pool once {@code function} completes, so the result
+     * must not refer to it, e.g. through a lazily evaluated iterable.
+     *
+     * @param <T>      the result type
+     * @param function the function
+     *
+     * @return the result of the function
+     */
+    <T> T apply(Function<? super Yaml, ? extends T> function) {
+        Objects.requireNonNull(function);
+        Yaml yaml = acquire();
+        try {
+            return function.apply(yaml);
+        } finally {
+            release(yaml);
+        }
+    }
+
+    /**
+     * Passes a pooled {@link Yaml} to {@code consumer}. The instance is
+     * returned to the pool once {@code consumer} completes and must not be
+     * used afterwards.
+     *
+     * @param consumer the consumer
+     */
+    public void accept(Consumer<? super Yaml> consumer) {
+        Objects.requireNonNull(consumer);
+        Yaml yaml = acquire();
+        try {
+            consumer.accept(yaml);
+        } finally {
+            release(yaml);
+        }
+    }
+
+    /**
+     * Gets the maximal number of pooled instances.
+     *
+     * @return the maximal size
+     */
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Gets the number of instances created by this pool.
+     *
+     * @return the number of instances
+     */
+    public int getCreatedCount() {
+        return created.get();
+    }
+
+    /**
+     * Gets the number of instances that are currently not in use.
+     *
+     * @return the number of idle instances
+     */
+    public int getIdleCount() {
+        return idle.size();
+    }
+
+    /**
+     * Gets the number of calls that had to wait for an instance.
+     *
+     * @return the number of waiting calls
+     */
+    public long getWaitCount() {
+        return waitCount.sum();
+    }
+
+    /**
+     * Gets the accumulated time calls had to wait for an instance.
+     *
+     * @param unit the time unit
+     *
+     * @return the accumulated wait time
+     */
+    public long getTotalWaitTime(TimeUnit unit) {
+        return unit.convert(waitTime.sum(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Gets the longest time a call had to wait for an instance.
+     *
+     * @param unit the time unit
+     *
+     * @return the maximal wait time
+     */
+    public long getMaxWaitTime(TimeUnit unit) {
+        return unit.convert(maxWaitTime.get(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Borrows an instance from the pool, creating one if the pool is not yet
+     * exhausted and waiting for one otherwise.
+     *
+     * @return the instance
+     *
+     * @throws IllegalStateException if no instance became available in time
+     */
+    private Yaml acquire() {
+        Yaml yaml = tryAcquire();
+        if (yaml != null) {
+            return yaml;
+        }
+        long start = System.nanoTime();
+        try {
+            yaml = idle.poll(timeout, TimeUnit.NANOSECONDS);
+            if (yaml == null) {
+                throw new IllegalStateException("timed out waiting for a Yaml instance");
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted while waiting for a Yaml instance", ex);
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            waitCount.increment();
+            waitTime.add(elapsed);
+            maxWaitTime.accumulate(elapsed);
+        }
+        return yaml;
+    }
+
+    /**
+     * Borrows an instance from the pool if one is idle or the pool is not yet
+     * exhausted.
+     *
+     * @return the instance or {@code null} if all instances are in use
+     */
+    private Yaml tryAcquire() {
+        Yaml yaml = idle.poll();
+        if (yaml != null) {
+            return yaml;
+        }
+        for (int n = created.get(); n < maxSize; n = created.get()) {
+            if (created.compareAndSet(n, n + 1)) {
+                try {
+                    return new Yaml(dumperOptions, nodeFactory);
+                } catch (RuntimeException | Error ex) {
+                    created.decrementAndGet();
+                    throw ex;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns an instance to the pool.
+     *
+     * @param yaml the instance
+     */
+    private void release(Yaml yaml) {
+        idle.offer(yaml);
+    }
+
+    /**
+     * {@code Spliterator} that loads the documents of another spliterator
+     * without waiting for the pool.
+     *
+     * @param <T> the type of the document sources
+     */
+    private class LoadingSpliterator<T> implements Spliterator<YamlNode> {
+        /**
+         * The document sources.
+         */
+        private final Spliterator<T> documents;
+        /**
+         * The function loading a document source.
+         */
+        private final BiFunction<Yaml, ? super T, YamlNode> loader;
+        /**
+         * The instance of this split used if the pool is exhausted.
+         */
+        private Yaml spare;
+
+        /**
+         * Creates a new {@code LoadingSpliterator}.
+         *
+         * @param documents the document sources
+         * @param loader    the function loading a document source
+         */
+        LoadingSpliterator(Spliterator<T> documents,
+                           BiFunction<Yaml, ? super T, YamlNode> loader) {
+            this.documents = documents;
+            this.loader = loader;
+        }
+
+        /**
+         * Loads a document using a pooled instance or, if all are in use, the
+         * spare instance of this split. A document without a node is loaded
+         * as a null node, so the stream never contains {@code null}.
+         *
+         * @param document the document source
+         *
+         * @return the document
+         */
+        private YamlNode load(T document) {
+            YamlNode node;
+            Yaml yaml = tryAcquire();
+            if (yaml == null) {
+                if (spare == null) {
+                    spare = new Yaml(dumperOptions, nodeFactory);
+                }
+                node = loader.apply(spare, document);
+            } else {
+                try {
+                    node = loader.apply(yaml, document);
+                } finally {
+                    release(yaml);
+                }
+            }
+            return node == null ? nodeFactory.nullNode() : node;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super YamlNode> action) {
+            Objects.requireNonNull(action);
+            return documents.tryAdvance(document -> action.accept(load(document)));
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super YamlNode> action) {
+            Objects.requireNonNull(action);
+            documents.forEachRemaining(document -> action.accept(load(document)));
+        }
+
+        @Override
+        public Spliterator<YamlNode> trySplit() {
+            Spliterator<T> prefix = documents.trySplit();
+            return prefix == null ? null
+                   : new LoadingSpliterator<>(prefix, loader);
+        }
+
+        @Override
+        public long estimateSize() {
+            return documents.estimateSize();
+        }
+
+        @Override
+        public int characteristics() {
+            return documents.characteristics() &
+                   ~(Spliterator.DISTINCT | Spliterator.SORTED);
+        }
+    }
+}
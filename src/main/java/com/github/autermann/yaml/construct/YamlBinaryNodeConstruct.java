@@ -15,9 +15,15 @@
  */
 package com.github.autermann.yaml.construct;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
 import java.util.Objects;
 
+import org.yaml.snakeyaml.nodes.Tag;
+
 import com.github.autermann.yaml.YamlNodeFactory;
+import com.github.autermann.yaml.nodes.YamlLazyScalarNode;
 import com.github.autermann.yaml.nodes.YamlScalarNode;
 import com.google.common.io.BaseEncoding;
 
@@ -46,9 +52,85 @@ public class YamlBinaryNodeConstruct extends YamlScalarNodeConstruct {
         this.binaryEncoding = Objects.requireNonNull(binaryEncoding);
     }
 
+    /**
+     * Constructs a binary node from the specified value.
+     *
+     * @param value the value
+     *
+     * @return the node
+     *
+     * @throws IllegalArgumentException if {@code value} can not be decoded
+     */
     @Override
     protected YamlScalarNode construct(String value) {
         return getNodeFactory().binaryNode(binaryEncoding.decode(value));
     }
 
+    /**
+     * Creates a {@link YamlLazyScalarNode} that streams the decoded value
+     * from the source text as long as it is not converted.
+     *
+     * @param tag   the tag of the scalar
+     * @param value the value of the scalar
+     *
+     * @return the lazy node
+     */
+    @Override
+    protected YamlLazyScalarNode constructLazily(Tag tag, String value) {
+        return new YamlLazyScalarNode(tag, value, this::construct) {
+            @Override
+            public InputStream binaryStream() {
+                if (isMaterialized()) {
+                    return super.binaryStream();
+                }
+                return decodingStream(sourceText());
+            }
+        };
+    }
+
+    /**
+     * Creates a stream that decodes the specified value while it is read.
+     * Used for the streaming access to deferred values only, as decoding
+     * through a {@code Reader} is slower than {@link BaseEncoding#decode}.
+     *
+     * @param value the value
+     *
+     * @return the decoded stream
+     */
+    private InputStream decodingStream(String value) {
+        return binaryEncoding.decodingStream(new StringReader(value));
+    }
+
+    /**
+     * Checks if the conversion of the specified value should be deferred.
+     * This is the case for values that look like Base64 with line breaks, so
+     * the decoded bytes are only allocated on first access.
+     *
+     * @param value the value
+     *
+     * @return if the conversion should be deferred
+     */
+    @Override
+    protected boolean isDeferrable(String value) {
+        int length = value.length();
+        int end = length;
+        while (end > 0 && value.charAt(end - 1) == '=') {
+            --end;
+        }
+        if (length - end > 2) {
+            return false;
+        }
+        int digits = 0;
+        for (int i = 0; i < end; ++i) {
+            char c = value.charAt(i);
+            if (c >= 'A' && c <= 'Z' || c >= 'a' && c <= 'z' ||
+                c >= '0' && c <= '9' || c == '+' || c == '/') {
+                ++digits;
+            } else if (c != '\n' && c != '\r') {
+                return false;
+            }
+        }
+        return digits % 4 != 1;
+    }
+
 }
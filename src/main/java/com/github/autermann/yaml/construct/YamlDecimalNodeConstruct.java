@@ -17,6 +17,8 @@ package com.github.autermann.yaml.construct;
 
 import java.math.BigDecimal;
 
+import org.yaml.snakeyaml.nodes.Tag;
+
 import com.github.autermann.yaml.YamlNodeFactory;
 import com.github.autermann.yaml.nodes.YamlScalarNode;
 
@@ -24,11 +26,57 @@ import com.github.autermann.yaml.nodes.YamlScalarNode;
  * Constructs a {@link com.github.autermann.yaml.nodes.YamlDecimalNode} from a
  * scalar node.
  *
+ * The scalar is scanned in a single pass. Depending on the
+ * {@link com.github.autermann.yaml.util.DecimalPrecision} of the node factory
+ * a {@code double}, {@code float} or {@code BigDecimal} is created directly.
+ * Values with a short significand and a small exponent are converted using
+ * exact floating point arithmetic (Clinger's fast path); all other values are
+ * handed to the correctly rounding JDK parsers.
+ *
  * @see com.github.autermann.yaml.nodes.YamlBigDecimalNode
  * @see com.github.autermann.yaml.nodes.YamlDoubleNode
  * @see com.github.autermann.yaml.nodes.YamlFloatNode
  */
 public class YamlDecimalNodeConstruct extends YamlScalarNodeConstruct {
+    /**
+     * The powers of ten that are exactly representable as {@code double}.
+     */
+    private static final double[] DOUBLE_POWERS_OF_TEN = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+        1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+    /**
+     * The powers of ten that are exactly representable as {@code float}.
+     */
+    private static final float[] FLOAT_POWERS_OF_TEN = {
+        1e0f, 1e1f, 1e2f, 1e3f, 1e4f, 1e5f, 1e6f, 1e7f, 1e8f, 1e9f, 1e10f
+    };
+    /**
+     * The largest significand that is exactly representable as
+     * {@code double}.
+     */
+    private static final long MAX_EXACT_DOUBLE = 1L << 53;
+    /**
+     * The largest significand that is exactly representable as
+     * {@code float}.
+     */
+    private static final long MAX_EXACT_FLOAT = 1L << 24;
+    /**
+     * The number of significant digits that always fit into a {@code long}.
+     */
+    private static final int MAX_LONG_DIGITS = 18;
+    /**
+     * The largest exponent that is handled without the slow path.
+     */
+    private static final int MAX_EXPONENT = 100000;
+    /**
+     * Marker for exponents larger than {@link #MAX_EXPONENT}.
+     */
+    private static final int TOO_LARGE = Integer.MIN_VALUE;
+    /**
+     * The base of sexagesimal ({@code 1:30:00.5}) numbers.
+     */
+    private static final BigDecimal SEXAGESIMAL_BASE = BigDecimal.valueOf(60);
 
     /**
      * Creates a new {@link YamlDecimalNodeConstruct}.
@@ -41,19 +89,264 @@ public class YamlDecimalNodeConstruct extends YamlScalarNodeConstruct {
         super(nodeFactory, delegate);
     }
 
+    /**
+     * Constructs a decimal node from the specified value.
+     *
+     * @param value the value
+     *
+     * @return the node
+     *
+     * @throws NumberFormatException if {@code value} is not a valid float
+     */
     @Override
     public YamlScalarNode construct(String value) {
-        String v = value.trim().toLowerCase().replaceAll("_", "");
         YamlNodeFactory nodeFactory = getNodeFactory();
-        switch (v) {
-            case ".inf":
-                return nodeFactory.doubleNode(Double.POSITIVE_INFINITY);
-            case ".nan":
+        int start = 0;
+        int end = value.length();
+        while (start < end && value.charAt(start) <= ' ') {
+            ++start;
+        }
+        while (end > start && value.charAt(end - 1) <= ' ') {
+            --end;
+        }
+        int i = start;
+        boolean negative = false;
+        if (i < end) {
+            char c = value.charAt(i);
+            if (c == '-') {
+                negative = true;
+                ++i;
+            } else if (c == '+') {
+                ++i;
+            }
+        }
+        if (end - i == 4 && value.charAt(i) == '.') {
+            if (value.regionMatches(true, i, ".inf", 0, 4)) {
+                return nodeFactory.doubleNode(negative
+                                              ? Double.NEGATIVE_INFINITY
+                                              : Double.POSITIVE_INFINITY);
+            } else if (value.regionMatches(true, i, ".nan", 0, 4)) {
                 return nodeFactory.doubleNode(Double.NaN);
-            case "-.inf":
-                return nodeFactory.doubleNode(Double.NEGATIVE_INFINITY);
+            }
+        }
+
+        long significand = 0;
+        int significantDigits = 0;
+        int scale = 0;
+        int exponent = 0;
+        boolean hasDigits = false;
+        boolean fraction = false;
+        boolean slow = false;
+        boolean underscores = false;
+        boolean sexagesimal = false;
+
+        for (; i < end; ++i) {
+            char c = value.charAt(i);
+            if (c >= '0' && c <= '9') {
+                hasDigits = true;
+                if (fraction) {
+                    ++scale;
+                }
+                if (significantDigits < MAX_LONG_DIGITS) {
+                    significand = significand * 10 + (c - '0');
+                    if (significand != 0) {
+                        ++significantDigits;
+                    }
+                } else {
+                    slow = true;
+                }
+            } else if (c == '_') {
+                underscores = true;
+            } else if (c == '.' && !fraction) {
+                fraction = true;
+            } else if (c == ':' && !fraction && hasDigits) {
+                sexagesimal = true;
+                slow = true;
+            } else if ((c == 'e' || c == 'E') && hasDigits) {
+                exponent = parseExponent(value, i + 1, end);
+                if (exponent == TOO_LARGE) {
+                    slow = true;
+                }
+                break;
+            } else {
+                throw numberFormatException(value);
+            }
+        }
+        if (!hasDigits) {
+            throw numberFormatException(value);
+        }
+
+        if (slow) {
+            String cleaned = clean(value, start, end, underscores);
+            if (sexagesimal) {
+                return nodeFactory.bigDecimalNode(parseSexagesimal(cleaned));
+            }
+            switch (nodeFactory.getDecimalPrecision()) {
+                case DOUBLE:
+                    return nodeFactory.doubleNode(Double.parseDouble(cleaned));
+                case FLOAT:
+                    return nodeFactory.floatNode(Float.parseFloat(cleaned));
+                default:
+                    return nodeFactory.bigDecimalNode(new BigDecimal(cleaned));
+            }
+        }
+
+        // value = significand * 10^exponent10
+        int exponent10 = exponent - scale;
+        switch (nodeFactory.getDecimalPrecision()) {
+            case DOUBLE:
+                if (significand <= MAX_EXACT_DOUBLE &&
+                    Math.abs(exponent10) < DOUBLE_POWERS_OF_TEN.length) {
+                    double d = (double) significand;
+                    if (exponent10 < 0) {
+                        d /= DOUBLE_POWERS_OF_TEN[-exponent10];
+                    } else {
+                        d *= DOUBLE_POWERS_OF_TEN[exponent10];
+                    }
+                    return nodeFactory.doubleNode(negative ? -d : d);
+                }
+                return nodeFactory.doubleNode(Double
+                        .parseDouble(clean(value, start, end, underscores)));
+            case FLOAT:
+                if (significand <= MAX_EXACT_FLOAT &&
+                    Math.abs(exponent10) < FLOAT_POWERS_OF_TEN.length) {
+                    float f = (float) significand;
+                    if (exponent10 < 0) {
+                        f /= FLOAT_POWERS_OF_TEN[-exponent10];
+                    } else {
+                        f *= FLOAT_POWERS_OF_TEN[exponent10];
+                    }
+                    return nodeFactory.floatNode(negative ? -f : f);
+                }
+                return nodeFactory.floatNode(Float
+                        .parseFloat(clean(value, start, end, underscores)));
+            default:
+                return nodeFactory.bigDecimalNode(BigDecimal
+                        .valueOf(negative ? -significand : significand,
+                                 -exponent10));
+        }
+    }
+
+    /**
+     * Checks if the conversion of the specified value should be deferred.
+     * This is the case for long values, that may not be parsed without a
+     * {@code BigDecimal}, in their implicit form.
+     *
+     * @param value the value
+     *
+     * @return if the conversion should be deferred
+     */
+    @Override
+    protected boolean isDeferrable(String value) {
+        return value.length() > MAX_LONG_DIGITS &&
+               hasImplicitForm(value, Tag.FLOAT);
+    }
+
+    /**
+     * Parses the exponent of a float starting at {@code start}.
+     *
+     * @param value the value
+     * @param start the index of the first character after the {@code e}
+     * @param end   the end of the value
+     *
+     * @return the exponent or {@link #TOO_LARGE} if it is too large to be
+     *         handled without the slow path
+     *
+     * @throws NumberFormatException if the exponent is not valid
+     */
+    private static int parseExponent(String value, int start, int end) {
+        int i = start;
+        boolean negative = false;
+        if (i < end) {
+            char c = value.charAt(i);
+            if (c == '-') {
+                negative = true;
+                ++i;
+            } else if (c == '+') {
+                ++i;
+            }
+        }
+        if (i == end) {
+            throw numberFormatException(value);
+        }
+        int exponent = 0;
+        boolean tooLarge = false;
+        for (; i < end; ++i) {
+            char c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                throw numberFormatException(value);
+            }
+            if (exponent < MAX_EXPONENT) {
+                exponent = exponent * 10 + (c - '0');
+            } else {
+                tooLarge = true;
+            }
+        }
+        if (tooLarge) {
+            return TOO_LARGE;
         }
-        return nodeFactory.bigDecimalNode(new BigDecimal(value));
+        return negative ? -exponent : exponent;
+    }
+
+    /**
+     * Parses a sexagesimal float like {@code 190:20:30.15}.
+     *
+     * @param value the value without separators
+     *
+     * @return the {@code BigDecimal}
+     */
+    private static BigDecimal parseSexagesimal(String value) {
+        String v = value;
+        boolean negative = false;
+        if (v.startsWith("-")) {
+            negative = true;
+            v = v.substring(1);
+        } else if (v.startsWith("+")) {
+            v = v.substring(1);
+        }
+        BigDecimal number = BigDecimal.ZERO;
+        for (String digits : v.split(":")) {
+            number = number.multiply(SEXAGESIMAL_BASE)
+                    .add(new BigDecimal(digits));
+        }
+        return negative ? number.negate() : number;
+    }
+
+    /**
+     * Gets the relevant part of {@code value} without {@code _}
+     * separators.
+     *
+     * @param value       the value
+     * @param start       the start of the relevant part
+     * @param end         the end of the relevant part
+     * @param underscores if the value contains separators
+     *
+     * @return the cleaned value
+     */
+    private static String clean(String value, int start, int end,
+                                boolean underscores) {
+        if (!underscores) {
+            return value.substring(start, end);
+        }
+        StringBuilder builder = new StringBuilder(end - start);
+        for (int i = start; i < end; ++i) {
+            char c = value.charAt(i);
+            if (c != '_') {
+                builder.append(c);
+            }
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Creates a {@code NumberFormatException} for the specified value.
+     *
+     * @param value the value
+     *
+     * @return the exception
+     */
+    private static NumberFormatException numberFormatException(String value) {
+        return new NumberFormatException("For input string: \"" + value + "\"");
     }
 
 }
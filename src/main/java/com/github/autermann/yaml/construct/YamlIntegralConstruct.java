@@ -17,6 +17,8 @@ package com.github.autermann.yaml.construct;
 
 import java.math.BigInteger;
 
+import org.yaml.snakeyaml.nodes.Tag;
+
 import com.github.autermann.yaml.YamlNodeFactory;
 import com.github.autermann.yaml.nodes.YamlScalarNode;
 import com.github.autermann.yaml.util.Numbers;
@@ -32,6 +34,15 @@ import com.github.autermann.yaml.util.Numbers;
  * @see com.github.autermann.yaml.nodes.YamlBigIntegerNode
  */
 public class YamlIntegralConstruct extends YamlScalarNodeConstruct {
+    /**
+     * The base of sexagesimal ({@code 1:30:00}) integers.
+     */
+    private static final int SEXAGESIMAL_BASE = 60;
+    /**
+     * The length up to which integers are always converted eagerly, as they
+     * are converted in a single pass into a {@code long}.
+     */
+    private static final int EAGER_LENGTH = 18;
 
     /**
      * Creates a new {@link YamlIntegralConstruct}.
@@ -44,21 +55,199 @@ public class YamlIntegralConstruct extends YamlScalarNodeConstruct {
         super(nodeFactory, delegate);
     }
 
+    /**
+     * Constructs a integral node from the specified value. Besides decimal
+     * values, the YAML 1.1 forms ({@code 0b} binary, {@code 0x} hexadecimal,
+     * {@code 0o} or leading zero octal, sexagesimal and {@code _} separators)
+     * are supported. The value is parsed in a single pass into a
+     * {@code long}; a {@code BigInteger} is only created if the value does not
+     * fit.
+     *
+     * @param value the value
+     *
+     * @return the node
+     *
+     * @throws NumberFormatException if {@code value} is not a valid integer
+     */
     @Override
     public YamlScalarNode construct(String value) {
-        BigInteger number = new BigInteger(value);
+        int length = value.length();
+        int i = 0;
+        boolean negative = false;
+        if (length > 0) {
+            char c = value.charAt(0);
+            if (c == '-') {
+                negative = true;
+                ++i;
+            } else if (c == '+') {
+                ++i;
+            }
+        }
+        int radix = 10;
+        if (i + 1 < length && value.charAt(i) == '0') {
+            switch (value.charAt(i + 1)) {
+                case 'b':
+                    radix = 2;
+                    i += 2;
+                    break;
+                case 'x':
+                    radix = 16;
+                    i += 2;
+                    break;
+                case 'o':
+                    radix = 8;
+                    i += 2;
+                    break;
+                default:
+                    radix = 8;
+                    i += 1;
+            }
+        }
+        // magnitudes up to this value can not overflow with the next digit
+        long limit = (Long.MAX_VALUE - (radix - 1)) / radix;
+        long magnitude = 0;
+        long sexagesimal = 0;
+        boolean isSexagesimal = false;
+        boolean hasDigits = false;
+        for (; i < length; ++i) {
+            char c = value.charAt(i);
+            if (c == '_') {
+                continue;
+            }
+            if (c == ':' && radix == 10 && hasDigits) {
+                if (sexagesimal > (Long.MAX_VALUE - magnitude) / SEXAGESIMAL_BASE) {
+                    return construct(parseBigInteger(value));
+                }
+                sexagesimal = sexagesimal * SEXAGESIMAL_BASE + magnitude;
+                isSexagesimal = true;
+                magnitude = 0;
+                continue;
+            }
+            int digit = c - '0';
+            if (digit < 0 || digit >= radix) {
+                digit = Character.digit(c, radix);
+                if (digit < 0) {
+                    throw numberFormatException(value);
+                }
+            }
+            if (magnitude > limit &&
+                magnitude > (Long.MAX_VALUE - digit) / radix) {
+                return construct(parseBigInteger(value));
+            }
+            magnitude = magnitude * radix + digit;
+            hasDigits = true;
+        }
+        if (!hasDigits) {
+            throw numberFormatException(value);
+        }
+        if (isSexagesimal) {
+            if (sexagesimal > (Long.MAX_VALUE - magnitude) / SEXAGESIMAL_BASE) {
+                return construct(parseBigInteger(value));
+            }
+            magnitude = sexagesimal * SEXAGESIMAL_BASE + magnitude;
+        }
+        return construct(negative ? -magnitude : magnitude);
+    }
+
+    /**
+     * Checks if the conversion of the specified value should be deferred.
+     * This is the case for long values, that may require a
+     * {@code BigInteger}, in their implicit form.
+     *
+     * @param value the value
+     *
+     * @return if the conversion should be deferred
+     */
+    @Override
+    protected boolean isDeferrable(String value) {
+        return value.length() > EAGER_LENGTH &&
+               hasImplicitForm(value, Tag.INT);
+    }
+
+    /**
+     * Constructs the smallest integral node that is able to hold
+     * {@code value}.
+     *
+     * @param value the value
+     *
+     * @return the node
+     */
+    protected YamlScalarNode construct(long value) {
         YamlNodeFactory nodeFactory = getNodeFactory();
-        if (Numbers.fitsIntoByte(number)) {
-            return nodeFactory.byteNode(number.byteValue());
-        } else if (Numbers.fitsIntoShort(number)) {
-            return nodeFactory.shortNode(number.shortValue());
-        } else if (Numbers.fitsIntoInt(number)) {
-            return nodeFactory.intNode(number.intValue());
-        } else if (Numbers.fitsIntoLong(number)) {
-            return nodeFactory.longNode(number.longValue());
+        if (Numbers.fitsIntoByte(value)) {
+            return nodeFactory.byteNode((byte) value);
+        } else if (Numbers.fitsIntoShort(value)) {
+            return nodeFactory.shortNode((short) value);
+        } else if (Numbers.fitsIntoInt(value)) {
+            return nodeFactory.intNode((int) value);
         } else {
-            return nodeFactory.bigIntegerNode(number);
+            return nodeFactory.longNode(value);
         }
     }
 
+    /**
+     * Constructs the smallest integral node that is able to hold
+     * {@code value}.
+     *
+     * @param value the value
+     *
+     * @return the node
+     */
+    protected YamlScalarNode construct(BigInteger value) {
+        if (Numbers.fitsIntoLong(value)) {
+            return construct(value.longValue());
+        } else {
+            return getNodeFactory().bigIntegerNode(value);
+        }
+    }
+
+    /**
+     * Parses the specified value into a {@code BigInteger}. This is the slow
+     * path for values that do not fit into a {@code long}.
+     *
+     * @param value the value
+     *
+     * @return the {@code BigInteger}
+     */
+    private static BigInteger parseBigInteger(String value) {
+        String v = value.replace("_", "");
+        boolean negative = false;
+        if (v.startsWith("-")) {
+            negative = true;
+            v = v.substring(1);
+        } else if (v.startsWith("+")) {
+            v = v.substring(1);
+        }
+        BigInteger number;
+        if (v.startsWith("0b")) {
+            number = new BigInteger(v.substring(2), 2);
+        } else if (v.startsWith("0x")) {
+            number = new BigInteger(v.substring(2), 16);
+        } else if (v.startsWith("0o")) {
+            number = new BigInteger(v.substring(2), 8);
+        } else if (v.startsWith("0") && v.length() > 1) {
+            number = new BigInteger(v.substring(1), 8);
+        } else if (v.indexOf(':') >= 0) {
+            BigInteger base = BigInteger.valueOf(SEXAGESIMAL_BASE);
+            number = BigInteger.ZERO;
+            for (String digits : v.split(":")) {
+                number = number.multiply(base).add(new BigInteger(digits));
+            }
+        } else {
+            number = new BigInteger(v);
+        }
+        return negative ? number.negate() : number;
+    }
+
+    /**
+     * Creates a {@code NumberFormatException} for the specified value.
+     *
+     * @param value the value
+     *
+     * @return the exception
+     */
+    private static NumberFormatException numberFormatException(String value) {
+        return new NumberFormatException("For input string: \"" + value + "\"");
+    }
+
 }
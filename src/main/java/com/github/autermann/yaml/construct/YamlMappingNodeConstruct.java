@@ -15,7 +15,8 @@
  */
 package com.github.autermann.yaml.construct;
 
-import java.util.function.Supplier;
+import java.util.List;
+import java.util.function.IntFunction;
 
 import org.yaml.snakeyaml.nodes.MappingNode;
 import org.yaml.snakeyaml.nodes.Node;
@@ -31,9 +32,10 @@ import com.github.autermann.yaml.nodes.YamlMappingNode;
 public class YamlMappingNodeConstruct extends YamlConstruct {
 
     /**
-     * A supplier for {@link YamlMappingNode} instances.
+     * A supplier for {@link YamlMappingNode} instances, taking the expected
+     * number of entries.
      */
-    private final Supplier<? extends YamlMappingNode<?>> supplier;
+    private final IntFunction<? extends YamlMappingNode<?>> supplier;
 
     /**
      * Creates a new {@link YamlMappingNodeConstruct} using
@@ -42,24 +44,25 @@ public class YamlMappingNodeConstruct extends YamlConstruct {
      *
      * @param nodeFactory the node factory
      * @param delegate    the delegate
-     * @param supplier    the supplier
+     * @param supplier    the supplier, taking the expected number of entries
      */
     YamlMappingNodeConstruct(
             YamlNodeFactory nodeFactory,
             YamlNodeConstructor delegate,
-            Supplier<? extends YamlMappingNode<?>> supplier) {
+            IntFunction<? extends YamlMappingNode<?>> supplier) {
         super(nodeFactory, delegate);
         this.supplier = supplier;
     }
 
     @Override
     public YamlNode construct(Node node) {
-        MappingNode mnode = (MappingNode) node;
-        YamlMappingNode<?> mapping = supplier.get();
-        for (NodeTuple tuple : mnode.getValue()) {
+        List<NodeTuple> tuples = ((MappingNode) node).getValue();
+        YamlMappingNode<?> mapping = supplier.apply(tuples.size());
+        for (NodeTuple tuple : tuples) {
             Node key = tuple.getKeyNode();
             Node value = tuple.getValueNode();
-            mapping.put(delegate(key), delegate(value));
+            mapping.put(getDelegate().internKey(delegate(key)),
+                        delegate(value));
         }
         return mapping;
     }
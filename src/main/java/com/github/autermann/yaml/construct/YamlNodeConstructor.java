@@ -19,6 +19,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.joda.time.format.DateTimeFormatter;
 import org.joda.time.format.ISODateTimeFormat;
@@ -28,11 +29,17 @@ import org.yaml.snakeyaml.constructor.Construct;
 import org.yaml.snakeyaml.constructor.SafeConstructor;
 import org.yaml.snakeyaml.nodes.MappingNode;
 import org.yaml.snakeyaml.nodes.Node;
+import org.yaml.snakeyaml.nodes.NodeTuple;
 import org.yaml.snakeyaml.nodes.ScalarNode;
 import org.yaml.snakeyaml.nodes.SequenceNode;
 import org.yaml.snakeyaml.nodes.Tag;
+import org.yaml.snakeyaml.resolver.Resolver;
 
+import com.github.autermann.yaml.YamlNode;
 import com.github.autermann.yaml.YamlNodeFactory;
+import com.github.autermann.yaml.nodes.YamlMappingNode;
+import com.github.autermann.yaml.nodes.YamlSeqNode;
+import com.github.autermann.yaml.nodes.YamlSetNode;
 import com.google.common.io.BaseEncoding;
 
 /**
@@ -50,6 +57,18 @@ public class YamlNodeConstructor extends SafeConstructor {
      * The {@link YamlNodeFactory} of this constructor.
      */
     private final YamlNodeFactory nodeFactory;
+    /**
+     * If containers are populated on first access.
+     */
+    private final boolean lazy;
+    /**
+     * The table of shared mapping keys, or {@code null}.
+     */
+    private final YamlSymbolTable symbols;
+    /**
+     * The resolver for the implicit tags of the constructed nodes.
+     */
+    private final Resolver resolver = new YamlResolver();
 
     /**
      * Creates a new {@link YamlNodeConstructor} using a default
@@ -88,9 +107,54 @@ public class YamlNodeConstructor extends SafeConstructor {
      */
     public YamlNodeConstructor(YamlNodeFactory nodeFactory,
                                DumperOptions options) {
+        this(nodeFactory, options, false);
+    }
+
+    /**
+     * Creates a new {@link YamlNodeConstructor} using the supplied
+     * {@link YamlNodeFactory} and {@link DumperOptions}.
+     *
+     * If {@code lazy} is set, the children of {@code !!map}, {@code !!omap},
+     * {@code !!pairs}, {@code !!seq} and {@code !!set} nodes are constructed
+     * on first access from the retained SnakeYAML node graph. Errors in
+     * nested scalars are reported on first access in that case. Scalars that
+     * are expensive to convert are returned as
+     * {@link com.github.autermann.yaml.nodes.YamlLazyScalarNode}s.
+     *
+     * @param nodeFactory the node factory
+     * @param options     the dumper options
+     * @param lazy        if containers should be populated on first access
+     *
+     * @see com.github.autermann.yaml.nodes.YamlContainerNode#defer(Runnable)
+     * @see YamlScalarNodeConstruct#isDeferrable(String)
+     */
+    public YamlNodeConstructor(YamlNodeFactory nodeFactory,
+                               DumperOptions options, boolean lazy) {
+        this(nodeFactory, options, lazy, null);
+    }
+
+    /**
+     * Creates a new {@link YamlNodeConstructor} using the supplied
+     * {@link YamlNodeFactory} and {@link DumperOptions}.
+     *
+     * If {@code symbols} is not {@code null}, text keys of mappings are
+     * replaced by their shared instance in {@code symbols}.
+     *
+     * @param nodeFactory the node factory
+     * @param options     the dumper options
+     * @param lazy        if containers should be populated on first access
+     * @param symbols     the table of shared mapping keys or {@code null}
+     *
+     * @see #YamlNodeConstructor(YamlNodeFactory, DumperOptions, boolean)
+     */
+    public YamlNodeConstructor(YamlNodeFactory nodeFactory,
+                               DumperOptions options, boolean lazy,
+                               YamlSymbolTable symbols) {
         super(new LoaderOptions());
         this.options = Objects.requireNonNull(options);
         this.nodeFactory = Objects.requireNonNull(nodeFactory);
+        this.lazy = lazy;
+        this.symbols = symbols;
         register();
     }
 
@@ -234,6 +298,18 @@ public class YamlNodeConstructor extends SafeConstructor {
         return options;
     }
 
+    /**
+     * Gets the {@link Resolver} that resolves the implicit tags of the nodes
+     * passed to this constructor.
+     *
+     * @return the resolver
+     *
+     * @see YamlResolver
+     */
+    public Resolver getResolver() {
+        return resolver;
+    }
+
     /**
      * Gets the {@link YamlNodeFactory} of this constructor.
      *
@@ -243,11 +319,146 @@ public class YamlNodeConstructor extends SafeConstructor {
         return nodeFactory;
     }
 
+    /**
+     * Gets the table of shared mapping keys of this constructor.
+     *
+     * @return the table or {@code null} if keys are not shared
+     */
+    public YamlSymbolTable getSymbolTable() {
+        return symbols;
+    }
+
+    /**
+     * Gets the shared instance of the specified mapping key. Returns
+     * {@code key} itself if this constructor has no symbol table.
+     *
+     * @param key the key
+     *
+     * @return the shared key
+     *
+     * @see YamlSymbolTable#intern(YamlNode)
+     */
+    public YamlNode internKey(YamlNode key) {
+        return symbols == null ? key : symbols.intern(key);
+    }
+
+    /**
+     * Checks if containers are populated on first access.
+     *
+     * @return if this constructor is lazy
+     */
+    public boolean isLazy() {
+        return lazy;
+    }
+
     @Override
     public Object constructObject(Node node) {
+        if (lazy) {
+            return constructLazily(node, new ConcurrentHashMap<>());
+        }
         return super.constructObject(node);
     }
 
+    /**
+     * Constructs a {@link YamlNode} from a single scalar node. In contrast to
+     * {@link #constructObject(Node)} the node is not remembered for alias
+     * resolution, so this can be used to convert an unbounded number of
+     * scalars, e.g. while streaming events.
+     *
+     * @param node the node to construct from
+     *
+     * @return the constructed node
+     */
+    public YamlNode constructScalarNode(ScalarNode node) {
+        return (YamlNode) getConstructor(node).construct(node);
+    }
+
+    /**
+     * Constructs a node of a document whose containers are populated on first
+     * access.
+     *
+     * @param node     the node to construct from
+     * @param anchored the constructed anchored nodes of the document
+     *
+     * @return the constructed node
+     */
+    private YamlNode constructLazily(Node node, Map<Node, YamlNode> anchored) {
+        if (node.getAnchor() == null) {
+            return createLazily(node, anchored);
+        }
+        return anchored.computeIfAbsent(node, n -> createLazily(n, anchored));
+    }
+
+    /**
+     * Creates a node whose children are constructed on first access. Nodes
+     * with tags other than the standard collection tags are constructed
+     * eagerly by their registered construct.
+     *
+     * @param node     the node to construct from
+     * @param anchored the constructed anchored nodes of the document
+     *
+     * @return the constructed node
+     */
+    private YamlNode createLazily(Node node, Map<Node, YamlNode> anchored) {
+        Tag tag = node.getTag();
+        if (node instanceof ScalarNode) {
+            return constructScalarNode((ScalarNode) node);
+        } else if (node instanceof MappingNode) {
+            List<NodeTuple> tuples = ((MappingNode) node).getValue();
+            if (tag.equals(Tag.SET)) {
+                YamlSetNode set = getNodeFactory().setNode(tuples.size());
+                set.defer(() -> {
+                    for (NodeTuple tuple : tuples) {
+                        set.add(constructLazily(tuple.getKeyNode(), anchored));
+                    }
+                });
+                return set;
+            }
+            YamlMappingNode<?> mapping = createMapping(tag, tuples.size());
+            if (mapping != null) {
+                mapping.defer(() -> {
+                    for (NodeTuple tuple : tuples) {
+                        YamlNode key = constructLazily(tuple.getKeyNode(), anchored);
+                        mapping.put(internKey(key),
+                                    constructLazily(tuple.getValueNode(), anchored));
+                    }
+                });
+                return mapping;
+            }
+        } else if (node instanceof SequenceNode && tag.equals(Tag.SEQ)) {
+            List<Node> children = ((SequenceNode) node).getValue();
+            YamlSeqNode sequence
+                    = getNodeFactory().sequenceNode(children.size());
+            sequence.defer(() -> {
+                for (Node child : children) {
+                    sequence.add(constructLazily(child, anchored));
+                }
+            });
+            return sequence;
+        }
+        return (YamlNode) getConstructor(node).construct(node);
+    }
+
+    /**
+     * Creates an empty mapping for the specified tag.
+     *
+     * @param tag          the tag
+     * @param expectedSize the expected number of entries
+     *
+     * @return the mapping or {@code null} if the tag is not a mapping tag
+     */
+    private YamlMappingNode<?> createMapping(Tag tag, int expectedSize) {
+        if (tag.equals(Tag.MAP)) {
+            return getNodeFactory().mapNode(expectedSize);
+        } else if (tag.equals(Tag.OMAP)) {
+            return getNodeFactory().orderedMapNode(expectedSize);
+        } else if (tag.equals(Tag.PAIRS)) {
+            return getNodeFactory().pairsNode(expectedSize);
+        } else {
+            return null;
+        }
+    }
+
     /**
      * Constructs a new array.
      *
@@ -0,0 +1,663 @@
+/*
+ * Copyright 2013-2015 Christian Autermann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.autermann.yaml.construct;
+
+import org.yaml.snakeyaml.nodes.NodeId;
+import org.yaml.snakeyaml.nodes.Tag;
+import org.yaml.snakeyaml.resolver.Resolver;
+
+/**
+ * {@link Resolver} that resolves the implicit tags of plain scalars without
+ * regular expressions.
+ *
+ * The default {@link Resolver} matches every plain scalar against the regular
+ * expressions registered for its first character. This class dispatches on
+ * the first character as well, but recognizes the YAML 1.1 forms of
+ * {@code !!bool}, {@code !!int}, {@code !!float}, {@code !!null},
+ * {@code !!timestamp} and {@code !!merge} with hand-written scanners. It
+ * resolves exactly the same tags as the default {@link Resolver}, including
+ * the length limits of the default rules.
+ *
+ * Resolvers added by {@link #addImplicitResolver} are consulted after the
+ * built-in rules, like they are by the default {@link Resolver}.
+ *
+ * @author Christian Autermann
+ */
+public class YamlResolver extends Resolver {
+    /**
+     * The maximal length of {@code !!bool}, {@code !!null}, {@code !!merge}
+     * and {@code !!yaml} scalars.
+     */
+    private static final int SHORT_LIMIT = 10;
+    /**
+     * The maximal length of {@code !!int} and {@code !!float} scalars.
+     */
+    private static final int NUMBER_LIMIT = 1024;
+    /**
+     * The maximal length of {@code !!timestamp} scalars.
+     */
+    private static final int TIMESTAMP_LIMIT = 50;
+    /**
+     * The length of the year of a timestamp.
+     */
+    private static final int YEAR_LENGTH = 4;
+    /**
+     * The length of a date only timestamp.
+     */
+    private static final int DATE_LENGTH = 10;
+    /**
+     * The spellings of infinity following the dot.
+     */
+    private static final String[] INFINITY = { "inf", "Inf", "INF" };
+    /**
+     * The spellings of not-a-number following the dot.
+     */
+    private static final String[] NAN = { "nan", "NaN", "NAN" };
+
+    /**
+     * Does not register the regular expression based resolvers of the
+     * default {@link Resolver}.
+     */
+    @Override
+    protected void addImplicitResolvers() {
+    }
+
+    @Override
+    public Tag resolve(NodeId kind, String value, boolean implicit) {
+        if (kind == NodeId.scalar && implicit) {
+            Tag tag = resolveScalar(value);
+            if (tag != null) {
+                return tag;
+            }
+        }
+        return super.resolve(kind, value, implicit);
+    }
+
+    /**
+     * Resolves the tag of a plain scalar using the built-in rules.
+     *
+     * @param value the value of the scalar
+     *
+     * @return the tag or {@code null} if no rule matches
+     */
+    private static Tag resolveScalar(String value) {
+        int length = value.length();
+        if (length == 0) {
+            return Tag.NULL;
+        }
+        switch (value.charAt(0)) {
+            case 'y':
+            case 'Y':
+            case 't':
+            case 'T':
+            case 'f':
+            case 'F':
+            case 'o':
+            case 'O':
+                return length <= SHORT_LIMIT && isBool(value) ? Tag.BOOL : null;
+            case 'n':
+            case 'N':
+                if (length <= SHORT_LIMIT) {
+                    if (isBool(value)) {
+                        return Tag.BOOL;
+                    } else if (isNull(value)) {
+                        return Tag.NULL;
+                    }
+                }
+                return null;
+            case '-':
+            case '+':
+            case '.':
+                if (length <= NUMBER_LIMIT) {
+                    if (isInt(value)) {
+                        return Tag.INT;
+                    } else if (isFloat(value)) {
+                        return Tag.FLOAT;
+                    }
+                }
+                return null;
+            case '0':
+            case '1':
+            case '2':
+            case '3':
+            case '4':
+            case '5':
+            case '6':
+            case '7':
+            case '8':
+            case '9':
+                if (length <= NUMBER_LIMIT) {
+                    if (isInt(value)) {
+                        return Tag.INT;
+                    } else if (isFloat(value)) {
+                        return Tag.FLOAT;
+                    }
+                }
+                if (length <= TIMESTAMP_LIMIT && isTimestamp(value)) {
+                    return Tag.TIMESTAMP;
+                }
+                return null;
+            case '~':
+            case ' ':
+                // the default null rule is also tried for every first
+                // character, so it matches a single space as well
+                return length == 1 ? Tag.NULL : null;
+            case '<':
+                return value.equals("<<") ? Tag.MERGE : null;
+            case '!':
+            case '&':
+            case '*':
+                return length == 1 ? Tag.YAML : null;
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Checks if the value is a YAML 1.1 boolean.
+     *
+     * @param value the value
+     *
+     * @return if the value is a boolean
+     */
+    private static boolean isBool(String value) {
+        switch (value) {
+            case "yes":
+            case "Yes":
+            case "YES":
+            case "no":
+            case "No":
+            case "NO":
+            case "true":
+            case "True":
+            case "TRUE":
+            case "false":
+            case "False":
+            case "FALSE":
+            case "on":
+            case "On":
+            case "ON":
+            case "off":
+            case "Off":
+            case "OFF":
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Checks if the value is a null starting with {@code n} or {@code N}.
+     *
+     * @param value the value
+     *
+     * @return if the value is a null
+     */
+    private static boolean isNull(String value) {
+        return value.equals("null") || value.equals("Null") ||
+               value.equals("NULL");
+    }
+
+    /**
+     * Checks if the value is a YAML 1.1 integer: binary ({@code 0b}),
+     * octal (leading {@code 0}), decimal, hexadecimal ({@code 0x}) or
+     * sexagesimal, optionally signed and with {@code _} separators.
+     *
+     * @param value the value
+     *
+     * @return if the value is an integer
+     */
+    static boolean isInt(String value) {
+        int length = value.length();
+        int i = skipSign(value, 0);
+        if (i == length) {
+            return false;
+        }
+        char c = value.charAt(i);
+        if (c == '0') {
+            if (i + 1 == length) {
+                return true;
+            }
+            char next = value.charAt(i + 1);
+            if (next == 'b') {
+                return isDigits(value, skipUnderscores(value, i + 2), 2);
+            } else if (next == 'x') {
+                return isDigits(value, skipUnderscores(value, i + 2), 16);
+            } else {
+                return isDigits(value, skipUnderscores(value, i + 1), 8);
+            }
+        } else if (isDecimal(c)) {
+            int j = skipDigits(value, i + 1);
+            if (j == length) {
+                return true;
+            }
+            return value.charAt(j) == ':' &&
+                   skipSexagesimal(value, j) == length;
+        }
+        return false;
+    }
+
+    /**
+     * Checks if the value is a YAML 1.1 float: a decimal with a fraction
+     * and/or exponent, a sexagesimal with fraction, or one of the infinity
+     * and not-a-number forms.
+     *
+     * @param value the value
+     *
+     * @return if the value is a float
+     */
+    static boolean isFloat(String value) {
+        int length = value.length();
+        int i = skipSign(value, 0);
+        if (i == length) {
+            return false;
+        }
+        char c = value.charAt(i);
+        if (c == '.') {
+            if (endsWith(value, i + 1, INFINITY)) {
+                return true;
+            }
+            if (i == 0 && endsWith(value, i + 1, NAN)) {
+                return true;
+            }
+            int j = i + 1;
+            if (j == length || !isDigitOrUnderscore(value.charAt(j))) {
+                return false;
+            }
+            return isOptionalExponent(value, skipDigits(value, j));
+        } else if (isDecimal(c)) {
+            int j = skipDigits(value, i + 1);
+            if (j == length) {
+                return false;
+            }
+            switch (value.charAt(j)) {
+                case '.':
+                    return isOptionalExponent(value, skipDigits(value, j + 1));
+                case 'e':
+                case 'E':
+                    return isExponent(value, j);
+                case ':':
+                    j = skipSexagesimal(value, j);
+                    return j >= 0 && j < length && value.charAt(j) == '.' &&
+                           skipDigits(value, j + 1) == length;
+                default:
+                    return false;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks if the value is a YAML 1.1 timestamp: either a date
+     * ({@code 2001-12-14}) or a date with time, optional fraction and optional
+     * time zone ({@code 2001-12-14t21:59:43.10-05:00}).
+     *
+     * @param value the value
+     *
+     * @return if the value is a timestamp
+     */
+    static boolean isTimestamp(String value) {
+        int length = value.length();
+        if (length < DATE_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < YEAR_LENGTH; ++i) {
+            if (!isDecimal(value.charAt(i))) {
+                return false;
+            }
+        }
+        int i = YEAR_LENGTH;
+        if (value.charAt(i++) != '-') {
+            return false;
+        }
+        if (length == DATE_LENGTH && isDecimal(value.charAt(5)) &&
+            isDecimal(value.charAt(6)) && value.charAt(7) == '-' &&
+            isDecimal(value.charAt(8)) && isDecimal(value.charAt(9))) {
+            return true;
+        }
+        // month
+        i = skipDecimals(value, i, 2);
+        if (i < 0 || i == length || value.charAt(i++) != '-') {
+            return false;
+        }
+        // day
+        i = skipDecimals(value, i, 2);
+        if (i < 0 || i == length) {
+            return false;
+        }
+        // separator
+        char c = value.charAt(i);
+        if (c == 'T' || c == 't') {
+            ++i;
+        } else if (isBlank(c)) {
+            i = skipBlanks(value, i);
+        } else {
+            return false;
+        }
+        // hour, minute and second
+        i = skipDecimals(value, i, 2);
+        if (i < 0 || i == length || value.charAt(i++) != ':') {
+            return false;
+        }
+        if (!isFixedDecimals(value, i, 2)) {
+            return false;
+        }
+        i += 2;
+        if (i == length || value.charAt(i++) != ':') {
+            return false;
+        }
+        if (!isFixedDecimals(value, i, 2)) {
+            return false;
+        }
+        i += 2;
+        // fraction
+        if (i < length && value.charAt(i) == '.') {
+            ++i;
+            while (i < length && isDecimal(value.charAt(i))) {
+                ++i;
+            }
+        }
+        if (i == length) {
+            return true;
+        }
+        // time zone
+        i = skipBlanks(value, i);
+        if (i == length) {
+            return false;
+        }
+        c = value.charAt(i++);
+        if (c == 'Z') {
+            return i == length;
+        } else if (c != '-' && c != '+') {
+            return false;
+        }
+        i = skipDecimals(value, i, 2);
+        if (i == length) {
+            return true;
+        }
+        if (i < 0 || value.charAt(i++) != ':') {
+            return false;
+        }
+        return isFixedDecimals(value, i, 2) && i + 2 == length;
+    }
+
+    /**
+     * Checks if the remainder of the value starting at {@code index} equals
+     * one of the candidates.
+     *
+     * @param value      the value
+     * @param index      the index
+     * @param candidates the candidates
+     *
+     * @return if the remainder equals a candidate
+     */
+    private static boolean endsWith(String value, int index,
+                                    String[] candidates) {
+        for (String candidate : candidates) {
+            if (value.length() - index == candidate.length() &&
+                value.startsWith(candidate, index)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Skips the sexagesimal segments ({@code :[0-5]?[0-9]}) starting at
+     * {@code index}.
+     *
+     * @param value the value
+     * @param index the index of the first colon
+     *
+     * @return the index after the last segment, or {@code -1} if there is no
+     *         valid segment
+     */
+    private static int skipSexagesimal(String value, int index) {
+        int length = value.length();
+        int i = index;
+        while (i < length && value.charAt(i) == ':') {
+            ++i;
+            if (i == length || !isDecimal(value.charAt(i))) {
+                return -1;
+            }
+            if (value.charAt(i) <= '5' && i + 1 < length &&
+                isDecimal(value.charAt(i + 1))) {
+                i += 2;
+            } else {
+                ++i;
+            }
+        }
+        return i == index ? -1 : i;
+    }
+
+    /**
+     * Checks if the remainder of the value starting at {@code index} is empty
+     * or an exponent.
+     *
+     * @param value the value
+     * @param index the index
+     *
+     * @return if the remainder is empty or an exponent
+     */
+    private static boolean isOptionalExponent(String value, int index) {
+        return index == value.length() || isExponent(value, index);
+    }
+
+    /**
+     * Checks if the remainder of the value starting at {@code index} is an
+     * exponent ({@code [eE][-+]?[0-9]+}).
+     *
+     * @param value the value
+     * @param index the index
+     *
+     * @return if the remainder is an exponent
+     */
+    private static boolean isExponent(String value, int index) {
+        int length = value.length();
+        char c = value.charAt(index);
+        if (c != 'e' && c != 'E') {
+            return false;
+        }
+        int i = skipSign(value, index + 1);
+        if (i == length) {
+            return false;
+        }
+        for (; i < length; ++i) {
+            if (!isDecimal(value.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Checks if the remainder of the value starting at {@code index} is a
+     * digit of the radix followed by digits of the radix and underscores.
+     *
+     * @param value the value
+     * @param index the index
+     * @param radix the radix
+     *
+     * @return if the remainder consists of digits
+     */
+    private static boolean isDigits(String value, int index, int radix) {
+        int length = value.length();
+        if (index == length || Character.digit(value.charAt(index), radix) < 0
+                               || !isAscii(value.charAt(index))) {
+            return false;
+        }
+        for (int i = index + 1; i < length; ++i) {
+            char c = value.charAt(i);
+            if (c != '_' && (!isAscii(c) || Character.digit(c, radix) < 0)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Checks if there are {@code count} decimal digits at {@code index}.
+     *
+     * @param value the value
+     * @param index the index
+     * @param count the number of digits
+     *
+     * @return if there are the digits
+     */
+    private static boolean isFixedDecimals(String value, int index,
+                                           int count) {
+        if (index + count > value.length()) {
+            return false;
+        }
+        for (int i = index; i < index + count; ++i) {
+            if (!isDecimal(value.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Skips one up to {@code max} decimal digits.
+     *
+     * @param value the value
+     * @param index the index
+     * @param max   the maximal number of digits
+     *
+     * @return the index after the digits or {@code -1} if there is no digit
+     */
+    private static int skipDecimals(String value, int index, int max) {
+        int length = value.length();
+        int i = index;
+        while (i < length && i < index + max && isDecimal(value.charAt(i))) {
+            ++i;
+        }
+        return i == index ? -1 : i;
+    }
+
+    /**
+     * Skips decimal digits and underscores.
+     *
+     * @param value the value
+     * @param index the index
+     *
+     * @return the index after the digits
+     */
+    private static int skipDigits(String value, int index) {
+        int length = value.length();
+        int i = index;
+        while (i < length && isDigitOrUnderscore(value.charAt(i))) {
+            ++i;
+        }
+        return i;
+    }
+
+    /**
+     * Skips underscores.
+     *
+     * @param value the value
+     * @param index the index
+     *
+     * @return the index after the underscores
+     */
+    private static int skipUnderscores(String value, int index) {
+        int length = value.length();
+        int i = index;
+        while (i < length && value.charAt(i) == '_') {
+            ++i;
+        }
+        return i;
+    }
+
+    /**
+     * Skips spaces and tabs.
+     *
+     * @param value the value
+     * @param index the index
+     *
+     * @return the index after the blanks
+     */
+    private static int skipBlanks(String value, int index) {
+        int length = value.length();
+        int i = index;
+        while (i < length && isBlank(value.charAt(i))) {
+            ++i;
+        }
+        return i;
+    }
+
+    /**
+     * Skips an optional sign.
+     *
+     * @param value the value
+     * @param index the index
+     *
+     * @return the index after the sign
+     */
+    private static int skipSign(String value, int index) {
+        if (index < value.length()) {
+            char c = value.charAt(index);
+            if (c == '-' || c == '+') {
+                return index + 1;
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Checks if {@code c} is a space or tab.
+     *
+     * @param c the character
+     *
+     * @return if the character is blank
+     */
+    private static boolean isBlank(char c) {
+        return c == ' ' || c == '\t';
+    }
+
+    /**
+     * Checks if {@code c} is a decimal digit or an underscore.
+     *
+     * @param c the character
+     *
+     * @return if the character is a digit or underscore
+     */
+    private static boolean isDigitOrUnderscore(char c) {
+        return c == '_' || isDecimal(c);
+    }
+
+    /**
+     * Checks if {@code c} is an ASCII decimal digit.
+     *
+     * @param c the character
+     *
+     * @return if the character is a digit
+     */
+    private static boolean isDecimal(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    /**
+     * Checks if {@code c} is an ASCII character.
+     *
+     * @param c the character
+     *
+     * @return if the character is ASCII
+     */
+    private static boolean isAscii(char c) {
+        return c < 0x80;
+    }
+}
@@ -16,9 +16,12 @@
 package com.github.autermann.yaml.construct;
 
 import org.yaml.snakeyaml.nodes.Node;
+import org.yaml.snakeyaml.nodes.NodeId;
 import org.yaml.snakeyaml.nodes.ScalarNode;
+import org.yaml.snakeyaml.nodes.Tag;
 
 import com.github.autermann.yaml.YamlNodeFactory;
+import com.github.autermann.yaml.nodes.YamlLazyScalarNode;
 import com.github.autermann.yaml.nodes.YamlScalarNode;
 
 /**
@@ -40,9 +43,67 @@ public abstract class YamlScalarNodeConstruct extends YamlConstruct {
         super(nodeFactory, delegate);
     }
 
+    /**
+     * Constructs a {@link YamlScalarNode} from the specified scalar node. If
+     * the delegate is lazy and the value is deferrable, a
+     * {@link YamlLazyScalarNode} is returned that converts the value on first
+     * access.
+     *
+     * @param node the scalar node
+     *
+     * @return the {@link YamlScalarNode}
+     *
+     * @see #isDeferrable(String)
+     */
     @Override
     public Object construct(Node node) {
-        return construct(((ScalarNode) node).getValue());
+        String value = ((ScalarNode) node).getValue();
+        if (getDelegate().isLazy() && isDeferrable(value)) {
+            return constructLazily(node.getTag(), value);
+        }
+        return construct(value);
+    }
+
+    /**
+     * Creates a {@link YamlLazyScalarNode} that converts the specified value
+     * on first access.
+     *
+     * @param tag   the tag of the scalar
+     * @param value the value of the scalar
+     *
+     * @return the lazy node
+     */
+    protected YamlLazyScalarNode constructLazily(Tag tag, String value) {
+        return new YamlLazyScalarNode(tag, value, this::construct);
+    }
+
+    /**
+     * Checks if the conversion of the specified value should be deferred to
+     * the first access if the delegate is lazy. This pays off for values that
+     * are expensive to convert. To still report most errors while the
+     * enclosing container is constructed, only values that look valid should
+     * be deferred. Returns {@code false} by default.
+     *
+     * @param value the value of the scalar
+     *
+     * @return if the conversion should be deferred
+     */
+    protected boolean isDeferrable(String value) {
+        return false;
+    }
+
+    /**
+     * Checks if the specified value would be implicitly resolved to the
+     * specified tag if it was a plain scalar.
+     *
+     * @param value the value of the scalar
+     * @param tag   the tag
+     *
+     * @return if the value has the implicit form of the tag
+     */
+    protected boolean hasImplicitForm(String value, Tag tag) {
+        return tag.equals(getDelegate().getResolver()
+                .resolve(NodeId.scalar, value, true));
     }
 
     /**
@@ -15,6 +15,8 @@
  */
 package com.github.autermann.yaml.construct;
 
+import java.util.List;
+
 import com.github.autermann.yaml.YamlNode;
 import com.github.autermann.yaml.YamlNodeFactory;
 import org.yaml.snakeyaml.nodes.Node;
@@ -40,9 +42,10 @@ public class YamlSequenceNodeConstruct extends YamlConstruct {
 
     @Override
     public YamlSeqNode construct(Node node) {
-        YamlSeqNode seq = getNodeFactory().sequenceNode();
-        for (Object o : getDelegate().constructSequence((SequenceNode) node)) {
-            seq.add((YamlNode) o);
+        List<Node> children = ((SequenceNode) node).getValue();
+        YamlSeqNode seq = getNodeFactory().sequenceNode(children.size());
+        for (Node child : children) {
+            seq.add((YamlNode) getDelegate().constructObject(child));
         }
         return seq;
     }
@@ -15,10 +15,13 @@
  */
 package com.github.autermann.yaml.construct;
 
+import java.util.List;
+
 import com.github.autermann.yaml.YamlNode;
 import com.github.autermann.yaml.YamlNodeFactory;
 import org.yaml.snakeyaml.nodes.MappingNode;
 import org.yaml.snakeyaml.nodes.Node;
+import org.yaml.snakeyaml.nodes.NodeTuple;
 
 import com.github.autermann.yaml.nodes.YamlSetNode;
 
@@ -40,9 +43,10 @@ public class YamlSetNodeConstruct extends YamlConstruct {
 
     @Override
     public YamlSetNode construct(Node node) {
-        YamlSetNode set = getNodeFactory().setNode();
-        for (Object o : getDelegate().constructSet((MappingNode) node)) {
-            set.add((YamlNode) o);
+        List<NodeTuple> tuples = ((MappingNode) node).getValue();
+        YamlSetNode set = getNodeFactory().setNode(tuples.size());
+        for (NodeTuple tuple : tuples) {
+            set.add((YamlNode) getDelegate().constructObject(tuple.getKeyNode()));
         }
         return set;
     }
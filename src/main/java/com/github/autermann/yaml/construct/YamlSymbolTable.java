@@ -0,0 +1,136 @@
+/*
+ * Copyright 2013-2015 Christian Autermann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.autermann.yaml.construct;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.github.autermann.yaml.YamlNode;
+import com.github.autermann.yaml.nodes.YamlTextNode;
+import com.google.common.base.Preconditions;
+
+/**
+ * Bounded table of text nodes that are shared between mappings as keys.
+ *
+ * Loading many mappings with the same keys, like the records of a large
+ * sequence, creates a new {@link YamlTextNode} for every key of every
+ * mapping. A {@link YamlNodeConstructor} with a symbol table replaces such
+ * keys by the instance that was loaded first, across all mappings and
+ * documents loaded with it. Shared keys are retained only once and, as the
+ * hash code of their {@code String} is cached, are hashed only once.
+ *
+ * The table holds up to {@code maxSize} keys of up to {@code maxLength}
+ * characters. Once it is full, it keeps the keys it already holds and returns
+ * new keys unchanged, so the memory retained by the table stays bounded for
+ * streams with unbounded numbers of distinct keys.
+ *
+ * This class is thread-safe, so a table may be shared between multiple
+ * constructors and used by lazily populated containers.
+ *
+ * @author Christian Autermann
+ */
+public class YamlSymbolTable {
+    /**
+     * The default maximal number of keys.
+     */
+    public static final int DEFAULT_MAX_SIZE = 4096;
+    /**
+     * The default maximal length of keys.
+     */
+    public static final int DEFAULT_MAX_LENGTH = 64;
+    /**
+     * The shared keys by their text.
+     */
+    private final ConcurrentMap<String, YamlTextNode> symbols
+            = new ConcurrentHashMap<>();
+    /**
+     * The maximal number of keys.
+     */
+    private final int maxSize;
+    /**
+     * The maximal length of keys.
+     */
+    private final int maxLength;
+
+    /**
+     * Creates a new {@code YamlSymbolTable} with the default maximal size and
+     * length.
+     */
+    public YamlSymbolTable() {
+        this(DEFAULT_MAX_SIZE, DEFAULT_MAX_LENGTH);
+    }
+
+    /**
+     * Creates a new {@code YamlSymbolTable}.
+     *
+     * @param maxSize   the maximal number of keys
+     * @param maxLength the maximal length of keys
+     */
+    public YamlSymbolTable(int maxSize, int maxLength) {
+        Preconditions.checkArgument(maxSize >= 0,
+                                    "invalid maximal size: %s", maxSize);
+        Preconditions.checkArgument(maxLength >= 0,
+                                    "invalid maximal length: %s", maxLength);
+        this.maxSize = maxSize;
+        this.maxLength = maxLength;
+    }
+
+    /**
+     * Gets the shared instance of the specified key. Keys other than text
+     * nodes, keys exceeding the maximal length and keys that are not yet
+     * present while the table is full are returned unchanged.
+     *
+     * @param key the key
+     *
+     * @return the shared key
+     */
+    public YamlNode intern(YamlNode key) {
+        if (!(key instanceof YamlTextNode)) {
+            return key;
+        }
+        String text = key.textValue();
+        if (text.length() > maxLength) {
+            return key;
+        }
+        YamlTextNode symbol = symbols.get(text);
+        if (symbol != null) {
+            return symbol;
+        }
+        // the bound may be exceeded by concurrent insertions, but only by
+        // the number of threads
+        if (symbols.size() >= maxSize) {
+            return key;
+        }
+        symbol = symbols.putIfAbsent(text, (YamlTextNode) key);
+        return symbol == null ? key : symbol;
+    }
+
+    /**
+     * Gets the number of keys in this table.
+     *
+     * @return the number of keys
+     */
+    public int size() {
+        return symbols.size();
+    }
+
+    /**
+     * Removes all keys from this table.
+     */
+    public void clear() {
+        symbols.clear();
+    }
+}
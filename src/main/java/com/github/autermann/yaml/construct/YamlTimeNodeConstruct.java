@@ -18,6 +18,7 @@ package com.github.autermann.yaml.construct;
 import java.util.Objects;
 
 import org.joda.time.format.DateTimeFormatter;
+import org.yaml.snakeyaml.nodes.Tag;
 
 import com.github.autermann.yaml.YamlNodeFactory;
 import com.github.autermann.yaml.nodes.YamlScalarNode;
@@ -52,4 +53,18 @@ public class YamlTimeNodeConstruct extends YamlScalarNodeConstruct {
         return getNodeFactory().dateTimeNode(timeEncoding.parseDateTime(value));
     }
 
+    /**
+     * Checks if the conversion of the specified value should be deferred.
+     * This is the case for values in the implicit timestamp form; whether
+     * they are accepted by the time encoding is checked on first access.
+     *
+     * @param value the value
+     *
+     * @return if the conversion should be deferred
+     */
+    @Override
+    protected boolean isDeferrable(String value) {
+        return hasImplicitForm(value, Tag.TIMESTAMP);
+    }
+
 }
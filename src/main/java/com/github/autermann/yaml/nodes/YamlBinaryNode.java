@@ -72,8 +72,9 @@ public class YamlBinaryNode extends YamlScalarNode {
 
     @Override
     public boolean equals(Object o) {
-        return o instanceof YamlBinaryNode &&
-               Arrays.equals(value(), ((YamlBinaryNode) o).value());
+        Object other = YamlLazyScalarNode.unwrap(o);
+        return other instanceof YamlBinaryNode &&
+               Arrays.equals(value(), ((YamlBinaryNode) other).value());
     }
 
     @Override
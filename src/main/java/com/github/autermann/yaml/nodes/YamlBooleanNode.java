@@ -45,7 +45,7 @@ public abstract class YamlBooleanNode extends YamlScalarNode {
 
     @Override
     public boolean equals(Object o) {
-        return o == this;
+        return YamlLazyScalarNode.unwrap(o) == this;
     }
 
     @Override
@@ -16,13 +16,19 @@
 package com.github.autermann.yaml.nodes;
 
 
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
 import com.github.autermann.yaml.YamlNode;
 import com.github.autermann.yaml.YamlNodeFactory;
+import com.google.common.base.Preconditions;
 
 /**
  * A abstract {@link YamlNode} representing a container holding child nodes.
@@ -30,11 +36,49 @@ import com.github.autermann.yaml.YamlNodeFactory;
  * @author Christian Autermann
  */
 public abstract class YamlContainerNode implements YamlNode {
+    /**
+     * The container whose hash code is currently computed by this thread, or
+     * {@code null}. Containers whose hash code is requested while it is set
+     * register it as a dependent.
+     */
+    private static final ThreadLocal<YamlContainerNode> HASHING
+            = new ThreadLocal<>();
+    /**
+     * Stamp of containers without cached hash code.
+     */
+    private static final long NO_HASH = 0L;
+    /**
+     * Flag of stamps holding a cached hash code.
+     */
+    private static final long HAS_HASH = 1L << 32;
 
     /**
      * The {@link YamlNodeFactory} to create children with.
      */
     private final YamlNodeFactory factory;
+    /**
+     * The loader of the deferred content of this node.
+     */
+    private volatile Runnable loader;
+    /**
+     * If the deferred content is currently loaded by the thread holding the
+     * lock of this node.
+     */
+    private boolean loading;
+    /**
+     * If this node is frozen.
+     */
+    private boolean frozen;
+    /**
+     * The cached hash code of this node in the lower 32 bits and
+     * {@link #HAS_HASH} if it is valid, or {@link #NO_HASH}.
+     */
+    private volatile long hashStamp = NO_HASH;
+    /**
+     * The containers whose cached hash code includes the hash code of this
+     * node, or {@code null}. Guarded by {@code this}.
+     */
+    private List<WeakReference<YamlContainerNode>> dependents;
 
     /**
      * Creates a new {@link YamlContainerNode}.
@@ -55,11 +99,271 @@ public abstract class YamlContainerNode implements YamlNode {
         return factory;
     }
 
+    /**
+     * Defers populating this node until its content is first accessed. The
+     * {@code loader} is run at most once and should add the children of this
+     * node using the regular mutators. If it fails, every further access to
+     * the content rethrows the exception.
+     *
+     * @param loader the loader
+     *
+     * @throws IllegalStateException         if the content of this node is
+     *                                       already deferred
+     * @throws UnsupportedOperationException if this node is frozen
+     */
+    public void defer(Runnable loader) {
+        Objects.requireNonNull(loader);
+        checkNotFrozen();
+        synchronized (this) {
+            if (this.loader != null) {
+                throw new IllegalStateException("content is already deferred");
+            }
+            this.loader = loader;
+        }
+    }
+
+    /**
+     * Checks if the content of this node is loaded, i.e. if it is not
+     * deferred or was accessed.
+     *
+     * @return if the content is loaded
+     *
+     * @see #defer(Runnable)
+     */
+    public boolean isMaterialized() {
+        return this.loader == null;
+    }
+
+    /**
+     * Loads the deferred content of this node. Subclasses have to call this
+     * method before accessing their content.
+     */
+    protected final void materialize() {
+        if (this.loader != null) {
+            synchronized (this) {
+                Runnable pending = this.loader;
+                if (pending != null && !this.loading) {
+                    this.loading = true;
+                    try {
+                        pending.run();
+                        this.loader = null;
+                    } catch (RuntimeException | Error ex) {
+                        this.loader = () -> {
+                            throw ex;
+                        };
+                        throw ex;
+                    } finally {
+                        this.loading = false;
+                    }
+                }
+            }
+        }
+    }
+
     @Override
     public boolean isContainer() {
         return true;
     }
 
+    @Override
+    public boolean isFrozen() {
+        return this.frozen;
+    }
+
+    @Override
+    public YamlContainerNode freeze() {
+        return freeze(new IdentityHashMap<>());
+    }
+
+    /**
+     * Freezes this node, reusing the frozen copies of already visited
+     * containers.
+     *
+     * @param frozenNodes the frozen copies by original node
+     *
+     * @return the frozen node
+     */
+    final YamlContainerNode freeze(
+            Map<YamlContainerNode, YamlContainerNode> frozenNodes) {
+        if (this.frozen) {
+            return this;
+        }
+        YamlContainerNode node = frozenNodes.get(this);
+        if (node == null) {
+            node = createFrozen(frozenNodes);
+            node.hashStamp = stamp(node.computeHashCode());
+            node.frozen = true;
+            frozenNodes.put(this, node);
+        }
+        return node;
+    }
+
+    /**
+     * Freezes the specified child node.
+     *
+     * @param node        the node
+     * @param frozenNodes the frozen copies by original node
+     *
+     * @return the frozen node
+     */
+    protected static YamlNode freeze(
+            YamlNode node,
+            Map<YamlContainerNode, YamlContainerNode> frozenNodes) {
+        if (node instanceof YamlContainerNode) {
+            return ((YamlContainerNode) node).freeze(frozenNodes);
+        }
+        return node.freeze();
+    }
+
+    /**
+     * Creates a read-only copy of this node containing the frozen children.
+     * The copy is marked as frozen by the caller.
+     *
+     * @param frozenNodes the frozen copies by original node, to be passed to
+     *                    {@link #freeze(YamlNode, Map)}
+     *
+     * @return the copy
+     */
+    protected abstract YamlContainerNode createFrozen(
+            Map<YamlContainerNode, YamlContainerNode> frozenNodes);
+
+    /**
+     * Throws an {@link UnsupportedOperationException} if this node is
+     * frozen. Mutators have to call this method.
+     */
+    protected final void checkNotFrozen() {
+        if (this.frozen) {
+            throw new UnsupportedOperationException("node is frozen");
+        }
+    }
+
+    /**
+     * Invalidates the cached hash code of this node and of the containers
+     * whose cached hash code includes it. Mutators have to call this method.
+     */
+    protected final void invalidateHashCode() {
+        if (this.hashStamp != NO_HASH) {
+            this.hashStamp = NO_HASH;
+            List<WeakReference<YamlContainerNode>> invalidated;
+            synchronized (this) {
+                invalidated = this.dependents;
+                this.dependents = null;
+            }
+            if (invalidated != null) {
+                for (WeakReference<YamlContainerNode> ref : invalidated) {
+                    YamlContainerNode dependent = ref.get();
+                    if (dependent != null) {
+                        dependent.invalidateHashCode();
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Registers a container whose cached hash code includes the hash code of
+     * this node. It is invalidated along with this node.
+     *
+     * @param dependent the container
+     */
+    private synchronized void addDependent(YamlContainerNode dependent) {
+        if (this.dependents == null) {
+            this.dependents = new ArrayList<>(1);
+        }
+        Iterator<WeakReference<YamlContainerNode>> iter
+                = this.dependents.iterator();
+        while (iter.hasNext()) {
+            YamlContainerNode registered = iter.next().get();
+            if (registered == dependent) {
+                return;
+            } else if (registered == null) {
+                iter.remove();
+            }
+        }
+        this.dependents.add(new WeakReference<>(dependent));
+    }
+
+    /**
+     * Makes sure this node can hold the specified number of children without
+     * further reallocation. The sized factory methods, e.g.
+     * {@link YamlNodeFactory#mapNode(int)}, call this method on the nodes
+     * created by the no-argument variants.
+     *
+     * @param expectedSize the expected number of children
+     *
+     * @throws UnsupportedOperationException if this node is frozen
+     */
+    public void reserve(int expectedSize) {
+        Preconditions.checkArgument(expectedSize >= 0,
+                                    "invalid expected size: %s", expectedSize);
+        checkNotFrozen();
+        ensureCapacity(expectedSize);
+    }
+
+    /**
+     * Makes sure this node can hold the specified number of children without
+     * further reallocation. Bulk mutators and {@link #reserve(int)} call this
+     * method before adding children. Does nothing by default.
+     *
+     * @param expectedSize the expected number of children
+     */
+    protected void ensureCapacity(int expectedSize) {
+    }
+
+    /**
+     * Creates the stamp of a cached hash code.
+     *
+     * @param hash the hash code
+     *
+     * @return the stamp
+     */
+    private static long stamp(int hash) {
+        return HAS_HASH | (hash & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Returns the cached hash code of this node, computing it if necessary.
+     * If this is called while the hash code of another container is
+     * computed, that container is registered as a dependent, so that
+     * modifications of this node only invalidate the cached hash codes of
+     * the containers that include it.
+     *
+     * @return the hash code
+     */
+    @Override
+    public int hashCode() {
+        long stamp = this.hashStamp;
+        if (this.frozen) {
+            return (int) stamp;
+        }
+        YamlContainerNode parent = HASHING.get();
+        if (stamp == NO_HASH) {
+            HASHING.set(this);
+            try {
+                stamp = stamp(computeHashCode());
+            } finally {
+                if (parent == null) {
+                    HASHING.remove();
+                } else {
+                    HASHING.set(parent);
+                }
+            }
+            this.hashStamp = stamp;
+        }
+        if (parent != null) {
+            addDependent(parent);
+        }
+        return (int) stamp;
+    }
+
+    /**
+     * Computes the hash code of this node. The result is cached until this
+     * node or one of its descendants is modified.
+     *
+     * @return the hash code
+     */
+    protected abstract int computeHashCode();
+
     @Override
     public YamlNode get(int index) {
         YamlNode node = path(index);
@@ -134,4 +438,17 @@ public abstract class YamlContainerNode implements YamlNode {
         return StreamSupport.stream(spliterator(), false);
     }
 
+    /**
+     * Creates a possibly parallel {@link Stream} of the children of this
+     * node. The spliterators of all container nodes split into balanced
+     * halves, so large containers can be processed by the fork/join pool.
+     *
+     * @return the stream
+     *
+     * @see #stream()
+     */
+    public Stream<YamlNode> parallelStream() {
+        return StreamSupport.stream(spliterator(), true);
+    }
+
 }
@@ -0,0 +1,386 @@
+/*
+ * Copyright 2013-2015 Christian Autermann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.autermann.yaml.nodes;
+
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Date;
+import java.util.Objects;
+import java.util.function.Function;
+
+import org.joda.time.DateTime;
+import org.yaml.snakeyaml.nodes.Tag;
+
+import com.github.autermann.yaml.ReturningYamlNodeVisitor;
+import com.github.autermann.yaml.YamlNodeVisitor;
+
+/**
+ * A {@link YamlScalarNode} that keeps the source text of a scalar and converts
+ * it on first access.
+ *
+ * Converting scalars like integers, decimals, timestamps or binaries is
+ * comparatively expensive. This node holds the source text and the resolved
+ * tag only. The typed node is created by the converter when any of its values
+ * or types is queried first, and cached afterwards. All methods except
+ * {@link #tag()} behave like the ones of the typed node, including
+ * {@link #equals(Object)} and {@link #hashCode()}: a lazy node is equal to
+ * the typed node it converts to, and vice versa. Errors of the conversion are
+ * thrown on every access.
+ *
+ * This class is thread-safe. Concurrent first accesses may convert the text
+ * more than once, but all of them observe equal nodes.
+ *
+ * @author Christian Autermann
+ */
+public class YamlLazyScalarNode extends YamlScalarNode {
+    /**
+     * The resolved tag.
+     */
+    private final Tag tag;
+    /**
+     * The source text.
+     */
+    private final String text;
+    /**
+     * The converter from the source text to the typed node.
+     */
+    private final Function<String, ? extends YamlScalarNode> converter;
+    /**
+     * The typed node, or {@code null} if not yet converted.
+     */
+    private volatile YamlScalarNode node;
+
+    /**
+     * Creates a new {@link YamlLazyScalarNode}.
+     *
+     * @param tag       the resolved tag
+     * @param text      the source text
+     * @param converter the converter from the source text to the typed node
+     */
+    public YamlLazyScalarNode(Tag tag, String text,
+                              Function<String, ? extends YamlScalarNode> converter) {
+        this.tag = Objects.requireNonNull(tag);
+        this.text = Objects.requireNonNull(text);
+        this.converter = Objects.requireNonNull(converter);
+    }
+
+    /**
+     * Gets the source text of this scalar.
+     *
+     * @return the source text
+     */
+    public String sourceText() {
+        return text;
+    }
+
+    /**
+     * Checks if the source text is already converted.
+     *
+     * @return if the typed node is available
+     */
+    public boolean isMaterialized() {
+        return node != null;
+    }
+
+    /**
+     * Gets the typed node, converting the source text on first access.
+     *
+     * @return the typed node
+     */
+    public YamlScalarNode materialize() {
+        YamlScalarNode typed = this.node;
+        if (typed == null) {
+            typed = Objects.requireNonNull(converter.apply(text));
+            this.node = typed;
+        }
+        return typed;
+    }
+
+    /**
+     * Gets the typed node of {@code o} if it is a {@link YamlLazyScalarNode}
+     * or {@code o} itself otherwise. The {@code equals} methods of the typed
+     * nodes use this to compare equal to lazy nodes.
+     *
+     * @param o the object
+     *
+     * @return the object to compare with
+     */
+    static Object unwrap(Object o) {
+        return o instanceof YamlLazyScalarNode
+               ? ((YamlLazyScalarNode) o).materialize() : o;
+    }
+
+    @Override
+    public Tag tag() {
+        return tag;
+    }
+
+    @Override
+    public Object value() {
+        return materialize().value();
+    }
+
+    @Override
+    public void accept(YamlNodeVisitor visitor) {
+        materialize().accept(visitor);
+    }
+
+    @Override
+    public <T> T accept(ReturningYamlNodeVisitor<T> visitor) {
+        return materialize().accept(visitor);
+    }
+
+    @Override
+    public boolean isBinary() {
+        return materialize().isBinary();
+    }
+
+    @Override
+    public boolean isBoolean() {
+        return materialize().isBoolean();
+    }
+
+    @Override
+    public boolean isNull() {
+        return materialize().isNull();
+    }
+
+    @Override
+    public boolean isNumber() {
+        return materialize().isNumber();
+    }
+
+    @Override
+    public boolean isDecimal() {
+        return materialize().isDecimal();
+    }
+
+    @Override
+    public boolean isFloat() {
+        return materialize().isFloat();
+    }
+
+    @Override
+    public boolean isDouble() {
+        return materialize().isDouble();
+    }
+
+    @Override
+    public boolean isBigDecimal() {
+        return materialize().isBigDecimal();
+    }
+
+    @Override
+    public boolean isIntegral() {
+        return materialize().isIntegral();
+    }
+
+    @Override
+    public boolean isBigInteger() {
+        return materialize().isBigInteger();
+    }
+
+    @Override
+    public boolean isLong() {
+        return materialize().isLong();
+    }
+
+    @Override
+    public boolean isInt() {
+        return materialize().isInt();
+    }
+
+    @Override
+    public boolean isShort() {
+        return materialize().isShort();
+    }
+
+    @Override
+    public boolean isByte() {
+        return materialize().isByte();
+    }
+
+    @Override
+    public boolean isText() {
+        return materialize().isText();
+    }
+
+    @Override
+    public boolean isTime() {
+        return materialize().isTime();
+    }
+
+    @Override
+    public BigDecimal asBigDecimalValue(BigDecimal defaultValue) {
+        return materialize().asBigDecimalValue(defaultValue);
+    }
+
+    @Override
+    public BigDecimal bigDecimalValue() {
+        return materialize().bigDecimalValue();
+    }
+
+    @Override
+    public BigInteger asBigIntegerValue(BigInteger defaultValue) {
+        return materialize().asBigIntegerValue(defaultValue);
+    }
+
+    @Override
+    public BigInteger bigIntegerValue() {
+        return materialize().bigIntegerValue();
+    }
+
+    @Override
+    public boolean asBooleanValue(boolean defaultValue) {
+        return materialize().asBooleanValue(defaultValue);
+    }
+
+    @Override
+    public boolean booleanValue() {
+        return materialize().booleanValue();
+    }
+
+    @Override
+    public byte asByteValue(byte defaultValue) {
+        return materialize().asByteValue(defaultValue);
+    }
+
+    @Override
+    public byte byteValue() {
+        return materialize().byteValue();
+    }
+
+    @Override
+    public byte[] asBinaryValue(byte[] defaultValue) {
+        return materialize().asBinaryValue(defaultValue);
+    }
+
+    @Override
+    public byte[] binaryValue() {
+        return materialize().binaryValue();
+    }
+
+    @Override
+    public InputStream binaryStream() {
+        return materialize().binaryStream();
+    }
+
+    @Override
+    public double asDoubleValue(double defaultValue) {
+        return materialize().asDoubleValue(defaultValue);
+    }
+
+    @Override
+    public double doubleValue() {
+        return materialize().doubleValue();
+    }
+
+    @Override
+    public float asFloatValue(float defaultValue) {
+        return materialize().asFloatValue(defaultValue);
+    }
+
+    @Override
+    public float floatValue() {
+        return materialize().floatValue();
+    }
+
+    @Override
+    public int asIntValue(int defaultValue) {
+        return materialize().asIntValue(defaultValue);
+    }
+
+    @Override
+    public int intValue() {
+        return materialize().intValue();
+    }
+
+    @Override
+    public long asLongValue(long defaultValue) {
+        return materialize().asLongValue(defaultValue);
+    }
+
+    @Override
+    public long longValue() {
+        return materialize().longValue();
+    }
+
+    @Override
+    public Number asNumberValue(Number defaultValue) {
+        return materialize().asNumberValue(defaultValue);
+    }
+
+    @Override
+    public Number numberValue() {
+        return materialize().numberValue();
+    }
+
+    @Override
+    public short asShortValue(short defaultValue) {
+        return materialize().asShortValue(defaultValue);
+    }
+
+    @Override
+    public short shortValue() {
+        return materialize().shortValue();
+    }
+
+    @Override
+    public String asTextValue(String defaultValue) {
+        return materialize().asTextValue(defaultValue);
+    }
+
+    @Override
+    public String textValue() {
+        return materialize().textValue();
+    }
+
+    @Override
+    public DateTime asDateTimeValue(DateTime defaultValue) {
+        return materialize().asDateTimeValue(defaultValue);
+    }
+
+    @Override
+    public DateTime dateTimeValue() {
+        return materialize().dateTimeValue();
+    }
+
+    @Override
+    public Date asDateValue(Date defaultValue) {
+        return materialize().asDateValue(defaultValue);
+    }
+
+    @Override
+    public Date dateValue() {
+        return materialize().dateValue();
+    }
+
+    @Override
+    public int hashCode() {
+        return materialize().hashCode();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o == this || materialize().equals(unwrap(o));
+    }
+
+    @Override
+    public String toString() {
+        return materialize().toString();
+    }
+}
@@ -17,13 +17,12 @@ package com.github.autermann.yaml.nodes;
 
 
 import java.util.Collection;
-import java.util.HashMap;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.Spliterator;
-import java.util.Spliterators;
 
 import org.yaml.snakeyaml.nodes.Tag;
 
@@ -32,6 +31,7 @@ import com.github.autermann.yaml.YamlNode;
 import com.github.autermann.yaml.YamlNodeFactory;
 import com.github.autermann.yaml.YamlNodeVisitor;
 import com.github.autermann.yaml.YamlNodes;
+import com.github.autermann.yaml.util.CompactMap;
 import com.google.common.collect.Iterators;
 
 /**
@@ -44,6 +44,10 @@ public class YamlMapNode extends YamlMappingNode<YamlMapNode> {
      * The children of this mapping.
      */
     private final Map<YamlNode, YamlNode> value;
+    /**
+     * The lazily created index of the text keys of this mapping.
+     */
+    private volatile YamlTextKeyIndex textKeys;
 
     /**
      * Creates a new {@link YamlMapNode} with the specified backing map.
@@ -58,12 +62,29 @@ public class YamlMapNode extends YamlMappingNode<YamlMapNode> {
     }
 
     /**
-     * Creates a new {@link YamlMapNode}.
+     * Creates a new {@link YamlMapNode} backed by a {@link CompactMap}.
      *
      * @param factory the factory to create children with
      */
     public YamlMapNode(YamlNodeFactory factory) {
-        this(factory, new HashMap<>());
+        this(factory, 0);
+    }
+
+    /**
+     * Creates a new {@link YamlMapNode} backed by a {@link CompactMap} that
+     * can hold the specified number of entries without reallocation.
+     *
+     * @param factory      the factory to create children with
+     * @param expectedSize the expected number of entries
+     */
+    public YamlMapNode(YamlNodeFactory factory, int expectedSize) {
+        super(factory);
+        this.value = new CompactMap<YamlNode, YamlNode>(expectedSize) {
+            @Override
+            protected void modified() {
+                invalidateHashCode();
+            }
+        };
     }
 
     @Override
@@ -72,7 +93,14 @@ public class YamlMapNode extends YamlMappingNode<YamlMapNode> {
         if (key == this || value == this) {
             throw new IllegalArgumentException("recursive structures are currently not supported");
         }
-        this.value.put(YamlNodes.nullToNode(key), YamlNodes.nullToNode(value));
+        checkNotFrozen();
+        YamlNode k = YamlNodes.nullToNode(key);
+        map().put(k, YamlNodes.nullToNode(value));
+        invalidateHashCode();
+        YamlTextKeyIndex index = this.textKeys;
+        if (index != null) {
+            index.add(k);
+        }
         return this;
     }
 
@@ -92,38 +120,64 @@ public class YamlMapNode extends YamlMappingNode<YamlMapNode> {
     }
 
     @Override
-    public int hashCode() {
-        return Objects.hashCode(this.value);
+    protected int computeHashCode() {
+        return Objects.hashCode(map());
     }
 
     @Override
     public boolean equals(Object o) {
         return o instanceof YamlMapNode &&
-               this.value.equals(((YamlMapNode) o).value);
+               map().equals(((YamlMapNode) o).map());
     }
 
     @Override
     public YamlMapNode copy() {
-        YamlMapNode copy = getNodeFactory().mapNode();
+        if (isFrozen()) {
+            return this;
+        }
+        YamlMapNode copy = getNodeFactory().mapNode(size());
         for (Entry<YamlNode, YamlNode> e : entries()) {
             copy.put(e.getKey().copy(), e.getValue().copy());
         }
         return copy;
     }
 
+    @Override
+    protected YamlMapNode createFrozen(
+            Map<YamlContainerNode, YamlContainerNode> frozenNodes) {
+        return new YamlMapNode(getNodeFactory(), freezeEntries(frozenNodes));
+    }
+
+    /**
+     * Creates an unmodifiable map of the frozen entries of this mapping.
+     *
+     * @param frozenNodes the frozen copies by original node
+     *
+     * @return the frozen entries
+     */
+    Map<YamlNode, YamlNode> freezeEntries(
+            Map<YamlContainerNode, YamlContainerNode> frozenNodes) {
+        Map<YamlNode, YamlNode> entries = new CompactMap<>(size());
+        for (Entry<YamlNode, YamlNode> e : map().entrySet()) {
+            entries.put(freeze(e.getKey(), frozenNodes),
+                        freeze(e.getValue(), frozenNodes));
+        }
+        return Collections.unmodifiableMap(entries);
+    }
+
     @Override
     public int size() {
-        return this.value.size();
+        return map().size();
     }
 
     @Override
     public boolean isEmpty() {
-        return this.value.isEmpty();
+        return map().isEmpty();
     }
 
     @Override
     public Collection<Entry<YamlNode, YamlNode>> entries() {
-        return this.value.entrySet();
+        return map().entrySet();
     }
 
     @Override
@@ -139,18 +193,46 @@ public class YamlMapNode extends YamlMappingNode<YamlMapNode> {
     @Override
     public YamlNode path(YamlNode key) {
         return YamlNodes
-                .nullToMissing(this.value.get(YamlNodes.nullToNode(key)));
+                .nullToMissing(map().get(YamlNodes.nullToNode(key)));
+    }
+
+    @Override
+    protected YamlNode textKey(String key) {
+        if (key == null) {
+            return super.textKey(key);
+        }
+        YamlTextKeyIndex index = this.textKeys;
+        if (index == null) {
+            this.textKeys = index = new YamlTextKeyIndex(map().keySet());
+        }
+        return index.get(key);
     }
 
     @Override
     public Iterator<YamlNode> iterator() {
-        return Iterators.unmodifiableIterator(this.value.keySet().iterator());
+        return Iterators.unmodifiableIterator(map().keySet().iterator());
+    }
+
+    @Override
+    protected void ensureCapacity(int expectedSize) {
+        Map<YamlNode, YamlNode> entries = map();
+        if (entries instanceof CompactMap) {
+            ((CompactMap<YamlNode, YamlNode>) entries).reserve(expectedSize);
+        }
+    }
+
+    /**
+     * Gets the entries of this mapping, loading deferred content first.
+     *
+     * @return the entries
+     */
+    private Map<YamlNode, YamlNode> map() {
+        materialize();
+        return this.value;
     }
 
     @Override
     public Spliterator<YamlNode> spliterator() {
-        return Spliterators.spliterator(iterator(), size(), Spliterator.SIZED |
-                                                            Spliterator.SUBSIZED |
-                                                            Spliterator.NONNULL);
+        return map().keySet().spliterator();
     }
 }
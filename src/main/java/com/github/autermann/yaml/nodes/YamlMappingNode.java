@@ -18,6 +18,7 @@ package com.github.autermann.yaml.nodes;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.util.Date;
+import java.util.Map;
 import java.util.Map.Entry;
 
 import org.joda.time.DateTime;
@@ -797,7 +798,8 @@ public abstract class YamlMappingNode<T extends YamlMappingNode<T>>
 
     @Override
     public boolean has(String key) {
-        return has(getNodeFactory().textNode(key));
+        YamlNode node = textKey(key);
+        return node != null && has(node);
     }
 
     @Override
@@ -807,7 +809,8 @@ public abstract class YamlMappingNode<T extends YamlMappingNode<T>>
 
     @Override
     public boolean hasNotNull(String key) {
-        return hasNotNull(getNodeFactory().textNode(key));
+        YamlNode node = textKey(key);
+        return node != null && hasNotNull(node);
     }
 
     @Override
@@ -817,7 +820,60 @@ public abstract class YamlMappingNode<T extends YamlMappingNode<T>>
 
     @Override
     public YamlNode path(String key) {
-        return path(getNodeFactory().textNode(key));
+        YamlNode node = textKey(key);
+        return node == null ? YamlMissingNode.instance() : path(node);
+    }
+
+    /**
+     * Gets the node to use as key when this mapping is accessed using a
+     * {@code String}. The default implementation creates a new text node;
+     * subclasses may return an equal key already contained in this mapping.
+     *
+     * @param key the key
+     *
+     * @return the key node or {@code null} if this mapping is known to not
+     *         contain the key
+     */
+    protected YamlNode textKey(String key) {
+        return getNodeFactory().textNode(key);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T freeze() {
+        return (T) super.freeze();
+    }
+
+    /**
+     * Adds all entries of the specified map to this mapping.
+     *
+     * @param entries the entries
+     *
+     * @return {@code this}
+     */
+    @SuppressWarnings("unchecked")
+    public T putAll(Map<? extends YamlNode, ? extends YamlNode> entries) {
+        checkNotFrozen();
+        ensureCapacity(size() + entries.size());
+        entries.forEach(this::put);
+        return (T) this;
+    }
+
+    /**
+     * Adds all entries of the specified mapping to this mapping.
+     *
+     * @param mapping the mapping
+     *
+     * @return {@code this}
+     */
+    @SuppressWarnings("unchecked")
+    public T putAll(YamlMappingNode<?> mapping) {
+        checkNotFrozen();
+        ensureCapacity(size() + mapping.size());
+        for (Entry<YamlNode, YamlNode> entry : mapping.entries()) {
+            put(entry.getKey(), entry.getValue());
+        }
+        return (T) this;
     }
 
     /**
@@ -0,0 +1,528 @@
+/*
+ * Copyright 2013-2015 Christian Autermann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.autermann.yaml.nodes;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.Spliterator;
+
+import com.github.autermann.yaml.YamlNode;
+import com.github.autermann.yaml.YamlNodeFactory;
+import com.github.autermann.yaml.util.IndexedSpliterator;
+import com.github.autermann.yaml.util.Numbers;
+
+/**
+ * The backing list of a {@link YamlSeqNode}. Once it holds at least
+ * {@value #COMPACTION_THRESHOLD} elements that are all {@code int},
+ * {@code long} or {@code double} nodes, the values are stored in a primitive
+ * array and nodes are created on access. Adding an incompatible node turns
+ * the list back into an array of nodes.
+ *
+ * Integral nodes that use the smallest fitting type, as created by the
+ * constructor, are stored along with nodes of a single type, so a loaded
+ * sequence of integers is compacted as well. The nodes are created on access
+ * by the {@link YamlNodeFactory} of the list, and only if it
+ * {@linkplain YamlNodeFactory#supportsCompactSequences() supports} it. In any
+ * case the created nodes are equal to the added ones, but not necessarily the
+ * same instances.
+ *
+ * @author Christian Autermann
+ */
+final class YamlNodeList extends AbstractList<YamlNode>
+        implements RandomAccess {
+    /**
+     * The size from which on homogeneous lists are compacted.
+     */
+    static final int COMPACTION_THRESHOLD = 32;
+    /**
+     * The initial capacity.
+     */
+    private static final int DEFAULT_CAPACITY = 10;
+    /**
+     * Storage of nodes.
+     */
+    private static final int NODES = 0;
+    /**
+     * Storage of {@link YamlIntegerNode}s in an {@code int[]}.
+     */
+    private static final int INTS = 1;
+    /**
+     * Storage of {@link YamlByteNode}s, {@link YamlShortNode}s and
+     * {@link YamlIntegerNode}s of the smallest fitting type in an
+     * {@code int[]}.
+     */
+    private static final int NARROW_INTS = 1 << 1;
+    /**
+     * Storage of {@link YamlLongNode}s in a {@code long[]}.
+     */
+    private static final int LONGS = 1 << 2;
+    /**
+     * Storage of {@link YamlByteNode}s, {@link YamlShortNode}s,
+     * {@link YamlIntegerNode}s and {@link YamlLongNode}s of the smallest
+     * fitting type in a {@code long[]}.
+     */
+    private static final int NARROW_LONGS = 1 << 3;
+    /**
+     * Storage of {@link YamlDoubleNode}s in a {@code double[]}.
+     */
+    private static final int DOUBLES = 1 << 4;
+    /**
+     * All primitive storages. Lower bits are preferred.
+     */
+    private static final int PRIMITIVES
+            = INTS | NARROW_INTS | LONGS | NARROW_LONGS | DOUBLES;
+    /**
+     * The node whose cached hash code is invalidated on modification, or
+     * {@code null}.
+     */
+    private final YamlContainerNode owner;
+    /**
+     * The factory creating nodes of compacted elements, or {@code null} if
+     * this list is never compacted.
+     */
+    private final YamlNodeFactory factory;
+    /**
+     * The current storage.
+     */
+    private int storage = NODES;
+    /**
+     * The primitive storages all elements are compatible with. May be a
+     * subset after removals.
+     */
+    private int compatible = PRIMITIVES;
+    /**
+     * The elements, if {@link #storage} is {@link #NODES}.
+     */
+    private YamlNode[] nodes;
+    /**
+     * The elements, if {@link #storage} is {@link #INTS} or
+     * {@link #NARROW_INTS}.
+     */
+    private int[] ints;
+    /**
+     * The elements, if {@link #storage} is {@link #LONGS} or
+     * {@link #NARROW_LONGS}.
+     */
+    private long[] longs;
+    /**
+     * The elements, if {@link #storage} is {@link #DOUBLES}.
+     */
+    private double[] doubles;
+    /**
+     * The number of elements.
+     */
+    private int size;
+
+    /**
+     * Creates a new empty {@code YamlNodeList}.
+     *
+     * @param factory the factory creating nodes of compacted elements, or
+     *                {@code null} if this list should not be compacted
+     */
+    YamlNodeList(YamlNodeFactory factory) {
+        this(factory, null, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates a new empty {@code YamlNodeList} with the specified initial
+     * capacity.
+     *
+     * @param factory  the factory creating nodes of compacted elements, or
+     *                 {@code null} if this list should not be compacted
+     * @param capacity the initial capacity
+     */
+    YamlNodeList(YamlNodeFactory factory, int capacity) {
+        this(factory, null, capacity);
+    }
+
+    /**
+     * Creates a new empty {@code YamlNodeList} backing the specified node.
+     * Nodes of compacted elements are created by the factory of the owner.
+     *
+     * @param owner the node whose cached hash code is invalidated on
+     *              modification
+     */
+    YamlNodeList(YamlContainerNode owner) {
+        this(owner.getNodeFactory(), owner, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates a new empty {@code YamlNodeList}.
+     *
+     * @param factory  the factory creating nodes of compacted elements, or
+     *                 {@code null} if this list should not be compacted
+     * @param owner    the node whose cached hash code is invalidated on
+     *                 modification, or {@code null}
+     * @param capacity the initial capacity
+     */
+    YamlNodeList(YamlNodeFactory factory, YamlContainerNode owner,
+                 int capacity) {
+        this.factory = factory != null && factory.supportsCompactSequences()
+                       ? factory : null;
+        this.owner = owner;
+        this.nodes = new YamlNode[capacity];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public YamlNode get(int index) {
+        checkIndex(index, size);
+        switch (storage) {
+            case INTS:
+                return factory.intNode(ints[index]);
+            case NARROW_INTS:
+                return narrow(ints[index]);
+            case LONGS:
+                return factory.longNode(longs[index]);
+            case NARROW_LONGS:
+                return narrow(longs[index]);
+            case DOUBLES:
+                return factory.doubleNode(doubles[index]);
+            default:
+                return nodes[index];
+        }
+    }
+
+    @Override
+    public YamlNode set(int index, YamlNode node) {
+        Objects.requireNonNull(node);
+        checkIndex(index, size);
+        YamlNode old = get(index);
+        accommodate(node);
+        store(index, node);
+        modified();
+        return old;
+    }
+
+    @Override
+    public void add(int index, YamlNode node) {
+        Objects.requireNonNull(node);
+        checkIndex(index, size + 1);
+        accommodate(node);
+        ensureCapacity(size + 1);
+        if (index < size) {
+            Object array = array();
+            System.arraycopy(array, index, array, index + 1, size - index);
+        }
+        ++size;
+        ++modCount;
+        store(index, node);
+        modified();
+        if (storage == NODES && compatible != 0 && factory != null &&
+            size >= COMPACTION_THRESHOLD) {
+            compact(Integer.lowestOneBit(compatible));
+        }
+    }
+
+    @Override
+    public YamlNode remove(int index) {
+        checkIndex(index, size);
+        YamlNode old = get(index);
+        Object array = array();
+        System.arraycopy(array, index + 1, array, index, size - index - 1);
+        --size;
+        ++modCount;
+        if (storage == NODES) {
+            nodes[size] = null;
+        }
+        modified();
+        return old;
+    }
+
+    @Override
+    public void clear() {
+        ++modCount;
+        storage = NODES;
+        compatible = PRIMITIVES;
+        nodes = new YamlNode[DEFAULT_CAPACITY];
+        ints = null;
+        longs = null;
+        doubles = null;
+        size = 0;
+        modified();
+    }
+
+    /**
+     * Checks if the elements are stored in a primitive array.
+     *
+     * @return if this list is compacted
+     */
+    boolean isCompact() {
+        return storage != NODES;
+    }
+
+    @Override
+    public Spliterator<YamlNode> spliterator() {
+        return new IndexedSpliterator<>(this::get, this::size, () -> modCount,
+                                        Spliterator.ORDERED |
+                                        Spliterator.NONNULL);
+    }
+
+    /**
+     * Invalidates the cached hash code of the owner.
+     */
+    private void modified() {
+        if (owner != null) {
+            owner.invalidateHashCode();
+        }
+    }
+
+    /**
+     * Updates the compatible storages with the specified node and inflates
+     * this list if the node does not fit into the current storage.
+     *
+     * @param node the node to be stored
+     */
+    private void accommodate(YamlNode node) {
+        compatible &= compatibleStorages(node);
+        if (storage != NODES && (compatible & storage) == 0) {
+            inflate();
+        }
+    }
+
+    /**
+     * Stores the node at the specified index of the current storage.
+     *
+     * @param index the index
+     * @param node  the node
+     */
+    private void store(int index, YamlNode node) {
+        switch (storage) {
+            case INTS:
+            case NARROW_INTS:
+                ints[index] = node.intValue();
+                break;
+            case LONGS:
+            case NARROW_LONGS:
+                longs[index] = node.longValue();
+                break;
+            case DOUBLES:
+                doubles[index] = node.doubleValue();
+                break;
+            default:
+                nodes[index] = node;
+        }
+    }
+
+    /**
+     * Moves the elements into the specified primitive storage.
+     *
+     * @param target the storage
+     */
+    private void compact(int target) {
+        // the factory has to recreate nodes equal to the stored ones
+        if (!view(target, nodes[0]).equals(nodes[0])) {
+            compatible &= ~target;
+            return;
+        }
+        // keep a reserved capacity across the change of storage
+        int capacity = Math.max(nodes.length, DEFAULT_CAPACITY);
+        switch (target) {
+            case INTS:
+            case NARROW_INTS:
+                ints = new int[capacity];
+                for (int i = 0; i < size; ++i) {
+                    ints[i] = nodes[i].intValue();
+                }
+                break;
+            case LONGS:
+            case NARROW_LONGS:
+                longs = new long[capacity];
+                for (int i = 0; i < size; ++i) {
+                    longs[i] = nodes[i].longValue();
+                }
+                break;
+            default:
+                doubles = new double[capacity];
+                for (int i = 0; i < size; ++i) {
+                    doubles[i] = nodes[i].doubleValue();
+                }
+        }
+        nodes = null;
+        storage = target;
+    }
+
+    /**
+     * Creates the node the specified storage would return for the value of
+     * the specified node.
+     *
+     * @param target the storage
+     * @param node   the node
+     *
+     * @return the created node
+     */
+    private YamlNode view(int target, YamlNode node) {
+        switch (target) {
+            case INTS:
+                return factory.intNode(node.intValue());
+            case NARROW_INTS:
+            case NARROW_LONGS:
+                return narrow(node.longValue());
+            case LONGS:
+                return factory.longNode(node.longValue());
+            default:
+                return factory.doubleNode(node.doubleValue());
+        }
+    }
+
+    /**
+     * Moves the elements back into an array of nodes.
+     */
+    private void inflate() {
+        YamlNode[] inflated
+                = new YamlNode[Math.max(size + (size >> 1), DEFAULT_CAPACITY)];
+        for (int i = 0; i < size; ++i) {
+            inflated[i] = get(i);
+        }
+        nodes = inflated;
+        ints = null;
+        longs = null;
+        doubles = null;
+        storage = NODES;
+    }
+
+    /**
+     * Gets the array of the current storage.
+     *
+     * @return the array
+     */
+    private Object array() {
+        switch (storage) {
+            case INTS:
+            case NARROW_INTS:
+                return ints;
+            case LONGS:
+            case NARROW_LONGS:
+                return longs;
+            case DOUBLES:
+                return doubles;
+            default:
+                return nodes;
+        }
+    }
+
+    /**
+     * Grows the array of the current storage to hold at least
+     * {@code capacity} elements.
+     *
+     * @param capacity the required capacity
+     */
+    void ensureCapacity(int capacity) {
+        switch (storage) {
+            case INTS:
+            case NARROW_INTS:
+                if (capacity > ints.length) {
+                    ints = Arrays.copyOf(ints, grow(ints.length, capacity));
+                }
+                break;
+            case LONGS:
+            case NARROW_LONGS:
+                if (capacity > longs.length) {
+                    longs = Arrays.copyOf(longs, grow(longs.length, capacity));
+                }
+                break;
+            case DOUBLES:
+                if (capacity > doubles.length) {
+                    doubles = Arrays.copyOf(doubles, grow(doubles.length, capacity));
+                }
+                break;
+            default:
+                if (capacity > nodes.length) {
+                    nodes = Arrays.copyOf(nodes, grow(nodes.length, capacity));
+                }
+        }
+    }
+
+    /**
+     * Calculates the new length of a full array.
+     *
+     * @param length   the current length
+     * @param capacity the required capacity
+     *
+     * @return the new length
+     */
+    private static int grow(int length, int capacity) {
+        return Math.max(Math.max(length + (length >> 1), capacity),
+                        DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Checks the specified index.
+     *
+     * @param index the index
+     * @param bound the exclusive upper bound
+     *
+     * @throws IndexOutOfBoundsException if the index is out of bounds
+     */
+    private static void checkIndex(int index, int bound) {
+        if (index < 0 || index >= bound) {
+            throw new IndexOutOfBoundsException("Index: " + index +
+                                                ", Size: " + bound);
+        }
+    }
+
+    /**
+     * Gets the primitive storages the specified node can be stored in.
+     *
+     * @param node the node
+     *
+     * @return the storages
+     */
+    private static int compatibleStorages(YamlNode node) {
+        Class<?> type = node.getClass();
+        if (type == YamlByteNode.class) {
+            return NARROW_INTS | NARROW_LONGS;
+        } else if (type == YamlShortNode.class) {
+            return Numbers.fitsIntoByte(node.shortValue())
+                   ? 0 : NARROW_INTS | NARROW_LONGS;
+        } else if (type == YamlIntegerNode.class) {
+            return Numbers.fitsIntoShort(node.intValue())
+                   ? INTS : INTS | NARROW_INTS | NARROW_LONGS;
+        } else if (type == YamlLongNode.class) {
+            return Numbers.fitsIntoInt(node.longValue())
+                   ? LONGS : LONGS | NARROW_LONGS;
+        } else if (type == YamlDoubleNode.class) {
+            return DOUBLES;
+        } else {
+            return 0;
+        }
+    }
+
+    /**
+     * Creates a node of the smallest type fitting the value.
+     *
+     * @param value the value
+     *
+     * @return the node
+     */
+    private YamlNode narrow(long value) {
+        if (Numbers.fitsIntoByte(value)) {
+            return factory.byteNode((byte) value);
+        } else if (Numbers.fitsIntoShort(value)) {
+            return factory.shortNode((short) value);
+        } else if (Numbers.fitsIntoInt(value)) {
+            return factory.intNode((int) value);
+        } else {
+            return factory.longNode(value);
+        }
+    }
+}
@@ -53,7 +53,7 @@ public final class YamlNullNode extends YamlScalarNode {
 
     @Override
     public boolean equals(Object o) {
-        return o == this;
+        return YamlLazyScalarNode.unwrap(o) == this;
     }
 
     @Override
@@ -77,8 +77,9 @@ public abstract class YamlNumberNode extends YamlScalarNode {
 
     @Override
     public boolean equals(Object o) {
-        return o != null && getClass() == o.getClass() &&
-               Objects.equals(numberValue(), ((YamlNumberNode) o).numberValue());
+        Object other = YamlLazyScalarNode.unwrap(o);
+        return other != null && getClass() == other.getClass() &&
+               Objects.equals(numberValue(), ((YamlNumberNode) other).numberValue());
     }
 
     @Override
@@ -15,6 +15,7 @@
  */
 package com.github.autermann.yaml.nodes;
 
+import java.util.Map;
 import java.util.Map.Entry;
 
 import org.yaml.snakeyaml.nodes.Tag;
@@ -23,7 +24,6 @@ import com.github.autermann.yaml.ReturningYamlNodeVisitor;
 import com.github.autermann.yaml.YamlNode;
 import com.github.autermann.yaml.YamlNodeFactory;
 import com.github.autermann.yaml.YamlNodeVisitor;
-import com.google.common.collect.Maps;
 
 /**
  * A {@link YamlNode} for {@code !!omap} mappings.
@@ -33,12 +33,37 @@ import com.google.common.collect.Maps;
 public class YamlOrderedMapNode extends YamlMapNode {
 
     /**
-     * Creates a new {@link YamlOrderedMapNode}.
+     * Creates a new {@link YamlOrderedMapNode} backed by a
+     * {@link com.github.autermann.yaml.util.CompactMap}.
      *
      * @param factory the factory to create children with
      */
     public YamlOrderedMapNode(YamlNodeFactory factory) {
-        super(factory, Maps.<YamlNode, YamlNode>newLinkedHashMap());
+        super(factory);
+    }
+
+    /**
+     * Creates a new {@link YamlOrderedMapNode} backed by a
+     * {@link com.github.autermann.yaml.util.CompactMap} that can hold the
+     * specified number of entries without reallocation.
+     *
+     * @param factory      the factory to create children with
+     * @param expectedSize the expected number of entries
+     */
+    public YamlOrderedMapNode(YamlNodeFactory factory, int expectedSize) {
+        super(factory, expectedSize);
+    }
+
+    /**
+     * Creates a new {@link YamlOrderedMapNode} with the specified backing
+     * map.
+     *
+     * @param factory the factory to create children with
+     * @param nodes   the backing map
+     */
+    protected YamlOrderedMapNode(YamlNodeFactory factory,
+                                 Map<YamlNode, YamlNode> nodes) {
+        super(factory, nodes);
     }
 
     @Override
@@ -58,13 +83,28 @@ public class YamlOrderedMapNode extends YamlMapNode {
 
     @Override
     public YamlOrderedMapNode copy() {
-        YamlOrderedMapNode copy = getNodeFactory().orderedMapNode();
+        if (isFrozen()) {
+            return this;
+        }
+        YamlOrderedMapNode copy = getNodeFactory().orderedMapNode(size());
         for (Entry<YamlNode, YamlNode> e : entries()) {
             copy.put(e.getKey().copy(), e.getValue().copy());
         }
         return copy;
     }
 
+    @Override
+    public YamlOrderedMapNode freeze() {
+        return (YamlOrderedMapNode) super.freeze();
+    }
+
+    @Override
+    protected YamlOrderedMapNode createFrozen(
+            Map<YamlContainerNode, YamlContainerNode> frozenNodes) {
+        return new YamlOrderedMapNode(getNodeFactory(),
+                                      freezeEntries(frozenNodes));
+    }
+
     @Override
     public void accept(YamlNodeVisitor visitor) {
         visitor.visit(this);
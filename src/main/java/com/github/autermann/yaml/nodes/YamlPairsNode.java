@@ -15,17 +15,21 @@
  */
 package com.github.autermann.yaml.nodes;
 
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.Iterator;
-import java.util.LinkedList;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.Set;
 import java.util.Spliterator;
-import java.util.Spliterators;
+import java.util.function.Consumer;
 
 import org.yaml.snakeyaml.nodes.Tag;
 
@@ -34,24 +38,56 @@ import com.github.autermann.yaml.YamlNode;
 import com.github.autermann.yaml.YamlNodeFactory;
 import com.github.autermann.yaml.YamlNodeVisitor;
 import com.github.autermann.yaml.YamlNodes;
+import com.github.autermann.yaml.util.CompactMap;
+import com.github.autermann.yaml.util.IndexedSpliterator;
+import com.google.common.base.Preconditions;
 import com.google.common.collect.Iterators;
-import com.google.common.collect.ListMultimap;
 import com.google.common.collect.Maps;
 
 /**
  * A {@link YamlNode} for {@code !!pairs} mappings.
  *
+ * The pairs are stored in a flat array. Lookups scan this array until their
+ * number exceeds the index threshold, after which an index from keys to
+ * values is built and maintained. {@link #path(YamlNode)} returns a
+ * read-only sequence of the values of a key.
+ *
  * @author Christian Autermann
  */
 public class YamlPairsNode extends YamlMappingNode<YamlPairsNode> {
     /**
-     * A {@link ListMultimap} to enable fast access to all values of a key.
+     * The default number of lookups after which the key index is built.
+     */
+    public static final int DEFAULT_INDEX_THRESHOLD = 8;
+    /**
+     * The initial capacity in pairs.
+     */
+    private static final int DEFAULT_CAPACITY = 4;
+    /**
+     * The keys and values of all pairs, alternating, in insertion order.
+     */
+    private YamlNode[] pairs;
+    /**
+     * The number of pairs.
      */
-    private final Map<YamlNode, List<YamlNode>> multiMap;
+    private int size;
     /**
-     * A {@link List} of all entries to maintain insertion order.
+     * The number of lookups after which the key index is built.
      */
-    private final List<Entry<YamlNode, YamlNode>> value;
+    private final int indexThreshold;
+    /**
+     * The number of lookups without index.
+     */
+    private int lookups;
+    /**
+     * The lazily created index of the values of each key, in order of first
+     * occurrence of the key.
+     */
+    private volatile Map<YamlNode, List<YamlNode>> index;
+    /**
+     * The lazily created index of the text keys of this mapping.
+     */
+    private volatile YamlTextKeyIndex textKeys;
 
     /**
      * Creates a new {@link YamlPairsNode}.
@@ -59,9 +95,55 @@ public class YamlPairsNode extends YamlMappingNode<YamlPairsNode> {
      * @param factory the factory to create children with
      */
     public YamlPairsNode(YamlNodeFactory factory) {
+        this(factory, DEFAULT_INDEX_THRESHOLD);
+    }
+
+    /**
+     * Creates a new {@link YamlPairsNode}.
+     *
+     * @param factory        the factory to create children with
+     * @param indexThreshold the number of lookups after which the key index
+     *                       is built
+     */
+    public YamlPairsNode(YamlNodeFactory factory, int indexThreshold) {
+        this(factory, indexThreshold, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates a new {@link YamlPairsNode} that can hold the specified number
+     * of pairs without reallocation.
+     *
+     * @param factory        the factory to create children with
+     * @param indexThreshold the number of lookups after which the key index
+     *                       is built
+     * @param expectedSize   the expected number of pairs
+     */
+    public YamlPairsNode(YamlNodeFactory factory, int indexThreshold,
+                         int expectedSize) {
         super(factory);
-        this.multiMap = new HashMap<>();
-        this.value = new LinkedList<>();
+        Preconditions.checkArgument(indexThreshold >= 0,
+                                    "invalid index threshold: %s",
+                                    indexThreshold);
+        Preconditions.checkArgument(expectedSize >= 0,
+                                    "invalid expected size: %s", expectedSize);
+        this.indexThreshold = indexThreshold;
+        this.pairs = new YamlNode[2 * expectedSize];
+    }
+
+    /**
+     * Creates a new {@link YamlPairsNode} holding the specified pairs.
+     *
+     * @param factory        the factory to create children with
+     * @param indexThreshold the number of lookups after which the key index
+     *                       is built
+     * @param pairs          the keys and values of the pairs, alternating
+     */
+    private YamlPairsNode(YamlNodeFactory factory, int indexThreshold,
+                          YamlNode[] pairs) {
+        super(factory);
+        this.indexThreshold = indexThreshold;
+        this.pairs = pairs;
+        this.size = pairs.length / 2;
     }
 
     @Override
@@ -79,53 +161,107 @@ public class YamlPairsNode extends YamlMappingNode<YamlPairsNode> {
         return Tag.PAIRS;
     }
 
+    @Override
+    protected void ensureCapacity(int expectedSize) {
+        materialize();
+        if (2 * expectedSize > pairs.length) {
+            pairs = Arrays.copyOf(pairs, 2 * expectedSize);
+        }
+    }
+
     @Override
     public YamlPairsNode put(YamlNode key, YamlNode value) {
         // small protection adding this to a collection added to this still works
         if (key == this || value == this) {
             throw new IllegalArgumentException("recursive structures are currently not supported");
         }
-        this.value.add(Maps.immutableEntry(key, value));
-        this.multiMap.computeIfAbsent(key, k -> new LinkedList<>()).add(value);
+        checkNotFrozen();
+        materialize();
+        if (2 * size == pairs.length) {
+            pairs = Arrays.copyOf(pairs, 2 * Math.max(size + (size >> 1),
+                                                      DEFAULT_CAPACITY));
+        }
+        pairs[2 * size] = key;
+        pairs[2 * size + 1] = value;
+        ++size;
+        invalidateHashCode();
+        Map<YamlNode, List<YamlNode>> idx = this.index;
+        if (idx != null) {
+            idx.computeIfAbsent(key, k -> new ArrayList<>(1)).add(value);
+        }
+        YamlTextKeyIndex keyIndex = this.textKeys;
+        if (keyIndex != null) {
+            keyIndex.add(key);
+        }
         return this;
     }
 
     @Override
     public int size() {
-        return this.value.size();
+        materialize();
+        return size;
     }
 
     @Override
     public boolean isEmpty() {
-        return this.value.isEmpty();
+        return size() == 0;
     }
 
     @Override
     public boolean equals(Object o) {
         if (o instanceof YamlPairsNode) {
             YamlPairsNode that = (YamlPairsNode) o;
-            return this.value.equals(that.value);
+            if (size() != that.size()) {
+                return false;
+            }
+            for (int i = 0; i < 2 * size; ++i) {
+                if (!Objects.equals(pairs[i], that.pairs[i])) {
+                    return false;
+                }
+            }
+            return true;
         }
         return false;
     }
 
     @Override
-    public int hashCode() {
-        return this.value.hashCode();
+    protected int computeHashCode() {
+        materialize();
+        int hash = 1;
+        for (int i = 0; i < size; ++i) {
+            hash = 31 * hash + (Objects.hashCode(pairs[2 * i]) ^
+                                Objects.hashCode(pairs[2 * i + 1]));
+        }
+        return hash;
     }
 
     @Override
     public YamlPairsNode copy() {
-        YamlPairsNode copy = getNodeFactory().pairsNode();
+        if (isFrozen()) {
+            return this;
+        }
+        YamlPairsNode copy = getNodeFactory().pairsNode(size());
         for (Entry<YamlNode, YamlNode> e : entries()) {
             copy.put(e.getKey().copy(), e.getValue().copy());
         }
         return copy;
     }
 
+    @Override
+    protected YamlPairsNode createFrozen(
+            Map<YamlContainerNode, YamlContainerNode> frozenNodes) {
+        materialize();
+        YamlNode[] frozen = new YamlNode[2 * size];
+        for (int i = 0; i < frozen.length; ++i) {
+            frozen[i] = freeze(pairs[i], frozenNodes);
+        }
+        return new YamlPairsNode(getNodeFactory(), indexThreshold, frozen);
+    }
+
     @Override
     public Collection<Entry<YamlNode, YamlNode>> entries() {
-        return Collections.unmodifiableCollection(this.value);
+        materialize();
+        return new Entries();
     }
 
     @Override
@@ -140,36 +276,269 @@ public class YamlPairsNode extends YamlMappingNode<YamlPairsNode> {
 
     @Override
     public boolean has(YamlNode key) {
-        return this.multiMap.containsKey(key) &&
-               !this.multiMap.get(key).isEmpty();
+        return !values(key).isEmpty();
     }
 
     @Override
     public boolean hasNotNull(YamlNode key) {
-        return this.multiMap.getOrDefault(key, Collections.emptyList())
-                .stream().filter(Objects::nonNull)
-                .anyMatch(n -> !n.isNull() && n.exists());
+        for (YamlNode node : values(key)) {
+            if (node != null && !node.isNull() && node.exists()) {
+                return true;
+            }
+        }
+        return false;
     }
 
     @Override
     public YamlNode path(YamlNode key) {
-        List<YamlNode> nodes = this.multiMap.get(YamlNodes.nullToNode(key));
-        if (nodes == null) {
+        List<YamlNode> nodes = values(YamlNodes.nullToNode(key));
+        if (nodes.isEmpty()) {
             return YamlMissingNode.instance();
         }
-        return getNodeFactory().sequenceNode().addAll(nodes);
+        return new YamlSeqNode(getNodeFactory(),
+                               Collections.unmodifiableList(nodes));
+    }
+
+    @Override
+    protected YamlNode textKey(String key) {
+        if (key == null) {
+            return super.textKey(key);
+        }
+        YamlTextKeyIndex keyIndex = this.textKeys;
+        if (keyIndex == null) {
+            this.textKeys = keyIndex = new YamlTextKeyIndex(keys());
+        }
+        return keyIndex.get(key);
+    }
+
+    /**
+     * Gets the values of the specified key. The returned list does not
+     * reflect later modifications of this node.
+     *
+     * @param key the key
+     *
+     * @return the values
+     */
+    private List<YamlNode> values(YamlNode key) {
+        materialize();
+        Map<YamlNode, List<YamlNode>> idx = this.index;
+        if (idx == null && ++lookups > indexThreshold) {
+            idx = buildIndex();
+        }
+        if (idx != null) {
+            List<YamlNode> values = idx.get(key);
+            return values == null ? Collections.emptyList()
+                   : new Prefix(values, values.size());
+        }
+        List<YamlNode> values = new ArrayList<>(1);
+        for (int i = 0; i < size; ++i) {
+            if (Objects.equals(pairs[2 * i], key)) {
+                values.add(pairs[2 * i + 1]);
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Gets the distinct keys in order of their first occurrence.
+     *
+     * @return the keys
+     */
+    private Set<YamlNode> keys() {
+        materialize();
+        Map<YamlNode, List<YamlNode>> idx = this.index;
+        if (idx != null) {
+            return idx.keySet();
+        }
+        Set<YamlNode> keys = new LinkedHashSet<>();
+        for (int i = 0; i < size; ++i) {
+            keys.add(pairs[2 * i]);
+        }
+        return keys;
+    }
+
+    /**
+     * Builds the key index.
+     *
+     * @return the index
+     */
+    private Map<YamlNode, List<YamlNode>> buildIndex() {
+        Map<YamlNode, List<YamlNode>> idx = new CompactMap<>();
+        for (int i = 0; i < size; ++i) {
+            idx.computeIfAbsent(pairs[2 * i], k -> new ArrayList<>(1))
+                    .add(pairs[2 * i + 1]);
+        }
+        this.index = idx;
+        return idx;
     }
 
     @Override
     public Iterator<YamlNode> iterator() {
-        return Iterators.unmodifiableIterator(this.multiMap.keySet().iterator());
+        return Iterators.unmodifiableIterator(keys().iterator());
     }
 
+    /**
+     * Returns a spliterator over the distinct keys. If the key index is
+     * built, it is backed by the index; otherwise it traverses the keys
+     * like {@link #iterator()} and only copies the remaining keys into an
+     * array if it is split.
+     *
+     * @return the spliterator
+     */
     @Override
     public Spliterator<YamlNode> spliterator() {
-        return Spliterators.spliterator(iterator(), size(), Spliterator.SIZED |
-                                                            Spliterator.SUBSIZED |
-                                                            Spliterator.ORDERED |
-                                                            Spliterator.NONNULL);
+        Set<YamlNode> keys = keys();
+        if (this.index != null) {
+            return keys.spliterator();
+        }
+        return new KeySpliterator(keys);
+    }
+
+    /**
+     * {@code Spliterator} over a set of keys that iterates the set and
+     * snapshots the remaining keys only when split.
+     */
+    private static class KeySpliterator implements Spliterator<YamlNode> {
+        private static final int CHARACTERISTICS = Spliterator.DISTINCT |
+                                                    Spliterator.ORDERED |
+                                                    Spliterator.NONNULL |
+                                                    Spliterator.SIZED |
+                                                    Spliterator.SUBSIZED;
+        /**
+         * The iterator over the keys.
+         */
+        private final Iterator<YamlNode> iterator;
+        /**
+         * The spliterator over the snapshot, if split.
+         */
+        private Spliterator<YamlNode> snapshot;
+        /**
+         * The number of remaining keys of the iterator.
+         */
+        private int remaining;
+
+        /**
+         * Creates a new {@code KeySpliterator}.
+         *
+         * @param keys the keys
+         */
+        KeySpliterator(Set<YamlNode> keys) {
+            this.iterator = keys.iterator();
+            this.remaining = keys.size();
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super YamlNode> action) {
+            Objects.requireNonNull(action);
+            if (snapshot != null) {
+                return snapshot.tryAdvance(action);
+            }
+            if (remaining > 0) {
+                --remaining;
+                action.accept(iterator.next());
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super YamlNode> action) {
+            Objects.requireNonNull(action);
+            if (snapshot != null) {
+                snapshot.forEachRemaining(action);
+            } else {
+                for (; remaining > 0; --remaining) {
+                    action.accept(iterator.next());
+                }
+            }
+        }
+
+        @Override
+        public Spliterator<YamlNode> trySplit() {
+            if (snapshot == null) {
+                if (remaining < 2) {
+                    return null;
+                }
+                YamlNode[] keys = new YamlNode[remaining];
+                for (int i = 0; i < keys.length; ++i) {
+                    keys[i] = iterator.next();
+                }
+                remaining = 0;
+                snapshot = new IndexedSpliterator<>(i -> keys[i], 0,
+                                                    keys.length,
+                                                    CHARACTERISTICS);
+            }
+            return snapshot.trySplit();
+        }
+
+        @Override
+        public long estimateSize() {
+            return snapshot != null ? snapshot.estimateSize() : remaining;
+        }
+
+        @Override
+        public int characteristics() {
+            return CHARACTERISTICS;
+        }
+    }
+
+    /**
+     * Read-only view of the pairs of this node.
+     */
+    private class Entries extends AbstractList<Entry<YamlNode, YamlNode>>
+            implements RandomAccess {
+        /**
+         * The number of pairs when this view was created.
+         */
+        private final int length = size;
+
+        @Override
+        public Entry<YamlNode, YamlNode> get(int i) {
+            Preconditions.checkElementIndex(i, length);
+            return Maps.immutableEntry(pairs[2 * i], pairs[2 * i + 1]);
+        }
+
+        @Override
+        public int size() {
+            return length;
+        }
+    }
+
+    /**
+     * Read-only view of the first elements of a list that is only appended
+     * to.
+     */
+    private static class Prefix extends AbstractList<YamlNode>
+            implements RandomAccess {
+        /**
+         * The list.
+         */
+        private final List<YamlNode> list;
+        /**
+         * The number of visible elements.
+         */
+        private final int length;
+
+        /**
+         * Creates a new {@code Prefix}.
+         *
+         * @param list   the list
+         * @param length the number of visible elements
+         */
+        Prefix(List<YamlNode> list, int length) {
+            this.list = list;
+            this.length = length;
+        }
+
+        @Override
+        public YamlNode get(int i) {
+            Preconditions.checkElementIndex(i, length);
+            return list.get(i);
+        }
+
+        @Override
+        public int size() {
+            return length;
+        }
     }
 }
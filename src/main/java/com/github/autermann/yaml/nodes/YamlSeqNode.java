@@ -15,9 +15,11 @@
  */
 package com.github.autermann.yaml.nodes;
 
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Spliterator;
-import java.util.Spliterators;
 
 import org.yaml.snakeyaml.nodes.Tag;
 
@@ -25,11 +27,17 @@ import com.github.autermann.yaml.ReturningYamlNodeVisitor;
 import com.github.autermann.yaml.YamlNode;
 import com.github.autermann.yaml.YamlNodeFactory;
 import com.github.autermann.yaml.YamlNodeVisitor;
-import com.google.common.collect.Lists;
+import com.google.common.base.Preconditions;
 
 /**
  * A {@link YamlNode} representing a {@code !!seq} sequence.
  *
+ * Larger sequences that only contain {@code int}, {@code long} or
+ * {@code double} nodes store their values in a primitive array and create
+ * the nodes on access using the node factory, if the factory
+ * {@linkplain YamlNodeFactory#supportsCompactSequences() supports} it. These
+ * are equal to the added nodes, but not necessarily the same instances.
+ *
  * @author Christian Autermann
  */
 public class YamlSeqNode extends YamlSequenceNode<YamlSeqNode> {
@@ -45,7 +53,33 @@ public class YamlSeqNode extends YamlSequenceNode<YamlSeqNode> {
      */
     public YamlSeqNode(YamlNodeFactory factory) {
         super(factory);
-        this.nodes = Lists.newArrayList();
+        this.nodes = new YamlNodeList(this);
+    }
+
+    /**
+     * Creates a new {@link YamlSequenceNode} that can hold the specified
+     * number of children without reallocation.
+     *
+     * @param factory      the factory to create children
+     * @param expectedSize the expected number of children
+     */
+    public YamlSeqNode(YamlNodeFactory factory, int expectedSize) {
+        super(factory);
+        Preconditions.checkArgument(expectedSize >= 0,
+                                    "invalid expected size: %s", expectedSize);
+        this.nodes = new YamlNodeList(factory, this, expectedSize);
+    }
+
+    /**
+     * Creates a new {@link YamlSequenceNode} with the specified backing list.
+     * An unmodifiable list results in a read-only sequence.
+     *
+     * @param factory the factory to create children
+     * @param nodes   the backing list
+     */
+    protected YamlSeqNode(YamlNodeFactory factory, List<YamlNode> nodes) {
+        super(factory);
+        this.nodes = Objects.requireNonNull(nodes);
     }
 
     @Override
@@ -65,18 +99,42 @@ public class YamlSeqNode extends YamlSequenceNode<YamlSeqNode> {
 
     @Override
     public List<YamlNode> value() {
+        materialize();
         return nodes;
     }
 
+    @Override
+    protected void ensureCapacity(int expectedSize) {
+        List<YamlNode> children = value();
+        if (children instanceof YamlNodeList) {
+            ((YamlNodeList) children).ensureCapacity(expectedSize);
+        }
+    }
+
     @Override
     public YamlSeqNode copy() {
-        YamlSeqNode copy = getNodeFactory().sequenceNode();
+        if (isFrozen()) {
+            return this;
+        }
+        YamlSeqNode copy = getNodeFactory().sequenceNode(size());
         for (YamlNode node : this) {
             copy.add(node.copy());
         }
         return copy;
     }
 
+    @Override
+    protected YamlSeqNode createFrozen(
+            Map<YamlContainerNode, YamlContainerNode> frozenNodes) {
+        List<YamlNode> value = value();
+        YamlNodeList frozen = new YamlNodeList(getNodeFactory(), value.size());
+        for (YamlNode node : value) {
+            frozen.add(freeze(node, frozenNodes));
+        }
+        return new YamlSeqNode(getNodeFactory(),
+                               Collections.unmodifiableList(frozen));
+    }
+
     @Override
     public void accept(YamlNodeVisitor visitor) {
         visitor.visit(this);
@@ -89,7 +147,6 @@ public class YamlSeqNode extends YamlSequenceNode<YamlSeqNode> {
 
     @Override
     public Spliterator<YamlNode> spliterator() {
-        return Spliterators.spliterator(value(), Spliterator.ORDERED |
-                                                 Spliterator.NONNULL);
+        return value().spliterator();
     }
 }
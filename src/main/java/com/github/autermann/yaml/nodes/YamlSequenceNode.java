@@ -20,6 +20,8 @@ import java.math.BigInteger;
 import java.util.Collection;
 import java.util.Date;
 import java.util.Iterator;
+import java.util.List;
+import java.util.RandomAccess;
 import java.util.stream.Collectors;
 
 import org.joda.time.DateTime;
@@ -27,6 +29,7 @@ import org.joda.time.DateTime;
 import com.github.autermann.yaml.YamlNode;
 import com.github.autermann.yaml.YamlNodeFactory;
 import com.github.autermann.yaml.YamlNodes;
+import com.google.common.collect.Iterables;
 import com.google.common.collect.Iterators;
 
 /**
@@ -72,11 +75,13 @@ public abstract class YamlSequenceNode<T extends YamlSequenceNode<T>>
      */
     @SuppressWarnings("unchecked")
     public T add(YamlNode value) {
+        checkNotFrozen();
         // small protection: adding this to a collection added to this still works
         if (value == this) {
             throw new IllegalArgumentException("recursive structures are currently not supported");
         }
         value().add(YamlNodes.nullToNode(value));
+        invalidateHashCode();
         return (T) this;
     }
 
@@ -89,6 +94,8 @@ public abstract class YamlSequenceNode<T extends YamlSequenceNode<T>>
      */
     @SuppressWarnings("unchecked")
     public T addAll(YamlNode... values) {
+        checkNotFrozen();
+        ensureCapacity(size() + values.length);
         for (YamlNode value : values) {
             add(value);
         }
@@ -104,6 +111,12 @@ public abstract class YamlSequenceNode<T extends YamlSequenceNode<T>>
      */
     @SuppressWarnings("unchecked")
     public T addAll(Iterable<? extends YamlNode> values) {
+        checkNotFrozen();
+        if (values instanceof Collection) {
+            ensureCapacity(size() + ((Collection<?>) values).size());
+        } else if (values instanceof YamlContainerNode) {
+            ensureCapacity(size() + ((YamlContainerNode) values).size());
+        }
         for (YamlNode value : values) {
             add(value);
         }
@@ -416,10 +429,16 @@ public abstract class YamlSequenceNode<T extends YamlSequenceNode<T>>
     }
 
     @Override
-    public int hashCode() {
+    protected int computeHashCode() {
         return value().hashCode();
     }
 
+    @Override
+    @SuppressWarnings("unchecked")
+    public T freeze() {
+        return (T) super.freeze();
+    }
+
     @Override
     public String toString() {
         String pre = getClass().getSimpleName() + "[";
@@ -441,11 +460,14 @@ public abstract class YamlSequenceNode<T extends YamlSequenceNode<T>>
 
     @Override
     public YamlNode path(int index) {
-        if (index < 0) {
+        Collection<YamlNode> value = value();
+        if (index < 0 || index >= value.size()) {
             return YamlMissingNode.instance();
         }
-        return value().stream().skip(index)
-                .findFirst().orElseGet(YamlMissingNode::instance);
+        if (value instanceof List && value instanceof RandomAccess) {
+            return ((List<YamlNode>) value).get(index);
+        }
+        return Iterables.get(value, index);
     }
 
     /**
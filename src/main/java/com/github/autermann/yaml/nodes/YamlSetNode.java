@@ -15,10 +15,10 @@
  */
 package com.github.autermann.yaml.nodes;
 
-import java.util.LinkedHashSet;
+import java.util.Collections;
+import java.util.Map;
 import java.util.Set;
 import java.util.Spliterator;
-import java.util.Spliterators;
 
 import org.yaml.snakeyaml.nodes.Tag;
 
@@ -26,6 +26,7 @@ import com.github.autermann.yaml.ReturningYamlNodeVisitor;
 import com.github.autermann.yaml.YamlNode;
 import com.github.autermann.yaml.YamlNodeFactory;
 import com.github.autermann.yaml.YamlNodeVisitor;
+import com.github.autermann.yaml.util.IndexedSet;
 
 /**
  * A {@link YamlNode} for {@code !!set} mappings.
@@ -36,7 +37,7 @@ public class YamlSetNode extends YamlSequenceNode<YamlSetNode> {
     /**
      * The children of this node.
      */
-    private final LinkedHashSet<YamlNode> nodes;
+    private final IndexedSet<YamlNode> nodes;
 
     /**
      * Create a new {@link YamlSetNode}.
@@ -44,8 +45,24 @@ public class YamlSetNode extends YamlSequenceNode<YamlSetNode> {
      * @param factory the factory to create children
      */
     public YamlSetNode(YamlNodeFactory factory) {
+        this(factory, 0);
+    }
+
+    /**
+     * Create a new {@link YamlSetNode} that can hold the specified number of
+     * children without reallocation.
+     *
+     * @param factory      the factory to create children
+     * @param expectedSize the expected number of children
+     */
+    public YamlSetNode(YamlNodeFactory factory, int expectedSize) {
         super(factory);
-        this.nodes = new LinkedHashSet<>();
+        this.nodes = new IndexedSet<YamlNode>(expectedSize) {
+            @Override
+            protected void modified() {
+                invalidateHashCode();
+            }
+        };
     }
 
     @Override
@@ -65,18 +82,55 @@ public class YamlSetNode extends YamlSequenceNode<YamlSetNode> {
 
     @Override
     public Set<YamlNode> value() {
+        return isFrozen() ? Collections.unmodifiableSet(indexed()) : indexed();
+    }
+
+    @Override
+    public YamlNode path(int index) {
+        IndexedSet<YamlNode> set = indexed();
+        if (index < 0 || index >= set.size()) {
+            return YamlMissingNode.instance();
+        }
+        return set.get(index);
+    }
+
+    @Override
+    protected void ensureCapacity(int expectedSize) {
+        indexed().reserve(expectedSize);
+    }
+
+    /**
+     * Gets the elements of this set, loading deferred content first.
+     *
+     * @return the elements
+     */
+    private IndexedSet<YamlNode> indexed() {
+        materialize();
         return this.nodes;
     }
 
     @Override
     public YamlSetNode copy() {
-        YamlSetNode copy = getNodeFactory().setNode();
+        if (isFrozen()) {
+            return this;
+        }
+        YamlSetNode copy = getNodeFactory().setNode(size());
         for (YamlNode node : this) {
             copy.add(node.copy());
         }
         return copy;
     }
 
+    @Override
+    protected YamlSetNode createFrozen(
+            Map<YamlContainerNode, YamlContainerNode> frozenNodes) {
+        YamlSetNode frozen = new YamlSetNode(getNodeFactory(), size());
+        for (YamlNode node : indexed()) {
+            frozen.add(freeze(node, frozenNodes));
+        }
+        return frozen;
+    }
+
     @Override
     public void accept(YamlNodeVisitor visitor) {
         visitor.visit(this);
@@ -89,7 +143,6 @@ public class YamlSetNode extends YamlSequenceNode<YamlSetNode> {
 
     @Override
     public Spliterator<YamlNode> spliterator() {
-        return Spliterators.spliterator(value(), Spliterator.DISTINCT |
-                                                 Spliterator.NONNULL);
+        return value().spliterator();
     }
 }
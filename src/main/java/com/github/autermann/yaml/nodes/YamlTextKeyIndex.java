@@ -0,0 +1,73 @@
+/*
+ * Copyright 2013-2015 Christian Autermann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.autermann.yaml.nodes;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import com.github.autermann.yaml.YamlNode;
+
+/**
+ * Index from {@code String}s to the text keys of a mapping. It allows
+ * {@link YamlMappingNode}s to look up {@code String} keys without creating a
+ * new {@link YamlTextNode} for every access.
+ *
+ * The index may contain keys that were removed from the mapping since, so a
+ * key returned by {@link #get(String)} still has to be looked up in the
+ * mapping itself.
+ *
+ * @author Christian Autermann
+ */
+final class YamlTextKeyIndex {
+    /**
+     * The indexed keys.
+     */
+    private final Map<String, YamlNode> keys;
+
+    /**
+     * Creates a new {@link YamlTextKeyIndex} containing the specified keys.
+     *
+     * @param keys the keys
+     */
+    YamlTextKeyIndex(Iterable<? extends YamlNode> keys) {
+        this.keys = new HashMap<>();
+        for (YamlNode key : keys) {
+            add(key);
+        }
+    }
+
+    /**
+     * Adds the key to this index if it is a text node.
+     *
+     * @param key the key
+     */
+    void add(YamlNode key) {
+        if (key != null && key.isText()) {
+            this.keys.put(key.textValue(), key);
+        }
+    }
+
+    /**
+     * Gets the indexed key for the supplied {@code String}.
+     *
+     * @param key the key
+     *
+     * @return the key node or {@code null}
+     */
+    YamlNode get(String key) {
+        return this.keys.get(key);
+    }
+}
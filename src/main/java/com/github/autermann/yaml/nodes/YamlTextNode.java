@@ -167,8 +167,9 @@ public class YamlTextNode extends YamlScalarNode {
 
     @Override
     public boolean equals(Object o) {
-        return o instanceof YamlTextNode &&
-               textValue().equals(((YamlTextNode) o).textValue());
+        Object other = YamlLazyScalarNode.unwrap(o);
+        return other instanceof YamlTextNode &&
+               textValue().equals(((YamlTextNode) other).textValue());
     }
 
     @Override
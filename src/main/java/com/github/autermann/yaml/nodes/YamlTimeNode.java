@@ -80,8 +80,9 @@ public class YamlTimeNode extends YamlScalarNode {
 
     @Override
     public boolean equals(Object o) {
-        return o instanceof YamlTimeNode &&
-               value().equals(((YamlTimeNode) o).value());
+        Object other = YamlLazyScalarNode.unwrap(o);
+        return other instanceof YamlTimeNode &&
+               value().equals(((YamlTimeNode) other).value());
     }
 
     @Override
@@ -0,0 +1,156 @@
+/*
+ * Copyright 2013-2015 Christian Autermann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.autermann.yaml.stream;
+
+/**
+ * The kinds of lines distinguished when splitting a YAML stream into its
+ * documents. Shared by {@link YamlDocumentSplitter} and
+ * {@link MappedYamlFile}, so both find the same document boundaries.
+ *
+ * @author Christian Autermann
+ */
+enum DocumentLine {
+    /**
+     * A line starting with a document start marker ({@code ---}).
+     */
+    DOCUMENT_START,
+    /**
+     * A line starting with a document end marker ({@code ...}).
+     */
+    DOCUMENT_END,
+    /**
+     * A line that can precede a document start marker without starting a
+     * document, i.e. an empty line, a comment or a directive.
+     */
+    IGNORABLE,
+    /**
+     * Any other line.
+     */
+    CONTENT;
+
+    /**
+     * The length of the document markers.
+     */
+    private static final int MARKER_LENGTH = 3;
+    /**
+     * The byte order mark.
+     */
+    static final char BYTE_ORDER_MARK = '\uFEFF';
+    /**
+     * The next line character.
+     */
+    static final char NEXT_LINE = '\u0085';
+    /**
+     * The line separator.
+     */
+    static final char LINE_SEPARATOR = '\u2028';
+    /**
+     * The paragraph separator.
+     */
+    static final char PARAGRAPH_SEPARATOR = '\u2029';
+
+    /**
+     * Classifies a line. The line may include its line break.
+     *
+     * @param text  the text containing the line
+     * @param start the start index of the line
+     * @param end   the end index (exclusive) of the line
+     *
+     * @return the kind of the line
+     */
+    static DocumentLine classify(CharSequence text, int start, int end) {
+        if (isMarker(text, start, end, '-')) {
+            return DOCUMENT_START;
+        } else if (isMarker(text, start, end, '.')) {
+            return DOCUMENT_END;
+        } else if (isIgnorable(text, start, end)) {
+            return IGNORABLE;
+        } else {
+            return CONTENT;
+        }
+    }
+
+    /**
+     * Checks if the line starts with a document marker consisting of three
+     * times {@code c} followed by white space or the end of the line.
+     *
+     * @param text  the text containing the line
+     * @param start the start index of the line
+     * @param end   the end index (exclusive) of the line
+     * @param c     the marker character
+     *
+     * @return if the line starts with the marker
+     */
+    private static boolean isMarker(CharSequence text, int start, int end,
+                                    char c) {
+        int markerEnd = start + MARKER_LENGTH;
+        if (markerEnd > end) {
+            return false;
+        }
+        for (int i = start; i < markerEnd; ++i) {
+            if (text.charAt(i) != c) {
+                return false;
+            }
+        }
+        return markerEnd == end || isSeparator(text.charAt(markerEnd));
+    }
+
+    /**
+     * Checks if the line is empty, a comment or a directive. Byte order marks
+     * are treated as white space.
+     *
+     * @param text  the text containing the line
+     * @param start the start index of the line
+     * @param end   the end index (exclusive) of the line
+     *
+     * @return if the line is ignorable
+     */
+    private static boolean isIgnorable(CharSequence text, int start, int end) {
+        for (int i = start; i < end; ++i) {
+            char c = text.charAt(i);
+            if (c == '#' || c == '%' && i == start) {
+                return true;
+            } else if (!isSeparator(c) && c != BYTE_ORDER_MARK) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Checks if the character is white space or a line break.
+     *
+     * @param c the character
+     *
+     * @return if the character separates tokens
+     */
+    private static boolean isSeparator(char c) {
+        return c == ' ' || c == '\t' || isLineBreak(c);
+    }
+
+    /**
+     * Checks if the character is a line break like the SnakeYAML scanner
+     * recognizes them.
+     *
+     * @param c the character
+     *
+     * @return if the character is a line break
+     */
+    static boolean isLineBreak(char c) {
+        return c == '\n' || c == '\r' || c == NEXT_LINE ||
+               c == LINE_SEPARATOR || c == PARAGRAPH_SEPARATOR;
+    }
+}
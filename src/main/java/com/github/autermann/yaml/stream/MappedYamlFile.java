@@ -0,0 +1,490 @@
+/*
+ * Copyright 2013-2015 Christian Autermann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.autermann.yaml.stream;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Objects;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * A memory mapped YAML file whose documents can be addressed by index.
+ *
+ * The file is mapped using {@link FileChannel#map}, so its content is not
+ * copied onto the heap. The encoding is detected from the byte order mark
+ * like {@link org.yaml.snakeyaml.reader.UnicodeReader} does: UTF-8, UTF-16BE
+ * and UTF-16LE are recognized, and UTF-8 is assumed in absence of a byte order
+ * mark. On creation the mapped bytes are scanned for document boundaries
+ * using the rules of {@link YamlDocumentSplitter}; only the offsets of the
+ * documents are kept. The readers returned by this class decode the mapped
+ * bytes incrementally.
+ *
+ * Files larger than {@link Integer#MAX_VALUE} bytes can not be mapped.
+ * Instances of this class are immutable and thread-safe as long as the file
+ * is not modified while it is mapped.
+ *
+ * @author Christian Autermann
+ */
+public class MappedYamlFile {
+    /**
+     * The initial capacity of the document offset arrays.
+     */
+    private static final int DEFAULT_CAPACITY = 16;
+    /**
+     * The mapped content, positioned after the byte order mark.
+     */
+    private final ByteBuffer content;
+    /**
+     * The detected charset.
+     */
+    private final Charset charset;
+    /**
+     * The number of bytes per code unit in the scanned encoding.
+     */
+    private final int unit;
+    /**
+     * The start offsets of the documents.
+     */
+    private int[] starts = new int[DEFAULT_CAPACITY];
+    /**
+     * The end offsets (exclusive) of the documents.
+     */
+    private int[] ends = new int[DEFAULT_CAPACITY];
+    /**
+     * The number of documents.
+     */
+    private int size;
+
+    /**
+     * Creates a new {@link MappedYamlFile} for the mapped content.
+     *
+     * @param buffer the mapped content
+     */
+    private MappedYamlFile(ByteBuffer buffer) {
+        int bom = 0;
+        if (startsWith(buffer, 0xEF, 0xBB, 0xBF)) {
+            this.charset = StandardCharsets.UTF_8;
+            bom = 3;
+        } else if (startsWith(buffer, 0xFE, 0xFF)) {
+            this.charset = StandardCharsets.UTF_16BE;
+            bom = 2;
+        } else if (startsWith(buffer, 0xFF, 0xFE)) {
+            this.charset = StandardCharsets.UTF_16LE;
+            bom = 2;
+        } else {
+            this.charset = StandardCharsets.UTF_8;
+        }
+        this.unit = this.charset == StandardCharsets.UTF_8 ? 1 : 2;
+        buffer.position(bom);
+        this.content = buffer.slice();
+        scan();
+    }
+
+    /**
+     * Maps the specified file.
+     *
+     * @param path the file
+     *
+     * @return the mapped file
+     *
+     * @throws IOException if the file can not be mapped
+     */
+    public static MappedYamlFile map(Path path) throws IOException {
+        Objects.requireNonNull(path);
+        try (FileChannel channel = FileChannel
+                .open(path, StandardOpenOption.READ)) {
+            long length = channel.size();
+            if (length > Integer.MAX_VALUE) {
+                throw new IOException("file too large to map: " + path);
+            }
+            return new MappedYamlFile(channel
+                    .map(FileChannel.MapMode.READ_ONLY, 0, length));
+        }
+    }
+
+    /**
+     * Gets the detected charset of the file.
+     *
+     * @return the charset
+     */
+    public Charset getCharset() {
+        return charset;
+    }
+
+    /**
+     * Gets the number of documents in the file.
+     *
+     * @return the number of documents
+     */
+    public int getDocumentCount() {
+        return size;
+    }
+
+    /**
+     * Gets the offset of the document in bytes, relative to the end of the
+     * byte order mark.
+     *
+     * @param index the index of the document
+     *
+     * @return the offset
+     */
+    public int getDocumentOffset(int index) {
+        Preconditions.checkElementIndex(index, size);
+        return starts[index];
+    }
+
+    /**
+     * Gets the length of the document in bytes.
+     *
+     * @param index the index of the document
+     *
+     * @return the length
+     */
+    public int getDocumentLength(int index) {
+        Preconditions.checkElementIndex(index, size);
+        return ends[index] - starts[index];
+    }
+
+    /**
+     * Opens a reader for the complete file.
+     *
+     * @return the reader
+     */
+    public Reader openStream() {
+        return openReader(0, content.limit());
+    }
+
+    /**
+     * Opens a reader for the source text of the specified document. The text
+     * is a self-contained YAML stream containing exactly this document.
+     *
+     * @param index the index of the document
+     *
+     * @return the reader
+     */
+    public Reader openDocument(int index) {
+        Preconditions.checkElementIndex(index, size);
+        return openReader(starts[index], ends[index]);
+    }
+
+    /**
+     * Opens a reader decoding the specified byte range.
+     *
+     * @param start the start offset
+     * @param end   the end offset (exclusive)
+     *
+     * @return the reader
+     */
+    private Reader openReader(int start, int end) {
+        ByteBuffer buffer = content.duplicate();
+        buffer.limit(end).position(start);
+        return new InputStreamReader(new ByteBufferInputStream(buffer.slice()),
+                                     charset.newDecoder()
+                .onUnmappableCharacter(CodingErrorAction.REPORT));
+    }
+
+    /**
+     * Scans the content for document boundaries like a
+     * {@link YamlDocumentSplitter}. Offsets are counted in code units while
+     * scanning; a trailing incomplete code unit is not scanned, but kept in
+     * the last document, so decoding it fails instead of the scan.
+     */
+    private void scan() {
+        CodeUnits text = new CodeUnits();
+        int limit = text.length();
+        int start = 0;
+        // if the current document was explicitly started or has content
+        boolean started = false;
+        // if the last document was ended by a document end marker
+        boolean ended = false;
+        // the line following the last document end marker
+        int afterEnd = 0;
+        int line = 0;
+        while (line < limit) {
+            int next = nextLine(text, line, limit);
+            switch (DocumentLine.classify(text, line, next)) {
+                case DOCUMENT_START:
+                    if (started) {
+                        add(start * unit, line * unit);
+                        start = line;
+                    } else if (ended) {
+                        start = afterEnd;
+                    }
+                    started = true;
+                    ended = false;
+                    break;
+                case DOCUMENT_END:
+                    if (started || !ended) {
+                        // the end of a document or, before the first
+                        // document, an invalid one
+                        add(start * unit, next * unit);
+                    }
+                    // the marker precedes the next document; directives and
+                    // comments before it belong to no document
+                    start = line;
+                    afterEnd = next;
+                    started = false;
+                    ended = true;
+                    break;
+                case CONTENT:
+                    started = true;
+                    ended = false;
+                    break;
+                default:
+                    break;
+            }
+            line = next;
+        }
+        if (started) {
+            add(start * unit, content.limit());
+        }
+    }
+
+    /**
+     * Adds a document.
+     *
+     * @param start the start offset
+     * @param end   the end offset (exclusive)
+     */
+    private void add(int start, int end) {
+        if (size == starts.length) {
+            starts = Arrays.copyOf(starts, 2 * size);
+            ends = Arrays.copyOf(ends, 2 * size);
+        }
+        starts[size] = start;
+        ends[size] = end;
+        ++size;
+    }
+
+    /**
+     * Gets the index of the line following the line at {@code index}.
+     *
+     * @param text  the code units
+     * @param index the index of the line
+     * @param limit the number of code units
+     *
+     * @return the index of the next line or {@code limit}
+     */
+    private static int nextLine(CodeUnits text, int index, int limit) {
+        for (int i = index; i < limit; ++i) {
+            char c = text.charAt(i);
+            if (c == '\r') {
+                return i + 1 < limit && text.charAt(i + 1) == '\n'
+                       ? i + 2 : i + 1;
+            } else if (DocumentLine.isLineBreak(c)) {
+                return i + text.width(i);
+            }
+        }
+        return limit;
+    }
+
+    /**
+     * Checks if the buffer starts with the specified bytes.
+     *
+     * @param buffer the buffer
+     * @param bytes  the bytes
+     *
+     * @return if the buffer starts with the bytes
+     */
+    private static boolean startsWith(ByteBuffer buffer, int... bytes) {
+        if (buffer.limit() < bytes.length) {
+            return false;
+        }
+        for (int i = 0; i < bytes.length; ++i) {
+            if ((buffer.get(i) & 0xFF) != bytes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * View of the complete code units of the content. Only code units in the
+     * ASCII range, byte order marks and line breaks are reliably identified;
+     * this suffices to classify lines. Each byte of a UTF-8 encoded byte order
+     * mark or line break reads as that character.
+     */
+    private class CodeUnits implements CharSequence {
+        /**
+         * The number of complete code units.
+         */
+        private final int length = content.limit() / unit;
+
+        @Override
+        public int length() {
+            return length;
+        }
+
+        @Override
+        public char charAt(int index) {
+            Preconditions.checkElementIndex(index, length);
+            if (unit == 2) {
+                int offset = 2 * index;
+                int high = content.get(offset) & 0xFF;
+                int low = content.get(offset + 1) & 0xFF;
+                return charset == StandardCharsets.UTF_16BE
+                       ? (char) (high << 8 | low) : (char) (low << 8 | high);
+            }
+            char c = (char) (content.get(index) & 0xFF);
+            if (c < 0x80) {
+                return c;
+            }
+            for (int i = 0; i < 3 && i <= index; ++i) {
+                char encoded = sequenceAt(index - i);
+                if (encoded != 0 && i < encodedLength(encoded)) {
+                    return encoded;
+                }
+            }
+            return c;
+        }
+
+        /**
+         * Gets the number of code units of the character at the specified
+         * index.
+         *
+         * @param index the index
+         *
+         * @return the number of code units
+         */
+        int width(int index) {
+            if (unit == 2) {
+                return 1;
+            }
+            char encoded = sequenceAt(index);
+            return encoded == 0 ? 1 : encodedLength(encoded);
+        }
+
+        /**
+         * Gets the byte order mark or line break whose UTF-8 encoding starts
+         * at the specified offset.
+         *
+         * @param offset the offset
+         *
+         * @return the character or {@code 0} if there is none
+         */
+        private char sequenceAt(int offset) {
+            int first = content.get(offset) & 0xFF;
+            if (first == 0xC2) {
+                return offset + 1 < length &&
+                       (content.get(offset + 1) & 0xFF) == 0x85
+                       ? DocumentLine.NEXT_LINE : 0;
+            }
+            if (offset + 2 >= length) {
+                return 0;
+            }
+            int second = content.get(offset + 1) & 0xFF;
+            int third = content.get(offset + 2) & 0xFF;
+            if (first == 0xEF && second == 0xBB && third == 0xBF) {
+                return DocumentLine.BYTE_ORDER_MARK;
+            } else if (first == 0xE2 && second == 0x80 && third == 0xA8) {
+                return DocumentLine.LINE_SEPARATOR;
+            } else if (first == 0xE2 && second == 0x80 && third == 0xA9) {
+                return DocumentLine.PARAGRAPH_SEPARATOR;
+            }
+            return 0;
+        }
+
+        /**
+         * Gets the length of the UTF-8 encoding of a character returned by
+         * {@link #sequenceAt(int)}.
+         *
+         * @param c the character
+         *
+         * @return the number of bytes
+         */
+        private int encodedLength(char c) {
+            return c == DocumentLine.NEXT_LINE ? 2 : 3;
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            Preconditions.checkPositionIndexes(start, end, length);
+            StringBuilder builder = new StringBuilder(end - start);
+            for (int i = start; i < end; ++i) {
+                builder.append(charAt(i));
+            }
+            return builder;
+        }
+
+        @Override
+        public String toString() {
+            return subSequence(0, length).toString();
+        }
+    }
+
+    /**
+     * {@link InputStream} reading the remaining bytes of a
+     * {@link ByteBuffer}.
+     */
+    private static class ByteBufferInputStream extends InputStream {
+        /**
+         * The buffer.
+         */
+        private final ByteBuffer buffer;
+
+        /**
+         * Creates a new {@link ByteBufferInputStream}.
+         *
+         * @param buffer the buffer
+         */
+        ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            Objects.requireNonNull(b);
+            Preconditions.checkPositionIndexes(off, off + len, b.length);
+            if (len == 0) {
+                return 0;
+            }
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int n = Math.min(len, buffer.remaining());
+            buffer.get(b, off, n);
+            return n;
+        }
+
+        @Override
+        public long skip(long n) {
+            int skipped = (int) Math.max(0, Math.min(n, buffer.remaining()));
+            buffer.position(buffer.position() + skipped);
+            return skipped;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+    }
+}
@@ -0,0 +1,276 @@
+/*
+ * Copyright 2013-2015 Christian Autermann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.autermann.yaml.stream;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+import org.yaml.snakeyaml.reader.UnicodeReader;
+
+/**
+ * Splits a YAML stream into the source text of its documents without parsing
+ * them.
+ *
+ * A line starting with a document marker ({@code ---} or {@code ...})
+ * followed by white space or the end of the line can only occur between
+ * documents, as YAML forbids such lines inside of scalars and collections.
+ * This allows the documents of a stream to be found by a cheap scan of the
+ * line starts, while the expensive parsing and construction of the documents
+ * can happen independently, e.g. in parallel. Directives preceding a document
+ * start marker are kept with the following document. Line breaks are
+ * recognized like by the SnakeYAML scanner, i.e. {@code \r\n}, {@code \r},
+ * {@code \n}, U+0085, U+2028 and U+2029.
+ *
+ * Each returned document is a self-contained YAML stream. Line breaks other
+ * than U+2028 and U+2029, which are kept as part of the content, are
+ * normalized to {@code \n}. Marks reported when loading a document are
+ * relative to the start of the document.
+ *
+ * Content following a document end marker ({@code ...}) without a document
+ * start marker, and a document end marker before the first document, are
+ * invalid. The splitter does not report them; instead, the returned text of
+ * such a document includes the end marker, so loading it fails like loading
+ * the complete stream does.
+ *
+ * The underlying reader is not closed by this class. Instances of this class
+ * are not thread-safe.
+ *
+ * @author Christian Autermann
+ */
+public class YamlDocumentSplitter implements Iterator<String> {
+    /**
+     * The size of the read buffer.
+     */
+    private static final int BUFFER_SIZE = 8192;
+    /**
+     * The source.
+     */
+    private final Reader reader;
+    /**
+     * The buffer of characters read from {@link #reader}.
+     */
+    private final char[] buffer = new char[BUFFER_SIZE];
+    /**
+     * The position of the next character in {@link #buffer}.
+     */
+    private int position;
+    /**
+     * The number of characters in {@link #buffer}.
+     */
+    private int limit;
+    /**
+     * The line being read.
+     */
+    private final StringBuilder line = new StringBuilder();
+    /**
+     * The text of the document being read.
+     */
+    private final StringBuilder document = new StringBuilder();
+    /**
+     * The first line of the next document that was already read.
+     */
+    private String pending;
+    /**
+     * The next document, or {@code null} if it was not read yet.
+     */
+    private String next;
+    /**
+     * If the end of the source was reached.
+     */
+    private boolean eof;
+    /**
+     * If the last document was ended by a document end marker.
+     */
+    private boolean ended;
+
+    /**
+     * Creates a new {@link YamlDocumentSplitter} for the supplied reader.
+     *
+     * @param reader the reader
+     */
+    public YamlDocumentSplitter(Reader reader) {
+        this.reader = Objects.requireNonNull(reader);
+    }
+
+    /**
+     * Creates a new {@link YamlDocumentSplitter} for the supplied input
+     * stream. The encoding is detected like for
+     * {@link com.github.autermann.yaml.Yaml#loadAll(InputStream)}.
+     *
+     * @param stream the input stream
+     */
+    public YamlDocumentSplitter(InputStream stream) {
+        this(new UnicodeReader(Objects.requireNonNull(stream)));
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next == null && !eof) {
+            try {
+                next = readDocument();
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+        return next != null;
+    }
+
+    @Override
+    public String next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        String document = next;
+        next = null;
+        return document;
+    }
+
+    /**
+     * Reads the next document.
+     *
+     * @return the document or {@code null} if there are no more documents
+     *
+     * @throws IOException if reading fails
+     */
+    private String readDocument() throws IOException {
+        document.setLength(0);
+        // if the document was explicitly started or has content
+        boolean started = false;
+        // the length of a preceding document end marker line, which is only
+        // part of this document if it is not explicitly started
+        int endMarker = 0;
+        String line = pending;
+        pending = null;
+        if (line == null) {
+            line = readLine();
+        }
+        for (; line != null; line = readLine()) {
+            switch (DocumentLine.classify(line, 0, line.length())) {
+                case DOCUMENT_START:
+                    if (started) {
+                        pending = line;
+                        return document.toString();
+                    }
+                    document.delete(0, endMarker);
+                    started = true;
+                    ended = false;
+                    break;
+                case DOCUMENT_END:
+                    if (started || !ended) {
+                        // the end of a document or, before the first
+                        // document, an invalid one
+                        append(line);
+                        // the marker also precedes the next document
+                        pending = line;
+                        ended = true;
+                        return document.toString();
+                    }
+                    // directives and comments before the marker belong to
+                    // no document
+                    document.setLength(0);
+                    append(line);
+                    endMarker = document.length();
+                    continue;
+                case CONTENT:
+                    started = true;
+                    ended = false;
+                    break;
+                default:
+                    break;
+            }
+            append(line);
+        }
+        eof = true;
+        return started ? document.toString() : null;
+    }
+
+    /**
+     * Reads the next line including its line break. Line breaks other than
+     * U+2028 and U+2029 are normalized to {@code \n}. A missing line break
+     * at the end of the source is added.
+     *
+     * @return the line or {@code null} if the end of the source was reached
+     *
+     * @throws IOException if reading fails
+     */
+    private String readLine() throws IOException {
+        line.setLength(0);
+        int c;
+        while ((c = read()) >= 0) {
+            if (c == '\r') {
+                if (peek() == '\n') {
+                    read();
+                }
+                return line.append('\n').toString();
+            } else if (c == '\n' || c == DocumentLine.NEXT_LINE) {
+                return line.append('\n').toString();
+            } else if (c == DocumentLine.LINE_SEPARATOR ||
+                       c == DocumentLine.PARAGRAPH_SEPARATOR) {
+                return line.append((char) c).toString();
+            }
+            line.append((char) c);
+        }
+        return line.length() == 0 ? null : line.append('\n').toString();
+    }
+
+    /**
+     * Reads the next character.
+     *
+     * @return the character or {@code -1} at the end of the source
+     *
+     * @throws IOException if reading fails
+     */
+    private int read() throws IOException {
+        int c = peek();
+        if (c >= 0) {
+            ++position;
+        }
+        return c;
+    }
+
+    /**
+     * Gets the next character without consuming it.
+     *
+     * @return the character or {@code -1} at the end of the source
+     *
+     * @throws IOException if reading fails
+     */
+    private int peek() throws IOException {
+        while (position == limit) {
+            int read = reader.read(buffer, 0, buffer.length);
+            if (read < 0) {
+                return -1;
+            }
+            position = 0;
+            limit = read;
+        }
+        return buffer[position];
+    }
+
+    /**
+     * Appends a line to the current document.
+     *
+     * @param line the line
+     */
+    private void append(String line) {
+        document.append(line);
+    }
+}
@@ -0,0 +1,546 @@
+/*
+ * Copyright 2013-2015 Christian Autermann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.autermann.yaml.stream;
+
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import org.yaml.snakeyaml.DumperOptions;
+import org.yaml.snakeyaml.LoaderOptions;
+import org.yaml.snakeyaml.error.Mark;
+import org.yaml.snakeyaml.error.YAMLException;
+import org.yaml.snakeyaml.nodes.Tag;
+import org.yaml.snakeyaml.reader.UnicodeReader;
+
+import com.github.autermann.yaml.YamlNode;
+import com.github.autermann.yaml.YamlNodeFactory;
+import com.github.autermann.yaml.construct.YamlNodeConstructor;
+import com.github.autermann.yaml.nodes.YamlMappingNode;
+import com.github.autermann.yaml.nodes.YamlSequenceNode;
+import com.google.common.collect.UnmodifiableIterator;
+
+/**
+ * Loader that constructs {@link YamlNode}s directly from parser events.
+ *
+ * {@link com.github.autermann.yaml.Yaml} composes every document into a
+ * SnakeYAML node graph before constructing the {@link YamlNode}s from it. This
+ * loader skips the intermediate graph: containers are created by the
+ * {@link YamlNodeFactory} as soon as they start and scalars are converted by
+ * the constructs of the {@link YamlNodeConstructor}. Anchors and aliases are
+ * supported; an alias yields the same instance as its anchored node. Like
+ * {@link com.github.autermann.yaml.Yaml}, recursive structures are not.
+ *
+ * Only the standard collection tags ({@code !!map}, {@code !!omap},
+ * {@code !!pairs}, {@code !!seq} and {@code !!set}) are supported, custom
+ * constructs registered for other collection tags are not consulted.
+ *
+ * The streams are parsed like by a {@link YamlReader}: unless
+ * {@link LoaderOptions} are supplied, the length of a stream is not limited.
+ *
+ * Instances of this class are thread-safe.
+ *
+ * @author Christian Autermann
+ */
+public class YamlNodeLoader {
+    /**
+     * The constructor used to convert scalars.
+     */
+    private final YamlNodeConstructor constructor;
+    /**
+     * The options of the parser.
+     */
+    private final LoaderOptions loaderOptions;
+
+    /**
+     * Creates a new {@link YamlNodeLoader} with default
+     * {@link DumperOptions} and {@link YamlNodeFactory}.
+     */
+    public YamlNodeLoader() {
+        this(new DumperOptions(), YamlNodeFactory.createDefault());
+    }
+
+    /**
+     * Creates a new {@link YamlNodeLoader} with default
+     * {@link DumperOptions} and the supplied {@link YamlNodeFactory}.
+     *
+     * @param nodeFactory the node factory
+     */
+    public YamlNodeLoader(YamlNodeFactory nodeFactory) {
+        this(new DumperOptions(), nodeFactory);
+    }
+
+    /**
+     * Creates a new {@link YamlNodeLoader} using the supplied
+     * {@link DumperOptions} and {@link YamlNodeFactory}.
+     *
+     * @param dumperOptions the dumper options
+     * @param nodeFactory   the node factory
+     */
+    public YamlNodeLoader(DumperOptions dumperOptions,
+                          YamlNodeFactory nodeFactory) {
+        this(new YamlNodeConstructor(nodeFactory, dumperOptions));
+    }
+
+    /**
+     * Creates a new {@link YamlNodeLoader} using the supplied
+     * {@link DumperOptions}, {@link YamlNodeFactory} and
+     * {@link LoaderOptions}.
+     *
+     * @param dumperOptions the dumper options
+     * @param nodeFactory   the node factory
+     * @param loaderOptions the loader options
+     */
+    public YamlNodeLoader(DumperOptions dumperOptions,
+                          YamlNodeFactory nodeFactory,
+                          LoaderOptions loaderOptions) {
+        this(new YamlNodeConstructor(nodeFactory, dumperOptions),
+             loaderOptions);
+    }
+
+    /**
+     * Creates a new {@link YamlNodeLoader} using the supplied
+     * {@link YamlNodeConstructor} to convert scalars.
+     *
+     * @param constructor the constructor
+     */
+    public YamlNodeLoader(YamlNodeConstructor constructor) {
+        this(constructor, YamlReader.streamingLoaderOptions());
+    }
+
+    /**
+     * Creates a new {@link YamlNodeLoader} using the supplied
+     * {@link YamlNodeConstructor} to convert scalars and the supplied
+     * {@link LoaderOptions} to parse the streams.
+     *
+     * @param constructor   the constructor
+     * @param loaderOptions the loader options
+     */
+    public YamlNodeLoader(YamlNodeConstructor constructor,
+                          LoaderOptions loaderOptions) {
+        this.constructor = Objects.requireNonNull(constructor);
+        this.loaderOptions = Objects.requireNonNull(loaderOptions);
+    }
+
+    /**
+     * Loads the single document of {@code yaml}.
+     *
+     * @param yaml the string
+     *
+     * @return the {@link YamlNode} or {@code null} if there is no document
+     */
+    public YamlNode load(String yaml) {
+        return load(new StringReader(yaml));
+    }
+
+    /**
+     * Loads the single document of {@code io}, detecting its encoding.
+     *
+     * @param io the input stream
+     *
+     * @return the {@link YamlNode} or {@code null} if there is no document
+     */
+    public YamlNode load(InputStream io) {
+        return load(new UnicodeReader(io));
+    }
+
+    /**
+     * Loads the single document of {@code io}.
+     *
+     * @param io the reader
+     *
+     * @return the {@link YamlNode} or {@code null} if there is no document
+     */
+    public YamlNode load(Reader io) {
+        YamlReader reader = new YamlReader(io, constructor, loaderOptions);
+        if (!reader.hasNext()) {
+            return null;
+        }
+        YamlNode node = readDocument(reader);
+        if (reader.hasNext()) {
+            reader.next();
+            throw error("expected a single document in the stream but found another document",
+                        reader.getStartMark());
+        }
+        return node;
+    }
+
+    /**
+     * Lazily loads the documents of {@code yaml}.
+     *
+     * @param yaml the string
+     *
+     * @return the {@link YamlNode}s
+     */
+    public Iterable<YamlNode> loadAll(String yaml) {
+        return () -> new DocumentIterator(new StringReader(yaml));
+    }
+
+    /**
+     * Lazily loads the documents of {@code yaml}, detecting its encoding.
+     *
+     * @param yaml the input stream
+     *
+     * @return the {@link YamlNode}s
+     */
+    public Iterable<YamlNode> loadAll(InputStream yaml) {
+        return () -> new DocumentIterator(new UnicodeReader(yaml));
+    }
+
+    /**
+     * Lazily loads the documents of {@code yaml}.
+     *
+     * @param yaml the reader
+     *
+     * @return the {@link YamlNode}s
+     */
+    public Iterable<YamlNode> loadAll(Reader yaml) {
+        return () -> new DocumentIterator(yaml);
+    }
+
+    /**
+     * Lazily loads the documents of {@code yaml}.
+     *
+     * @param yaml the string
+     *
+     * @return the {@link YamlNode}s
+     */
+    public Stream<YamlNode> loadStream(String yaml) {
+        return StreamSupport.stream(loadAll(yaml).spliterator(), false);
+    }
+
+    /**
+     * Lazily loads the documents of {@code yaml}, detecting its encoding.
+     *
+     * @param yaml the input stream
+     *
+     * @return the {@link YamlNode}s
+     */
+    public Stream<YamlNode> loadStream(InputStream yaml) {
+        return StreamSupport.stream(loadAll(yaml).spliterator(), false);
+    }
+
+    /**
+     * Lazily loads the documents of {@code yaml}.
+     *
+     * @param yaml the reader
+     *
+     * @return the {@link YamlNode}s
+     */
+    public Stream<YamlNode> loadStream(Reader yaml) {
+        return StreamSupport.stream(loadAll(yaml).spliterator(), false);
+    }
+
+    /**
+     * Reads the node starting at the current token of {@code reader}. After
+     * this method returns, the current token is the last token of the node.
+     * Aliases can only refer to anchors defined within the node.
+     *
+     * @param reader the reader
+     *
+     * @return the node
+     *
+     * @throws IllegalStateException if the current token does not start a
+     *                               node
+     */
+    public YamlNode readNode(YamlReader reader) {
+        return readNode(reader, new HashMap<>());
+    }
+
+    /**
+     * Reads the next document of {@code reader}.
+     *
+     * @param reader the reader
+     *
+     * @return the root node of the document
+     */
+    private YamlNode readDocument(YamlReader reader) {
+        if (reader.next() != YamlToken.START_DOCUMENT) {
+            throw new IllegalStateException("expected document start");
+        }
+        reader.next();
+        YamlNode node = readNode(reader, new HashMap<>());
+        if (reader.next() != YamlToken.END_DOCUMENT) {
+            throw new IllegalStateException("expected document end");
+        }
+        return node;
+    }
+
+    /**
+     * Reads the node starting at the current token of {@code reader}.
+     *
+     * @param reader  the reader
+     * @param anchors the anchored nodes of the current document
+     *
+     * @return the node
+     */
+    private YamlNode readNode(YamlReader reader, Map<String, YamlNode> anchors) {
+        Deque<Container> containers = new ArrayDeque<>();
+        YamlToken token = reader.getToken();
+        if (token == null) {
+            throw new IllegalStateException("no current token");
+        }
+        for (;;) {
+            YamlNode node;
+            switch (token) {
+                case KEY:
+                    node = constructor.internKey(reader.getScalar());
+                    anchor(anchors, reader.getAnchor(), node);
+                    break;
+                case SCALAR:
+                    node = reader.getScalar();
+                    anchor(anchors, reader.getAnchor(), node);
+                    break;
+                case ALIAS:
+                    node = resolve(reader, anchors, containers);
+                    break;
+                case START_MAPPING:
+                    containers.push(createMapping(reader));
+                    node = null;
+                    break;
+                case START_SEQUENCE:
+                    containers.push(createSequence(reader));
+                    node = null;
+                    break;
+                case END_MAPPING:
+                case END_SEQUENCE:
+                    Container container = containers.pop();
+                    node = container.node;
+                    anchor(anchors, container.anchor, node);
+                    break;
+                default:
+                    throw new IllegalStateException("current token does not start a node: " + token);
+            }
+            if (node != null) {
+                if (containers.isEmpty()) {
+                    return node;
+                }
+                containers.peek().add(node);
+            }
+            token = reader.next();
+        }
+    }
+
+    /**
+     * Registers an anchored node.
+     *
+     * @param anchors the anchored nodes
+     * @param anchor  the anchor or {@code null}
+     * @param node    the node
+     */
+    private static void anchor(Map<String, YamlNode> anchors, String anchor,
+                               YamlNode node) {
+        if (anchor != null) {
+            anchors.put(anchor, node);
+        }
+    }
+
+    /**
+     * Resolves the alias at the current token.
+     *
+     * @param reader     the reader
+     * @param anchors    the anchored nodes
+     * @param containers the containers under construction
+     *
+     * @return the anchored node
+     */
+    private static YamlNode resolve(YamlReader reader,
+                                    Map<String, YamlNode> anchors,
+                                    Deque<Container> containers) {
+        String alias = reader.getText();
+        for (Container container : containers) {
+            if (alias.equals(container.anchor)) {
+                throw error("found unconstructable recursive node",
+                            reader.getStartMark());
+            }
+        }
+        YamlNode node = anchors.get(alias);
+        if (node == null) {
+            throw error("found undefined alias " + alias, reader.getStartMark());
+        }
+        return node;
+    }
+
+    /**
+     * Creates the mapping started by the current token.
+     *
+     * @param reader the reader
+     *
+     * @return the container
+     */
+    private Container createMapping(YamlReader reader) {
+        Tag tag = reader.getTag();
+        YamlNodeFactory factory = constructor.getNodeFactory();
+        if (tag.equals(Tag.MAP)) {
+            return new Container(factory.mapNode(), reader.getAnchor());
+        } else if (tag.equals(Tag.OMAP)) {
+            return new Container(factory.orderedMapNode(), reader.getAnchor());
+        } else if (tag.equals(Tag.PAIRS)) {
+            return new Container(factory.pairsNode(), reader.getAnchor());
+        } else if (tag.equals(Tag.SET)) {
+            return new Container(factory.setNode(), reader.getAnchor(), true);
+        }
+        throw error("could not determine a constructor for the tag " + tag,
+                    reader.getStartMark());
+    }
+
+    /**
+     * Creates the sequence started by the current token.
+     *
+     * @param reader the reader
+     *
+     * @return the container
+     */
+    private Container createSequence(YamlReader reader) {
+        Tag tag = reader.getTag();
+        YamlNodeFactory factory = constructor.getNodeFactory();
+        if (tag.equals(Tag.SEQ)) {
+            return new Container(factory.sequenceNode(), reader.getAnchor(), false);
+        } else if (tag.equals(Tag.SET)) {
+            return new Container(factory.setNode(), reader.getAnchor(), false);
+        }
+        throw error("could not determine a constructor for the tag " + tag,
+                    reader.getStartMark());
+    }
+
+    /**
+     * Creates a new exception.
+     *
+     * @param problem the problem
+     * @param mark    the position of the problem
+     *
+     * @return the exception
+     */
+    private static YAMLException error(String problem, Mark mark) {
+        return new YAMLException(mark == null ? problem : problem + "\n" + mark);
+    }
+
+    /**
+     * A mapping or sequence under construction.
+     */
+    private static final class Container {
+        /**
+         * The node.
+         */
+        private final YamlNode node;
+        /**
+         * The node as mapping, or {@code null}.
+         */
+        private final YamlMappingNode<?> mapping;
+        /**
+         * The node as sequence, or {@code null}.
+         */
+        private final YamlSequenceNode<?> sequence;
+        /**
+         * The anchor of the node.
+         */
+        private final String anchor;
+        /**
+         * If the node is a sequence written as mapping with ignored values.
+         */
+        private final boolean keysOnly;
+        /**
+         * The pending mapping key.
+         */
+        private YamlNode key;
+
+        /**
+         * Creates a new {@link Container} for a mapping.
+         *
+         * @param mapping the mapping
+         * @param anchor  the anchor
+         */
+        Container(YamlMappingNode<?> mapping, String anchor) {
+            this.node = mapping;
+            this.mapping = mapping;
+            this.sequence = null;
+            this.anchor = anchor;
+            this.keysOnly = false;
+        }
+
+        /**
+         * Creates a new {@link Container} for a sequence.
+         *
+         * @param sequence the sequence
+         * @param anchor   the anchor
+         * @param keysOnly if the sequence is written as a mapping
+         */
+        Container(YamlSequenceNode<?> sequence, String anchor,
+                  boolean keysOnly) {
+            this.node = sequence;
+            this.mapping = null;
+            this.sequence = sequence;
+            this.anchor = anchor;
+            this.keysOnly = keysOnly;
+        }
+
+        /**
+         * Adds a completely read child.
+         *
+         * @param child the child
+         */
+        void add(YamlNode child) {
+            if (sequence != null && !keysOnly) {
+                sequence.add(child);
+            } else if (key == null) {
+                this.key = child;
+            } else {
+                if (mapping != null) {
+                    mapping.put(key, child);
+                } else {
+                    sequence.add(key);
+                }
+                this.key = null;
+            }
+        }
+    }
+
+    /**
+     * Iterator loading the documents of a stream.
+     */
+    private class DocumentIterator extends UnmodifiableIterator<YamlNode> {
+        /**
+         * The reader.
+         */
+        private final YamlReader reader;
+
+        /**
+         * Creates a new {@link DocumentIterator}.
+         *
+         * @param source the source
+         */
+        DocumentIterator(Reader source) {
+            this.reader = new YamlReader(source, constructor, loaderOptions);
+        }
+
+        @Override
+        public boolean hasNext() {
+            return reader.hasNext();
+        }
+
+        @Override
+        public YamlNode next() {
+            return readDocument(reader);
+        }
+    }
+}
@@ -0,0 +1,624 @@
+/*
+ * Copyright 2013-2015 Christian Autermann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.autermann.yaml.stream;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+import org.joda.time.DateTime;
+import org.yaml.snakeyaml.LoaderOptions;
+import org.yaml.snakeyaml.error.Mark;
+import org.yaml.snakeyaml.events.CollectionStartEvent;
+import org.yaml.snakeyaml.events.Event;
+import org.yaml.snakeyaml.events.NodeEvent;
+import org.yaml.snakeyaml.events.ScalarEvent;
+import org.yaml.snakeyaml.nodes.NodeId;
+import org.yaml.snakeyaml.nodes.ScalarNode;
+import org.yaml.snakeyaml.nodes.Tag;
+import org.yaml.snakeyaml.parser.Parser;
+import org.yaml.snakeyaml.parser.ParserImpl;
+import org.yaml.snakeyaml.reader.StreamReader;
+import org.yaml.snakeyaml.reader.UnicodeReader;
+import org.yaml.snakeyaml.resolver.Resolver;
+
+import com.github.autermann.yaml.YamlNode;
+import com.github.autermann.yaml.YamlNodeFactory;
+import com.github.autermann.yaml.construct.YamlNodeConstructor;
+
+/**
+ * Pull based reader for YAML streams.
+ *
+ * In contrast to {@link com.github.autermann.yaml.Yaml#load(Reader)} no node
+ * tree is built: the reader reports the parser events as {@link YamlToken}s
+ * and keeps only the nesting of the current position, so arbitrarily large
+ * streams can be processed in constant memory. Scalars are converted using
+ * the same constructs as the tree based API, either by the implicit
+ * resolution rules or by their explicit tag.
+ *
+ * Aliases are reported as {@link YamlToken#ALIAS} and are not resolved.
+ *
+ * SnakeYAML limits the number of code points of the whole stream by
+ * {@link LoaderOptions#getCodePointLimit()}. Unless {@link LoaderOptions} are
+ * supplied, this reader lifts that limit, as its memory use does not grow
+ * with the length of the stream.
+ *
+ * A typical loop looks like:
+ * <pre>
+ * try (YamlReader reader = new YamlReader(input)) {
+ *     while (reader.hasNext()) {
+ *         switch (reader.next()) {
+ *             case KEY: ... reader.getText() ...
+ *             case SCALAR: ... reader.asLongValue() ...
+ *         }
+ *     }
+ * }
+ * </pre>
+ *
+ * Instances of this class are not thread-safe.
+ *
+ * @author Christian Autermann
+ */
+public class YamlReader implements Closeable {
+    /**
+     * The parser.
+     */
+    private final Parser parser;
+    /**
+     * The source of the parser.
+     */
+    private final Reader source;
+    /**
+     * The resolver for implicit tags.
+     */
+    private final Resolver resolver;
+    /**
+     * The constructor used to convert scalars.
+     */
+    private final YamlNodeConstructor constructor;
+    /**
+     * The enclosing containers of the current position.
+     */
+    private final Deque<Container> containers = new ArrayDeque<>();
+    /**
+     * The current event.
+     */
+    private Event event;
+    /**
+     * The current token.
+     */
+    private YamlToken token;
+    /**
+     * If the current token is a mapping key or delimits one.
+     */
+    private boolean key;
+    /**
+     * The tag of the current token.
+     */
+    private Tag tag;
+    /**
+     * The lazily constructed scalar of the current token.
+     */
+    private YamlNode scalar;
+
+    /**
+     * Creates a new {@link YamlReader} using the default
+     * {@link YamlNodeFactory}.
+     *
+     * @param reader the source
+     */
+    public YamlReader(Reader reader) {
+        this(reader, YamlNodeFactory.createDefault());
+    }
+
+    /**
+     * Creates a new {@link YamlReader} using the supplied
+     * {@link YamlNodeFactory}.
+     *
+     * @param reader      the source
+     * @param nodeFactory the node factory
+     */
+    public YamlReader(Reader reader, YamlNodeFactory nodeFactory) {
+        this(reader, new YamlNodeConstructor(nodeFactory));
+    }
+
+    /**
+     * Creates a new {@link YamlReader} using the supplied
+     * {@link YamlNodeFactory} and {@link LoaderOptions}.
+     *
+     * @param reader        the source
+     * @param nodeFactory   the node factory
+     * @param loaderOptions the loader options
+     */
+    public YamlReader(Reader reader, YamlNodeFactory nodeFactory,
+                      LoaderOptions loaderOptions) {
+        this(reader, new YamlNodeConstructor(nodeFactory), loaderOptions);
+    }
+
+    /**
+     * Creates a new {@link YamlReader} detecting the encoding of the stream
+     * and using the default {@link YamlNodeFactory}.
+     *
+     * @param stream the source
+     */
+    public YamlReader(InputStream stream) {
+        this(new UnicodeReader(stream));
+    }
+
+    /**
+     * Creates a new {@link YamlReader} detecting the encoding of the stream
+     * and using the supplied {@link YamlNodeFactory}.
+     *
+     * @param stream      the source
+     * @param nodeFactory the node factory
+     */
+    public YamlReader(InputStream stream, YamlNodeFactory nodeFactory) {
+        this(new UnicodeReader(stream), nodeFactory);
+    }
+
+    /**
+     * Creates a new {@link YamlReader} detecting the encoding of the stream
+     * and using the supplied {@link YamlNodeFactory} and
+     * {@link LoaderOptions}.
+     *
+     * @param stream        the source
+     * @param nodeFactory   the node factory
+     * @param loaderOptions the loader options
+     */
+    public YamlReader(InputStream stream, YamlNodeFactory nodeFactory,
+                      LoaderOptions loaderOptions) {
+        this(new UnicodeReader(stream), nodeFactory, loaderOptions);
+    }
+
+    /**
+     * Creates a new {@link YamlReader} using the supplied
+     * {@link YamlNodeConstructor} to convert scalars.
+     *
+     * @param reader      the source
+     * @param constructor the constructor
+     */
+    public YamlReader(Reader reader, YamlNodeConstructor constructor) {
+        this(reader, constructor, streamingLoaderOptions());
+    }
+
+    /**
+     * Creates a new {@link YamlReader} using the supplied
+     * {@link YamlNodeConstructor} to convert scalars and the supplied
+     * {@link LoaderOptions} to parse the stream.
+     *
+     * @param reader        the source
+     * @param constructor   the constructor
+     * @param loaderOptions the loader options
+     */
+    public YamlReader(Reader reader, YamlNodeConstructor constructor,
+                      LoaderOptions loaderOptions) {
+        this.source = Objects.requireNonNull(reader);
+        this.constructor = Objects.requireNonNull(constructor);
+        this.parser = new ParserImpl(new StreamReader(reader),
+                                     Objects.requireNonNull(loaderOptions));
+        this.resolver = constructor.getResolver();
+        // the stream start is implicit
+        this.parser.getEvent();
+    }
+
+    /**
+     * Creates the {@link LoaderOptions} used if none are supplied: the
+     * defaults of SnakeYAML without a code point limit.
+     *
+     * @return the loader options
+     */
+    static LoaderOptions streamingLoaderOptions() {
+        LoaderOptions options = new LoaderOptions();
+        options.setCodePointLimit(Integer.MAX_VALUE);
+        return options;
+    }
+
+    /**
+     * Checks if there are further tokens.
+     *
+     * @return if there are further tokens
+     */
+    public boolean hasNext() {
+        skipIgnorable();
+        return !parser.checkEvent(Event.ID.StreamEnd);
+    }
+
+    /**
+     * Advances to the next token.
+     *
+     * @return the next token
+     *
+     * @throws NoSuchElementException if the end of the stream is reached
+     */
+    public YamlToken next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        this.event = parser.getEvent();
+        this.scalar = null;
+        this.tag = null;
+        switch (event.getEventId()) {
+            case DocumentStart:
+                this.key = false;
+                this.token = YamlToken.START_DOCUMENT;
+                break;
+            case DocumentEnd:
+                this.key = false;
+                this.token = YamlToken.END_DOCUMENT;
+                break;
+            case MappingStart:
+                this.key = isKeyPosition();
+                this.containers.push(new Container(true, key));
+                this.token = YamlToken.START_MAPPING;
+                break;
+            case SequenceStart:
+                this.key = isKeyPosition();
+                this.containers.push(new Container(false, key));
+                this.token = YamlToken.START_SEQUENCE;
+                break;
+            case MappingEnd:
+                this.key = containers.pop().key;
+                this.token = YamlToken.END_MAPPING;
+                completeValue();
+                break;
+            case SequenceEnd:
+                this.key = containers.pop().key;
+                this.token = YamlToken.END_SEQUENCE;
+                completeValue();
+                break;
+            case Alias:
+                this.key = isKeyPosition();
+                this.token = YamlToken.ALIAS;
+                completeValue();
+                break;
+            case Scalar:
+                this.key = isKeyPosition();
+                this.token = key ? YamlToken.KEY : YamlToken.SCALAR;
+                completeValue();
+                break;
+            default:
+                throw new IllegalStateException("unexpected event " + event);
+        }
+        return token;
+    }
+
+    /**
+     * Gets the current token.
+     *
+     * @return the current token or {@code null} if {@link #next()} was not
+     *         called yet
+     */
+    public YamlToken getToken() {
+        return token;
+    }
+
+    /**
+     * Checks if the current token is a mapping key or starts or ends a
+     * complex mapping key.
+     *
+     * @return if the current token is a key
+     */
+    public boolean isKey() {
+        return key;
+    }
+
+    /**
+     * Gets the number of mappings and sequences enclosing the current token.
+     * Start and end tokens are not enclosed by the container they delimit.
+     *
+     * @return the depth
+     */
+    public int getDepth() {
+        return token != null && token.isStart()
+               ? containers.size() - 1 : containers.size();
+    }
+
+    /**
+     * Skips the children of the mapping or sequence started by the current
+     * token, so that the current token will be the matching end token. Does
+     * nothing if the current token is not a start token.
+     *
+     * @return the current token
+     */
+    public YamlToken skipChildren() {
+        if (token != null && token.isStart()) {
+            int depth = containers.size();
+            while (containers.size() >= depth) {
+                next();
+            }
+        }
+        return token;
+    }
+
+    /**
+     * Gets the value of the current scalar, or the anchor name of the current
+     * alias.
+     *
+     * @return the text or {@code null} if the current token is neither a
+     *         scalar nor an alias
+     */
+    public String getText() {
+        if (token == null) {
+            return null;
+        } else if (token.isScalar()) {
+            return ((ScalarEvent) event).getValue();
+        } else if (token == YamlToken.ALIAS) {
+            return ((NodeEvent) event).getAnchor();
+        } else {
+            return null;
+        }
+    }
+
+    /**
+     * Gets the anchor of the current scalar, mapping or sequence.
+     *
+     * @return the anchor or {@code null}
+     */
+    public String getAnchor() {
+        if (token == null || token == YamlToken.ALIAS ||
+            !(event instanceof NodeEvent)) {
+            return null;
+        }
+        return ((NodeEvent) event).getAnchor();
+    }
+
+    /**
+     * Gets the explicit or resolved tag of the current scalar, mapping or
+     * sequence.
+     *
+     * @return the tag or {@code null} if the current token is not a scalar or
+     *         start token
+     */
+    public Tag getTag() {
+        if (tag == null && token != null) {
+            if (token.isScalar()) {
+                ScalarEvent ev = (ScalarEvent) event;
+                this.tag = resolve(ev.getTag(), NodeId.scalar, ev.getValue(),
+                                   ev.getImplicit().canOmitTagInPlainScalar());
+            } else if (token == YamlToken.START_MAPPING) {
+                CollectionStartEvent ev = (CollectionStartEvent) event;
+                this.tag = resolve(ev.getTag(), NodeId.mapping, null,
+                                   ev.getImplicit());
+            } else if (token == YamlToken.START_SEQUENCE) {
+                CollectionStartEvent ev = (CollectionStartEvent) event;
+                this.tag = resolve(ev.getTag(), NodeId.sequence, null,
+                                   ev.getImplicit());
+            }
+        }
+        return tag;
+    }
+
+    /**
+     * Gets the position of the current token in the stream.
+     *
+     * @return the mark or {@code null} if {@link #next()} was not called yet
+     */
+    public Mark getStartMark() {
+        return event == null ? null : event.getStartMark();
+    }
+
+    /**
+     * Converts the current scalar to a {@link YamlNode} using the constructs
+     * registered for its tag.
+     *
+     * @return the scalar node
+     *
+     * @throws IllegalStateException if the current token is not a scalar
+     */
+    public YamlNode getScalar() {
+        if (token == null || !token.isScalar()) {
+            throw new IllegalStateException("current token is not a scalar: " + token);
+        }
+        if (scalar == null) {
+            ScalarEvent ev = (ScalarEvent) event;
+            ScalarNode node = new ScalarNode(getTag(), ev.getValue(),
+                                             ev.getStartMark(),
+                                             ev.getEndMark(),
+                                             ev.getScalarStyle());
+            this.scalar = constructor.constructScalarNode(node);
+        }
+        return scalar;
+    }
+
+    /**
+     * Converts the current scalar to a {@code boolean}.
+     *
+     * @return the value
+     *
+     * @see YamlNode#asBooleanValue()
+     */
+    public boolean asBooleanValue() {
+        return getScalar().asBooleanValue();
+    }
+
+    /**
+     * Converts the current scalar to an {@code int}.
+     *
+     * @return the value
+     *
+     * @see YamlNode#asIntValue()
+     */
+    public int asIntValue() {
+        return getScalar().asIntValue();
+    }
+
+    /**
+     * Converts the current scalar to a {@code long}.
+     *
+     * @return the value
+     *
+     * @see YamlNode#asLongValue()
+     */
+    public long asLongValue() {
+        return getScalar().asLongValue();
+    }
+
+    /**
+     * Converts the current scalar to a {@link BigInteger}.
+     *
+     * @return the value
+     *
+     * @see YamlNode#asBigIntegerValue()
+     */
+    public BigInteger asBigIntegerValue() {
+        return getScalar().asBigIntegerValue();
+    }
+
+    /**
+     * Converts the current scalar to a {@code double}.
+     *
+     * @return the value
+     *
+     * @see YamlNode#asDoubleValue()
+     */
+    public double asDoubleValue() {
+        return getScalar().asDoubleValue();
+    }
+
+    /**
+     * Converts the current scalar to a {@link BigDecimal}.
+     *
+     * @return the value
+     *
+     * @see YamlNode#asBigDecimalValue()
+     */
+    public BigDecimal asBigDecimalValue() {
+        return getScalar().asBigDecimalValue();
+    }
+
+    /**
+     * Converts the current scalar to a {@code String}.
+     *
+     * @return the value
+     *
+     * @see YamlNode#asTextValue()
+     */
+    public String asTextValue() {
+        return getScalar().asTextValue();
+    }
+
+    /**
+     * Converts the current scalar to a {@code byte[]}.
+     *
+     * @return the value
+     *
+     * @see YamlNode#asBinaryValue()
+     */
+    public byte[] asBinaryValue() {
+        return getScalar().asBinaryValue();
+    }
+
+    /**
+     * Converts the current scalar to a {@link DateTime}.
+     *
+     * @return the value
+     *
+     * @see YamlNode#asDateTimeValue()
+     */
+    public DateTime asDateTimeValue() {
+        return getScalar().asDateTimeValue();
+    }
+
+    @Override
+    public void close() throws IOException {
+        source.close();
+    }
+
+    /**
+     * Skips the events that are not reported as tokens.
+     */
+    private void skipIgnorable() {
+        while (parser.checkEvent(Event.ID.Comment) ||
+               parser.checkEvent(Event.ID.StreamStart)) {
+            parser.getEvent();
+        }
+    }
+
+    /**
+     * Checks if the next node is a mapping key.
+     *
+     * @return if the next node is a key
+     */
+    private boolean isKeyPosition() {
+        Container container = containers.peek();
+        return container != null && container.mapping &&
+               container.expectKey;
+    }
+
+    /**
+     * Records that a node of the enclosing container was completely read.
+     */
+    private void completeValue() {
+        Container container = containers.peek();
+        if (container != null && container.mapping) {
+            container.expectKey = !container.expectKey;
+        }
+    }
+
+    /**
+     * Resolves the tag of a node like the SnakeYAML composer.
+     *
+     * @param explicit the explicit tag of the node
+     * @param kind     the kind of the node
+     * @param value    the value of the node
+     * @param implicit if the tag can be resolved implicitly
+     *
+     * @return the tag
+     */
+    private Tag resolve(String explicit, NodeId kind, String value,
+                        boolean implicit) {
+        if (explicit == null || explicit.equals("!")) {
+            return resolver.resolve(kind, value, implicit);
+        }
+        return new Tag(explicit);
+    }
+
+    /**
+     * A mapping or sequence enclosing the current position.
+     */
+    private static final class Container {
+        /**
+         * If the container is a mapping.
+         */
+        private final boolean mapping;
+        /**
+         * If the container is itself a mapping key.
+         */
+        private final boolean key;
+        /**
+         * If the next child of a mapping is a key.
+         */
+        private boolean expectKey = true;
+
+        /**
+         * Creates a new {@link Container}.
+         *
+         * @param mapping if the container is a mapping
+         * @param key     if the container is itself a mapping key
+         */
+        Container(boolean mapping, boolean key) {
+            this.mapping = mapping;
+            this.key = key;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2013-2015 Christian Autermann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.autermann.yaml.stream;
+
+/**
+ * The tokens reported by a {@link YamlReader}.
+ *
+ * @author Christian Autermann
+ */
+public enum YamlToken {
+    /**
+     * The start of a document.
+     */
+    START_DOCUMENT,
+    /**
+     * The end of a document.
+     */
+    END_DOCUMENT,
+    /**
+     * The start of a mapping.
+     */
+    START_MAPPING,
+    /**
+     * The end of a mapping.
+     */
+    END_MAPPING,
+    /**
+     * The start of a sequence.
+     */
+    START_SEQUENCE,
+    /**
+     * The end of a sequence.
+     */
+    END_SEQUENCE,
+    /**
+     * A scalar used as the key of a mapping entry.
+     */
+    KEY,
+    /**
+     * A scalar that is not a mapping key.
+     */
+    SCALAR,
+    /**
+     * An alias referring to a previously anchored node.
+     */
+    ALIAS;
+
+    /**
+     * Checks if this token starts a mapping or sequence.
+     *
+     * @return if this is a start token
+     */
+    public boolean isStart() {
+        return this == START_MAPPING || this == START_SEQUENCE;
+    }
+
+    /**
+     * Checks if this token ends a mapping or sequence.
+     *
+     * @return if this is an end token
+     */
+    public boolean isEnd() {
+        return this == END_MAPPING || this == END_SEQUENCE;
+    }
+
+    /**
+     * Checks if this token is a scalar, regardless of its position.
+     *
+     * @return if this is a scalar token
+     */
+    public boolean isScalar() {
+        return this == KEY || this == SCALAR;
+    }
+}
@@ -0,0 +1,875 @@
+/*
+ * Copyright 2013-2015 Christian Autermann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.autermann.yaml.stream;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map.Entry;
+import java.util.Objects;
+import java.util.regex.Pattern;
+
+import org.joda.time.DateTime;
+import org.joda.time.format.DateTimeFormatter;
+import org.joda.time.format.ISODateTimeFormat;
+import org.yaml.snakeyaml.DumperOptions;
+import org.yaml.snakeyaml.DumperOptions.ScalarStyle;
+import org.yaml.snakeyaml.emitter.Emitter;
+import org.yaml.snakeyaml.events.DocumentEndEvent;
+import org.yaml.snakeyaml.events.DocumentStartEvent;
+import org.yaml.snakeyaml.events.ImplicitTuple;
+import org.yaml.snakeyaml.events.MappingEndEvent;
+import org.yaml.snakeyaml.events.MappingStartEvent;
+import org.yaml.snakeyaml.events.ScalarEvent;
+import org.yaml.snakeyaml.events.SequenceEndEvent;
+import org.yaml.snakeyaml.events.SequenceStartEvent;
+import org.yaml.snakeyaml.events.StreamEndEvent;
+import org.yaml.snakeyaml.events.StreamStartEvent;
+import org.yaml.snakeyaml.nodes.NodeId;
+import org.yaml.snakeyaml.nodes.Tag;
+import org.yaml.snakeyaml.resolver.Resolver;
+
+import com.github.autermann.yaml.SimpleYamlNodeVisitor;
+import com.github.autermann.yaml.YamlNode;
+import com.github.autermann.yaml.construct.YamlResolver;
+import com.github.autermann.yaml.nodes.YamlBinaryNode;
+import com.github.autermann.yaml.nodes.YamlBooleanNode;
+import com.github.autermann.yaml.nodes.YamlDecimalNode;
+import com.github.autermann.yaml.nodes.YamlIntegralNode;
+import com.github.autermann.yaml.nodes.YamlMappingNode;
+import com.github.autermann.yaml.nodes.YamlNullNode;
+import com.github.autermann.yaml.nodes.YamlSequenceNode;
+import com.github.autermann.yaml.nodes.YamlSetNode;
+import com.github.autermann.yaml.nodes.YamlTextNode;
+import com.github.autermann.yaml.nodes.YamlTimeNode;
+import com.google.common.io.BaseEncoding;
+import com.google.common.io.ByteStreams;
+import com.google.common.io.CharStreams;
+
+/**
+ * Generator writing YAML directly as emitter events.
+ *
+ * In contrast to {@link com.github.autermann.yaml.Yaml#dump(YamlNode)} no
+ * node tree has to be built. Tags and encodings follow the conventions of
+ * {@link com.github.autermann.yaml.YamlNodeRepresenter}: binaries are written
+ * as base64 {@code !!binary}, times as ISO 8601 {@code !!timestamp}, ordered
+ * maps and pairs as mappings tagged {@code !!omap} and {@code !!pairs}, and
+ * sets as mappings with {@code null} values tagged {@code !!set}. As the
+ * writer can not look ahead, collections use the default flow style of the
+ * {@link DumperOptions}, which results in block style unless configured
+ * otherwise.
+ *
+ * Documents are started implicitly by writing a root value and ended once it
+ * is complete, unless they are delimited explicitly by
+ * {@link #writeStartDocument()} and {@link #writeEndDocument()}.
+ *
+ * Instances of this class are not thread-safe.
+ *
+ * @author Christian Autermann
+ */
+public class YamlWriter implements Closeable, Flushable {
+    /**
+     * Pattern matching values that are written in literal style.
+     */
+    private static final Pattern MULTILINE_PATTERN
+            = Pattern.compile("\n|\u0085|\u2028|\u2029");
+    /**
+     * The target of the emitter.
+     */
+    private final Writer target;
+    /**
+     * The emitter.
+     */
+    private final Emitter emitter;
+    /**
+     * The resolver used to detect implicit tags.
+     */
+    private final Resolver resolver;
+    /**
+     * The dumper options.
+     */
+    private final DumperOptions options;
+    /**
+     * The encoding used for binaries.
+     */
+    private final BaseEncoding binaryEncoding;
+    /**
+     * The encoding used for times.
+     */
+    private final DateTimeFormatter timeEncoding;
+    /**
+     * The visitor used to write nodes.
+     */
+    private final NodeWriter nodeWriter = new NodeWriter();
+    /**
+     * The currently open containers.
+     */
+    private final Deque<Container> containers = new ArrayDeque<>();
+    /**
+     * If a document is open.
+     */
+    private boolean inDocument;
+    /**
+     * If the open document was started implicitly.
+     */
+    private boolean implicitDocument;
+    /**
+     * If the root value of the open document was written.
+     */
+    private boolean rootWritten;
+    /**
+     * If this writer is closed.
+     */
+    private boolean closed;
+
+    /**
+     * Creates a new {@link YamlWriter} using default {@link DumperOptions}.
+     *
+     * @param writer the target
+     *
+     * @throws IOException if the stream start can not be written
+     */
+    public YamlWriter(Writer writer) throws IOException {
+        this(writer, new DumperOptions());
+    }
+
+    /**
+     * Creates a new {@link YamlWriter} writing {@code UTF-8} using default
+     * {@link DumperOptions}.
+     *
+     * @param stream the target
+     *
+     * @throws IOException if the stream start can not be written
+     */
+    public YamlWriter(OutputStream stream) throws IOException {
+        this(stream, new DumperOptions());
+    }
+
+    /**
+     * Creates a new {@link YamlWriter} writing {@code UTF-8} using the
+     * supplied {@link DumperOptions}.
+     *
+     * @param stream  the target
+     * @param options the dumper options
+     *
+     * @throws IOException if the stream start can not be written
+     */
+    public YamlWriter(OutputStream stream, DumperOptions options)
+            throws IOException {
+        this(new OutputStreamWriter(stream, StandardCharsets.UTF_8), options);
+    }
+
+    /**
+     * Creates a new {@link YamlWriter} using the supplied
+     * {@link DumperOptions}.
+     *
+     * @param writer  the target
+     * @param options the dumper options
+     *
+     * @throws IOException if the stream start can not be written
+     */
+    public YamlWriter(Writer writer, DumperOptions options) throws IOException {
+        this.target = Objects.requireNonNull(writer);
+        this.options = Objects.requireNonNull(options);
+        this.emitter = new Emitter(writer, options);
+        this.resolver = new YamlResolver();
+        this.timeEncoding = ISODateTimeFormat.dateTime();
+        this.binaryEncoding = BaseEncoding.base64()
+                .withSeparator(options.getLineBreak().getString(),
+                               options.getWidth());
+        this.emitter.emit(new StreamStartEvent(null, null));
+    }
+
+    /**
+     * Explicitly starts a new document.
+     *
+     * @throws IOException if the event can not be written
+     */
+    public void writeStartDocument() throws IOException {
+        checkOpen();
+        if (inDocument) {
+            throw new IllegalStateException("document already started");
+        }
+        startDocument(false);
+    }
+
+    /**
+     * Ends the current document.
+     *
+     * @throws IOException if the event can not be written
+     */
+    public void writeEndDocument() throws IOException {
+        if (!inDocument || !containers.isEmpty()) {
+            throw new IllegalStateException("no document to end");
+        }
+        if (!rootWritten) {
+            throw new IllegalStateException("document has no root value");
+        }
+        endDocument();
+    }
+
+    /**
+     * Starts a {@code !!map}.
+     *
+     * @throws IOException if the event can not be written
+     */
+    public void writeStartMap() throws IOException {
+        startMapping(Tag.MAP, Kind.MAPPING);
+    }
+
+    /**
+     * Starts an {@code !!omap}.
+     *
+     * @throws IOException if the event can not be written
+     */
+    public void writeStartOrderedMap() throws IOException {
+        startMapping(Tag.OMAP, Kind.MAPPING);
+    }
+
+    /**
+     * Starts a {@code !!pairs}.
+     *
+     * @throws IOException if the event can not be written
+     */
+    public void writeStartPairs() throws IOException {
+        startMapping(Tag.PAIRS, Kind.MAPPING);
+    }
+
+    /**
+     * Ends the current {@code !!map}, {@code !!omap} or {@code !!pairs}.
+     *
+     * @throws IOException if the event can not be written
+     */
+    public void writeEndMap() throws IOException {
+        Container container = containers.peek();
+        if (container == null || container.kind != Kind.MAPPING) {
+            throw new IllegalStateException("not in a mapping");
+        }
+        if (!container.expectKey) {
+            throw new IllegalStateException("missing value for key");
+        }
+        containers.pop();
+        emitter.emit(new MappingEndEvent(null, null));
+        afterValue();
+    }
+
+    /**
+     * Starts a {@code !!seq}.
+     *
+     * @throws IOException if the event can not be written
+     */
+    public void writeStartSequence() throws IOException {
+        beforeValue();
+        containers.push(new Container(Kind.SEQUENCE));
+        emitter.emit(new SequenceStartEvent(null, Tag.SEQ.getValue(),
+                                            isImplicit(NodeId.sequence, Tag.SEQ),
+                                            null, null,
+                                            options.getDefaultFlowStyle()));
+    }
+
+    /**
+     * Starts a {@code !!set}.
+     *
+     * @throws IOException if the event can not be written
+     */
+    public void writeStartSet() throws IOException {
+        startMapping(Tag.SET, Kind.SET);
+    }
+
+    /**
+     * Ends the current {@code !!seq} or {@code !!set}.
+     *
+     * @throws IOException if the event can not be written
+     */
+    public void writeEndSequence() throws IOException {
+        Container container = containers.peek();
+        if (container == null || container.kind == Kind.MAPPING) {
+            throw new IllegalStateException("not in a sequence");
+        }
+        containers.pop();
+        if (container.kind == Kind.SET) {
+            emitter.emit(new MappingEndEvent(null, null));
+        } else {
+            emitter.emit(new SequenceEndEvent(null, null));
+        }
+        afterValue();
+    }
+
+    /**
+     * Writes the key of the next mapping entry. Complex keys can be written
+     * using the other {@code write} methods.
+     *
+     * @param key the key
+     *
+     * @throws IOException if the event can not be written
+     */
+    public void writeKey(String key) throws IOException {
+        Container container = containers.peek();
+        if (container == null || container.kind != Kind.MAPPING ||
+            !container.expectKey) {
+            throw new IllegalStateException("not expecting a key");
+        }
+        writeString(key);
+    }
+
+    /**
+     * Writes a {@code !!null}.
+     *
+     * @throws IOException if the event can not be written
+     */
+    public void writeNull() throws IOException {
+        writeScalar(Tag.NULL, "null");
+    }
+
+    /**
+     * Writes a {@code !!bool}.
+     *
+     * @param value the value
+     *
+     * @throws IOException if the event can not be written
+     */
+    public void writeBoolean(boolean value) throws IOException {
+        writeScalar(Tag.BOOL, value ? "true" : "false");
+    }
+
+    /**
+     * Writes an {@code !!int}.
+     *
+     * @param value the value
+     *
+     * @throws IOException if the event can not be written
+     */
+    public void writeInt(int value) throws IOException {
+        writeScalar(Tag.INT, Integer.toString(value));
+    }
+
+    /**
+     * Writes an {@code !!int}.
+     *
+     * @param value the value
+     *
+     * @throws IOException if the event can not be written
+     */
+    public void writeLong(long value) throws IOException {
+        writeScalar(Tag.INT, Long.toString(value));
+    }
+
+    /**
+     * Writes an {@code !!int}.
+     *
+     * @param value the value
+     *
+     * @throws IOException if the event can not be written
+     */
+    public void writeBigInteger(BigInteger value) throws IOException {
+        writeScalar(Tag.INT, value.toString());
+    }
+
+    /**
+     * Writes a {@code !!float}.
+     *
+     * @param value the value
+     *
+     * @throws IOException if the event can not be written
+     */
+    public void writeFloat(float value) throws IOException {
+        writeScalar(Tag.FLOAT, formatDecimal(value));
+    }
+
+    /**
+     * Writes a {@code !!float}.
+     *
+     * @param value the value
+     *
+     * @throws IOException if the event can not be written
+     */
+    public void writeDouble(double value) throws IOException {
+        writeScalar(Tag.FLOAT, formatDecimal(value));
+    }
+
+    /**
+     * Writes a {@code !!float}.
+     *
+     * @param value the value
+     *
+     * @throws IOException if the event can not be written
+     */
+    public void writeBigDecimal(BigDecimal value) throws IOException {
+        writeScalar(Tag.FLOAT, value.toString());
+    }
+
+    /**
+     * Writes a {@code !!str}.
+     *
+     * @param value the value
+     *
+     * @throws IOException if the event can not be written
+     */
+    public void writeString(String value) throws IOException {
+        writeScalar(Tag.STR, value);
+    }
+
+    /**
+     * Writes a base64 encoded {@code !!binary}.
+     *
+     * @param value the value
+     *
+     * @throws IOException if the event can not be written
+     */
+    public void writeBinary(byte[] value) throws IOException {
+        writeScalar(Tag.BINARY, binaryEncoding.encode(value));
+    }
+
+    /**
+     * Writes a base64 encoded {@code !!binary} from the specified stream.
+     * The stream is read to its end and encoded while it is read, so the
+     * decoded bytes are never buffered as a whole. The encoded text is
+     * buffered in a {@code StringBuilder} presized from
+     * {@link InputStream#available()}, which does not grow if that estimate
+     * covers the whole stream, and copied once into the emitted scalar. The
+     * stream is not closed.
+     *
+     * @param value the stream of the value
+     *
+     * @throws IOException if the stream can not be read or the event can not
+     *                     be written
+     */
+    public void writeBinary(InputStream value) throws IOException {
+        Objects.requireNonNull(value);
+        StringBuilder encoded = new StringBuilder(encodedSize(value.available()));
+        try (OutputStream out = binaryEncoding
+                .encodingStream(CharStreams.asWriter(encoded))) {
+            ByteStreams.copy(value, out);
+        }
+        writeScalar(Tag.BINARY, encoded.toString());
+    }
+
+    /**
+     * Computes the length of the base64 text of the specified number of
+     * bytes, including the line breaks inserted by this writer.
+     *
+     * @param size the number of bytes
+     *
+     * @return the length of the encoded text
+     */
+    private int encodedSize(int size) {
+        long digits = 4 * ((size + 2L) / 3);
+        long lineBreaks = digits == 0 ? 0 : (digits - 1) / options.getWidth();
+        long length = digits + lineBreaks *
+                               options.getLineBreak().getString().length();
+        return (int) Math.min(length, Integer.MAX_VALUE - 8);
+    }
+
+    /**
+     * Writes an ISO 8601 encoded {@code !!timestamp}.
+     *
+     * @param value the value
+     *
+     * @throws IOException if the event can not be written
+     */
+    public void writeTime(DateTime value) throws IOException {
+        writeScalar(Tag.TIMESTAMP, timeEncoding.print(value));
+    }
+
+    /**
+     * Writes a complete node.
+     *
+     * @param node the node
+     *
+     * @throws IOException if the events can not be written
+     */
+    public void writeNode(YamlNode node) throws IOException {
+        if (!node.exists()) {
+            throw new IllegalArgumentException("missing nodes can not be written");
+        }
+        try {
+            node.accept(nodeWriter);
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        target.flush();
+    }
+
+    /**
+     * Ends the stream and closes the underlying writer. An implicitly started
+     * document is ended, but open containers are an error.
+     *
+     * @throws IOException if the stream end can not be written or the writer
+     *                     can not be closed
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        if (!containers.isEmpty()) {
+            throw new IllegalStateException("unclosed mapping or sequence");
+        }
+        if (inDocument) {
+            writeEndDocument();
+        }
+        this.closed = true;
+        emitter.emit(new StreamEndEvent(null, null));
+        target.close();
+    }
+
+    /**
+     * Starts a mapping.
+     *
+     * @param tag  the tag of the mapping
+     * @param kind the kind of container
+     *
+     * @throws IOException if the event can not be written
+     */
+    private void startMapping(Tag tag, Kind kind) throws IOException {
+        beforeValue();
+        containers.push(new Container(kind));
+        emitter.emit(new MappingStartEvent(null, tag.getValue(),
+                                           isImplicit(NodeId.mapping, tag),
+                                           null, null,
+                                           options.getDefaultFlowStyle()));
+    }
+
+    /**
+     * Writes a scalar.
+     *
+     * @param tag   the tag
+     * @param value the value
+     *
+     * @throws IOException if the event can not be written
+     */
+    private void writeScalar(Tag tag, String value) throws IOException {
+        Objects.requireNonNull(value);
+        beforeValue();
+        emitScalar(tag, value);
+        afterValue();
+    }
+
+    /**
+     * Emits a scalar event like the SnakeYAML serializer.
+     *
+     * @param tag   the tag
+     * @param value the value
+     *
+     * @throws IOException if the event can not be written
+     */
+    private void emitScalar(Tag tag, String value) throws IOException {
+        Tag detected = resolver.resolve(NodeId.scalar, value, true);
+        Tag fallback = resolver.resolve(NodeId.scalar, value, false);
+        ImplicitTuple implicit = new ImplicitTuple(tag.equals(detected),
+                                                   tag.equals(fallback));
+        ScalarStyle style = options.getDefaultScalarStyle();
+        if (style == ScalarStyle.PLAIN &&
+            (tag.equals(Tag.STR) || tag.equals(Tag.BINARY)) &&
+            MULTILINE_PATTERN.matcher(value).find()) {
+            style = ScalarStyle.LITERAL;
+        }
+        emitter.emit(new ScalarEvent(null, tag.getValue(), implicit, value,
+                                     null, null, style));
+    }
+
+    /**
+     * Checks if a collection tag can be omitted.
+     *
+     * @param kind the kind of the collection
+     * @param tag  the tag
+     *
+     * @return if the tag is implicit
+     */
+    private boolean isImplicit(NodeId kind, Tag tag) {
+        return tag.equals(resolver.resolve(kind, null, true));
+    }
+
+    /**
+     * Prepares writing a value, starting a document if necessary.
+     *
+     * @throws IOException if the event can not be written
+     */
+    private void beforeValue() throws IOException {
+        checkOpen();
+        if (!inDocument) {
+            startDocument(true);
+        } else if (containers.isEmpty() && rootWritten) {
+            throw new IllegalStateException("document already has a root value");
+        }
+    }
+
+    /**
+     * Records that a value was completely written.
+     *
+     * @throws IOException if the event can not be written
+     */
+    private void afterValue() throws IOException {
+        Container container = containers.peek();
+        if (container == null) {
+            this.rootWritten = true;
+            if (implicitDocument) {
+                endDocument();
+            }
+        } else if (container.kind == Kind.MAPPING) {
+            container.expectKey = !container.expectKey;
+        } else if (container.kind == Kind.SET) {
+            emitScalar(Tag.NULL, "null");
+        }
+    }
+
+    /**
+     * Starts a document.
+     *
+     * @param implicit if the document is started by a root value
+     *
+     * @throws IOException if the event can not be written
+     */
+    private void startDocument(boolean implicit) throws IOException {
+        emitter.emit(new DocumentStartEvent(null, null,
+                                            options.isExplicitStart(),
+                                            options.getVersion(),
+                                            options.getTags()));
+        this.inDocument = true;
+        this.implicitDocument = implicit;
+        this.rootWritten = false;
+    }
+
+    /**
+     * Ends the current document.
+     *
+     * @throws IOException if the event can not be written
+     */
+    private void endDocument() throws IOException {
+        emitter.emit(new DocumentEndEvent(null, null, options.isExplicitEnd()));
+        this.inDocument = false;
+        this.implicitDocument = false;
+        this.rootWritten = false;
+    }
+
+    /**
+     * Checks that this writer is not closed.
+     */
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("writer is closed");
+        }
+    }
+
+    /**
+     * Formats a decimal like the SnakeYAML representer.
+     *
+     * @param value the value
+     *
+     * @return the string representation
+     */
+    private static String formatDecimal(double value) {
+        if (Double.isNaN(value)) {
+            return ".NaN";
+        } else if (value == Double.POSITIVE_INFINITY) {
+            return ".inf";
+        } else if (value == Double.NEGATIVE_INFINITY) {
+            return "-.inf";
+        } else {
+            return Double.toString(value);
+        }
+    }
+
+    /**
+     * Formats a decimal like the SnakeYAML representer.
+     *
+     * @param value the value
+     *
+     * @return the string representation
+     */
+    private static String formatDecimal(float value) {
+        if (Float.isNaN(value)) {
+            return ".NaN";
+        } else if (value == Float.POSITIVE_INFINITY) {
+            return ".inf";
+        } else if (value == Float.NEGATIVE_INFINITY) {
+            return "-.inf";
+        } else {
+            return Float.toString(value);
+        }
+    }
+
+    /**
+     * The kinds of containers.
+     */
+    private enum Kind {
+        /**
+         * A {@code !!map}, {@code !!omap} or {@code !!pairs}.
+         */
+        MAPPING,
+        /**
+         * A {@code !!seq}.
+         */
+        SEQUENCE,
+        /**
+         * A {@code !!set}, written as a mapping with {@code null} values.
+         */
+        SET
+    }
+
+    /**
+     * An open mapping or sequence.
+     */
+    private static final class Container {
+        /**
+         * The kind of the container.
+         */
+        private final Kind kind;
+        /**
+         * If the next value of a mapping is a key.
+         */
+        private boolean expectKey = true;
+
+        /**
+         * Creates a new {@link Container}.
+         *
+         * @param kind the kind of the container
+         */
+        Container(Kind kind) {
+            this.kind = kind;
+        }
+    }
+
+    /**
+     * Visitor writing the events of a node tree.
+     */
+    private class NodeWriter implements SimpleYamlNodeVisitor {
+
+        @Override
+        public void visitMapping(YamlMappingNode<?> node) {
+            try {
+                startMapping(node.tag(), Kind.MAPPING);
+                for (Entry<YamlNode, YamlNode> entry : node.entries()) {
+                    entry.getKey().accept(this);
+                    entry.getValue().accept(this);
+                }
+                writeEndMap();
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+
+        @Override
+        public void visitSequence(YamlSequenceNode<?> node) {
+            try {
+                writeStartSequence();
+                for (YamlNode child : node) {
+                    child.accept(this);
+                }
+                writeEndSequence();
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+
+        @Override
+        public void visit(YamlSetNode node) {
+            try {
+                writeStartSet();
+                for (YamlNode child : node) {
+                    child.accept(this);
+                }
+                writeEndSequence();
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+
+        @Override
+        public void visit(YamlBinaryNode node) {
+            try {
+                writeBinary(node.value());
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+
+        @Override
+        public void visit(YamlBooleanNode node) {
+            try {
+                writeBoolean(node.booleanValue());
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+
+        @Override
+        public void visit(YamlDecimalNode node) {
+            Number value = node.value();
+            try {
+                if (value instanceof Float) {
+                    writeFloat(value.floatValue());
+                } else if (value instanceof Double) {
+                    writeDouble(value.doubleValue());
+                } else {
+                    writeScalar(node.tag(), value.toString());
+                }
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+
+        @Override
+        public void visit(YamlIntegralNode node) {
+            try {
+                writeScalar(node.tag(), node.value().toString());
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+
+        @Override
+        public void visit(YamlNullNode node) {
+            try {
+                writeNull();
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+
+        @Override
+        public void visit(YamlTextNode node) {
+            try {
+                writeString(node.value());
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+
+        @Override
+        public void visit(YamlTimeNode node) {
+            try {
+                writeTime(node.value());
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+    }
+}
@@ -0,0 +1,608 @@
+/*
+ * Copyright 2013-2015 Christian Autermann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.autermann.yaml.util;
+
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.Spliterator;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * A memory compact {@link Map} that keeps the insertion order of its entries
+ * like a {@link java.util.LinkedHashMap}.
+ *
+ * Keys and values are stored in a single array in insertion order, together
+ * with the hash codes of the keys. Maps with up to
+ * {@value #LINEAR_SCAN_LIMIT} entries are searched linearly, larger maps
+ * additionally maintain an open addressing table of indices into the entry
+ * array. No object is allocated per entry. Removing an entry takes linear
+ * time.
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ *
+ * @author Christian Autermann
+ */
+public class CompactMap<K, V> extends AbstractMap<K, V> {
+    /**
+     * The maximal size of maps that are searched linearly.
+     */
+    private static final int LINEAR_SCAN_LIMIT = 8;
+    /**
+     * The capacity of maps on their first insertion.
+     */
+    private static final int DEFAULT_CAPACITY = 4;
+    /**
+     * Shared entry array of empty maps.
+     */
+    private static final Object[] EMPTY_ENTRIES = {};
+    /**
+     * Shared hash array of empty maps.
+     */
+    private static final int[] EMPTY_HASHES = {};
+    /**
+     * The keys and values, alternating, in insertion order.
+     */
+    private Object[] entries = EMPTY_ENTRIES;
+    /**
+     * The hash codes of the keys.
+     */
+    private int[] hashes = EMPTY_HASHES;
+    /**
+     * The open addressing table containing the index of each entry plus one,
+     * or {@code null} if the map is searched linearly.
+     */
+    private int[] table;
+    /**
+     * The number of entries.
+     */
+    private int size;
+    /**
+     * The number of structural modifications.
+     */
+    private int modCount;
+    /**
+     * The lazily created entry set view.
+     */
+    private Set<Entry<K, V>> entrySet;
+    /**
+     * The lazily created key set view.
+     */
+    private Set<K> keySet;
+    /**
+     * The lazily created value view.
+     */
+    private Collection<V> values;
+
+    /**
+     * Creates a new empty {@code CompactMap}.
+     */
+    public CompactMap() {
+    }
+
+    /**
+     * Creates a new empty {@code CompactMap} that can hold the specified
+     * number of entries without reallocation.
+     *
+     * @param expectedSize the expected number of entries
+     */
+    public CompactMap(int expectedSize) {
+        Preconditions.checkArgument(expectedSize >= 0,
+                                    "invalid expected size: %s", expectedSize);
+        if (expectedSize > 0) {
+            this.entries = new Object[2 * expectedSize];
+            this.hashes = new int[expectedSize];
+        }
+        if (expectedSize > LINEAR_SCAN_LIMIT) {
+            this.table = new int[tableLength(expectedSize)];
+        }
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return indexOf(key, hash(key)) >= 0;
+    }
+
+    @Override
+    public V get(Object key) {
+        int index = indexOf(key, hash(key));
+        return index < 0 ? null : valueAt(index);
+    }
+
+    @Override
+    public V put(K key, V value) {
+        int hash = hash(key);
+        int index = indexOf(key, hash);
+        if (index >= 0) {
+            V old = valueAt(index);
+            entries[2 * index + 1] = value;
+            modified();
+            return old;
+        }
+        ensureCapacity(size + 1);
+        entries[2 * size] = key;
+        entries[2 * size + 1] = value;
+        hashes[size] = hash;
+        ++size;
+        ++modCount;
+        if (table != null && 2 * size <= table.length) {
+            insert(hash, size - 1);
+        } else if (size > LINEAR_SCAN_LIMIT) {
+            rehash();
+        }
+        modified();
+        return null;
+    }
+
+    @Override
+    public V remove(Object key) {
+        int index = indexOf(key, hash(key));
+        if (index < 0) {
+            return null;
+        }
+        V old = valueAt(index);
+        removeAt(index);
+        return old;
+    }
+
+    @Override
+    public void clear() {
+        if (size > 0) {
+            ++modCount;
+            entries = EMPTY_ENTRIES;
+            hashes = EMPTY_HASHES;
+            table = null;
+            size = 0;
+            modified();
+        }
+    }
+
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        Set<Entry<K, V>> set = this.entrySet;
+        if (set == null) {
+            this.entrySet = set = new EntrySet();
+        }
+        return set;
+    }
+
+    @Override
+    public Set<K> keySet() {
+        Set<K> set = this.keySet;
+        if (set == null) {
+            this.keySet = set = new KeySet();
+        }
+        return set;
+    }
+
+    @Override
+    public Collection<V> values() {
+        Collection<V> collection = this.values;
+        if (collection == null) {
+            this.values = collection = new Values();
+        }
+        return collection;
+    }
+
+    /**
+     * Gets the key of the entry at the specified index.
+     *
+     * @param index the index
+     *
+     * @return the key
+     */
+    @SuppressWarnings("unchecked")
+    private K keyAt(int index) {
+        return (K) entries[2 * index];
+    }
+
+    /**
+     * Gets the value of the entry at the specified index.
+     *
+     * @param index the index
+     *
+     * @return the value
+     */
+    @SuppressWarnings("unchecked")
+    private V valueAt(int index) {
+        return (V) entries[2 * index + 1];
+    }
+
+    /**
+     * Gets the index of the entry with the specified key.
+     *
+     * @param key  the key
+     * @param hash the hash of the key
+     *
+     * @return the index or {@code -1}
+     */
+    private int indexOf(Object key, int hash) {
+        if (table == null) {
+            for (int i = 0; i < size; ++i) {
+                if (hashes[i] == hash && Objects.equals(entries[2 * i], key)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+        int mask = table.length - 1;
+        for (int slot = hash & mask;; slot = (slot + 1) & mask) {
+            int index = table[slot] - 1;
+            if (index < 0) {
+                return -1;
+            }
+            if (hashes[index] == hash && Objects.equals(entries[2 * index], key)) {
+                return index;
+            }
+        }
+    }
+
+    /**
+     * Removes the entry at the specified index.
+     *
+     * @param index the index
+     */
+    private void removeAt(int index) {
+        int moved = size - index - 1;
+        System.arraycopy(entries, 2 * (index + 1), entries, 2 * index, 2 * moved);
+        System.arraycopy(hashes, index + 1, hashes, index, moved);
+        --size;
+        ++modCount;
+        entries[2 * size] = null;
+        entries[2 * size + 1] = null;
+        if (size > LINEAR_SCAN_LIMIT) {
+            rehash();
+        } else {
+            table = null;
+        }
+        modified();
+    }
+
+    /**
+     * Called after every modification of this map, including replaced
+     * values. Does nothing by default.
+     */
+    protected void modified() {
+    }
+
+    /**
+     * Makes sure this map can hold the specified number of entries without
+     * further reallocation. Does nothing if it already can.
+     *
+     * @param expectedSize the expected number of entries
+     */
+    public void reserve(int expectedSize) {
+        Preconditions.checkArgument(expectedSize >= 0,
+                                    "invalid expected size: %s", expectedSize);
+        ensureCapacity(expectedSize);
+        if (expectedSize > LINEAR_SCAN_LIMIT &&
+            (table == null || 2 * expectedSize > table.length)) {
+            rehash(expectedSize);
+        }
+    }
+
+    /**
+     * Grows the entry arrays to hold at least {@code capacity} entries.
+     *
+     * @param capacity the required capacity
+     */
+    private void ensureCapacity(int capacity) {
+        int length = hashes.length;
+        if (capacity > length) {
+            int grown = Math.max(Math.max(length + (length >> 1), capacity),
+                                 DEFAULT_CAPACITY);
+            entries = Arrays.copyOf(entries, 2 * grown);
+            hashes = Arrays.copyOf(hashes, grown);
+        }
+    }
+
+    /**
+     * Rebuilds the table for the current entries.
+     */
+    private void rehash() {
+        rehash(size);
+    }
+
+    /**
+     * Rebuilds the table for the current entries with room for the specified
+     * number of entries.
+     *
+     * @param capacity the number of entries
+     */
+    private void rehash(int capacity) {
+        table = new int[tableLength(capacity)];
+        for (int i = 0; i < size; ++i) {
+            insert(hashes[i], i);
+        }
+    }
+
+    /**
+     * Gets the table length for the specified number of entries, keeping the
+     * load factor at most one half.
+     *
+     * @param size the number of entries
+     *
+     * @return the table length
+     */
+    private static int tableLength(int size) {
+        return Integer.highestOneBit(4 * size - 1);
+    }
+
+    /**
+     * Inserts the index of an entry into the table.
+     *
+     * @param hash  the hash of the key
+     * @param index the index of the entry
+     */
+    private void insert(int hash, int index) {
+        int mask = table.length - 1;
+        int slot = hash & mask;
+        while (table[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        table[slot] = index + 1;
+    }
+
+    /**
+     * Computes the spread hash code of the specified key.
+     *
+     * @param key the key
+     *
+     * @return the hash code
+     */
+    private static int hash(Object key) {
+        int h = Objects.hashCode(key);
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Base class for iterators over the entries.
+     *
+     * @param <T> the element type
+     */
+    private abstract class BaseIterator<T> implements Iterator<T> {
+        /**
+         * The index of the next entry.
+         */
+        private int next;
+        /**
+         * The index of the last returned entry.
+         */
+        private int last = -1;
+        /**
+         * The expected modification count.
+         */
+        private int expectedModCount = modCount;
+
+        @Override
+        public boolean hasNext() {
+            return next < size;
+        }
+
+        @Override
+        public T next() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (next >= size) {
+                throw new NoSuchElementException();
+            }
+            last = next++;
+            return get(last);
+        }
+
+        @Override
+        public void remove() {
+            if (last < 0) {
+                throw new IllegalStateException();
+            }
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            removeAt(last);
+            next = last;
+            last = -1;
+            expectedModCount = modCount;
+        }
+
+        /**
+         * Gets the element for the entry at the specified index.
+         *
+         * @param index the index
+         *
+         * @return the element
+         */
+        protected abstract T get(int index);
+    }
+
+    /**
+     * Entry view of this map.
+     */
+    private class EntrySet extends AbstractSet<Entry<K, V>> {
+        @Override
+        public Iterator<Entry<K, V>> iterator() {
+            return new BaseIterator<Entry<K, V>>() {
+                @Override
+                protected Entry<K, V> get(int index) {
+                    return new MapEntry(keyAt(index), valueAt(index));
+                }
+            };
+        }
+
+        @Override
+        public Spliterator<Entry<K, V>> spliterator() {
+            return new IndexedSpliterator<>(
+                    index -> new MapEntry(keyAt(index), valueAt(index)),
+                    CompactMap.this::size, () -> modCount,
+                    Spliterator.DISTINCT | Spliterator.ORDERED);
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            if (!(o instanceof Entry)) {
+                return false;
+            }
+            Entry<?, ?> e = (Entry<?, ?>) o;
+            int index = indexOf(e.getKey(), hash(e.getKey()));
+            return index >= 0 && Objects.equals(valueAt(index), e.getValue());
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            if (!contains(o)) {
+                return false;
+            }
+            CompactMap.this.remove(((Entry<?, ?>) o).getKey());
+            return true;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public void clear() {
+            CompactMap.this.clear();
+        }
+    }
+
+    /**
+     * Key view of this map.
+     */
+    private class KeySet extends AbstractSet<K> {
+        @Override
+        public Iterator<K> iterator() {
+            return new BaseIterator<K>() {
+                @Override
+                protected K get(int index) {
+                    return keyAt(index);
+                }
+            };
+        }
+
+        @Override
+        public Spliterator<K> spliterator() {
+            return new IndexedSpliterator<>(CompactMap.this::keyAt,
+                                            CompactMap.this::size,
+                                            () -> modCount,
+                                            Spliterator.DISTINCT |
+                                            Spliterator.ORDERED);
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return containsKey(o);
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            int index = indexOf(o, hash(o));
+            if (index < 0) {
+                return false;
+            }
+            removeAt(index);
+            return true;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public void clear() {
+            CompactMap.this.clear();
+        }
+    }
+
+    /**
+     * Value view of this map.
+     */
+    private class Values extends AbstractCollection<V> {
+        @Override
+        public Iterator<V> iterator() {
+            return new BaseIterator<V>() {
+                @Override
+                protected V get(int index) {
+                    return valueAt(index);
+                }
+            };
+        }
+
+        @Override
+        public Spliterator<V> spliterator() {
+            return new IndexedSpliterator<>(CompactMap.this::valueAt,
+                                            CompactMap.this::size,
+                                            () -> modCount,
+                                            Spliterator.ORDERED);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public void clear() {
+            CompactMap.this.clear();
+        }
+    }
+
+    /**
+     * Entry returned by the entry iterator. Setting the value writes through
+     * to the map.
+     */
+    private class MapEntry extends SimpleEntry<K, V> {
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * Creates a new {@code MapEntry}.
+         *
+         * @param key   the key
+         * @param value the value
+         */
+        MapEntry(K key, V value) {
+            super(key, value);
+        }
+
+        @Override
+        public V setValue(V value) {
+            CompactMap.this.put(getKey(), value);
+            return super.setValue(value);
+        }
+    }
+}
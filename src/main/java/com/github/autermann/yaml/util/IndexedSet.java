@@ -0,0 +1,291 @@
+/*
+ * Copyright 2013-2015 Christian Autermann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.autermann.yaml.util;
+
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.Spliterator;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.Maps;
+
+/**
+ * A {@link Set} that keeps the insertion order of its elements like a
+ * {@link java.util.LinkedHashSet}, but additionally allows positional access
+ * to them.
+ *
+ * Adding, removing and membership tests take constant time. Removing an
+ * element other than the last one leaves a gap in the positional order,
+ * which is closed by the next positional access or spliterator in a single
+ * linear pass. Positional access is therefore constant time unless elements
+ * were removed since the last one. Closing the gaps is not a modification:
+ * live iterators continue after the element they returned last.
+ *
+ * @param <T> the element type
+ *
+ * @author Christian Autermann
+ */
+public class IndexedSet<T> extends AbstractSet<T> {
+    /**
+     * Marker for the position of a removed element.
+     */
+    private static final Object REMOVED = new Object();
+    /**
+     * The positions of the elements in {@link #order}.
+     */
+    private Map<T, Integer> indices;
+    /**
+     * The elements in insertion order, with {@link #REMOVED} for gaps.
+     */
+    private final ArrayList<Object> order;
+    /**
+     * The number of gaps in {@link #order}.
+     */
+    private int removed;
+    /**
+     * The number of structural modifications.
+     */
+    private int modCount;
+    /**
+     * The number of times the gaps were closed.
+     */
+    private int compactions;
+    /**
+     * The number of elements the index was sized for.
+     */
+    private int reserved;
+
+    /**
+     * Creates a new empty {@code IndexedSet}.
+     */
+    public IndexedSet() {
+        this.indices = new HashMap<>();
+        this.order = new ArrayList<>();
+    }
+
+    /**
+     * Creates a new empty {@code IndexedSet} that can hold the specified
+     * number of elements without reallocation.
+     *
+     * @param expectedSize the expected number of elements
+     */
+    public IndexedSet(int expectedSize) {
+        Preconditions.checkArgument(expectedSize >= 0,
+                                    "invalid expected size: %s", expectedSize);
+        this.indices = Maps.newHashMapWithExpectedSize(expectedSize);
+        this.order = new ArrayList<>(expectedSize);
+        this.reserved = expectedSize;
+    }
+
+    @Override
+    public boolean add(T e) {
+        if (this.indices.putIfAbsent(e, this.order.size()) == null) {
+            this.order.add(e);
+            ++this.modCount;
+            modified();
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        Integer index = this.indices.remove(o);
+        if (index == null) {
+            return false;
+        }
+        int last = this.order.size() - 1;
+        if (index == last) {
+            this.order.remove(last);
+        } else {
+            this.order.set(index, REMOVED);
+            ++this.removed;
+        }
+        ++this.modCount;
+        modified();
+        return true;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return this.indices.containsKey(o);
+    }
+
+    @Override
+    public void clear() {
+        this.indices.clear();
+        this.order.clear();
+        this.removed = 0;
+        ++this.modCount;
+        modified();
+    }
+
+    @Override
+    public int size() {
+        return this.indices.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return this.indices.isEmpty();
+    }
+
+    /**
+     * Makes sure this set can hold the specified number of elements without
+     * further reallocation. Does nothing if it already can.
+     *
+     * @param expectedSize the expected number of elements
+     */
+    public void reserve(int expectedSize) {
+        Preconditions.checkArgument(expectedSize >= 0,
+                                    "invalid expected size: %s", expectedSize);
+        if (expectedSize > Math.max(reserved, size())) {
+            Map<T, Integer> grown = Maps.newHashMapWithExpectedSize(expectedSize);
+            grown.putAll(indices);
+            this.indices = grown;
+            this.order.ensureCapacity(expectedSize + removed);
+            this.reserved = expectedSize;
+        }
+    }
+
+    /**
+     * Gets the element at the specified position.
+     *
+     * @param index the position
+     *
+     * @return the element
+     *
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public T get(int index) {
+        compact();
+        return elementAt(index);
+    }
+
+    /**
+     * Closes the gaps left by removed elements.
+     */
+    private void compact() {
+        if (this.removed == 0) {
+            return;
+        }
+        int size = 0;
+        for (int i = 0; i < this.order.size(); ++i) {
+            Object element = this.order.get(i);
+            if (element != REMOVED) {
+                this.order.set(size, element);
+                this.indices.put(elementAt(size), size);
+                ++size;
+            }
+        }
+        this.order.subList(size, this.order.size()).clear();
+        this.removed = 0;
+        ++this.compactions;
+    }
+
+    /**
+     * Gets the element at the specified position of {@link #order}.
+     *
+     * @param index the position
+     *
+     * @return the element or {@link #REMOVED}
+     */
+    @SuppressWarnings("unchecked")
+    private T elementAt(int index) {
+        return (T) this.order.get(index);
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return new Iterator<T>() {
+            private int next;
+            private int last = -1;
+            private int returned;
+            private int expectedModCount = modCount;
+            private int expectedCompactions = compactions;
+
+            /**
+             * Moves the positions to the shifted elements if the gaps were
+             * closed. As the iterator fails on other modifications, the
+             * elements before {@code next} are the ones already returned.
+             */
+            private void sync() {
+                if (compactions != expectedCompactions) {
+                    next = returned;
+                    if (last >= 0) {
+                        last = returned - 1;
+                    }
+                    expectedCompactions = compactions;
+                }
+            }
+
+            @Override
+            public boolean hasNext() {
+                sync();
+                while (next < order.size() && order.get(next) == REMOVED) {
+                    ++next;
+                }
+                return next < order.size();
+            }
+
+            @Override
+            public T next() {
+                if (modCount != expectedModCount) {
+                    throw new ConcurrentModificationException();
+                }
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                last = next++;
+                ++returned;
+                return elementAt(last);
+            }
+
+            @Override
+            public void remove() {
+                Preconditions.checkState(last >= 0);
+                if (modCount != expectedModCount) {
+                    throw new ConcurrentModificationException();
+                }
+                sync();
+                IndexedSet.this.remove(elementAt(last));
+                --returned;
+                last = -1;
+                expectedModCount = modCount;
+            }
+        };
+    }
+
+    @Override
+    public Spliterator<T> spliterator() {
+        return new IndexedSpliterator<>(this::elementAt, () -> {
+            compact();
+            return order.size();
+        }, () -> modCount, Spliterator.DISTINCT | Spliterator.ORDERED);
+    }
+
+    /**
+     * Called after every modification of this set. Does nothing by default.
+     */
+    protected void modified() {
+    }
+}
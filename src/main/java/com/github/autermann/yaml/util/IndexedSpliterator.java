@@ -0,0 +1,183 @@
+/*
+ * Copyright 2013-2015 Christian Autermann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.autermann.yaml.util;
+
+import java.util.ConcurrentModificationException;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+import java.util.function.IntSupplier;
+
+/**
+ * {@code Spliterator} over a range of indices of a random access source.
+ * Splitting halves the remaining range, so parallel traversals are balanced.
+ *
+ * Spliterators over a modifiable source are late-binding: the range is bound
+ * to the size of the source on the first traversal, split or size query.
+ * Structural modifications of the source after binding are detected by its
+ * modification count and reported by a
+ * {@link ConcurrentModificationException} after the traversal.
+ *
+ * @param <T> the element type
+ *
+ * @author Christian Autermann
+ */
+public class IndexedSpliterator<T> implements Spliterator<T> {
+    private final IntFunction<? extends T> elements;
+    private final IntSupplier size;
+    private final IntSupplier modCount;
+    private final int characteristics;
+    private int fence;
+    private int expectedModCount;
+    private int index;
+
+    /**
+     * Creates a new {@code IndexedSpliterator} over a fixed range of an
+     * unmodifiable source.
+     *
+     * @param elements        the function retrieving the element at an index
+     * @param origin          the first index (inclusive)
+     * @param fence           the last index (exclusive)
+     * @param characteristics the additional characteristics of the elements;
+     *                        {@link #SIZED} and {@link #SUBSIZED} are always
+     *                        reported
+     */
+    public IndexedSpliterator(IntFunction<? extends T> elements,
+                              int origin, int fence, int characteristics) {
+        this(elements, null, null, origin, fence, 0, characteristics);
+    }
+
+    /**
+     * Creates a new late-binding {@code IndexedSpliterator} over all elements
+     * of a modifiable source.
+     *
+     * @param elements        the function retrieving the element at an index
+     * @param size            the supplier of the size of the source
+     * @param modCount        the supplier of the modification count of the
+     *                        source
+     * @param characteristics the additional characteristics of the elements;
+     *                        {@link #SIZED} and {@link #SUBSIZED} are always
+     *                        reported
+     */
+    public IndexedSpliterator(IntFunction<? extends T> elements,
+                              IntSupplier size, IntSupplier modCount,
+                              int characteristics) {
+        this(elements, Objects.requireNonNull(size),
+             Objects.requireNonNull(modCount), 0, -1, 0, characteristics);
+    }
+
+    /**
+     * Creates a new {@code IndexedSpliterator}.
+     *
+     * @param elements         the function retrieving the element at an index
+     * @param size             the supplier of the size of the source, or
+     *                         {@code null} for an unmodifiable source
+     * @param modCount         the supplier of the modification count of the
+     *                         source, or {@code null} for an unmodifiable
+     *                         source
+     * @param origin           the first index (inclusive)
+     * @param fence            the last index (exclusive), or {@code -1} if
+     *                         not yet bound
+     * @param expectedModCount the modification count at binding
+     * @param characteristics  the characteristics
+     */
+    private IndexedSpliterator(IntFunction<? extends T> elements,
+                               IntSupplier size, IntSupplier modCount,
+                               int origin, int fence, int expectedModCount,
+                               int characteristics) {
+        this.elements = Objects.requireNonNull(elements);
+        this.size = size;
+        this.modCount = modCount;
+        this.index = origin;
+        this.fence = fence;
+        this.expectedModCount = expectedModCount;
+        this.characteristics = characteristics | SIZED | SUBSIZED;
+    }
+
+    /**
+     * Gets the fence, binding it on first use.
+     *
+     * @return the fence
+     */
+    private int getFence() {
+        int hi = fence;
+        if (hi < 0) {
+            expectedModCount = modCount.getAsInt();
+            hi = fence = size.getAsInt();
+        }
+        return hi;
+    }
+
+    /**
+     * Throws a {@code ConcurrentModificationException} if the source was
+     * modified since binding.
+     */
+    private void checkForComodification() {
+        if (modCount != null && modCount.getAsInt() != expectedModCount) {
+            throw new ConcurrentModificationException();
+        }
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super T> action) {
+        Objects.requireNonNull(action);
+        int hi = getFence();
+        if (index < hi) {
+            checkForComodification();
+            action.accept(elements.apply(index++));
+            checkForComodification();
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super T> action) {
+        Objects.requireNonNull(action);
+        int hi = getFence();
+        int i = index;
+        index = hi;
+        checkForComodification();
+        for (; i < hi; ++i) {
+            action.accept(elements.apply(i));
+        }
+        checkForComodification();
+    }
+
+    @Override
+    public Spliterator<T> trySplit() {
+        int hi = getFence();
+        int lo = index;
+        int mid = (lo + hi) >>> 1;
+        if (lo >= mid) {
+            return null;
+        }
+        index = mid;
+        return new IndexedSpliterator<>(elements, size, modCount, lo, mid,
+                                        expectedModCount, characteristics);
+    }
+
+    @Override
+    public long estimateSize() {
+        return getFence() - index;
+    }
+
+    @Override
+    public int characteristics() {
+        return characteristics;
+    }
+}
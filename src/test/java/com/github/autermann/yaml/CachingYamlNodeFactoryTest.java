@@ -0,0 +1,138 @@
+/*
+ * Copyright 2013-2015 Christian Autermann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.autermann.yaml;
+
+import static com.github.autermann.yaml.nodes.YamlNodesMatcher.byteNode;
+import static com.github.autermann.yaml.nodes.YamlNodesMatcher.intNode;
+import static com.github.autermann.yaml.nodes.YamlNodesMatcher.longNode;
+import static com.github.autermann.yaml.nodes.YamlNodesMatcher.shortNode;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ErrorCollector;
+import org.junit.rules.ExpectedException;
+
+import com.github.autermann.yaml.nodes.YamlSeqNode;
+import com.github.autermann.yaml.nodes.YamlTextNode;
+import com.github.autermann.yaml.util.DecimalPrecision;
+import com.google.common.base.Strings;
+
+/**
+ * Tests for {@link CachingYamlNodeFactory}.
+ *
+ * @author Christian Autermann
+ */
+public class CachingYamlNodeFactoryTest {
+    private final CachingYamlNodeFactory factory = YamlNodeFactory
+            .createCaching();
+    /**
+     * {@link ExpectedException} rule.
+     */
+    @Rule
+    public final ExpectedException thrown = ExpectedException.none();
+    /**
+     * {@link ErrorCollector} rule.
+     */
+    @Rule
+    public final ErrorCollector errors = new ErrorCollector();
+
+    @Test
+    public void testCachedIntegrals() {
+        for (int i = CachingYamlNodeFactory.CACHE_LOW;
+             i <= CachingYamlNodeFactory.CACHE_HIGH; ++i) {
+            errors.checkThat(factory.intNode(i), is(sameInstance(factory.intNode(i))));
+            errors.checkThat(factory.longNode(i), is(sameInstance(factory.longNode(i))));
+            errors.checkThat(factory.shortNode((short) i), is(sameInstance(factory.shortNode((short) i))));
+            errors.checkThat(factory.intNode(i), is(intNode()));
+            errors.checkThat(factory.intNode(i).intValue(), is(i));
+            errors.checkThat(factory.longNode(i), is(longNode()));
+            errors.checkThat(factory.longNode(i).longValue(), is((long) i));
+            errors.checkThat(factory.shortNode((short) i), is(shortNode()));
+            errors.checkThat(factory.shortNode((short) i).shortValue(), is((short) i));
+        }
+        for (int i = Byte.MIN_VALUE; i <= Byte.MAX_VALUE; ++i) {
+            errors.checkThat(factory.byteNode((byte) i), is(sameInstance(factory.byteNode((byte) i))));
+            errors.checkThat(factory.byteNode((byte) i), is(byteNode()));
+            errors.checkThat(factory.byteNode((byte) i).byteValue(), is((byte) i));
+        }
+    }
+
+    @Test
+    public void testUncachedIntegrals() {
+        int low = CachingYamlNodeFactory.CACHE_LOW - 1;
+        int high = CachingYamlNodeFactory.CACHE_HIGH + 1;
+        errors.checkThat(factory.intNode(high), is(not(sameInstance(factory.intNode(high)))));
+        errors.checkThat(factory.intNode(low), is(not(sameInstance(factory.intNode(low)))));
+        errors.checkThat(factory.longNode(Long.MAX_VALUE).longValue(), is(Long.MAX_VALUE));
+        errors.checkThat(factory.longNode(1L << 32), is(not(sameInstance(factory.longNode(1L << 32)))));
+        errors.checkThat(factory.shortNode(Short.MIN_VALUE).shortValue(), is(Short.MIN_VALUE));
+    }
+
+    @Test
+    public void testInternedText() {
+        errors.checkThat(factory.textNode("active"), is(sameInstance(factory.textNode("active"))));
+        errors.checkThat(factory.textNode("active"), is(equalTo(new YamlTextNode("active"))));
+        errors.checkThat(factory.textNode(new String("active")), is(sameInstance(factory.textNode("active"))));
+    }
+
+    @Test
+    public void testLongTextIsNotInterned() {
+        String value = Strings.repeat("x", CachingYamlNodeFactory.DEFAULT_MAX_LENGTH + 1);
+        errors.checkThat(factory.textNode(value), is(not(sameInstance(factory.textNode(value)))));
+        errors.checkThat(factory.textNode(value), is(equalTo(new YamlTextNode(value))));
+    }
+
+    @Test
+    public void testTableIsBounded() {
+        CachingYamlNodeFactory small = new CachingYamlNodeFactory(DecimalPrecision.BIG_DECIMAL, 1, 8);
+        YamlNode a = small.textNode("a");
+        errors.checkThat(small.textNode("a"), is(sameInstance(a)));
+        small.textNode("b");
+        errors.checkThat(small.textNode("a"), is(not(sameInstance(a))));
+        errors.checkThat(small.textNode("a"), is(equalTo(new YamlTextNode("a"))));
+    }
+
+    @Test
+    public void testInvalidTableSize() {
+        thrown.expect(IllegalArgumentException.class);
+        new CachingYamlNodeFactory(DecimalPrecision.BIG_DECIMAL, 0, 8);
+    }
+
+    @Test
+    public void testWithDecimalPrecision() {
+        YamlNodeFactory other = factory.withDecimalPrecision(DecimalPrecision.DOUBLE);
+        errors.checkThat(other, is(instanceOf(CachingYamlNodeFactory.class)));
+        errors.checkThat(other.getDecimalPrecision(), is(DecimalPrecision.DOUBLE));
+    }
+
+    @Test
+    public void testLoadSharesNodes() {
+        Yaml yaml = new Yaml(factory);
+        YamlSeqNode seq = factory.sequenceNode();
+        for (int i = 0; i < 100; ++i) {
+            seq.addMap().put("status", "active").put("count", 1000);
+        }
+        YamlNode loaded = yaml.load(yaml.dump(seq));
+        errors.checkThat(loaded, is(equalTo(yaml.load(new Yaml().dump(seq)))));
+        errors.checkThat(loaded.path(0).path("status"), is(sameInstance(loaded.path(99).path("status"))));
+        errors.checkThat(loaded.path(0).path("count"), is(sameInstance(loaded.path(99).path("count"))));
+    }
+}
@@ -36,6 +36,7 @@ import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.util.Date;
 import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.joda.time.DateTime;
 import org.junit.Rule;
@@ -46,7 +47,9 @@ import org.junit.rules.ExpectedException;
 import com.github.autermann.yaml.nodes.YamlBigDecimalNode;
 import com.github.autermann.yaml.nodes.YamlDoubleNode;
 import com.github.autermann.yaml.nodes.YamlFloatNode;
+import com.github.autermann.yaml.nodes.YamlMapNode;
 import com.github.autermann.yaml.nodes.YamlScalarNode;
+import com.github.autermann.yaml.nodes.YamlSeqNode;
 import com.github.autermann.yaml.util.DecimalPrecision;
 
 /**
@@ -267,4 +270,31 @@ public class DefaultYamlNodeFactoryTest {
         errors.checkThat(factory.listNode(), is(factory.sequenceNode()));
     }
 
+
+    @Test
+    public void testSizedVariantsDelegate() {
+        AtomicInteger maps = new AtomicInteger();
+        AtomicInteger sequences = new AtomicInteger();
+        YamlNodeFactory factory = new DefaultYamlNodeFactory(
+                DecimalPrecision.DOUBLE) {
+            @Override
+            public YamlMapNode mapNode() {
+                maps.incrementAndGet();
+                return super.mapNode();
+            }
+
+            @Override
+            public YamlSeqNode sequenceNode() {
+                sequences.incrementAndGet();
+                return super.sequenceNode();
+            }
+        };
+        YamlNode node = new Yaml(factory).load("a: [1, 2]\nb: {c: 3}\n");
+        errors.checkThat(node.path("a").size(), is(2));
+        errors.checkThat(node.path("b").path("c").asIntValue(), is(3));
+        errors.checkThat(maps.get(), is(2));
+        errors.checkThat(sequences.get(), is(1));
+        errors.checkThat(factory.mapNode(16), is(instanceOf(YamlMapNode.class)));
+        errors.checkThat(maps.get(), is(3));
+    }
 }
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2013-2015 Christian Autermann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.autermann.yaml;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ErrorCollector;
+import org.yaml.snakeyaml.DumperOptions;
+import org.yaml.snakeyaml.DumperOptions.FlowStyle;
+
+/**
+ * Tests for {@link ThreadLocalYaml}.
+ *
+ * @author Christian Autermann
+ */
+public class ThreadLocalYamlTest {
+    public final DefaultYamlNodeFactory factory = YamlNodeFactory
+            .createDefault();
+
+    @Rule
+    public final ErrorCollector errors = new ErrorCollector();
+
+    @Test
+    public void testReuse() {
+        DumperOptions options = new DumperOptions();
+        errors.checkThat(ThreadLocalYaml.get(), is(sameInstance(ThreadLocalYaml.get())));
+        errors.checkThat(ThreadLocalYaml.get(options), is(sameInstance(ThreadLocalYaml.get(options))));
+        errors.checkThat(ThreadLocalYaml.get(options), is(not(sameInstance(ThreadLocalYaml.get(new DumperOptions())))));
+    }
+
+    @Test
+    public void testThreadConfinement() throws InterruptedException, ExecutionException {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Yaml other = executor.submit(() -> ThreadLocalYaml.get()).get();
+            errors.checkThat(ThreadLocalYaml.get(), is(not(sameInstance(other))));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testDumpWithOptions() {
+        DumperOptions options = new DumperOptions();
+        options.setDefaultFlowStyle(FlowStyle.FLOW);
+        YamlNode node = factory.mapNode().put("a", "b");
+        errors.checkThat(node.dump(options), is("{a: b}\n"));
+        errors.checkThat(node.dump(), is("a: b\n"));
+    }
+
+    @Test
+    public void testDumpWithModifiedOptions() {
+        DumperOptions options = new DumperOptions();
+        options.setDefaultFlowStyle(FlowStyle.FLOW);
+        YamlNode node = factory.sequenceNode().add(1).add(2);
+        errors.checkThat(node.dump(options), is("[1, 2]\n"));
+        options.setDefaultFlowStyle(FlowStyle.BLOCK);
+        errors.checkThat(node.dump(options), is("- 1\n- 2\n"));
+        Yaml yaml = ThreadLocalYaml.get(options);
+        errors.checkThat(ThreadLocalYaml.get(options), is(sameInstance(yaml)));
+    }
+}
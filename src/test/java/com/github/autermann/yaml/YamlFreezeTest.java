@@ -0,0 +1,202 @@
+/*
+ * Copyright 2013-2015 Christian Autermann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.autermann.yaml;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ErrorCollector;
+import org.junit.rules.ExpectedException;
+import org.yaml.snakeyaml.DumperOptions;
+
+import com.github.autermann.yaml.nodes.YamlMapNode;
+import com.github.autermann.yaml.nodes.YamlOrderedMapNode;
+import com.github.autermann.yaml.nodes.YamlSeqNode;
+
+/**
+ * Tests for {@link YamlNode#freeze()}.
+ *
+ * @author Christian Autermann
+ */
+public class YamlFreezeTest {
+    public final DefaultYamlNodeFactory factory = YamlNodeFactory
+            .createDefault();
+
+    @Rule
+    public final ErrorCollector errors = new ErrorCollector();
+
+    @Rule
+    public final ExpectedException thrown = ExpectedException.none();
+
+    private final Yaml yaml = new Yaml();
+
+    private YamlMapNode createTree() {
+        YamlMapNode root = factory.mapNode();
+        root.put("a", 1).put("b", "text");
+        root.putSequence("seq").add(1).add("x").addMap().put("c", true);
+        root.putOrderedMap("omap").put("z", 1).put("y", 2);
+        root.putPairs("pairs").put("k", 1).put("k", 2);
+        root.putSet("set").add("a").add("b");
+        return root;
+    }
+
+    @Test
+    public void testFreeze() {
+        YamlMapNode node = createTree();
+        YamlMapNode frozen = node.freeze();
+        errors.checkThat(frozen, is(not(sameInstance(node))));
+        errors.checkThat(frozen, is(equalTo(node)));
+        errors.checkThat(node, is(equalTo(frozen)));
+        errors.checkThat(frozen.hashCode(), is(node.hashCode()));
+        errors.checkThat(frozen.dump(), is(node.dump()));
+        errors.checkThat(frozen.isFrozen(), is(true));
+        errors.checkThat(node.isFrozen(), is(false));
+        errors.checkThat(frozen.path("omap"), is(instanceOf(YamlOrderedMapNode.class)));
+        for (YamlNode child : new YamlNode[] { frozen.path("seq"),
+                                               frozen.path("seq").path(2),
+                                               frozen.path("omap"),
+                                               frozen.path("pairs"),
+                                               frozen.path("set") }) {
+            errors.checkThat(child.isFrozen(), is(true));
+            errors.checkThat(child.freeze(), is(sameInstance(child)));
+            errors.checkThat(child.copy(), is(sameInstance(child)));
+        }
+        errors.checkThat(frozen.freeze(), is(sameInstance(frozen)));
+        errors.checkThat(frozen.copy(), is(sameInstance(frozen)));
+        // the original stays mutable
+        node.put("d", 4);
+        errors.checkThat(frozen.has("d"), is(false));
+    }
+
+    @Test
+    public void testScalarsAreFrozen() {
+        YamlNode text = factory.textNode("a");
+        errors.checkThat(text.isFrozen(), is(true));
+        errors.checkThat(text.freeze(), is(sameInstance(text)));
+    }
+
+    @Test
+    public void testSharing() {
+        YamlNode node = yaml.load("a: &x {b: c}\nd: *x\n");
+        YamlNode frozen = node.freeze();
+        errors.checkThat(frozen.path("a"), is(sameInstance(frozen.path("d"))));
+
+        YamlMapNode child = factory.mapNode().put("e", "f").freeze();
+        YamlMapNode parent = factory.mapNode().put("child", child).freeze();
+        errors.checkThat(parent.path("child"), is(sameInstance((YamlNode) child)));
+    }
+
+    @Test
+    public void testFrozenMap() {
+        YamlMapNode frozen = createTree().freeze();
+        thrown.expect(UnsupportedOperationException.class);
+        frozen.put("x", "y");
+    }
+
+    @Test
+    public void testFrozenMapEntries() {
+        YamlMapNode frozen = createTree().freeze();
+        thrown.expect(UnsupportedOperationException.class);
+        frozen.entries().clear();
+    }
+
+    @Test
+    public void testFrozenSequence() {
+        YamlSeqNode frozen = factory.sequenceNode().add(1).freeze();
+        thrown.expect(UnsupportedOperationException.class);
+        frozen.add(2);
+    }
+
+    @Test
+    public void testFrozenSequenceValue() {
+        YamlSeqNode frozen = factory.sequenceNode().add(1).freeze();
+        thrown.expect(UnsupportedOperationException.class);
+        frozen.value().remove(0);
+    }
+
+    @Test
+    public void testFrozenSet() {
+        YamlNode frozen = factory.setNode().add(1).freeze();
+        thrown.expect(UnsupportedOperationException.class);
+        frozen.asSet().value().clear();
+    }
+
+    @Test
+    public void testFrozenPairs() {
+        YamlNode frozen = factory.pairsNode().put("a", 1).freeze();
+        thrown.expect(UnsupportedOperationException.class);
+        frozen.asPairs().put("a", 2);
+    }
+
+    @Test
+    public void testFrozenDefer() {
+        YamlMapNode frozen = factory.mapNode().freeze();
+        thrown.expect(UnsupportedOperationException.class);
+        frozen.defer(() -> {
+        });
+    }
+
+    @Test
+    public void testFreezeLazy() {
+        Yaml lazy = new Yaml(new DumperOptions(), factory, true);
+        YamlNode frozen = lazy.load("a: [1, 2]\nb: {c: d}\n").freeze();
+        errors.checkThat(frozen, is(equalTo(yaml.load("a: [1, 2]\nb: {c: d}\n"))));
+    }
+
+    @Test
+    public void testConcurrentReads() throws Exception {
+        YamlMapNode root = factory.mapNode();
+        for (int i = 0; i < 100; ++i) {
+            root.putMap("key" + i).put("value", i)
+                    .putPairs("pairs").put("p", i).put("p", -i);
+        }
+        YamlMapNode frozen = root.freeze();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int t = 0; t < 4; ++t) {
+                results.add(executor.submit((Callable<Boolean>) () -> {
+                    boolean ok = true;
+                    for (int j = 0; j < 50; ++j) {
+                        for (int i = 0; i < 100; ++i) {
+                            YamlNode child = frozen.path("key" + i);
+                            ok &= child.path("value").intValue() == i;
+                            ok &= child.path("pairs").path("p").size() == 2;
+                        }
+                    }
+                    return ok;
+                }));
+            }
+            for (Future<Boolean> result : results) {
+                errors.checkThat(result.get(), is(true));
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
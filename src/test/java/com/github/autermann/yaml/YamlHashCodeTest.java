@@ -0,0 +1,202 @@
+/*
+ * Copyright 2013-2015 Christian Autermann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.autermann.yaml;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+
+import java.util.Iterator;
+import java.util.Map.Entry;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ErrorCollector;
+
+import com.github.autermann.yaml.nodes.YamlMapNode;
+import com.github.autermann.yaml.nodes.YamlSeqNode;
+import com.github.autermann.yaml.nodes.YamlSetNode;
+
+/**
+ * Tests for the cached hash codes of container nodes.
+ *
+ * @author Christian Autermann
+ */
+public class YamlHashCodeTest {
+    public final YamlNodeFactory factory = YamlNodeFactory.createDefault();
+
+    @Rule
+    public final ErrorCollector errors = new ErrorCollector();
+
+    private YamlMapNode createTree() {
+        YamlMapNode root = factory.mapNode();
+        root.put("a", 1).put("b", "text");
+        root.putSequence("seq").add(1).add("x").addMap().put("c", true);
+        root.putOrderedMap("omap").put("z", 1).put("y", 2);
+        root.putPairs("pairs").put("k", 1).put("k", 2);
+        root.putSet("set").add("a").add("b");
+        return root;
+    }
+
+    @Test
+    public void testStable() {
+        YamlMapNode node = createTree();
+        int hashCode = node.hashCode();
+        errors.checkThat(node.hashCode(), is(hashCode));
+        errors.checkThat(createTree().hashCode(), is(hashCode));
+    }
+
+    @Test
+    public void testNestedMapPut() {
+        YamlMapNode node = createTree();
+        int hashCode = node.hashCode();
+        node.path("seq").path(2).asMap().put("d", false);
+        checkHashCode(node, hashCode);
+    }
+
+    @Test
+    public void testNestedOrderedMapPut() {
+        YamlMapNode node = createTree();
+        int hashCode = node.hashCode();
+        node.path("omap").asOrderedMap().put("x", 3);
+        checkHashCode(node, hashCode);
+    }
+
+    @Test
+    public void testNestedPairsPut() {
+        YamlMapNode node = createTree();
+        int hashCode = node.hashCode();
+        node.path("pairs").asPairs().put("k", 3);
+        checkHashCode(node, hashCode);
+    }
+
+    @Test
+    public void testNestedSetAdd() {
+        YamlMapNode node = createTree();
+        int hashCode = node.hashCode();
+        node.path("set").asSet().add("c");
+        checkHashCode(node, hashCode);
+    }
+
+    @Test
+    public void testNestedSequenceAdd() {
+        YamlMapNode node = createTree();
+        int hashCode = node.hashCode();
+        node.path("seq").asSequence().add(2);
+        checkHashCode(node, hashCode);
+    }
+
+    @Test
+    public void testSequenceValueView() {
+        YamlMapNode node = createTree();
+        int hashCode = node.hashCode();
+        YamlSeqNode seq = node.path("seq").asSequence();
+        seq.value().set(0, factory.intNode(2));
+        checkHashCode(node, hashCode);
+        hashCode = node.hashCode();
+        seq.value().remove(0);
+        checkHashCode(node, hashCode);
+        hashCode = node.hashCode();
+        seq.value().clear();
+        checkHashCode(node, hashCode);
+    }
+
+    @Test
+    public void testMapEntriesView() {
+        YamlMapNode node = createTree();
+        int hashCode = node.hashCode();
+        Iterator<Entry<YamlNode, YamlNode>> iter = node.entries().iterator();
+        iter.next();
+        iter.remove();
+        checkHashCode(node, hashCode);
+        hashCode = node.hashCode();
+        node.entries().iterator().next().setValue(factory.intNode(5));
+        checkHashCode(node, hashCode);
+    }
+
+    @Test
+    public void testSetValueView() {
+        YamlMapNode node = createTree();
+        int hashCode = node.hashCode();
+        YamlSetNode set = node.path("set").asSet();
+        set.value().remove(factory.textNode("a"));
+        checkHashCode(node, hashCode);
+        hashCode = node.hashCode();
+        set.value().clear();
+        checkHashCode(node, hashCode);
+    }
+
+    @Test
+    public void testSharedChild() {
+        YamlMapNode child = factory.mapNode().put("a", 1);
+        YamlSeqNode first = factory.sequenceNode().add(child);
+        YamlSeqNode second = factory.sequenceNode().add(child);
+        int firstHashCode = first.hashCode();
+        int secondHashCode = second.hashCode();
+        child.put("b", 2);
+        checkHashCode(first, firstHashCode);
+        checkHashCode(second, secondHashCode);
+    }
+
+    @Test
+    public void testChildHashedBeforeParent() {
+        YamlMapNode grandchild = factory.mapNode().put("a", 1);
+        YamlSeqNode child = factory.sequenceNode().add(grandchild);
+        YamlMapNode root = factory.mapNode().put("child", child);
+        child.hashCode();
+        int hashCode = root.hashCode();
+        grandchild.put("b", 2);
+        checkHashCode(root, hashCode);
+        hashCode = root.hashCode();
+        grandchild.put("c", 3);
+        checkHashCode(root, hashCode);
+    }
+
+    @Test
+    public void testUnrelatedModificationKeepsCache() {
+        AtomicInteger computed = new AtomicInteger();
+        YamlMapNode node = new YamlMapNode(factory) {
+            @Override
+            protected int computeHashCode() {
+                computed.incrementAndGet();
+                return super.computeHashCode();
+            }
+        };
+        node.put("a", factory.sequenceNode().add(1));
+        YamlMapNode other = createTree();
+        node.hashCode();
+        other.hashCode();
+        other.path("seq").asSequence().add(2);
+        other.hashCode();
+        node.hashCode();
+        errors.checkThat(computed.get(), is(1));
+        node.path("a").asSequence().add(2);
+        node.hashCode();
+        errors.checkThat(computed.get(), is(2));
+    }
+
+    /**
+     * Checks that the hash code of {@code node} changed and equals the hash
+     * code of a freshly computed copy.
+     *
+     * @param node     the node
+     * @param previous the hash code before the modification
+     */
+    private void checkHashCode(YamlNode node, int previous) {
+        errors.checkThat(node.hashCode(), is(not(previous)));
+        errors.checkThat(node.hashCode(), is(node.copy().hashCode()));
+    }
+}
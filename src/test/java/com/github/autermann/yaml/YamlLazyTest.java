@@ -0,0 +1,223 @@
+/*
+ * Copyright 2013-2015 Christian Autermann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.autermann.yaml;
+
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ErrorCollector;
+import org.yaml.snakeyaml.DumperOptions;
+import org.yaml.snakeyaml.nodes.Tag;
+
+import com.github.autermann.yaml.nodes.YamlContainerNode;
+import com.github.autermann.yaml.nodes.YamlIntegralNode;
+import com.github.autermann.yaml.nodes.YamlLazyScalarNode;
+import com.google.common.io.ByteStreams;
+
+/**
+ * Tests for lazily loaded documents.
+ *
+ * @author Christian Autermann
+ */
+public class YamlLazyTest {
+    public final DefaultYamlNodeFactory factory = YamlNodeFactory
+            .createDefault();
+
+    @Rule
+    public final ErrorCollector errors = new ErrorCollector();
+
+    private final Yaml eager = new Yaml();
+
+    private final Yaml lazy = new Yaml(new DumperOptions(), factory, true);
+
+    @Test
+    public void testSameAsEager() {
+        String[] documents = {
+            "a: 1\nb: [x, 2.5, true, ~]\nc: {d: e}\n",
+            "- !!omap {b: 1, a: 2}\n- !!pairs {x: 1, x: 2}\n- !!set {a, b}\n",
+            "? [complex, key]\n: value\n? {a: b}\n: c\n",
+            "bin: !!binary AQID\ntime: 2014-01-02T03:04:05.006Z\n",
+            "plain\n",
+            "big: 123456789012345678901234567890\nlong: 1234567890123456789\n",
+            "dec: 3.14159265358979323846264338327950288\n",
+            "1234567890123456789: key\n2014-01-02T03:04:05.006Z: key\n",
+        };
+        for (String document : documents) {
+            errors.checkThat(document, lazy.load(document),
+                             is(eager.load(document)));
+            errors.checkThat(document, eager.load(document),
+                             is(lazy.load(document)));
+            errors.checkThat(document, lazy.load(document).hashCode(),
+                             is(eager.load(document).hashCode()));
+        }
+    }
+
+    @Test
+    public void testMaterializedOnAccess() {
+        YamlNode node = lazy.load("a: {b: [1, 2]}\nc: 3\n");
+        YamlContainerNode root = (YamlContainerNode) node;
+        errors.checkThat(root.isMaterialized(), is(false));
+        YamlContainerNode a = (YamlContainerNode) node.path("a");
+        errors.checkThat(root.isMaterialized(), is(true));
+        errors.checkThat(a.isMaterialized(), is(false));
+        errors.checkThat(node.path("c").intValue(), is(3));
+        errors.checkThat(a.path("b").path(1).intValue(), is(2));
+        errors.checkThat(a.isMaterialized(), is(true));
+    }
+
+    @Test
+    public void testAliasesAreSameInstance() {
+        YamlNode node = lazy.load("a: &a {value: [1]}\nb: {c: *a}\n");
+        errors.checkThat(node.path("a"),
+                         is(sameInstance(node.path("b").path("c"))));
+    }
+
+    @Test
+    public void testErrorsOnAccess() {
+        YamlNode node = lazy.load("a: {b: !!int x}\n");
+        for (int i = 0; i < 2; ++i) {
+            try {
+                node.path("a").size();
+                errors.addError(new AssertionError("expected exception"));
+            } catch (NumberFormatException ex) {
+                // expected
+            }
+        }
+    }
+
+    @Test
+    public void testScalarsConvertedOnAccess() {
+        YamlNode node = lazy.load("big: 123456789012345678901234567890\n" +
+                                  "small: 1\n" +
+                                  "time: 2014-01-02T03:04:05.006Z\n" +
+                                  "bin: !!binary AQID\n");
+        YamlLazyScalarNode big = (YamlLazyScalarNode) node.path("big");
+        YamlLazyScalarNode time = (YamlLazyScalarNode) node.path("time");
+        YamlLazyScalarNode bin = (YamlLazyScalarNode) node.path("bin");
+        errors.checkThat(node.path("small"), is(instanceOf(YamlIntegralNode.class)));
+        errors.checkThat(big.isMaterialized(), is(false));
+        errors.checkThat(big.tag(), is(Tag.INT));
+        errors.checkThat(big.sourceText(), is("123456789012345678901234567890"));
+        errors.checkThat(big.bigIntegerValue(),
+                         is(new BigInteger("123456789012345678901234567890")));
+        errors.checkThat(big.isMaterialized(), is(true));
+        errors.checkThat(big.isBigInteger(), is(true));
+        errors.checkThat(time.isMaterialized(), is(false));
+        errors.checkThat(time.dateTimeValue().getMillis(),
+                         is(eager.load("2014-01-02T03:04:05.006Z").dateTimeValue().getMillis()));
+        errors.checkThat(bin.isMaterialized(), is(false));
+        errors.checkThat(bin.binaryValue(), is(new byte[] { 1, 2, 3 }));
+        errors.checkThat(bin.binaryValue(), is(sameInstance(bin.binaryValue())));
+    }
+
+    @Test
+    public void testScalarErrors() {
+        YamlNode node = lazy.load("a: [!!binary 'AQID', !!binary 'A Q']\n");
+        try {
+            node.path("a").size();
+            errors.addError(new AssertionError("expected exception"));
+        } catch (IllegalArgumentException ex) {
+            // expected, invalid values are not deferred
+        }
+        for (String invalid : new String[] { "AQ=B", "AQIDA", "AQ\tID" }) {
+            try {
+                eager.load("!!binary '" + invalid + "'\n");
+                errors.addError(new AssertionError("expected exception"));
+            } catch (IllegalArgumentException ex) {
+                // expected
+            }
+        }
+        node = lazy.load("a: [2014-01-02T03:04:05.006Z, 2014-01-02]\n");
+        errors.checkThat(node.path("a").size(), is(2));
+        errors.checkThat(node.path("a").path(0).isTime(), is(true));
+        try {
+            node.path("a").path(1).dateTimeValue();
+            errors.addError(new AssertionError("expected exception"));
+        } catch (IllegalArgumentException ex) {
+            // expected, not accepted by the time encoding
+        }
+    }
+
+    @Test
+    public void testBinaryStream() throws IOException {
+        byte[] bytes = new byte[10000];
+        new Random(42).nextBytes(bytes);
+        String document = eager.dump(factory.mapNode().put("bin", bytes));
+        YamlNode node = lazy.load(document).path("bin");
+        errors.checkThat(ByteStreams.toByteArray(node.binaryStream()),
+                         is(bytes));
+        errors.checkThat(((YamlLazyScalarNode) node).isMaterialized(),
+                         is(false));
+        errors.checkThat(node.binaryValue(), is(bytes));
+        errors.checkThat(ByteStreams.toByteArray(node.binaryStream()),
+                         is(bytes));
+        for (int length = 0; length < 8; ++length) {
+            byte[] prefix = Arrays.copyOf(bytes, length);
+            document = eager.dump(factory.sequenceNode().add(prefix));
+            errors.checkThat(eager.load(document).path(0).binaryValue(),
+                             is(prefix));
+            errors.checkThat(lazy.load(document).path(0).binaryValue(),
+                             is(prefix));
+        }
+    }
+
+    @Test
+    public void testDumpSameAsEager() {
+        String document = "big: 123456789012345678901234567890\n" +
+                          "time: 2014-01-02T03:04:05.006Z\n" +
+                          "bin: !!binary AQID\n";
+        errors.checkThat(lazy.dump(lazy.load(document)),
+                         is(eager.dump(eager.load(document))));
+    }
+
+    @Test
+    public void testConcurrentAccess() throws Exception {
+        StringBuilder document = new StringBuilder();
+        for (int i = 0; i < 1000; ++i) {
+            document.append("k").append(i).append(": [").append(i).append("]\n");
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            for (int run = 0; run < 10; ++run) {
+                YamlNode node = lazy.load(document.toString());
+                List<Future<Integer>> futures = new ArrayList<>();
+                for (int i = 0; i < 8; ++i) {
+                    Callable<Integer> task = () -> node.path("k999").path(0).intValue() + node.size();
+                    futures.add(executor.submit(task));
+                }
+                for (Future<Integer> future : futures) {
+                    errors.checkThat(future.get(), is(1999));
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright 2013-2015 Christian Autermann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.autermann.yaml;
+
+import static org.hamcrest.Matchers.is;
+
+import java.util.List;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ErrorCollector;
+
+import com.github.autermann.yaml.nodes.YamlContainerNode;
+import com.github.autermann.yaml.nodes.YamlMapNode;
+import com.github.autermann.yaml.nodes.YamlOrderedMapNode;
+import com.github.autermann.yaml.nodes.YamlPairsNode;
+import com.github.autermann.yaml.nodes.YamlSeqNode;
+import com.github.autermann.yaml.nodes.YamlSetNode;
+
+/**
+ * Tests for the spliterators of container nodes and
+ * {@link YamlContainerNode#parallelStream()}.
+ *
+ * @author Christian Autermann
+ */
+public class YamlParallelStreamTest {
+    private static final int SIZE = 10000;
+
+    public final YamlNodeFactory factory = YamlNodeFactory.createDefault();
+
+    @Rule
+    public final ErrorCollector errors = new ErrorCollector();
+
+    @Test
+    public void testSequence() {
+        YamlSeqNode node = factory.sequenceNode();
+        for (int i = 0; i < SIZE; ++i) {
+            node.add(i);
+        }
+        check(node);
+        check(node.freeze());
+    }
+
+    @Test
+    public void testMixedSequence() {
+        YamlSeqNode node = factory.sequenceNode();
+        for (int i = 0; i < SIZE; ++i) {
+            node.add(i % 2 == 0 ? factory.intNode(i) : factory.textNode("t" + i));
+        }
+        check(node);
+    }
+
+    @Test
+    public void testSet() {
+        YamlSetNode node = factory.setNode();
+        for (int i = 0; i < SIZE; ++i) {
+            node.add(i);
+        }
+        check(node);
+        check(node.freeze());
+    }
+
+    @Test
+    public void testMap() {
+        YamlMapNode node = factory.mapNode();
+        for (int i = 0; i < SIZE; ++i) {
+            node.put("key" + i, i);
+        }
+        check(node);
+        check(node.freeze());
+    }
+
+    @Test
+    public void testOrderedMap() {
+        YamlOrderedMapNode node = factory.orderedMapNode();
+        for (int i = 0; i < SIZE; ++i) {
+            node.put("key" + i, i);
+        }
+        check(node);
+        check(node.freeze());
+    }
+
+    @Test
+    public void testPairs() {
+        YamlPairsNode node = factory.pairsNode();
+        for (int i = 0; i < SIZE; ++i) {
+            node.put("key" + (i % (SIZE / 2)), i);
+        }
+        check(node);
+        errors.checkThat(node.spliterator().getExactSizeIfKnown(),
+                         is((long) SIZE / 2));
+    }
+
+    /**
+     * Checks that the spliterator of {@code node} is sized, ordered and
+     * balanced and that the parallel stream yields the children in order.
+     *
+     * @param node the node
+     */
+    private void check(YamlContainerNode node) {
+        Spliterator<YamlNode> spliterator = node.spliterator();
+        long size = spliterator.getExactSizeIfKnown();
+        errors.checkThat(spliterator.hasCharacteristics(Spliterator.SIZED),
+                         is(true));
+        errors.checkThat(spliterator.hasCharacteristics(Spliterator.SUBSIZED),
+                         is(true));
+        errors.checkThat(spliterator.hasCharacteristics(Spliterator.ORDERED),
+                         is(true));
+        Spliterator<YamlNode> prefix = spliterator.trySplit();
+        errors.checkThat(prefix.estimateSize(), is(size / 2));
+        errors.checkThat(spliterator.estimateSize(), is(size - size / 2));
+
+        List<YamlNode> sequential = node.stream().collect(Collectors.toList());
+        List<YamlNode> parallel = node.parallelStream()
+                .collect(Collectors.toList());
+        errors.checkThat(node.parallelStream().isParallel(), is(true));
+        errors.checkThat(parallel, is(sequential));
+        errors.checkThat(parallel.size(), is((int) size));
+    }
+}
@@ -0,0 +1,254 @@
+/*
+ * Copyright 2013-2015 Christian Autermann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.autermann.yaml;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.hamcrest.Matchers.notNullValue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ErrorCollector;
+import org.junit.rules.TemporaryFolder;
+import org.yaml.snakeyaml.DumperOptions;
+
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Tests for {@link YamlPool}.
+ *
+ * @author Christian Autermann
+ */
+public class YamlPoolTest {
+    public final DefaultYamlNodeFactory factory = YamlNodeFactory
+            .createDefault();
+
+    @Rule
+    public final ErrorCollector errors = new ErrorCollector();
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testLoadAndDump() {
+        YamlPool pool = new YamlPool();
+        YamlNode node = factory.mapNode().put("a", (byte) 1).put("b", "c");
+        errors.checkThat(pool.load(pool.dump(node)), is(node));
+        errors.checkThat(pool.loadAll("--- 1\n--- 2\n"),
+                         contains(factory.byteNode((byte) 1), factory.byteNode((byte) 2)));
+        errors.checkThat(pool.loadStream("--- 1\n--- 2\n").count(), is(2L));
+        errors.checkThat(pool.getCreatedCount(), is(1));
+        errors.checkThat(pool.getIdleCount(), is(1));
+        errors.checkThat(pool.getWaitCount(), is(0L));
+    }
+
+    @Test
+    public void testConcurrentLoad() throws Exception {
+        int threads = 16;
+        YamlPool pool = new YamlPool(new DumperOptions(), factory, 2);
+        YamlNode node = factory.sequenceNode().add((byte) 1).add("a").add(true);
+        String yaml = pool.dump(node);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<YamlNode>> futures = new ArrayList<>(threads * 10);
+            for (int i = 0; i < threads * 10; ++i) {
+                futures.add(executor.submit(() -> pool.load(yaml)));
+            }
+            for (Future<YamlNode> future : futures) {
+                errors.checkThat(future.get(), is(node));
+            }
+        } finally {
+            executor.shutdown();
+        }
+        errors.checkThat(pool.getCreatedCount(), is(lessThanOrEqualTo(2)));
+        errors.checkThat(pool.getIdleCount(), is(pool.getCreatedCount()));
+    }
+
+    @Test
+    public void testFailedCreationReleasesSlot() {
+        DumperOptions options = new DumperOptions();
+        options.setIndent(2);
+        options.setIndicatorIndent(2);
+        YamlPool pool = new YamlPool(options, factory, 1);
+        try {
+            pool.load("a");
+            errors.addError(new AssertionError("expected exception"));
+        } catch (RuntimeException ex) {
+            // expected
+        }
+        errors.checkThat(pool.getCreatedCount(), is(0));
+        options.setIndicatorIndent(0);
+        errors.checkThat(pool.load("a").textValue(), is("a"));
+        errors.checkThat(pool.getCreatedCount(), is(1));
+    }
+
+    @Test
+    public void testTimeout() {
+        YamlPool pool = new YamlPool(new DumperOptions(), factory, 1,
+                                     10, TimeUnit.MILLISECONDS);
+        pool.accept(yaml -> {
+            try {
+                pool.load("a");
+                errors.addError(new AssertionError("expected exception"));
+            } catch (IllegalStateException ex) {
+                // expected
+            }
+        });
+        errors.checkThat(pool.getWaitCount(), is(1L));
+        errors.checkThat(pool.load("a").textValue(), is("a"));
+    }
+
+    @Test
+    public void testWaitTime() throws Exception {
+        YamlPool pool = new YamlPool(new DumperOptions(), factory, 1);
+        CountDownLatch acquired = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> holder = executor.submit(() -> pool.accept(yaml -> {
+                acquired.countDown();
+                try {
+                    done.await();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+            acquired.await();
+            Thread waiter = new Thread(() -> pool.load("a"));
+            waiter.start();
+            Thread.sleep(50);
+            done.countDown();
+            waiter.join();
+            holder.get();
+        } finally {
+            executor.shutdown();
+        }
+        errors.checkThat(pool.getWaitCount(), is(1L));
+        errors.checkThat(pool.getTotalWaitTime(TimeUnit.MILLISECONDS),
+                         is(greaterThan(0L)));
+        errors.checkThat(pool.getMaxWaitTime(TimeUnit.NANOSECONDS),
+                         is(greaterThanOrEqualTo(pool.getTotalWaitTime(TimeUnit.NANOSECONDS))));
+        errors.checkThat(pool.getCreatedCount(), is(1));
+    }
+
+    @Test
+    public void testLoadParallel() {
+        YamlPool pool = new YamlPool();
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < 5000; ++i) {
+            builder.append("---\nid: ").append(i).append("\nname: n")
+                    .append(i).append("\nlist: [").append(i).append(", x]\n");
+            if (i % 100 == 0) {
+                builder.append("...\n%YAML 1.1\n");
+            }
+        }
+        String yaml = builder.toString();
+        List<YamlNode> sequential = ImmutableList.copyOf(new Yaml().loadAll(yaml));
+        errors.checkThat(pool.loadParallel(yaml, true)
+                .collect(Collectors.toList()), is(sequential));
+        errors.checkThat(pool.loadParallel(yaml, false)
+                .collect(Collectors.toSet()), is(new HashSet<>(sequential)));
+        errors.checkThat(pool.loadParallel(new ByteArrayInputStream(
+                yaml.getBytes(StandardCharsets.UTF_8)), true)
+                .collect(Collectors.toList()), is(sequential));
+        errors.checkThat(pool.getIdleCount(), is(pool.getCreatedCount()));
+    }
+
+    @Test
+    public void testLoadParallelPath() throws IOException {
+        YamlPool pool = new YamlPool();
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < 1000; ++i) {
+            builder.append("--- {id: ").append(i).append("}\n");
+        }
+        Path path = folder.newFile().toPath();
+        Files.write(path, builder.toString().getBytes(StandardCharsets.UTF_8));
+        List<YamlNode> sequential = ImmutableList.copyOf(new Yaml().loadAll(path));
+        errors.checkThat(sequential.size(), is(1000));
+        errors.checkThat(pool.loadParallel(path, true)
+                .collect(Collectors.toList()), is(sequential));
+        errors.checkThat(pool.loadParallel(path, false).count(), is(1000L));
+    }
+
+    @Test
+    public void testLoadParallelWhileHoldingInstance() {
+        YamlPool pool = new YamlPool(new DumperOptions(), factory, 1,
+                                     10, TimeUnit.SECONDS);
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < 100; ++i) {
+            builder.append("--- {id: ").append(i).append("}\n");
+        }
+        String yaml = builder.toString();
+        List<YamlNode> sequential = ImmutableList.copyOf(new Yaml().loadAll(yaml));
+        List<YamlNode> loaded = new ArrayList<>();
+        pool.accept(held -> loaded.addAll(pool.loadParallel(yaml, true)
+                .collect(Collectors.toList())));
+        errors.checkThat(loaded, is(sequential));
+        errors.checkThat(pool.getCreatedCount(), is(1));
+        errors.checkThat(pool.getWaitCount(), is(0L));
+    }
+
+    @Test
+    public void testLoadParallelUnicodeLineBreaks() throws IOException {
+        YamlPool pool = new YamlPool();
+        String yaml = "a: 1\u0085---\u0085b: 2\u2028--- c\n";
+        List<YamlNode> sequential = ImmutableList.copyOf(new Yaml().loadAll(yaml));
+        errors.checkThat(sequential.size(), is(3));
+        errors.checkThat(pool.loadParallel(yaml, true)
+                .collect(Collectors.toList()), is(sequential));
+        Path path = folder.newFile().toPath();
+        Files.write(path, yaml.getBytes(StandardCharsets.UTF_8));
+        errors.checkThat(pool.loadParallel(path, true)
+                .collect(Collectors.toList()), is(sequential));
+        errors.checkThat(ImmutableList.copyOf(new Yaml().loadAll(path)),
+                         is(sequential));
+    }
+
+    @Test
+    public void testLoadParallelEmptyDocument() throws IOException {
+        YamlPool pool = new YamlPool();
+        String yaml = "a: 1\n---\n";
+        List<YamlNode> sequential = new ArrayList<>();
+        new Yaml().loadAll(yaml).forEach(sequential::add);
+        errors.checkThat(sequential.size(), is(2));
+        errors.checkThat(sequential.get(1), is(notNullValue()));
+        errors.checkThat(sequential.get(1).isNull(), is(true));
+        errors.checkThat(pool.loadParallel(yaml, true)
+                .collect(Collectors.toList()), is(sequential));
+        Path path = folder.newFile().toPath();
+        Files.write(path, yaml.getBytes(StandardCharsets.UTF_8));
+        errors.checkThat(pool.loadParallel(path, true)
+                .collect(Collectors.toList()), is(sequential));
+    }
+}
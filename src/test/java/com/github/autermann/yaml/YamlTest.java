@@ -22,8 +22,13 @@ import static com.github.autermann.yaml.nodes.YamlNodesMatcher.shortNode;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.is;
 
+import java.io.IOException;
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
 import java.util.Random;
 
 import org.hamcrest.Matcher;
@@ -31,8 +36,10 @@ import org.joda.time.DateTime;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ErrorCollector;
+import org.junit.rules.TemporaryFolder;
 
 import com.github.autermann.yaml.util.DecimalPrecision;
+import com.google.common.collect.ImmutableList;
 
 public class YamlTest {
     public final Yaml YAML = new Yaml();
@@ -41,6 +48,9 @@ public class YamlTest {
     @Rule
     public final ErrorCollector errors = new ErrorCollector();
 
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
     public void test(YamlNode node) {
         test(node, is(equalTo(node)));
     }
@@ -106,6 +116,76 @@ public class YamlTest {
         test(factory.byteNode(Byte.MAX_VALUE));
     }
 
+    @Test
+    public void testIntegralForms() {
+        errors.checkThat(YAML.load("0"), is(factory.byteNode((byte) 0)));
+        errors.checkThat(YAML.load("-0"), is(factory.byteNode((byte) 0)));
+        errors.checkThat(YAML.load("+42"), is(factory.byteNode((byte) 42)));
+        errors.checkThat(YAML.load("-128"), is(factory.byteNode(Byte.MIN_VALUE)));
+        errors.checkThat(YAML.load("1_000"), is(factory.shortNode((short) 1000)));
+        errors.checkThat(YAML.load("0x1F"), is(factory.byteNode((byte) 31)));
+        errors.checkThat(YAML.load("-0xFF_FF"), is(factory.intNode(-65535)));
+        errors.checkThat(YAML.load("0b1010"), is(factory.byteNode((byte) 10)));
+        errors.checkThat(YAML.load("017"), is(factory.byteNode((byte) 15)));
+        errors.checkThat(YAML.load("!!int 0o17"), is(factory.byteNode((byte) 15)));
+        errors.checkThat(YAML.load("190:20:30"), is(factory.intNode(685230)));
+        errors.checkThat(YAML.load("2147483648"), is(factory.longNode(2147483648L)));
+        errors.checkThat(YAML.load("-9223372036854775808"), is(factory.longNode(Long.MIN_VALUE)));
+        errors.checkThat(YAML.load("9223372036854775808"),
+                         is(factory.bigIntegerNode(new BigInteger("9223372036854775808"))));
+        errors.checkThat(YAML.load("-0x8000_0000_0000_0001"),
+                         is(factory.bigIntegerNode(new BigInteger("-8000000000000001", 16))));
+        errors.checkThat(YAML.load("1:0:0:0:0:0:0:0:0:0:0:0"),
+                         is(factory.bigIntegerNode(BigInteger.valueOf(60).pow(11))));
+    }
+
+    @Test
+    public void testDecimalForms() {
+        errors.checkThat(YAML.load("1.5"), is(factory.bigDecimalNode(new BigDecimal("1.5"))));
+        errors.checkThat(YAML.load("-1.50"), is(factory.bigDecimalNode(new BigDecimal("-1.50"))));
+        errors.checkThat(YAML.load("1_000.000_1"), is(factory.bigDecimalNode(new BigDecimal("1000.0001"))));
+        errors.checkThat(YAML.load(".5"), is(factory.bigDecimalNode(new BigDecimal(".5"))));
+        errors.checkThat(YAML.load("1e3"), is(factory.bigDecimalNode(new BigDecimal("1e3"))));
+        errors.checkThat(YAML.load("-1.5E-3"), is(factory.bigDecimalNode(new BigDecimal("-1.5E-3"))));
+        errors.checkThat(YAML.load("12345678901234567890.123"),
+                         is(factory.bigDecimalNode(new BigDecimal("12345678901234567890.123"))));
+        errors.checkThat(YAML.load("190:20:30.15"), is(factory.bigDecimalNode(new BigDecimal("685230.15"))));
+        errors.checkThat(YAML.load(".inf"), is(factory.doubleNode(Double.POSITIVE_INFINITY)));
+        errors.checkThat(YAML.load("+.Inf"), is(factory.doubleNode(Double.POSITIVE_INFINITY)));
+        errors.checkThat(YAML.load("-.INF"), is(factory.doubleNode(Double.NEGATIVE_INFINITY)));
+        errors.checkThat(YAML.load(".NaN"), is(factory.doubleNode(Double.NaN)));
+
+        YamlNodeFactory doubles = factory.withDecimalPrecision(DecimalPrecision.DOUBLE);
+        Yaml yaml = new Yaml(doubles);
+        errors.checkThat(yaml.load("0.1"), is(doubles.doubleNode(0.1d)));
+        errors.checkThat(yaml.load("-0.0"), is(doubles.doubleNode(-0.0d)));
+        errors.checkThat(yaml.load("1_0.2_5"), is(doubles.doubleNode(10.25d)));
+        errors.checkThat(yaml.load("1.7976931348623157e308"), is(doubles.doubleNode(Double.MAX_VALUE)));
+        errors.checkThat(yaml.load("4.9e-324"), is(doubles.doubleNode(Double.MIN_VALUE)));
+        errors.checkThat(yaml.load("123456789012345678901.5"), is(doubles.doubleNode(123456789012345678901.5d)));
+
+        YamlNodeFactory floats = factory.withDecimalPrecision(DecimalPrecision.FLOAT);
+        yaml = new Yaml(floats);
+        errors.checkThat(yaml.load("0.1"), is(floats.floatNode(0.1f)));
+        errors.checkThat(yaml.load("3.4028235e38"), is(floats.floatNode(Float.MAX_VALUE)));
+        errors.checkThat(yaml.load("1.000000178813934326171875001"),
+                         is(floats.floatNode(1.0000002f)));
+    }
+
+    @Test
+    public void testDecimalRoundTrip() {
+        Yaml doubles = new Yaml(factory.withDecimalPrecision(DecimalPrecision.DOUBLE));
+        Yaml floats = new Yaml(factory.withDecimalPrecision(DecimalPrecision.FLOAT));
+        Random random = new Random(42);
+        for (int i = 0; i < 1000; ++i) {
+            String d = Long.toString(random.nextLong() % 10000000000L) + "." +
+                       Integer.toString(random.nextInt(1000000)) + "e" +
+                       Integer.toString(random.nextInt(60) - 30);
+            errors.checkThat(d, doubles.load(d).doubleValue(), is(Double.parseDouble(d)));
+            errors.checkThat(d, floats.load(d).floatValue(), is(Float.parseFloat(d)));
+        }
+    }
+
     @Test
     public void testDoubleNode() {
         YamlNodeFactory fac = factory.withDecimalPrecision(DecimalPrecision.DOUBLE);
@@ -175,4 +255,18 @@ public class YamlTest {
     public void testSetNode() {
         test(factory.setNode().add("a").add("a").add("b"));
     }
+
+    @Test
+    public void testLoadPath() throws IOException {
+        YamlNode node = factory.mapNode().put("a", "b")
+                .put("c", factory.sequenceNode().add("ä").add(true));
+        Path path = folder.newFile().toPath();
+        Files.write(path, YAML.dump(node).getBytes(StandardCharsets.UTF_8));
+        errors.checkThat(YAML.load(path), is(node));
+        Files.write(path, YAML.dumpAll(Arrays.asList(node, node))
+                .getBytes(StandardCharsets.UTF_8));
+        errors.checkThat(ImmutableList.copyOf(YAML.loadAll(path)),
+                         is(ImmutableList.of(node, node)));
+        errors.checkThat(YAML.loadStream(path).count(), is(2L));
+    }
 }
@@ -0,0 +1,171 @@
+/*
+ * Copyright 2013-2015 Christian Autermann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.autermann.yaml.construct;
+
+import static org.hamcrest.Matchers.is;
+
+import java.util.Random;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ErrorCollector;
+import org.yaml.snakeyaml.nodes.NodeId;
+import org.yaml.snakeyaml.nodes.Tag;
+import org.yaml.snakeyaml.resolver.Resolver;
+
+import com.google.common.base.Strings;
+
+/**
+ * Conformance tests of {@link YamlResolver} against the regular expression
+ * based {@link Resolver}.
+ *
+ * @author Christian Autermann
+ */
+public class YamlResolverTest {
+    /**
+     * Characters that are significant for the implicit tag rules.
+     */
+    private static final String ALPHABET = "0125789+-._:eExbT Z~nNaf<!*";
+
+    private static final String[] VALUES = {
+        "", " ", "~", "null", "Null", "NULL", "nULL", "nil",
+        "yes", "Yes", "YES", "yEs", "no", "No", "NO", "y", "n", "true",
+        "True", "TRUE", "tRUE", "false", "False", "FALSE", "on", "On", "ON",
+        "off", "Off", "OFF", "oFF",
+        "0", "-0", "+0", "00", "07", "08", "0_7", "0_", "_0", "0b", "0b1",
+        "0b_1", "0b102", "-0b1", "0x", "0xFF", "0x_fF", "0xg", "0o17", "1",
+        "-1", "+1", "1_000", "1__", "123456789012345678901234567890",
+        "1:00", "190:20:30", "1:60", "1:5", "1:555", "1:", "1::2", "0:30",
+        "1.", "1.5", "-1.5", "+1.5", "1.5e3", "1.5E-3", "1.5e", "1.5e+",
+        "1e3", "1E+3", "1e", "1_0.0_1", ".5", "-.5", "._", ".", "-.", ".e3",
+        ".5e3", ".inf", "-.inf", "+.Inf", ".INF", ".iNf", ".nan", "+.nan",
+        "-.NaN", ".NAN", "1:30.5", "0:30.", "1:30:15.25", "1:3x.5",
+        "2001-12-14", "2001-12-14t21:59:43.10-05:00",
+        "2001-12-14 21:59:43.10 -5", "2001-12-15T02:59:43.1Z",
+        "2001-12-15 2:59:43.10", "2002-12-14", "2001-1-4 1:59:43",
+        "2001-12-14T21:59:43", "2001-12-14T21:59:43 ", "2001-12-14T21:59:43 Z",
+        "2001-12-14T21:59:43+05:3", "2001-12-14T21:59:43+0530",
+        "2001-12-14\t\t21:59:43", "2001-12-1", "2001-12-144", "20011-12-14",
+        "2001-12-14T21:59", "2001-12-14T21:59:4", "2001-12-14T21:59:43.",
+        "<<", "<", "<<<", "!", "&", "*", "!!", "=", "a", "foo", "١٢٣",
+        "0x١", "1٢", "2001-12-14T21:59:43.1٢"
+    };
+
+    @Rule
+    public final ErrorCollector errors = new ErrorCollector();
+
+    private final Resolver expected = new Resolver();
+
+    private final Resolver resolver = new YamlResolver();
+
+    private void check(String value) {
+        errors.checkThat(value, resolver.resolve(NodeId.scalar, value, true),
+                         is(expected.resolve(NodeId.scalar, value, true)));
+    }
+
+    @Test
+    public void testValues() {
+        for (String value : VALUES) {
+            check(value);
+        }
+    }
+
+    @Test
+    public void testNotImplicit() {
+        for (String value : VALUES) {
+            errors.checkThat(resolver.resolve(NodeId.scalar, value, false),
+                             is(Tag.STR));
+        }
+    }
+
+    @Test
+    public void testCollections() {
+        errors.checkThat(resolver.resolve(NodeId.mapping, null, true),
+                         is(Tag.MAP));
+        errors.checkThat(resolver.resolve(NodeId.sequence, null, true),
+                         is(Tag.SEQ));
+    }
+
+    @Test
+    public void testLengthLimits() {
+        check(Strings.repeat("1", 1024));
+        check(Strings.repeat("1", 1025));
+        check("1." + Strings.repeat("0", 1022));
+        check("1." + Strings.repeat("0", 1023));
+        check("2001-12-14T21:59:43." + Strings.repeat("0", 30));
+        check("2001-12-14T21:59:43." + Strings.repeat("0", 31));
+        check("2001-12-14 " + Strings.repeat(" ", 40) + "21:59:43");
+    }
+
+    @Test
+    public void testAllShortCombinations() {
+        int n = ALPHABET.length();
+        char[] chars = new char[4];
+        for (int length = 1; length <= chars.length; ++length) {
+            int combinations = (int) Math.pow(n, length);
+            for (int c = 0; c < combinations; ++c) {
+                int rest = c;
+                for (int i = 0; i < length; ++i) {
+                    chars[i] = ALPHABET.charAt(rest % n);
+                    rest /= n;
+                }
+                check(new String(chars, 0, length));
+            }
+        }
+    }
+
+    @Test
+    public void testRandomNumbersAndTimestamps() {
+        Random random = new Random(42);
+        String[] templates = {
+            "DDDD-DD-DD", "DDDD-D-DTD:DD:DD", "DDDD-DD-DD DD:DD:DD.DDD",
+            "DDDD-DD-DDtDD:DD:DD.DZ", "DDDD-DD-DD DD:DD:DD +DD:DD",
+            "SD_DDD.DDeSDD", "SD:DD:DD.DD", "S0xHH_HH", "S0b1_01", "S0DD_D",
+            "SDDDD", ".DDe-D", "SD:D:DD"
+        };
+        String mutations = "0123456789-+.:_ eEZTtxb";
+        StringBuilder builder = new StringBuilder();
+        for (int k = 0; k < 200000; ++k) {
+            builder.setLength(0);
+            String template = templates[random.nextInt(templates.length)];
+            for (int i = 0; i < template.length(); ++i) {
+                char c = template.charAt(i);
+                switch (c) {
+                    case 'D':
+                        builder.append((char) ('0' + random.nextInt(10)));
+                        break;
+                    case 'H':
+                        builder.append("0123456789abcdefABCDEF"
+                                .charAt(random.nextInt(22)));
+                        break;
+                    case 'S':
+                        builder.append(" +-".charAt(random.nextInt(3)));
+                        break;
+                    default:
+                        builder.append(c);
+                }
+            }
+            if (builder.charAt(0) == ' ') {
+                builder.deleteCharAt(0);
+            }
+            if (random.nextInt(4) == 0) {
+                builder.setCharAt(random.nextInt(builder.length()),
+                                  mutations.charAt(random.nextInt(mutations.length())));
+            }
+            check(builder.toString());
+        }
+    }
+}
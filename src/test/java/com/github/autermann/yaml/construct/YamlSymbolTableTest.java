@@ -0,0 +1,134 @@
+/*
+ * Copyright 2013-2015 Christian Autermann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.autermann.yaml.construct;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ErrorCollector;
+import org.yaml.snakeyaml.DumperOptions;
+
+import com.github.autermann.yaml.Yaml;
+import com.github.autermann.yaml.YamlNode;
+import com.github.autermann.yaml.YamlNodeFactory;
+import com.github.autermann.yaml.stream.YamlNodeLoader;
+import com.google.common.collect.Iterables;
+
+/**
+ * Tests for {@link YamlSymbolTable}.
+ *
+ * @author Christian Autermann
+ */
+public class YamlSymbolTableTest {
+    private static final String RECORDS
+            = "- {id: 1, name: a}\n- {id: 2, name: b}\n---\n{id: 3, name: c}\n";
+
+    private final YamlNodeFactory factory = YamlNodeFactory.createDefault();
+
+    @Rule
+    public final ErrorCollector errors = new ErrorCollector();
+
+    @Test
+    public void testIntern() {
+        YamlSymbolTable table = new YamlSymbolTable();
+        YamlNode a = factory.textNode("a");
+        YamlNode b = factory.textNode("a");
+        errors.checkThat(b, is(not(sameInstance(a))));
+        errors.checkThat(table.intern(a), is(sameInstance(a)));
+        errors.checkThat(table.intern(b), is(sameInstance(a)));
+        YamlNode one = factory.intNode(1);
+        errors.checkThat(table.intern(one), is(sameInstance(one)));
+        errors.checkThat(table.size(), is(1));
+        table.clear();
+        errors.checkThat(table.intern(b), is(sameInstance(b)));
+    }
+
+    @Test
+    public void testBounds() {
+        YamlSymbolTable table = new YamlSymbolTable(2, 3);
+        YamlNode tooLong = factory.textNode("abcd");
+        table.intern(tooLong);
+        errors.checkThat(table.size(), is(0));
+        table.intern(factory.textNode("a"));
+        table.intern(factory.textNode("b"));
+        YamlNode c = factory.textNode("c");
+        errors.checkThat(table.intern(c), is(sameInstance(c)));
+        errors.checkThat(table.intern(factory.textNode("c")),
+                         is(not(sameInstance(c))));
+        errors.checkThat(table.size(), is(2));
+    }
+
+    @Test
+    public void testSharedAcrossDocuments() {
+        YamlSymbolTable table = new YamlSymbolTable();
+        Yaml yaml = new Yaml(new DumperOptions(), factory, false, table);
+        checkShared(yaml.loadAll(RECORDS));
+        errors.checkThat(table.size(), is(2));
+    }
+
+    @Test
+    public void testSharedLazily() {
+        YamlSymbolTable table = new YamlSymbolTable();
+        Yaml yaml = new Yaml(new DumperOptions(), factory, true, table);
+        checkShared(yaml.loadAll(RECORDS));
+    }
+
+    @Test
+    public void testSharedByLoader() {
+        YamlSymbolTable table = new YamlSymbolTable();
+        YamlNodeLoader loader = new YamlNodeLoader(new YamlNodeConstructor(
+                factory, new DumperOptions(), false, table));
+        checkShared(loader.loadAll(RECORDS));
+    }
+
+    @Test
+    public void testNotSharedByDefault() {
+        List<YamlNode> records = records(new Yaml().loadAll(RECORDS));
+        errors.checkThat(key(records.get(1)),
+                         is(not(sameInstance(key(records.get(0))))));
+    }
+
+    private void checkShared(Iterable<YamlNode> documents) {
+        List<YamlNode> records = records(documents);
+        errors.checkThat(records.size(), is(3));
+        for (YamlNode record : records) {
+            errors.checkThat(key(record), is(sameInstance(key(records.get(0)))));
+            errors.checkThat(record.path("name").isText(), is(true));
+        }
+    }
+
+    private static List<YamlNode> records(Iterable<YamlNode> documents) {
+        List<YamlNode> records = new ArrayList<>();
+        for (YamlNode document : documents) {
+            if (document.isSequence()) {
+                Iterables.addAll(records, document);
+            } else {
+                records.add(document);
+            }
+        }
+        return records;
+    }
+
+    private static YamlNode key(YamlNode record) {
+        return Iterables.get(record, 0);
+    }
+}
@@ -18,14 +18,19 @@ package com.github.autermann.yaml.nodes;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
 
+import java.io.IOException;
+import java.nio.channels.Channels;
 import java.util.Arrays;
 import java.util.Random;
 
+import org.junit.Test;
 import org.yaml.snakeyaml.nodes.Tag;
 
 import com.github.autermann.yaml.YamlNode;
 import com.google.common.io.BaseEncoding;
+import com.google.common.io.ByteStreams;
 
 /**
  * Test for {@link YamlBinaryNode}s.
@@ -77,6 +82,25 @@ public class YamlBinaryNodeTest extends AbstractYamlScalarNodeTest {
         errors.checkThat(i.asBinaryValue(randomBytes()), is(bytes));
     }
 
+    /**
+     * Test the stream and channel views of a {@link YamlBinaryNode}.
+     *
+     * @throws IOException if the views can not be read
+     */
+    @Test
+    public void testBinaryStream() throws IOException {
+        byte[] bytes = randomBytes();
+        YamlBinaryNode node = new YamlBinaryNode(bytes);
+        errors.checkThat(ByteStreams.toByteArray(node.binaryStream()),
+                         is(bytes));
+        errors.checkThat(ByteStreams.toByteArray(Channels
+                .newInputStream(node.binaryChannel())), is(bytes));
+        errors.checkThat(factory.textNode("AQID").binaryStream(),
+                         is(nullValue()));
+        errors.checkThat(factory.textNode("AQID").binaryChannel(),
+                         is(nullValue()));
+    }
+
     /**
      * Test {@code null} in {@link YamlBinaryNode} constructor.
      */
@@ -42,8 +42,14 @@ import static com.github.autermann.yaml.nodes.YamlNodesMatcher.timeNode;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.not;
 import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
 import static org.junit.Assert.assertThat;
 
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ErrorCollector;
@@ -87,4 +93,49 @@ public class YamlMapNodeTest {
         errors.checkThat(node, is(not(doubleNode())));
         errors.checkThat(node, is(not(floatNode())));
     }
+
+    @Test
+    public void testTextKeyLookup() {
+        YamlMapNode node = factory.mapNode().put("a", "b").put("c", (String) null);
+        errors.checkThat(node.path("a"), is(factory.textNode("b")));
+        errors.checkThat(node.has("a"), is(true));
+        errors.checkThat(node.hasNotNull("a"), is(true));
+        errors.checkThat(node.has("c"), is(true));
+        errors.checkThat(node.hasNotNull("c"), is(false));
+        errors.checkThat(node.has("d"), is(false));
+        errors.checkThat(node.path("d").exists(), is(false));
+        errors.checkThat(node.get("d"), is(nullValue()));
+
+        node.put("d", 1);
+        errors.checkThat(node.path("d"), is(factory.intNode(1)));
+        node.put(factory.textNode("a"), "c");
+        errors.checkThat(node.path("a"), is(factory.textNode("c")));
+
+        Iterator<Entry<YamlNode, YamlNode>> iter = node.entries().iterator();
+        while (iter.hasNext()) {
+            if (iter.next().getKey().textValue().equals("a")) {
+                iter.remove();
+            }
+        }
+        errors.checkThat(node.has("a"), is(false));
+        errors.checkThat(node.path("a").exists(), is(false));
+    }
+
+    @Test
+    public void testPutAll() {
+        Map<YamlNode, YamlNode> entries = new LinkedHashMap<>();
+        for (int i = 0; i < 50; ++i) {
+            entries.put(factory.intNode(i), factory.textNode("v" + i));
+        }
+        YamlMapNode node = factory.mapNode().put("a", "b").putAll(entries);
+        errors.checkThat(node.size(), is(51));
+        errors.checkThat(node.path("a"), is(factory.textNode("b")));
+        errors.checkThat(node.path(49), is(factory.textNode("v49")));
+
+        YamlMapNode copy = factory.mapNode(3).putAll(node);
+        errors.checkThat(copy, is(node));
+        errors.checkThat(copy.hashCode(), is(node.hashCode()));
+        errors.checkThat(factory.mapNode(10).put("a", 1).path("a"),
+                         is(factory.intNode(1)));
+    }
 }
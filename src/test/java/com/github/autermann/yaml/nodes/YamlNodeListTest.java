@@ -0,0 +1,222 @@
+/*
+ * Copyright 2013-2015 Christian Autermann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.autermann.yaml.nodes;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ErrorCollector;
+
+import com.github.autermann.yaml.DefaultYamlNodeFactory;
+import com.github.autermann.yaml.Yaml;
+import com.github.autermann.yaml.YamlNode;
+import com.github.autermann.yaml.YamlNodeFactory;
+import com.github.autermann.yaml.util.DecimalPrecision;
+
+/**
+ * Tests for {@link YamlNodeList}.
+ *
+ * @author Christian Autermann
+ */
+public class YamlNodeListTest {
+    private static final int SIZE = YamlNodeList.COMPACTION_THRESHOLD * 4;
+
+    public final YamlNodeFactory factory = YamlNodeFactory.createDefault();
+
+    @Rule
+    public final ErrorCollector errors = new ErrorCollector();
+
+    @Test
+    public void testSmallListIsNotCompacted() {
+        YamlNodeList list = new YamlNodeList(factory);
+        for (int i = 0; i < YamlNodeList.COMPACTION_THRESHOLD - 1; ++i) {
+            list.add(factory.intNode(i));
+        }
+        errors.checkThat(list.isCompact(), is(false));
+    }
+
+    @Test
+    public void testInts() {
+        List<YamlNode> expected = new ArrayList<>();
+        for (int i = 0; i < SIZE; ++i) {
+            expected.add(factory.intNode(i));
+        }
+        check(expected, true);
+    }
+
+    @Test
+    public void testLongs() {
+        List<YamlNode> expected = new ArrayList<>();
+        for (long i = 0; i < SIZE; ++i) {
+            expected.add(factory.longNode(i * Integer.MAX_VALUE));
+        }
+        check(expected, true);
+    }
+
+    @Test
+    public void testDoubles() {
+        List<YamlNode> expected = new ArrayList<>();
+        for (int i = 0; i < SIZE; ++i) {
+            expected.add(factory.doubleNode(i / 3.0d));
+        }
+        expected.add(factory.doubleNode(Double.NaN));
+        expected.add(factory.doubleNode(-0.0d));
+        check(expected, true);
+    }
+
+    @Test
+    public void testNarrowedIntegrals() {
+        List<YamlNode> expected = new ArrayList<>();
+        for (int i = 0; i < SIZE; ++i) {
+            expected.add(factory.byteNode((byte) i));
+            expected.add(factory.shortNode((short) (i + Short.MAX_VALUE / 2)));
+            expected.add(factory.intNode(i + Integer.MAX_VALUE / 2));
+        }
+        check(expected, true);
+        expected.add(factory.longNode(Long.MAX_VALUE));
+        check(expected, true);
+    }
+
+    @Test
+    public void testMixedIntegralsAreNotCompacted() {
+        List<YamlNode> expected = new ArrayList<>();
+        for (int i = 0; i < SIZE; ++i) {
+            expected.add(factory.intNode(i));
+        }
+        // a byte node with a value fitting into a byte is not narrowed
+        expected.add(factory.byteNode((byte) 1));
+        check(expected, false);
+    }
+
+    @Test
+    public void testHeterogeneousAddInflates() {
+        YamlNodeList list = new YamlNodeList(factory);
+        for (int i = 0; i < SIZE; ++i) {
+            list.add(factory.intNode(i));
+        }
+        errors.checkThat(list.isCompact(), is(true));
+        list.add(factory.textNode("text"));
+        errors.checkThat(list.isCompact(), is(false));
+        errors.checkThat(list.size(), is(SIZE + 1));
+        errors.checkThat(list.get(SIZE - 1), is(equalTo(factory.intNode(SIZE - 1))));
+        errors.checkThat(list.get(SIZE), is(equalTo(factory.textNode("text"))));
+    }
+
+    @Test
+    public void testSwitchToLongs() {
+        YamlNodeList list = new YamlNodeList(factory);
+        for (int i = 0; i < SIZE; ++i) {
+            list.add(factory.byteNode((byte) i));
+        }
+        list.add(factory.longNode(Long.MIN_VALUE));
+        errors.checkThat(list.isCompact(), is(true));
+        errors.checkThat(list.get(0), is(instanceOf(YamlByteNode.class)));
+        errors.checkThat(list.get(SIZE), is(equalTo(factory.longNode(Long.MIN_VALUE))));
+    }
+
+    @Test
+    public void testModification() {
+        YamlNodeList list = new YamlNodeList(factory);
+        for (int i = 0; i < SIZE; ++i) {
+            list.add(factory.intNode(i));
+        }
+        list.add(0, factory.intNode(-1));
+        list.remove(1);
+        list.set(1, factory.intNode(-2));
+        errors.checkThat(list.isCompact(), is(true));
+        errors.checkThat(list.size(), is(SIZE));
+        errors.checkThat(list.get(0), is(equalTo(factory.intNode(-1))));
+        errors.checkThat(list.get(1), is(equalTo(factory.intNode(-2))));
+        errors.checkThat(list.get(2), is(equalTo(factory.intNode(2))));
+        list.set(2, factory.nullNode());
+        errors.checkThat(list.isCompact(), is(false));
+        errors.checkThat(list.get(2), is(equalTo(factory.nullNode())));
+        list.clear();
+        errors.checkThat(list.isEmpty(), is(true));
+        list.add(factory.textNode("a"));
+        errors.checkThat(list, contains((YamlNode) factory.textNode("a")));
+    }
+
+    @Test
+    public void testLoadedSequence() {
+        Yaml yaml = new Yaml(DefaultYamlNodeFactory.create(DecimalPrecision.DOUBLE));
+        YamlSeqNode seq = factory.sequenceNode();
+        for (int i = 0; i < SIZE; ++i) {
+            seq.add(i * 1000);
+        }
+        YamlNode loaded = yaml.load(yaml.dump(seq));
+        errors.checkThat(loaded.asSequence().value(), is(instanceOf(YamlNodeList.class)));
+        errors.checkThat(((YamlNodeList) loaded.asSequence().value()).isCompact(), is(true));
+        errors.checkThat(loaded, is(equalTo(yaml.load(yaml.dump(seq)))));
+        errors.checkThat(loaded.path(1).intValue(), is(1000));
+    }
+
+    @Test
+    public void testNodesCreatedByFactory() {
+        YamlNodeFactory caching = YamlNodeFactory.createCaching();
+        YamlNodeList list = new YamlNodeList(caching);
+        for (int i = 0; i < SIZE; ++i) {
+            list.add(caching.intNode(i));
+        }
+        errors.checkThat(list.isCompact(), is(true));
+        errors.checkThat(list.get(1), is(sameInstance(caching.intNode(1))));
+    }
+
+    @Test
+    public void testNotCompactedWithoutFactorySupport() {
+        YamlNodeFactory custom = new DefaultYamlNodeFactory(DecimalPrecision.BIG_DECIMAL) {
+            @Override
+            public boolean supportsCompactSequences() {
+                return false;
+            }
+        };
+        YamlNodeList list = new YamlNodeList(custom);
+        for (int i = 0; i < SIZE; ++i) {
+            list.add(custom.intNode(i));
+        }
+        errors.checkThat(list.isCompact(), is(false));
+    }
+
+    @Test
+    public void testNotCompactedIfFactoryCreatesOtherNodes() {
+        YamlNodeFactory floats = DefaultYamlNodeFactory.create(DecimalPrecision.FLOAT);
+        YamlNodeList list = new YamlNodeList(floats);
+        List<YamlNode> expected = new ArrayList<>();
+        for (int i = 0; i < SIZE; ++i) {
+            expected.add(new YamlDoubleNode(i / 3.0d));
+        }
+        list.addAll(expected);
+        errors.checkThat(list.isCompact(), is(false));
+        errors.checkThat(list, is(equalTo(expected)));
+    }
+
+    private void check(List<YamlNode> expected, boolean compact) {
+        YamlNodeList list = new YamlNodeList(factory);
+        list.addAll(expected);
+        errors.checkThat(list.isCompact(), is(compact));
+        errors.checkThat(list.size(), is(expected.size()));
+        errors.checkThat(list, is(equalTo(expected)));
+        errors.checkThat(list.hashCode(), is(expected.hashCode()));
+    }
+}
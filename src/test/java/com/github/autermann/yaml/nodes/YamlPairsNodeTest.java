@@ -51,9 +51,12 @@ import static org.junit.Assert.assertThat;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ErrorCollector;
+import org.junit.rules.ExpectedException;
 
+import com.github.autermann.yaml.DefaultYamlNodeFactory;
 import com.github.autermann.yaml.YamlNode;
 import com.github.autermann.yaml.YamlNodeFactory;
+import com.github.autermann.yaml.util.DecimalPrecision;
 
 public class YamlPairsNodeTest {
     private final YamlNodeFactory factory = YamlNodeFactory.createDefault();
@@ -61,6 +64,9 @@ public class YamlPairsNodeTest {
     @Rule
     public final ErrorCollector errors = new ErrorCollector();
 
+    @Rule
+    public final ExpectedException thrown = ExpectedException.none();
+
     @Test
     @SuppressWarnings("unchecked")
     public void testOrder() {
@@ -107,6 +113,84 @@ public class YamlPairsNodeTest {
         checkNotEqualHashCode(a, b);
     }
 
+    @Test
+    public void testTextKeyLookup() {
+        YamlPairsNode node = factory.pairsNode().put("a", "b");
+        errors.checkThat(node.has("a"), is(true));
+        errors.checkThat(node.has("b"), is(false));
+        errors.checkThat(node.path("a").size(), is(1));
+        node.put("a", "c").put("b", (String) null);
+        errors.checkThat(node.path("a").size(), is(2));
+        errors.checkThat(node.has("b"), is(true));
+        errors.checkThat(node.hasNotNull("b"), is(false));
+        errors.checkThat(node.path("c").exists(), is(false));
+    }
+
+    @Test
+    public void testIndexedLookup() {
+        for (int threshold : new int[] { 0, 1, YamlPairsNode.DEFAULT_INDEX_THRESHOLD }) {
+            YamlPairsNode node = new YamlPairsNode(factory, threshold);
+            for (int i = 0; i < 20; ++i) {
+                node.put("key" + (i % 3), i);
+                errors.checkThat(node.path("key" + (i % 3)).size(), is(i / 3 + 1));
+                errors.checkThat(node.has("key" + (i % 3)), is(true));
+                errors.checkThat(node.has("key3"), is(false));
+            }
+            errors.checkThat(node.size(), is(20));
+            errors.checkThat(node.path("key1").path(2).intValue(), is(7));
+        }
+    }
+
+    @Test
+    public void testDistinctKeysInOrder() {
+        YamlPairsNode node = factory.pairsNode().put("b", 1).put("a", 2).put("b", 3);
+        errors.checkThat(node, contains((YamlNode) factory.textNode("b"), factory.textNode("a")));
+        errors.checkThat(node.stream().count(), is(2L));
+    }
+
+    @Test
+    public void testPutAll() {
+        YamlPairsNode source = factory.pairsNode();
+        for (int i = 0; i < 20; ++i) {
+            source.put("k" + (i % 5), i);
+        }
+        YamlPairsNode node = factory.pairsNode(0).put("a", "b").putAll(source);
+        errors.checkThat(node.entries().size(), is(21));
+        errors.checkThat(node.path("k4").size(), is(4));
+        errors.checkThat(factory.pairsNode(20).putAll(source), is(equalTo(source)));
+    }
+
+    @Test
+    public void testPathIsReadOnlySnapshot() {
+        YamlPairsNode node = new YamlPairsNode(factory, 0).put("a", "b");
+        YamlNode values = node.path("a");
+        node.put("a", "c");
+        errors.checkThat(values.size(), is(1));
+        errors.checkThat(values, is(equalTo(factory.sequenceNode().add("b"))));
+        errors.checkThat(values.copy().asSequence().add("d").size(), is(2));
+        thrown.expect(UnsupportedOperationException.class);
+        values.asSequence().add("d");
+    }
+
+    @Test
+    public void testCopyAndFreeze() {
+        YamlNodeFactory custom = new DefaultYamlNodeFactory(DecimalPrecision.BIG_DECIMAL) {
+            @Override
+            public YamlPairsNode pairsNode(int expectedSize) {
+                return new YamlPairsNode(this, 0, expectedSize) {
+                };
+            }
+        };
+        YamlPairsNode node = new YamlPairsNode(custom).put("a", "b").put("a", "c");
+        YamlPairsNode copy = node.copy();
+        errors.checkThat(copy.getClass(), is(not(equalTo((Object) YamlPairsNode.class))));
+        errors.checkThat(copy, is(equalTo(node)));
+        YamlPairsNode frozen = node.freeze();
+        errors.checkThat(frozen, is(equalTo(node)));
+        errors.checkThat(frozen.path("a").size(), is(2));
+        errors.checkThat(frozen.hashCode(), is(node.hashCode()));
+    }
+
     @Test
     public void testType() {
         YamlNode node = factory.pairsNode();
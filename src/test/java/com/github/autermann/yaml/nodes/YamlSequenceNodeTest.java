@@ -107,4 +107,37 @@ public class YamlSequenceNodeTest {
 
         errors.checkThat(nodes, Matchers.contains(arr));
     }
+
+    @Test
+    public void testIndexedAccess() {
+        YamlSeqNode node = factory.sequenceNode().add("a").add("b").add("a");
+        errors.checkThat(node.path(0), is(factory.textNode("a")));
+        errors.checkThat(node.path(1), is(factory.textNode("b")));
+        errors.checkThat(node.path(2), is(factory.textNode("a")));
+        errors.checkThat(node.path(3).exists(), is(false));
+        errors.checkThat(node.path(-1).exists(), is(false));
+        errors.checkThat(node.get(3), is(Matchers.nullValue()));
+        errors.checkThat(node.has(2), is(true));
+    }
+
+    @Test
+    public void testAddAll() {
+        List<YamlNode> values = new ArrayList<>();
+        for (int i = 0; i < 100; ++i) {
+            values.add(factory.intNode(i));
+        }
+        YamlSeqNode node = factory.sequenceNode(0).add("a").addAll(values);
+        errors.checkThat(node.size(), is(101));
+        errors.checkThat(node.path(0), is(factory.textNode("a")));
+        errors.checkThat(node.path(100), is(factory.intNode(99)));
+
+        YamlSeqNode presized = factory.sequenceNode(100).addAll(values);
+        presized.addAll(factory.textNode("b"), factory.textNode("c"));
+        errors.checkThat(presized.size(), is(102));
+        errors.checkThat(presized.path(99), is(factory.intNode(99)));
+        errors.checkThat(presized.path(101), is(factory.textNode("c")));
+
+        YamlSeqNode copy = factory.sequenceNode().addAll(presized);
+        errors.checkThat(copy, is(presized));
+    }
 }
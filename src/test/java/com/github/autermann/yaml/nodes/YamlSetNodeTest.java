@@ -44,6 +44,10 @@ import static org.hamcrest.Matchers.not;
 import static org.hamcrest.Matchers.notNullValue;
 import static org.junit.Assert.assertThat;
 
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ErrorCollector;
@@ -88,4 +92,43 @@ public class YamlSetNodeTest {
         errors.checkThat(node, is(not(doubleNode())));
         errors.checkThat(node, is(not(floatNode())));
     }
+
+    @Test
+    public void testIndexedAccess() {
+        YamlSetNode node = factory.setNode().add("a").add("b").add("a").add("c");
+        errors.checkThat(node.size(), is(3));
+        errors.checkThat(node.path(0), is(factory.textNode("a")));
+        errors.checkThat(node.path(1), is(factory.textNode("b")));
+        errors.checkThat(node.path(2), is(factory.textNode("c")));
+        errors.checkThat(node.path(3).exists(), is(false));
+        errors.checkThat(node.path(-1).exists(), is(false));
+        errors.checkThat(node.has(2), is(true));
+        errors.checkThat(node.has(3), is(false));
+
+        Iterator<YamlNode> iter = node.value().iterator();
+        iter.next();
+        iter.remove();
+        node.value().remove(factory.textNode("c"));
+        node.add("d");
+        errors.checkThat(node.size(), is(2));
+        errors.checkThat(node.path(0), is(factory.textNode("b")));
+        errors.checkThat(node.path(1), is(factory.textNode("d")));
+        errors.checkThat(node.value().contains(factory.textNode("a")), is(false));
+    }
+
+    @Test
+    public void testAddAll() {
+        List<YamlNode> values = new ArrayList<>();
+        for (int i = 0; i < 100; ++i) {
+            values.add(factory.intNode(i % 50));
+        }
+        YamlSetNode node = factory.setNode(0).add("a").addAll(values);
+        errors.checkThat(node.size(), is(51));
+        errors.checkThat(node.path(50), is(factory.intNode(49)));
+        errors.checkThat(node.value().contains(factory.intNode(25)), is(true));
+
+        YamlSetNode presized = factory.setNode(51).addAll(node);
+        errors.checkThat(presized, is(node));
+        errors.checkThat(presized.hashCode(), is(node.hashCode()));
+    }
 }
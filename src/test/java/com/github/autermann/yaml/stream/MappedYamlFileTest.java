@@ -0,0 +1,191 @@
+/*
+ * Copyright 2013-2015 Christian Autermann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.autermann.yaml.stream;
+
+import static org.hamcrest.Matchers.is;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ErrorCollector;
+import org.junit.rules.TemporaryFolder;
+
+import com.github.autermann.yaml.Yaml;
+import com.github.autermann.yaml.YamlNode;
+import com.google.common.collect.ImmutableList;
+import com.google.common.io.CharStreams;
+import com.google.common.primitives.Bytes;
+
+/**
+ * Tests for {@link MappedYamlFile}.
+ *
+ * @author Christian Autermann
+ */
+public class MappedYamlFileTest {
+    private static final String STREAM = "# comment\na: 1\n--- [1, 2]\n"
+            + "---\nb: |\n  --- text\n...\n%YAML 1.1\n--- !!str 3\n---\n"
+            + "c: \"ä€😀\"\n";
+
+    @Rule
+    public final ErrorCollector errors = new ErrorCollector();
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    private MappedYamlFile map(byte[] bom, String content, Charset charset)
+            throws IOException {
+        Path path = folder.newFile().toPath();
+        Files.write(path, Bytes.concat(bom, content.getBytes(charset)));
+        return MappedYamlFile.map(path);
+    }
+
+    private List<String> documents(MappedYamlFile file) throws IOException {
+        List<String> documents = new ArrayList<>(file.getDocumentCount());
+        for (int i = 0; i < file.getDocumentCount(); ++i) {
+            try (Reader reader = file.openDocument(i)) {
+                documents.add(CharStreams.toString(reader));
+            }
+        }
+        return documents;
+    }
+
+    private void check(byte[] bom, Charset charset) throws IOException {
+        MappedYamlFile file = map(bom, STREAM, charset);
+        errors.checkThat(file.getCharset(), is(charset));
+        errors.checkThat(documents(file), is(ImmutableList.copyOf(
+                new YamlDocumentSplitter(new StringReader(STREAM)))));
+        try (Reader reader = file.openStream()) {
+            errors.checkThat(CharStreams.toString(reader), is(STREAM));
+        }
+        Yaml yaml = new Yaml();
+        ImmutableList.Builder<YamlNode> nodes = ImmutableList.builder();
+        for (int i = 0; i < file.getDocumentCount(); ++i) {
+            nodes.add(yaml.load(file.openDocument(i)));
+        }
+        errors.checkThat(nodes.build(),
+                         is(ImmutableList.copyOf(yaml.loadAll(STREAM))));
+    }
+
+    @Test
+    public void testUtf8() throws IOException {
+        check(new byte[0], StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void testUtf8WithByteOrderMark() throws IOException {
+        check(new byte[] { (byte) 0xEF, (byte) 0xBB, (byte) 0xBF },
+              StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void testUtf16BigEndian() throws IOException {
+        check(new byte[] { (byte) 0xFE, (byte) 0xFF },
+              StandardCharsets.UTF_16BE);
+    }
+
+    @Test
+    public void testUtf16LittleEndian() throws IOException {
+        check(new byte[] { (byte) 0xFF, (byte) 0xFE },
+              StandardCharsets.UTF_16LE);
+    }
+
+    @Test
+    public void testOffsets() throws IOException {
+        MappedYamlFile file = map(new byte[] { (byte) 0xEF, (byte) 0xBB,
+                                               (byte) 0xBF },
+                                  "a\r\n--- b\r\n...\r\n", StandardCharsets.UTF_8);
+        errors.checkThat(file.getDocumentCount(), is(2));
+        errors.checkThat(file.getDocumentOffset(0), is(0));
+        errors.checkThat(file.getDocumentLength(0), is(3));
+        errors.checkThat(file.getDocumentOffset(1), is(3));
+        errors.checkThat(file.getDocumentLength(1), is(12));
+    }
+
+    @Test
+    public void testEmpty() throws IOException {
+        errors.checkThat(map(new byte[0], "", StandardCharsets.UTF_8)
+                .getDocumentCount(), is(0));
+        errors.checkThat(map(new byte[0], "# comment\n", StandardCharsets.UTF_8)
+                .getDocumentCount(), is(0));
+    }
+
+    @Test
+    public void testByteOrderMarkBeforeDocument() throws IOException {
+        String stream = "a: 1\n...\n\uFEFF# comment\n--- b\n";
+        List<String> expected = ImmutableList
+                .copyOf(new YamlDocumentSplitter(new StringReader(stream)));
+        errors.checkThat(expected.size(), is(2));
+        errors.checkThat(documents(map(new byte[0], stream,
+                                       StandardCharsets.UTF_8)), is(expected));
+        errors.checkThat(documents(map(new byte[] { (byte) 0xFF, (byte) 0xFE },
+                                       stream, StandardCharsets.UTF_16LE)),
+                         is(expected));
+    }
+
+    @Test
+    public void testUtf16OddLength() throws IOException {
+        Path path = folder.newFile().toPath();
+        Files.write(path, Bytes.concat(
+                new byte[] { (byte) 0xFE, (byte) 0xFF },
+                "a: 1\n--- b\n".getBytes(StandardCharsets.UTF_16BE),
+                new byte[] { 0x0A }));
+        MappedYamlFile file = MappedYamlFile.map(path);
+        errors.checkThat(file.getDocumentCount(), is(2));
+        errors.checkThat(file.getDocumentLength(1), is(13));
+    }
+
+    @Test
+    public void testSameBoundariesAsSplitter() throws IOException {
+        String[] streams = {
+            "a: 1\u0085---\u0085b: 2\n",
+            "a: 1\u2028--- b\u2029--- c\u0085\u0085...\u2028d\n",
+            "a\r\n...\r\n# c\r\nb\r\n",
+            "# c\n...\n--- a\n...\n...\n%YAML 1.1\n--- b\n",
+        };
+        for (String stream : streams) {
+            List<String> expected = ImmutableList
+                    .copyOf(new YamlDocumentSplitter(new StringReader(stream)));
+            for (Charset charset : new Charset[] { StandardCharsets.UTF_8,
+                                                   StandardCharsets.UTF_16BE }) {
+                byte[] bom = charset == StandardCharsets.UTF_8
+                             ? new byte[0] : new byte[] { (byte) 0xFE, (byte) 0xFF };
+                List<String> documents = documents(map(bom, stream, charset));
+                errors.checkThat(documents.size(), is(expected.size()));
+                for (int i = 0; i < Math.min(documents.size(), expected.size()); ++i) {
+                    errors.checkThat(normalize(documents.get(i)),
+                                     is(expected.get(i)));
+                }
+            }
+        }
+    }
+
+    private static String normalize(String document) {
+        String normalized = document.replace("\r\n", "\n")
+                .replace('\r', '\n').replace('\u0085', '\n');
+        return normalized.isEmpty() || normalized.endsWith("\n") ||
+               normalized.endsWith("\u2028") || normalized.endsWith("\u2029")
+               ? normalized : normalized + "\n";
+    }
+}
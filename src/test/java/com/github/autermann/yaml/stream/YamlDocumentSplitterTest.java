@@ -0,0 +1,140 @@
+/*
+ * Copyright 2013-2015 Christian Autermann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.autermann.yaml.stream;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+
+import java.io.StringReader;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ErrorCollector;
+import org.yaml.snakeyaml.parser.ParserException;
+
+import com.github.autermann.yaml.Yaml;
+import com.github.autermann.yaml.YamlNode;
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Tests for {@link YamlDocumentSplitter}.
+ *
+ * @author Christian Autermann
+ */
+public class YamlDocumentSplitterTest {
+    @Rule
+    public final ErrorCollector errors = new ErrorCollector();
+
+    private List<String> split(String yaml) {
+        return ImmutableList.copyOf(new YamlDocumentSplitter(new StringReader(yaml)));
+    }
+
+    private void checkEquivalent(String yaml) {
+        Yaml loader = new Yaml();
+        ImmutableList.Builder<YamlNode> documents = ImmutableList.builder();
+        for (String document : split(yaml)) {
+            documents.addAll(loader.loadAll(document));
+        }
+        errors.checkThat(documents.build(),
+                         is(ImmutableList.copyOf(loader.loadAll(yaml))));
+    }
+
+    @Test
+    public void testEmpty() {
+        errors.checkThat(split(""), is(empty()));
+        errors.checkThat(split("# comment\n\n"), is(empty()));
+    }
+
+    @Test
+    public void testImplicitDocument() {
+        errors.checkThat(split("a: 1\nb: 2"), contains("a: 1\nb: 2\n"));
+    }
+
+    @Test
+    public void testDocumentStartMarkers() {
+        errors.checkThat(split("a: 1\n--- b\n---\nc: 3\n"),
+                         contains("a: 1\n", "--- b\n", "---\nc: 3\n"));
+        errors.checkThat(split("---\n---\n"), contains("---\n", "---\n"));
+    }
+
+    @Test
+    public void testDocumentEndMarkers() {
+        errors.checkThat(split("a\n...\n%YAML 1.1\n--- b\n...\n...\n"),
+                         contains("a\n...\n", "%YAML 1.1\n--- b\n...\n"));
+    }
+
+    @Test
+    public void testMarkerLikeContent() {
+        errors.checkThat(split("a: ---\n---b: 1\n  --- c\n"),
+                         contains("a: ---\n---b: 1\n  --- c\n"));
+    }
+
+    @Test
+    public void testCommentsBeforeStart() {
+        errors.checkThat(split("# comment\n--- a\n# comment\n--- b\n"),
+                         contains("# comment\n--- a\n# comment\n", "--- b\n"));
+    }
+
+    @Test
+    public void testEquivalentToSequentialLoading() {
+        checkEquivalent("a: 1\n--- [1, 2]\n---\nb: |\n  ---x\n...\n"
+                        + "%YAML 1.1\n--- !!str 3\n---\n--- {a: &a [1], b: *a}\n");
+        checkEquivalent("---\n---\n");
+        checkEquivalent("--- >\n  folded\n  text\n--- \"quoted\n  string\"\n");
+    }
+
+    @Test
+    public void testUnicodeLineBreaks() {
+        errors.checkThat(split("a: 1\u0085---\u0085b: 2\n"),
+                         contains("a: 1\n", "---\nb: 2\n"));
+        errors.checkThat(split("a: 1\u2028--- b\u2029"),
+                         contains("a: 1\u2028", "--- b\u2029"));
+        checkEquivalent("a: 1\u0085---\u0085b: 2\n");
+        checkEquivalent("a: 1\u2028--- b\u2029--- |\u2028  c\u2028  d\n");
+        checkEquivalent("a\r\n...\u0085--- b\r");
+    }
+
+    @Test
+    public void testInvalidDocumentEndMarkers() {
+        errors.checkThat(split("a\n...\nb\n"), contains("a\n...\n", "...\nb\n"));
+        errors.checkThat(split("# c\n...\n--- a\n"),
+                         contains("# c\n...\n", "--- a\n"));
+        for (String yaml : new String[] { "a\n...\nb\n", "...\n",
+                                          "# c\n...\n", "a\n...\n# c\nb\n" }) {
+            checkFailsLikeSequentialLoading(yaml);
+        }
+    }
+
+    private void checkFailsLikeSequentialLoading(String yaml) {
+        Yaml loader = new Yaml();
+        try {
+            ImmutableList.copyOf(loader.loadAll(yaml));
+            errors.addError(new AssertionError("no error loading " + yaml));
+        } catch (ParserException ex) {
+            // expected
+        }
+        try {
+            for (String document : split(yaml)) {
+                ImmutableList.copyOf(loader.loadAll(document));
+            }
+            errors.addError(new AssertionError("no error loading split " + yaml));
+        } catch (ParserException ex) {
+            // expected
+        }
+    }
+}
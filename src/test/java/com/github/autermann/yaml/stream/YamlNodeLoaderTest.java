@@ -0,0 +1,151 @@
+/*
+ * Copyright 2013-2015 Christian Autermann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.autermann.yaml.stream;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+
+import java.io.StringReader;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ErrorCollector;
+import org.junit.rules.ExpectedException;
+import org.yaml.snakeyaml.DumperOptions;
+import org.yaml.snakeyaml.LoaderOptions;
+import org.yaml.snakeyaml.error.YAMLException;
+
+import com.github.autermann.yaml.DefaultYamlNodeFactory;
+import com.github.autermann.yaml.Yaml;
+import com.github.autermann.yaml.YamlNode;
+import com.github.autermann.yaml.YamlNodeFactory;
+
+/**
+ * Tests for {@link YamlNodeLoader}.
+ *
+ * @author Christian Autermann
+ */
+public class YamlNodeLoaderTest {
+    public final DefaultYamlNodeFactory factory = YamlNodeFactory
+            .createDefault();
+
+    @Rule
+    public final ErrorCollector errors = new ErrorCollector();
+
+    @Rule
+    public final ExpectedException thrown = ExpectedException.none();
+
+    private final Yaml yaml = new Yaml();
+
+    private final YamlNodeLoader loader = new YamlNodeLoader();
+
+    @Test
+    public void testSameAsComposer() {
+        String[] documents = {
+            "a: 1\nb: [x, 2.5, true, ~]\nc: {d: e}\n",
+            "- !!omap {b: 1, a: 2}\n- !!pairs {x: 1, x: 2}\n- !!set {a, b}\n",
+            "? [complex, key]\n: value\n? {a: b}\n: c\n",
+            "bin: !!binary AQID\ntime: 2014-01-02T03:04:05.006Z\n",
+            "int: !!int '12'\nstr: !!str 12\nhex: 0xFF\nbig: 123456789012345678901234567890\n",
+            "a: &a {x: [1, 2]}\nb: *a\nc: &c text\nd: *c\n",
+            "plain\n",
+            "[]\n",
+        };
+        for (String document : documents) {
+            errors.checkThat(document, loader.load(document),
+                             is(yaml.load(document)));
+        }
+    }
+
+    @Test
+    public void testAliasesAreSameInstance() {
+        YamlNode node = loader.load("a: &a {value: 1}\nb: *a\nc: [&s [1], *s]");
+        errors.checkThat(node.path("a"), is(sameInstance(node.path("b"))));
+        errors.checkThat(node.path("c").path(0),
+                         is(sameInstance(node.path("c").path(1))));
+    }
+
+    @Test
+    public void testRedefinedAnchor() {
+        YamlNode node = loader.load("- &a 1\n- *a\n- &a 2\n- *a\n");
+        errors.checkThat(node.path(1).intValue(), is(1));
+        errors.checkThat(node.path(3).intValue(), is(2));
+    }
+
+    @Test(expected = YAMLException.class)
+    public void testRecursiveAlias() {
+        loader.load("a: &a {value: *a}");
+    }
+
+    @Test(expected = YAMLException.class)
+    public void testUndefinedAlias() {
+        loader.load("a: *b");
+    }
+
+    @Test(expected = YAMLException.class)
+    public void testUnknownCollectionTag() {
+        loader.load("!foo {a: 1}");
+    }
+
+    @Test(expected = YAMLException.class)
+    public void testMultipleDocuments() {
+        loader.load("--- 1\n--- 2\n");
+    }
+
+    @Test
+    public void testDocuments() {
+        errors.checkThat(loader.load(""), is(nullValue()));
+        errors.checkThat(loader.loadAll("--- 1\n--- [2]\n--- a\n"),
+                         contains(factory.byteNode((byte) 1),
+                                  factory.sequenceNode().add((byte) 2),
+                                  factory.textNode("a")));
+        errors.checkThat(loader.loadStream("--- 1\n--- 2\n").count(), is(2L));
+    }
+
+    @Test
+    public void testReadNode() {
+        YamlReader reader = new YamlReader(new StringReader("{a: {b: [1]}, c: 2}"));
+        reader.next();
+        reader.next();
+        reader.next();
+        errors.checkThat(reader.next(), is(YamlToken.START_MAPPING));
+        errors.checkThat(loader.readNode(reader),
+                         is(factory.mapNode().put("b", factory.sequenceNode().add((byte) 1))));
+        errors.checkThat(reader.getToken(), is(YamlToken.END_MAPPING));
+        errors.checkThat(reader.next(), is(YamlToken.KEY));
+        errors.checkThat(reader.getText(), is("c"));
+    }
+
+    @Test
+    public void testStreamLongerThanDefaultCodePointLimit() {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < 600000; ++i) {
+            builder.append("--- ").append(i).append('\n');
+        }
+        String yaml = builder.toString();
+        errors.checkThat(yaml.length() > new LoaderOptions().getCodePointLimit(),
+                         is(true));
+        errors.checkThat(loader.loadStream(yaml).count(), is(600000L));
+        LoaderOptions options = new LoaderOptions();
+        options.setCodePointLimit(1000);
+        YamlNodeLoader limited = new YamlNodeLoader(
+                new DumperOptions(), factory, options);
+        thrown.expect(YAMLException.class);
+        limited.loadStream(yaml).count();
+    }
+}
@@ -0,0 +1,178 @@
+/*
+ * Copyright 2013-2015 Christian Autermann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.autermann.yaml.stream;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.math.BigInteger;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ErrorCollector;
+import org.yaml.snakeyaml.LoaderOptions;
+import org.yaml.snakeyaml.error.YAMLException;
+import org.yaml.snakeyaml.nodes.Tag;
+
+import com.github.autermann.yaml.DefaultYamlNodeFactory;
+import com.github.autermann.yaml.YamlNodeFactory;
+
+/**
+ * Tests for {@link YamlReader}.
+ *
+ * @author Christian Autermann
+ */
+public class YamlReaderTest {
+    public final DefaultYamlNodeFactory factory = YamlNodeFactory
+            .createDefault();
+
+    @Rule
+    public final ErrorCollector errors = new ErrorCollector();
+
+    @Test
+    public void testTokens() throws IOException {
+        String yaml = "a: 1\nb: [x, &y 2.5]\nc: *y\n";
+        try (YamlReader reader = new YamlReader(new StringReader(yaml))) {
+            errors.checkThat(reader.next(), is(YamlToken.START_DOCUMENT));
+            errors.checkThat(reader.next(), is(YamlToken.START_MAPPING));
+            errors.checkThat(reader.getDepth(), is(0));
+            errors.checkThat(reader.getTag(), is(Tag.MAP));
+            errors.checkThat(reader.next(), is(YamlToken.KEY));
+            errors.checkThat(reader.getText(), is("a"));
+            errors.checkThat(reader.next(), is(YamlToken.SCALAR));
+            errors.checkThat(reader.getTag(), is(Tag.INT));
+            errors.checkThat(reader.asLongValue(), is(1L));
+            errors.checkThat(reader.next(), is(YamlToken.KEY));
+            errors.checkThat(reader.next(), is(YamlToken.START_SEQUENCE));
+            errors.checkThat(reader.getDepth(), is(1));
+            errors.checkThat(reader.next(), is(YamlToken.SCALAR));
+            errors.checkThat(reader.getDepth(), is(2));
+            errors.checkThat(reader.asTextValue(), is("x"));
+            errors.checkThat(reader.next(), is(YamlToken.SCALAR));
+            errors.checkThat(reader.getAnchor(), is("y"));
+            errors.checkThat(reader.asDoubleValue(), is(2.5));
+            errors.checkThat(reader.next(), is(YamlToken.END_SEQUENCE));
+            errors.checkThat(reader.next(), is(YamlToken.KEY));
+            errors.checkThat(reader.getText(), is("c"));
+            errors.checkThat(reader.next(), is(YamlToken.ALIAS));
+            errors.checkThat(reader.getText(), is("y"));
+            errors.checkThat(reader.getAnchor(), is(nullValue()));
+            errors.checkThat(reader.next(), is(YamlToken.END_MAPPING));
+            errors.checkThat(reader.next(), is(YamlToken.END_DOCUMENT));
+            errors.checkThat(reader.hasNext(), is(false));
+        }
+    }
+
+    @Test
+    public void testScalarConversion() throws IOException {
+        String yaml = "- 0x1F\n- !!str 12\n- 123456789012345678901234567890\n"
+                      + "- true\n- ~\n- !!binary AQID\n";
+        try (YamlReader reader = new YamlReader(new StringReader(yaml))) {
+            reader.next();
+            reader.next();
+            reader.next();
+            errors.checkThat(reader.getScalar(), is(factory.byteNode((byte) 31)));
+            reader.next();
+            errors.checkThat(reader.getScalar(), is(factory.textNode("12")));
+            reader.next();
+            errors.checkThat(reader.asBigIntegerValue(),
+                             is(new BigInteger("123456789012345678901234567890")));
+            reader.next();
+            errors.checkThat(reader.asBooleanValue(), is(true));
+            reader.next();
+            errors.checkThat(reader.getScalar(), is(factory.nullNode()));
+            reader.next();
+            errors.checkThat(reader.asBinaryValue(), is(new byte[] { 1, 2, 3 }));
+        }
+    }
+
+    @Test
+    public void testComplexKeys() throws IOException {
+        String yaml = "? [a, b]\n: c\n";
+        try (YamlReader reader = new YamlReader(new StringReader(yaml))) {
+            reader.next();
+            reader.next();
+            errors.checkThat(reader.next(), is(YamlToken.START_SEQUENCE));
+            errors.checkThat(reader.isKey(), is(true));
+            errors.checkThat(reader.next(), is(YamlToken.SCALAR));
+            errors.checkThat(reader.isKey(), is(false));
+            errors.checkThat(reader.next(), is(YamlToken.SCALAR));
+            errors.checkThat(reader.next(), is(YamlToken.END_SEQUENCE));
+            errors.checkThat(reader.isKey(), is(true));
+            errors.checkThat(reader.next(), is(YamlToken.SCALAR));
+            errors.checkThat(reader.getText(), is("c"));
+        }
+    }
+
+    @Test
+    public void testSkipChildren() throws IOException {
+        String yaml = "--- {a: [1, {b: 2}], c: 3}\n--- [4]\n";
+        try (YamlReader reader = new YamlReader(new StringReader(yaml))) {
+            reader.next();
+            reader.next();
+            reader.next();
+            errors.checkThat(reader.next(), is(YamlToken.START_SEQUENCE));
+            errors.checkThat(reader.skipChildren(), is(YamlToken.END_SEQUENCE));
+            errors.checkThat(reader.next(), is(YamlToken.KEY));
+            errors.checkThat(reader.getText(), is("c"));
+            errors.checkThat(reader.next(), is(YamlToken.SCALAR));
+            errors.checkThat(reader.next(), is(YamlToken.END_MAPPING));
+            errors.checkThat(reader.next(), is(YamlToken.END_DOCUMENT));
+            errors.checkThat(reader.next(), is(YamlToken.START_DOCUMENT));
+            errors.checkThat(reader.next(), is(YamlToken.START_SEQUENCE));
+            errors.checkThat(reader.next(), is(YamlToken.SCALAR));
+            errors.checkThat(reader.asIntValue(), is(4));
+        }
+    }
+
+    @Test
+    public void testStreamLongerThanDefaultCodePointLimit() throws IOException {
+        StringBuilder builder = new StringBuilder("[");
+        for (int i = 0; i < 600000; ++i) {
+            builder.append(i).append(", ");
+        }
+        String yaml = builder.append("x]\n").toString();
+        errors.checkThat(yaml.length() > new LoaderOptions().getCodePointLimit(),
+                         is(true));
+        long scalars = 0;
+        try (YamlReader reader = new YamlReader(new StringReader(yaml))) {
+            while (reader.hasNext()) {
+                if (reader.next() == YamlToken.SCALAR) {
+                    ++scalars;
+                }
+            }
+        }
+        errors.checkThat(scalars, is(600001L));
+    }
+
+    @Test(expected = YAMLException.class)
+    public void testCodePointLimit() throws IOException {
+        LoaderOptions options = new LoaderOptions();
+        options.setCodePointLimit(100);
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < 100; ++i) {
+            builder.append("--- ").append(i).append('\n');
+        }
+        try (YamlReader reader = new YamlReader(
+                new StringReader(builder.toString()), factory, options)) {
+            while (reader.hasNext()) {
+                reader.next();
+            }
+        }
+    }
+}
@@ -0,0 +1,181 @@
+/*
+ * Copyright 2013-2015 Christian Autermann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.autermann.yaml.stream;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Random;
+
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ErrorCollector;
+import org.yaml.snakeyaml.DumperOptions;
+import org.yaml.snakeyaml.DumperOptions.FlowStyle;
+
+import com.github.autermann.yaml.DefaultYamlNodeFactory;
+import com.github.autermann.yaml.Yaml;
+import com.github.autermann.yaml.YamlNode;
+import com.github.autermann.yaml.YamlNodeFactory;
+
+/**
+ * Tests for {@link YamlWriter}.
+ *
+ * @author Christian Autermann
+ */
+public class YamlWriterTest {
+    public final DefaultYamlNodeFactory factory = YamlNodeFactory
+            .createDefault();
+
+    @Rule
+    public final ErrorCollector errors = new ErrorCollector();
+
+    private final Yaml yaml = new Yaml();
+
+    @Test
+    public void testGenerator() throws IOException {
+        DateTime time = new DateTime(2014, 1, 2, 3, 4, 5, 6, DateTimeZone.UTC);
+        StringWriter out = new StringWriter();
+        try (YamlWriter writer = new YamlWriter(out)) {
+            writer.writeStartMap();
+            writer.writeKey("int");
+            writer.writeInt(42);
+            writer.writeKey("long");
+            writer.writeLong(Long.MAX_VALUE);
+            writer.writeKey("big");
+            writer.writeBigInteger(BigInteger.TEN.pow(30));
+            writer.writeKey("double");
+            writer.writeDouble(Double.NEGATIVE_INFINITY);
+            writer.writeKey("decimal");
+            writer.writeBigDecimal(new BigDecimal("1.5"));
+            writer.writeKey("text");
+            writer.writeString("a\nb");
+            writer.writeKey("numeric text");
+            writer.writeString("42");
+            writer.writeKey("binary");
+            writer.writeBinary(new byte[] { 1, 2, 3 });
+            writer.writeKey("time");
+            writer.writeTime(time);
+            writer.writeKey("null");
+            writer.writeNull();
+            writer.writeKey("seq");
+            writer.writeStartSequence();
+            writer.writeBoolean(true);
+            writer.writeStartSet();
+            writer.writeString("x");
+            writer.writeEndSequence();
+            writer.writeEndSequence();
+            writer.writeEndMap();
+        }
+        YamlNode expected = factory.mapNode()
+                .put("int", (byte) 42)
+                .put("long", Long.MAX_VALUE)
+                .put("big", BigInteger.TEN.pow(30))
+                .put("double", Double.NEGATIVE_INFINITY)
+                .put("decimal", new BigDecimal("1.5"))
+                .put("text", "a\nb")
+                .put("numeric text", "42")
+                .put("binary", new byte[] { 1, 2, 3 })
+                .put("time", time)
+                .put("null", factory.nullNode())
+                .put("seq", factory.sequenceNode()
+                     .add(true)
+                     .add(factory.setNode().add("x")));
+        errors.checkThat(yaml.load(out.toString()),
+                         is(yaml.load(yaml.dump(expected))));
+    }
+
+    @Test
+    public void testWriteNode() throws IOException {
+        YamlNode node = factory.mapNode()
+                .put("omap", factory.orderedMapNode().put("b", 1).put("a", 2))
+                .put("pairs", factory.pairsNode().put("x", 1).put("x", 2))
+                .put("set", factory.setNode().add("a").add(factory.sequenceNode().add(1)))
+                .put(factory.sequenceNode().add("complex"), "key")
+                .put("float", 1.5f)
+                .put("time", new DateTime(0, DateTimeZone.UTC));
+        StringWriter out = new StringWriter();
+        try (YamlWriter writer = new YamlWriter(out)) {
+            writer.writeNode(node);
+        }
+        errors.checkThat(yaml.load(out.toString()),
+                         is(yaml.load(yaml.dump(node))));
+        errors.checkThat(yaml.load(out.toString()).get("omap").isOrderedMap(), is(true));
+        errors.checkThat(yaml.load(out.toString()).get("pairs").isPairs(), is(true));
+        errors.checkThat(yaml.load(out.toString()).get("set").isSet(), is(true));
+    }
+
+    @Test
+    public void testDocuments() throws IOException {
+        DumperOptions options = new DumperOptions();
+        options.setDefaultFlowStyle(FlowStyle.FLOW);
+        StringWriter out = new StringWriter();
+        try (YamlWriter writer = new YamlWriter(out, options)) {
+            writer.writeInt(1);
+            writer.writeStartDocument();
+            writer.writeStartSequence();
+            writer.writeInt(2);
+            writer.writeEndSequence();
+            writer.writeEndDocument();
+            writer.writeString("3");
+        }
+        errors.checkThat(yaml.loadAll(out.toString()),
+                         contains(factory.byteNode((byte) 1),
+                                  factory.sequenceNode().add((byte) 2),
+                                  factory.textNode("3")));
+        errors.checkThat(out.toString(), is("1\n--- [2]\n--- '3'\n"));
+    }
+
+    @Test
+    public void testWriteBinaryStream() throws IOException {
+        byte[] bytes = new byte[10000];
+        new Random(42).nextBytes(bytes);
+        StringWriter fromArray = new StringWriter();
+        try (YamlWriter writer = new YamlWriter(fromArray)) {
+            writer.writeBinary(bytes);
+        }
+        StringWriter fromStream = new StringWriter();
+        try (YamlWriter writer = new YamlWriter(fromStream)) {
+            writer.writeBinary(new ByteArrayInputStream(bytes));
+        }
+        errors.checkThat(fromStream.toString(), is(fromArray.toString()));
+        errors.checkThat(yaml.load(fromStream.toString()).binaryValue(),
+                         is(bytes));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testKeyOutsideOfMapping() throws IOException {
+        try (YamlWriter writer = new YamlWriter(new StringWriter())) {
+            writer.writeStartSequence();
+            writer.writeKey("a");
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testDanglingKey() throws IOException {
+        YamlWriter writer = new YamlWriter(new StringWriter());
+        writer.writeStartMap();
+        writer.writeKey("a");
+        writer.writeEndMap();
+    }
+}
@@ -0,0 +1,210 @@
+/*
+ * Copyright 2013-2015 Christian Autermann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.autermann.yaml.util;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Random;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ErrorCollector;
+import org.junit.rules.ExpectedException;
+
+/**
+ * Tests for {@link CompactMap}.
+ *
+ * @author Christian Autermann
+ */
+public class CompactMapTest {
+    @Rule
+    public final ErrorCollector errors = new ErrorCollector();
+
+    @Rule
+    public final ExpectedException thrown = ExpectedException.none();
+
+    @Test
+    public void testInsertionOrder() {
+        Map<String, Integer> map = new CompactMap<>();
+        map.put("c", 1);
+        map.put("a", 2);
+        map.put("b", 3);
+        map.put("a", 4);
+        errors.checkThat(map.keySet(), contains("c", "a", "b"));
+        errors.checkThat(map.values(), contains(1, 4, 3));
+        errors.checkThat(map.get("a"), is(4));
+        errors.checkThat(map.get("d"), is(nullValue()));
+    }
+
+    @Test
+    public void testNullKeyAndValue() {
+        Map<String, Integer> map = new CompactMap<>();
+        map.put(null, null);
+        errors.checkThat(map.containsKey(null), is(true));
+        errors.checkThat(map.get(null), is(nullValue()));
+        errors.checkThat(map.size(), is(1));
+    }
+
+    @Test
+    public void testCollidingHashes() {
+        Map<Collider, Integer> map = new CompactMap<>();
+        Map<Collider, Integer> expected = new LinkedHashMap<>();
+        for (int i = 0; i < 100; ++i) {
+            map.put(new Collider(i), i);
+            expected.put(new Collider(i), i);
+        }
+        errors.checkThat(map, is(equalTo(expected)));
+        for (int i = 0; i < 100; i += 2) {
+            map.remove(new Collider(i));
+            expected.remove(new Collider(i));
+        }
+        errors.checkThat(map, is(equalTo(expected)));
+        errors.checkThat(new ArrayList<>(map.keySet()), is(equalTo(new ArrayList<>(expected.keySet()))));
+    }
+
+    @Test
+    public void testAgainstLinkedHashMap() {
+        Random random = new Random(42);
+        Map<Integer, Integer> map = new CompactMap<>();
+        Map<Integer, Integer> expected = new LinkedHashMap<>();
+        for (int i = 0; i < 20000; ++i) {
+            Integer key = random.nextInt(64);
+            switch (random.nextInt(4)) {
+                case 0:
+                    errors.checkThat(map.remove(key), is(expected.remove(key)));
+                    break;
+                case 1:
+                    errors.checkThat(map.get(key), is(expected.get(key)));
+                    break;
+                default:
+                    errors.checkThat(map.put(key, i), is(expected.put(key, i)));
+            }
+            if (random.nextInt(5000) == 0) {
+                map.clear();
+                expected.clear();
+            }
+        }
+        errors.checkThat(map, is(equalTo(expected)));
+        errors.checkThat(map.hashCode(), is(expected.hashCode()));
+        errors.checkThat(new ArrayList<>(map.entrySet()), is(equalTo(new ArrayList<>(expected.entrySet()))));
+    }
+
+    @Test
+    public void testIteratorRemove() {
+        Map<Integer, Integer> map = new CompactMap<>();
+        for (int i = 0; i < 20; ++i) {
+            map.put(i, i);
+        }
+        Iterator<Entry<Integer, Integer>> iter = map.entrySet().iterator();
+        while (iter.hasNext()) {
+            if (iter.next().getKey() % 2 == 0) {
+                iter.remove();
+            }
+        }
+        errors.checkThat(map.size(), is(10));
+        errors.checkThat(map.keySet(), contains(1, 3, 5, 7, 9, 11, 13, 15, 17, 19));
+        errors.checkThat(map.get(19), is(19));
+        errors.checkThat(map.containsKey(18), is(false));
+    }
+
+    @Test
+    public void testReserve() {
+        CompactMap<Integer, Integer> map = new CompactMap<>();
+        Map<Integer, Integer> expected = new LinkedHashMap<>();
+        for (int i = 0; i < 3; ++i) {
+            map.put(i, i);
+            expected.put(i, i);
+        }
+        map.reserve(100);
+        errors.checkThat(map, is(equalTo(expected)));
+        for (int i = 3; i < 50; ++i) {
+            map.put(i, i);
+            expected.put(i, i);
+        }
+        map.reserve(20);
+        map.reserve(200);
+        for (int i = 50; i < 200; ++i) {
+            map.put(i, i);
+            expected.put(i, i);
+        }
+        errors.checkThat(map, is(equalTo(expected)));
+        errors.checkThat(map.get(199), is(199));
+        errors.checkThat(map.containsKey(200), is(false));
+        errors.checkThat(new ArrayList<>(map.keySet()), is(equalTo(new ArrayList<>(expected.keySet()))));
+    }
+
+    @Test
+    public void testPresized() {
+        Map<Integer, Integer> map = new CompactMap<>(0);
+        Map<Integer, Integer> presized = new CompactMap<>(100);
+        for (int i = 0; i < 100; ++i) {
+            map.put(i, i);
+            presized.put(i, i);
+        }
+        errors.checkThat(presized, is(equalTo(map)));
+        errors.checkThat(presized.get(42), is(42));
+    }
+
+    @Test
+    public void testEntrySetValue() {
+        Map<String, Integer> map = new CompactMap<>();
+        map.put("a", 1);
+        map.entrySet().iterator().next().setValue(2);
+        errors.checkThat(map.get("a"), is(2));
+    }
+
+    @Test
+    public void testConcurrentModification() {
+        Map<Integer, Integer> map = new CompactMap<>();
+        map.put(1, 1);
+        map.put(2, 2);
+        Iterator<Integer> iter = map.keySet().iterator();
+        iter.next();
+        map.put(3, 3);
+        thrown.expect(ConcurrentModificationException.class);
+        iter.next();
+    }
+
+    /**
+     * Key with a constant hash code.
+     */
+    private static final class Collider {
+        private final int value;
+
+        Collider(int value) {
+            this.value = value;
+        }
+
+        @Override
+        public int hashCode() {
+            return 7;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Collider && ((Collider) o).value == value;
+        }
+    }
+}
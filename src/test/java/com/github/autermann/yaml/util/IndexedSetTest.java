@@ -0,0 +1,129 @@
+/*
+ * Copyright 2013-2015 Christian Autermann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.autermann.yaml.util;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ErrorCollector;
+import org.junit.rules.ExpectedException;
+
+/**
+ * Tests for {@link IndexedSet}.
+ *
+ * @author Christian Autermann
+ */
+public class IndexedSetTest {
+    @Rule
+    public final ErrorCollector errors = new ErrorCollector();
+
+    @Rule
+    public final ExpectedException thrown = ExpectedException.none();
+
+    private IndexedSet<String> create(String... elements) {
+        IndexedSet<String> set = new IndexedSet<>();
+        for (String element : elements) {
+            set.add(element);
+        }
+        return set;
+    }
+
+    @Test
+    public void testRemoveKeepsOrder() {
+        IndexedSet<String> set = create("a", "b", "c", "d");
+        errors.checkThat(set.remove("b"), is(true));
+        errors.checkThat(set.remove("b"), is(false));
+        errors.checkThat(set.size(), is(3));
+        errors.checkThat(set.contains("b"), is(false));
+        errors.checkThat(set, contains("a", "c", "d"));
+        errors.checkThat(set.get(1), is("c"));
+        set.add("b");
+        errors.checkThat(set, contains("a", "c", "d", "b"));
+        errors.checkThat(set.get(3), is("b"));
+        errors.checkThat(set.stream().collect(Collectors.toList()),
+                         contains("a", "c", "d", "b"));
+    }
+
+    @Test
+    public void testRemoveAll() {
+        int size = 100000;
+        IndexedSet<Integer> set = new IndexedSet<>(size);
+        for (int i = 0; i < size; ++i) {
+            set.add(i);
+        }
+        for (int i = 0; i < size; ++i) {
+            set.remove(i);
+        }
+        errors.checkThat(set.isEmpty(), is(true));
+        set.add(1);
+        errors.checkThat(set.get(0), is(1));
+    }
+
+    @Test
+    public void testIteratorRemove() {
+        IndexedSet<String> set = create("a", "b", "c");
+        Iterator<String> iter = set.iterator();
+        while (iter.hasNext()) {
+            if (!iter.next().equals("c")) {
+                iter.remove();
+            }
+        }
+        errors.checkThat(set, contains("c"));
+        errors.checkThat(set.get(0), is("c"));
+    }
+
+    @Test
+    public void testConcurrentModification() {
+        IndexedSet<String> set = create("a", "b");
+        Iterator<String> iter = set.iterator();
+        iter.next();
+        set.add("c");
+        thrown.expect(ConcurrentModificationException.class);
+        iter.next();
+    }
+
+    @Test
+    public void testPositionalReadWhileIterating() {
+        IndexedSet<String> set = create("a", "b", "c", "d", "e");
+        set.remove("b");
+        List<String> iterated = new ArrayList<>();
+        for (String element : set) {
+            iterated.add(element);
+            if (element.equals("c")) {
+                errors.checkThat(set.get(0), is("a"));
+            }
+        }
+        errors.checkThat(iterated, contains("a", "c", "d", "e"));
+
+        set.remove("d");
+        Iterator<String> iter = set.iterator();
+        iter.next();
+        iter.next();
+        errors.checkThat(set.get(1), is("c"));
+        iter.remove();
+        errors.checkThat(iter.next(), is("e"));
+        errors.checkThat(iter.hasNext(), is(false));
+        errors.checkThat(set, contains("a", "e"));
+    }
+}
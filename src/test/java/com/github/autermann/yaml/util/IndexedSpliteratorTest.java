@@ -0,0 +1,123 @@
+/*
+ * Copyright 2013-2015 Christian Autermann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.autermann.yaml.util;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ErrorCollector;
+import org.junit.rules.ExpectedException;
+
+/**
+ * Tests for {@link IndexedSpliterator}.
+ *
+ * @author Christian Autermann
+ */
+public class IndexedSpliteratorTest {
+    @Rule
+    public final ErrorCollector errors = new ErrorCollector();
+    @Rule
+    public final ExpectedException thrown = ExpectedException.none();
+
+    private Spliterator<Integer> create(int size) {
+        return new IndexedSpliterator<>(Integer::valueOf, 0, size,
+                                        Spliterator.ORDERED);
+    }
+
+    @Test
+    public void testCharacteristics() {
+        Spliterator<Integer> spliterator = create(10);
+        errors.checkThat(spliterator.hasCharacteristics(Spliterator.SIZED),
+                         is(true));
+        errors.checkThat(spliterator.hasCharacteristics(Spliterator.SUBSIZED),
+                         is(true));
+        errors.checkThat(spliterator.hasCharacteristics(Spliterator.ORDERED),
+                         is(true));
+        errors.checkThat(spliterator.getExactSizeIfKnown(), is(10L));
+    }
+
+    @Test
+    public void testBalancedSplit() {
+        Spliterator<Integer> suffix = create(11);
+        Spliterator<Integer> prefix = suffix.trySplit();
+        errors.checkThat(prefix, is(notNullValue()));
+        errors.checkThat(prefix.estimateSize(), is(5L));
+        errors.checkThat(suffix.estimateSize(), is(6L));
+        List<Integer> elements = new ArrayList<>();
+        prefix.forEachRemaining(elements::add);
+        suffix.forEachRemaining(elements::add);
+        errors.checkThat(elements, contains(0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10));
+    }
+
+    @Test
+    public void testSplitSingleElement() {
+        Spliterator<Integer> spliterator = create(1);
+        errors.checkThat(spliterator.trySplit(), is(nullValue()));
+        errors.checkThat(spliterator.tryAdvance(i -> {}), is(true));
+        errors.checkThat(spliterator.tryAdvance(i -> {}), is(false));
+        errors.checkThat(spliterator.estimateSize(), is(0L));
+    }
+
+    @Test
+    public void testParallelStream() {
+        int size = 100000;
+        List<Integer> elements = StreamSupport.stream(create(size), true)
+                .collect(Collectors.toList());
+        errors.checkThat(elements, is(IntStream.range(0, size).boxed()
+                .collect(Collectors.toList())));
+    }
+
+    @Test
+    public void testLateBinding() {
+        List<Integer> source = new ArrayList<>(Arrays.asList(0, 1, 2));
+        int[] modCount = { 0 };
+        Spliterator<Integer> spliterator = new IndexedSpliterator<>(
+                source::get, source::size, () -> modCount[0],
+                Spliterator.ORDERED);
+        source.add(3);
+        ++modCount[0];
+        List<Integer> elements = new ArrayList<>();
+        spliterator.forEachRemaining(elements::add);
+        errors.checkThat(elements, contains(0, 1, 2, 3));
+    }
+
+    @Test
+    public void testConcurrentModification() {
+        List<Integer> source = new ArrayList<>(Arrays.asList(0, 1, 2));
+        int[] modCount = { 0 };
+        Spliterator<Integer> spliterator = new IndexedSpliterator<>(
+                source::get, source::size, () -> modCount[0],
+                Spliterator.ORDERED);
+        spliterator.tryAdvance(i -> {});
+        source.remove(2);
+        ++modCount[0];
+        thrown.expect(ConcurrentModificationException.class);
+        spliterator.tryAdvance(i -> {});
+    }
+}